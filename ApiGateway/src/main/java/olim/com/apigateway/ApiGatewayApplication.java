@@ -1,11 +1,14 @@
 package olim.com.apigateway;
 
+import olim.com.apigateway.loadbalancer.PeakEwmaLoadBalancerConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class) // All lb:// routes
 public class ApiGatewayApplication {
 
 	public static void main(String[] args) {
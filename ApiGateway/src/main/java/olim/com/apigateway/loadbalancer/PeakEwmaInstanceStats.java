@@ -0,0 +1,202 @@
+package olim.com.apigateway.loadbalancer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Peak-EWMA Instance Stats
+ *
+ * Per-instance latency and in-flight request counts for the Peak-EWMA load balancer, fed by
+ * the load balancer lifecycle (start / completion of every load-balanced request).
+ *
+ * Latency is a peak-sensitive moving average: a sample above the average replaces it at once,
+ * lower samples pull it down with a time-based decay. Failures count as a large latency sample,
+ * so a slow or dying instance loses traffic within a few requests instead of waiting for
+ * Eureka to expire it. Stats and gauges of instances that left the service's instance list are
+ * dropped once they have nothing in flight.
+ *
+ * The same classes live in OrderService (olim.com.orderservice.loadbalancer): the services share no
+ * library module - like the DTOs they mirror from each other - so keep both copies identical.
+ */
+@Component
+public class PeakEwmaInstanceStats implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${bytebites.loadbalancer.decay-ms:10000}")
+    private long decayMs;
+
+    @Value("${bytebites.loadbalancer.default-latency-ms:50}")
+    private long defaultLatencyMs;
+
+    @Value("${bytebites.loadbalancer.failure-penalty-ms:1000}")
+    private long failurePenaltyMs;
+
+    @Value("${bytebites.loadbalancer.prune-interval-ms:30000}")
+    private long pruneIntervalMs;
+
+    private final ConcurrentHashMap<String, InstanceStats> instances = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> prunedAt = new ConcurrentHashMap<>(); // serviceId → nanoTime
+
+    // Time source for start stamps and decay - replaced in tests
+    private LongSupplier clock = System::nanoTime;
+
+    /**
+     * Expected cost of sending one more request to the instance (latency × (in-flight + 1))
+     */
+    public double getLoad(ServiceInstance instance) {
+        return statsFor(instance).getLoad();
+    }
+
+    /**
+     * Forget instances of the service that are no longer in its instance list (at most once per prune interval)
+     */
+    public void retainInstances(String serviceId, List<ServiceInstance> current) {
+        long now = clock.getAsLong();
+        Long last = prunedAt.get(serviceId);
+        if (last != null && now - last < TimeUnit.MILLISECONDS.toNanos(pruneIntervalMs)) {
+            return;
+        }
+        prunedAt.put(serviceId, now);
+
+        Set<String> keys = current.stream().map(PeakEwmaInstanceStats::keyOf).collect(Collectors.toSet());
+        instances.forEach((key, stats) -> {
+            if (stats.serviceId.equals(serviceId) && !keys.contains(key) && stats.inFlight.get() == 0
+                    && instances.remove(key, stats)) {
+                stats.meters.forEach(meterRegistry::remove);
+            }
+        });
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+        // Nothing to do until an instance was chosen
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse.hasServer()) {
+            // Stamped here - the context's start time is otherwise only set when Micrometer load balancer stats are on
+            request.getContext().setRequestStartTime(clock.getAsLong());
+            statsFor(lbResponse.getServer()).inFlight.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()
+                || completionContext.status() == CompletionContext.Status.DISCARD) {
+            return; // No instance was called
+        }
+
+        InstanceStats stats = statsFor(lbResponse.getServer());
+        stats.inFlight.decrementAndGet();
+
+        ResponseData response = completionContext.getClientResponse();
+        boolean failed = completionContext.status() == CompletionContext.Status.FAILED
+                || (response != null && response.getHttpStatus() != null && response.getHttpStatus().is5xxServerError());
+        if (failed) {
+            stats.observe(TimeUnit.MILLISECONDS.toNanos(failurePenaltyMs));
+            return;
+        }
+
+        long startNanos = completionContext.getLoadBalancerRequest().getContext().getRequestStartTime();
+        if (startNanos > 0) {
+            stats.observe(clock.getAsLong() - startNanos);
+        }
+    }
+
+    private InstanceStats statsFor(ServiceInstance instance) {
+        String key = keyOf(instance);
+        InstanceStats stats = instances.get(key);
+        return stats != null ? stats : instances.computeIfAbsent(key, k -> register(instance, k));
+    }
+
+    private static String keyOf(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    private InstanceStats register(ServiceInstance instance, String key) {
+        InstanceStats stats = new InstanceStats(String.valueOf(instance.getServiceId()));
+        Tags tags = Tags.of("service", stats.serviceId, "instance", key);
+        stats.meters = List.of(
+                Gauge.builder("loadbalancer.instance.latency", stats, s -> s.getLatencyNanos() / 1_000_000.0)
+                        .description("Peak-EWMA latency in ms")
+                        .tags(tags)
+                        .register(meterRegistry),
+                Gauge.builder("loadbalancer.instance.in.flight", stats, s -> s.inFlight.get())
+                        .tags(tags)
+                        .register(meterRegistry),
+                Gauge.builder("loadbalancer.instance.score", stats, InstanceStats::getLoad)
+                        .description("Load balancing cost, lower is preferred")
+                        .tags(tags)
+                        .register(meterRegistry));
+        return stats;
+    }
+
+    /**
+     * Stats of one instance
+     */
+    private class InstanceStats {
+
+        private final String serviceId;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private List<Meter> meters = List.of();
+
+        // Guarded by this
+        private double latencyNanos;
+        private long updatedAtNanos;
+
+        InstanceStats(String serviceId) {
+            this.serviceId = serviceId;
+        }
+
+        synchronized void observe(long sampleNanos) {
+            long now = clock.getAsLong();
+            if (updatedAtNanos == 0 || sampleNanos > latencyNanos) {
+                latencyNanos = sampleNanos; // Peak - react to slowness immediately
+            } else {
+                double weight = Math.exp(-(double) (now - updatedAtNanos) / TimeUnit.MILLISECONDS.toNanos(decayMs));
+                latencyNanos = latencyNanos * weight + sampleNanos * (1 - weight);
+            }
+            updatedAtNanos = now;
+        }
+
+        synchronized double getLatencyNanos() {
+            return updatedAtNanos == 0 ? TimeUnit.MILLISECONDS.toNanos(defaultLatencyMs) : latencyNanos;
+        }
+
+        double getLoad() {
+            return getLatencyNanos() * (inFlight.get() + 1);
+        }
+    }
+}
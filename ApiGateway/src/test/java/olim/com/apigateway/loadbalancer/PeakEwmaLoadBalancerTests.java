@@ -0,0 +1,133 @@
+package olim.com.apigateway.loadbalancer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Peak-EWMA load balancing, driven through the load balancer lifecycle the way the gateway filter calls it
+ */
+class PeakEwmaLoadBalancerTests {
+
+    private static final String SERVICE_ID = "restaurant-service";
+
+    private final ServiceInstance fast1 = new DefaultServiceInstance("fast-1", SERVICE_ID, "10.0.0.1", 8080, false);
+    private final ServiceInstance fast2 = new DefaultServiceInstance("fast-2", SERVICE_ID, "10.0.0.2", 8080, false);
+    private final ServiceInstance slow = new DefaultServiceInstance("slow", SERVICE_ID, "10.0.0.3", 8080, false);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private long nowNanos = 1;
+    private PeakEwmaInstanceStats stats;
+
+    @BeforeEach
+    void setUp() {
+        stats = new PeakEwmaInstanceStats();
+        ReflectionTestUtils.setField(stats, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(stats, "decayMs", 10_000L);
+        ReflectionTestUtils.setField(stats, "defaultLatencyMs", 50L);
+        ReflectionTestUtils.setField(stats, "failurePenaltyMs", 1_000L);
+        ReflectionTestUtils.setField(stats, "pruneIntervalMs", 30_000L);
+        ReflectionTestUtils.setField(stats, "clock", (LongSupplier) () -> nowNanos);
+    }
+
+    @Test
+    void samplesLatencyOfSuccessfulRequests() {
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(50), stats.getLoad(slow)); // Assumed without samples
+
+        call(slow, 120);
+
+        // Measured from onStartRequest
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(120), stats.getLoad(slow));
+    }
+
+    @Test
+    void decaysTowardsLowerSamples() {
+        call(slow, 120);
+        advance(9_980); // The next sample completes one decay time constant (10 s) after the first
+        call(slow, 20);
+
+        double expected = 120 * Math.exp(-1) + 20 * (1 - Math.exp(-1));
+        assertEquals(expected, stats.getLoad(slow) / 1_000_000.0, 1e-6);
+    }
+
+    @Test
+    void slowInstanceLosesTraffic() {
+        for (int i = 0; i < 3; i++) {
+            call(fast1, 0);
+            call(fast2, 0);
+            call(slow, 40);
+        }
+
+        PeakEwmaLoadBalancer loadBalancer = new PeakEwmaLoadBalancer(
+                ServiceInstanceListSuppliers.toProvider(SERVICE_ID, fast1, fast2, slow), SERVICE_ID, stats);
+        Map<String, Integer> chosen = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            Response<ServiceInstance> response = loadBalancer.choose(new DefaultRequest<>()).block();
+            chosen.merge(response.getServer().getInstanceId(), 1, Integer::sum);
+        }
+
+        // Every pair of choices includes a fast instance when the slow one is drawn, and the fast one wins
+        assertEquals(0, chosen.getOrDefault("slow", 0));
+        assertTrue(chosen.getOrDefault("fast-1", 0) > 0 && chosen.getOrDefault("fast-2", 0) > 0);
+    }
+
+    @Test
+    void forgetsInstancesThatLeftTheService() {
+        call(fast1, 10);
+        call(slow, 40);
+        assertNotNull(meterRegistry.find("loadbalancer.instance.latency").tag("instance", "10.0.0.3:8080").gauge());
+
+        stats.retainInstances(SERVICE_ID, List.of(fast1, fast2)); // First prune for the service
+        assertNull(meterRegistry.find("loadbalancer.instance.latency").tag("instance", "10.0.0.3:8080").gauge());
+        assertNotNull(meterRegistry.find("loadbalancer.instance.latency").tag("instance", "10.0.0.1:8080").gauge());
+
+        // Pruned again only after the interval
+        call(slow, 40);
+        stats.retainInstances(SERVICE_ID, List.of(fast1));
+        assertNotNull(meterRegistry.find("loadbalancer.instance.latency").tag("instance", "10.0.0.3:8080").gauge());
+        advance(30_000);
+        stats.retainInstances(SERVICE_ID, List.of(fast1));
+        assertNull(meterRegistry.find("loadbalancer.instance.latency").tag("instance", "10.0.0.3:8080").gauge());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(10), stats.getLoad(fast1));
+    }
+
+    /**
+     * One successful load-balanced call to the instance taking the given (simulated) time
+     */
+    private void call(ServiceInstance instance, long latencyMs) {
+        Request<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext());
+        Response<ServiceInstance> lbResponse = new DefaultResponse(instance);
+
+        stats.onStartRequest(request, lbResponse);
+        advance(latencyMs);
+        stats.onComplete(new CompletionContext<ResponseData, ServiceInstance, RequestDataContext>(
+                CompletionContext.Status.SUCCESS, request, lbResponse));
+    }
+
+    private void advance(long ms) {
+        nowNanos += TimeUnit.MILLISECONDS.toNanos(ms);
+    }
+}
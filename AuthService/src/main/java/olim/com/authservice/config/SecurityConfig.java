@@ -1,5 +1,6 @@
 package olim.com.authservice.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -10,6 +11,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 /**
  * Security Configuration for Auth Service
@@ -24,6 +26,9 @@ import org.springframework.security.web.SecurityFilterChain;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    @Autowired
+    private ServiceTokenFilter serviceTokenFilter;
+
     /**
      * Password encoder bean
      * 
@@ -60,6 +65,9 @@ public class SecurityConfig {
             
             // Configure authorization
             .authorizeHttpRequests(auth -> auth
+                // Internal endpoints - other services only (X-Service-Token)
+                .requestMatchers("/api/auth/users/**").hasRole("SERVICE")
+
                 // Public endpoints - no authentication required
                 .requestMatchers(
                     "/api/auth/register",
@@ -79,6 +87,9 @@ public class SecurityConfig {
                 .anyRequest().authenticated()
             )
             
+            // Recognize direct calls from other services
+            .addFilterBefore(serviceTokenFilter, UsernamePasswordAuthenticationFilter.class)
+
             // Disable form login (we're using JWT)
             .formLogin(AbstractHttpConfigurer::disable)
             
@@ -0,0 +1,59 @@
+package olim.com.authservice.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Service Token Filter
+ *
+ * Other services calling directly (not through the gateway) identify themselves with
+ * X-Service-Token, the shared internal token, and get ROLE_SERVICE for the internal-only endpoints.
+ */
+@Component
+public class ServiceTokenFilter extends OncePerRequestFilter {
+
+    private static final String SERVICE_TOKEN_HEADER = "X-Service-Token";
+
+    @Value("${bytebites.internal.service-token}")
+    private String serviceToken;
+
+    /**
+     * An empty token would let requests with an empty X-Service-Token header in
+     */
+    @PostConstruct
+    public void checkServiceToken() {
+        if (serviceToken.isBlank()) {
+            throw new IllegalStateException("bytebites.internal.service-token (BYTEBITES_SERVICE_TOKEN) must not be empty");
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        String token = request.getHeader(SERVICE_TOKEN_HEADER);
+        if (token != null && MessageDigest.isEqual(
+                token.getBytes(StandardCharsets.UTF_8), serviceToken.getBytes(StandardCharsets.UTF_8))) {
+            List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_SERVICE"));
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken("service", null, authorities));
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -179,19 +179,17 @@ public class AuthController {
             User user = userService.findByEmail(userEmail)
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
-            // Update user information
-            user.setFirstName(updateRequest.getFirstName());
-            user.setLastName(updateRequest.getLastName());
-            
             // Note: Email changes might require additional verification in production
-            if (!updateRequest.getEmail().equals(user.getEmail())) {
-                if (userService.emailExists(updateRequest.getEmail())) {
-                    return ResponseEntity.badRequest()
-                            .body(ApiResponse.error("Email is already taken"));
-                }
-                user.setEmail(updateRequest.getEmail());
+            if (!updateRequest.getEmail().equals(user.getEmail())
+                    && userService.emailExists(updateRequest.getEmail())) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Email is already taken"));
             }
 
+            // Save and publish the updated profile
+            user = userService.updateProfile(user, updateRequest.getEmail(),
+                    updateRequest.getFirstName(), updateRequest.getLastName());
+
             UserInfo userInfo = new UserInfo(user);
 
             return ResponseEntity.ok(ApiResponse.success("Profile updated successfully", userInfo));
@@ -267,6 +265,27 @@ public class AuthController {
         }
     }
 
+    /**
+     * Get a user's contact details (internal - other services only, with the service token)
+     * Lets Order Service fill in customers whose profile event it never received
+     *
+     * @param userId user ID
+     * @return contact details
+     */
+    @GetMapping("/users/{userId}/contact")
+    public ResponseEntity<ApiResponse<UserContact>> getUserContact(@PathVariable Long userId) {
+        try {
+            User user = userService.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+
+            return ResponseEntity.ok(ApiResponse.success("Contact retrieved successfully", new UserContact(user)));
+
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Failed to retrieve contact: " + e.getMessage()));
+        }
+    }
+
     /**
      * Health check endpoint
      * 
@@ -6,6 +6,8 @@ import jakarta.validation.constraints.Size;
 import lombok.*;
 import olim.com.authservice.entity.User;
 
+import java.time.LocalDateTime;
+
 public class AuthDto {
 
     /**
@@ -119,6 +121,29 @@ public class AuthDto {
         }
     }
 
+    /**
+     * Contact details of a user (for other services, e.g. to fill a missing customer profile)
+     */
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class UserContact {
+        private Long id;
+        private String email;
+        private String firstName;
+        private String lastName;
+        private LocalDateTime updatedAt;
+
+        public UserContact(User user) {
+            this.id = user.getId();
+            this.email = user.getEmail();
+            this.firstName = user.getFirstName();
+            this.lastName = user.getLastName();
+            this.updatedAt = user.getUpdatedAt();
+        }
+    }
+
    @Getter
    @Setter
    @NoArgsConstructor
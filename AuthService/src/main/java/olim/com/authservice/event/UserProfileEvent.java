@@ -0,0 +1,24 @@
+package olim.com.authservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event published when a user is created or their profile changes
+ * Lets other services keep a local copy of contact details
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProfileEvent {
+
+    private Long userId;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private String role;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,66 @@
+package olim.com.authservice.service;
+
+import olim.com.authservice.entity.User;
+import olim.com.authservice.event.UserProfileEvent;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event Publisher Service
+ *
+ * Publishes user events to RabbitMQ
+ */
+@Service
+public class EventPublisherService {
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Value("${bytebites.messaging.exchange}")
+    private String exchange;
+
+    @Value("${bytebites.messaging.routing-keys.user-created}")
+    private String userCreatedRoutingKey;
+
+    @Value("${bytebites.messaging.routing-keys.user-updated}")
+    private String userUpdatedRoutingKey;
+
+    /**
+     * Publish a UserProfileEvent for a newly registered user
+     */
+    public void publishUserCreatedEvent(User user) {
+        publish(userCreatedRoutingKey, user);
+    }
+
+    /**
+     * Publish a UserProfileEvent after a user's profile changed
+     */
+    public void publishUserUpdatedEvent(User user) {
+        publish(userUpdatedRoutingKey, user);
+    }
+
+    private void publish(String routingKey, User user) {
+        try {
+            UserProfileEvent event = new UserProfileEvent(
+                    user.getId(),
+                    user.getEmail(),
+                    user.getFirstName(),
+                    user.getLastName(),
+                    user.getRole().name(),
+                    LocalDateTime.now()
+            );
+
+            rabbitTemplate.convertAndSend(exchange, routingKey, event);
+
+            System.out.println("📨 Published UserProfileEvent (" + routingKey + ") for user ID: " + user.getId());
+
+        } catch (Exception e) {
+            System.err.println("❌ Failed to publish UserProfileEvent: " + e.getMessage());
+            // Don't throw exception - event publishing failure shouldn't break registration
+        }
+    }
+}
@@ -23,6 +23,9 @@ public class UserService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired(required = false) // Optional - registration works without RabbitMQ
+    private EventPublisherService eventPublisher;
+
     /**
      * Load user by username (email) for Spring Security
      * 
@@ -51,7 +54,25 @@ public class UserService implements UserDetailsService {
         user.setRole(role);
         user.setProvider("local"); // Local registration
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        publishUserCreated(savedUser);
+        return savedUser;
+    }
+
+    /**
+     * Update a user's name and email
+     */
+    public User updateProfile(User user, String email, String firstName, String lastName) {
+        if (!email.equals(user.getEmail()) && userRepository.existsByEmail(email)) {
+            throw new RuntimeException("Email is already taken");
+        }
+        user.setEmail(email);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+
+        User savedUser = userRepository.save(user);
+        publishUserUpdated(savedUser);
+        return savedUser;
     }
 
 
@@ -96,7 +117,9 @@ public class UserService implements UserDetailsService {
             user.setEmail(email);
             user.setFirstName(firstName);
             user.setLastName(lastName);
-            return userRepository.save(user);
+            User savedUser = userRepository.save(user);
+            publishUserUpdated(savedUser);
+            return savedUser;
         }
         
         // Check if user exists by email (might be a local user wanting to link OAuth2)
@@ -119,7 +142,9 @@ public class UserService implements UserDetailsService {
         newUser.setProvider(provider);
         newUser.setProviderId(providerId);
         
-        return userRepository.save(newUser);
+        User savedUser = userRepository.save(newUser);
+        publishUserCreated(savedUser);
+        return savedUser;
     }
 
     public void updatePassword(Long userId, String oldPassword, String newPassword) {
@@ -191,6 +216,18 @@ public class UserService implements UserDetailsService {
         return userRepository.existsByEmail(email);
     }
 
+    private void publishUserCreated(User user) {
+        if (eventPublisher != null) {
+            eventPublisher.publishUserCreatedEvent(user);
+        }
+    }
+
+    private void publishUserUpdated(User user) {
+        if (eventPublisher != null) {
+            eventPublisher.publishUserUpdatedEvent(user);
+        }
+    }
+
     /**
      * User statistics data class
      */
@@ -1,13 +1,18 @@
 package olim.com.orderservice;
 
 import org.springframework.boot.SpringApplication;
+import olim.com.orderservice.loadbalancer.PeakEwmaLoadBalancerConfiguration;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableDiscoveryClient
 @EnableFeignClients
+@EnableScheduling
+@LoadBalancerClient(name = "restaurant-service", configuration = PeakEwmaLoadBalancerConfiguration.class)
 public class OrderServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,24 @@
+package olim.com.orderservice.client;
+
+import olim.com.orderservice.dto.AuthDto;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+/**
+ * Feign Client for Auth Service
+ *
+ * Only used to fill in customer contact details that never arrived as user events
+ */
+@FeignClient(
+        name = "auth-service",
+        configuration = AuthClientConfiguration.class
+)
+public interface AuthClient {
+
+    /**
+     * Get a user's contact details (internal-only endpoint)
+     */
+    @GetMapping("/api/auth/users/{id}/contact")
+    AuthDto.ApiResponse<AuthDto.UserContact> getUserContact(@PathVariable("id") Long userId);
+}
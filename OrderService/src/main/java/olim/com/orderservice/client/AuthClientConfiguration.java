@@ -0,0 +1,21 @@
+package olim.com.orderservice.client;
+
+import feign.RequestInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Feign configuration for AuthClient
+ *
+ * Not a @Configuration on purpose - it is only applied through @FeignClient(configuration = ...).
+ */
+public class AuthClientConfiguration {
+
+    /**
+     * Identify Order Service on direct calls, for the Auth Service internal-only endpoints
+     */
+    @Bean
+    public RequestInterceptor serviceTokenInterceptor(@Value("${bytebites.internal.service-token}") String serviceToken) {
+        return template -> template.header("X-Service-Token", serviceToken);
+    }
+}
@@ -0,0 +1,125 @@
+package olim.com.orderservice.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import olim.com.orderservice.util.AdaptiveConcurrencyLimiter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Restaurant Call Limiter
+ *
+ * Sits in front of every RestaurantClient call (as a Feign client decorator) so a slow
+ * Restaurant Service can't pile up blocked threads in Order Service:
+ * - a bulkhead caps concurrent calls and lets callers wait only briefly for a slot
+ * - an adaptive concurrency limit below that cap follows the service's observed latency
+ * Calls over either limit are shed immediately with a CallRejectedException.
+ */
+@Component
+public class RestaurantCallLimiter {
+
+    private static final String NAME = "restaurant-service";
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${order.restaurant-client.limit.initial:20}")
+    private int initialLimit;
+
+    @Value("${order.restaurant-client.limit.min:4}")
+    private int minLimit;
+
+    @Value("${order.restaurant-client.limit.max:50}")
+    private int maxLimit;
+
+    @Value("${order.restaurant-client.limit.latency-tolerance:1.5}")
+    private double latencyTolerance;
+
+    private final AtomicLong bulkheadRejections = new AtomicLong();
+
+    private Bulkhead bulkhead;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @PostConstruct
+    public void init() {
+        bulkhead = bulkheadRegistry.bulkhead(NAME);
+        limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyTolerance);
+
+        Gauge.builder("restaurant.client.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Adaptive concurrency limit for Restaurant Service calls")
+                .register(meterRegistry);
+        Gauge.builder("restaurant.client.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Restaurant Service calls in flight")
+                .register(meterRegistry);
+        FunctionCounter.builder("restaurant.client.rejected", limiter, AdaptiveConcurrencyLimiter::getRejectedCount)
+                .tag("reason", "limit")
+                .register(meterRegistry);
+        FunctionCounter.builder("restaurant.client.rejected", bulkheadRejections, AtomicLong::get)
+                .tag("reason", "bulkhead")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Call rejected because Restaurant Service is at its concurrency limit
+     */
+    public static class CallRejectedException extends RuntimeException {
+        public CallRejectedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Wrap a Feign client so its calls go through the bulkhead and the adaptive limit
+     */
+    public Client decorate(Client delegate) {
+        return (request, options) -> execute(delegate, request, options);
+    }
+
+    private Response execute(Client delegate, Request request, Request.Options options) throws IOException {
+        if (!bulkhead.tryAcquirePermission()) {
+            bulkheadRejections.incrementAndGet();
+            throw new CallRejectedException("Restaurant service is busy (bulkhead full)");
+        }
+        try {
+            AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+            if (permit == null) {
+                throw new CallRejectedException("Restaurant service is busy (concurrency limit "
+                        + limiter.getLimit() + " reached)");
+            }
+
+            Response response;
+            try {
+                response = delegate.execute(request, options);
+            } catch (IOException e) {
+                permit.onDropped(); // Timeouts / connection failures are the clearest overload signal
+                throw e;
+            } catch (RuntimeException e) {
+                permit.onIgnore();
+                throw e;
+            }
+
+            if (response.status() >= 500) {
+                permit.onDropped();
+            } else {
+                permit.onSuccess();
+            }
+            return response;
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+}
@@ -2,35 +2,49 @@ package olim.com.orderservice.client;
 
 import olim.com.orderservice.dto.RestaurantDto;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 
+import java.util.List;
+
 /**
  * Feign Client for Restaurant Service
  *
  * Enables service-to-service communication with the Restaurant Service
  * Used to validate restaurants and menu items when creating orders
+ * Asks for the compact Smile encoding, falling back to JSON for instances that don't offer it
  */
 @FeignClient(
         name = "restaurant-service",
-        fallback = RestaurantFallback.class
+        fallback = RestaurantFallback.class,
+        configuration = RestaurantClientConfiguration.class
 )
 public interface RestaurantClient {
 
+    String SMILE = "application/x-jackson-smile";
+
     /**
      * Get restaurant details by ID
      * Returns the API response wrapper from Restaurant Service
      */
-    @GetMapping("/api/restaurants/{id}")
+    @GetMapping(value = "/api/restaurants/{id}", produces = {SMILE, MediaType.APPLICATION_JSON_VALUE})
     RestaurantDto.ApiResponse<RestaurantDto.RestaurantResponse> getRestaurant(@PathVariable("id") Long restaurantId);
 
     /**
      * Get menu item details by restaurant and menu item ID
      * Returns the API response wrapper from Restaurant Service
      */
-    @GetMapping("/api/restaurants/{restaurantId}/menu/{itemId}")
+    @GetMapping(value = "/api/restaurants/{restaurantId}/menu/{itemId}", produces = {SMILE, MediaType.APPLICATION_JSON_VALUE})
     RestaurantDto.ApiResponse<RestaurantDto.MenuItemResponse> getMenuItem(
             @PathVariable("restaurantId") Long restaurantId,
             @PathVariable("itemId") Long menuItemId
     );
+
+    /**
+     * Get the owner of every restaurant
+     * Used once on startup to warm up the ownership cache
+     */
+    @GetMapping(value = "/api/restaurants/ownerships", produces = {SMILE, MediaType.APPLICATION_JSON_VALUE})
+    RestaurantDto.ApiResponse<List<RestaurantDto.RestaurantOwnershipResponse>> getRestaurantOwnerships();
 }
\ No newline at end of file
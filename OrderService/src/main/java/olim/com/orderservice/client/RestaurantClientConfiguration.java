@@ -0,0 +1,56 @@
+package olim.com.orderservice.client;
+
+import feign.Capability;
+import feign.Client;
+import feign.RequestInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Feign configuration for RestaurantClient
+ *
+ * Not a @Configuration on purpose - it is only applied through @FeignClient(configuration = ...),
+ * so other Feign clients aren't limited by the Restaurant Service limits.
+ */
+public class RestaurantClientConfiguration {
+
+    /**
+     * Identify Order Service on direct calls, for the Restaurant Service internal-only endpoints
+     */
+    @Bean
+    public RequestInterceptor serviceTokenInterceptor(@Value("${bytebites.internal.service-token}") String serviceToken) {
+        return template -> template.header("X-Service-Token", serviceToken);
+    }
+
+    /**
+     * Wrap the load-balanced client: hedging outside, then the bulkhead and adaptive concurrency limit
+     * Every attempt - first or hedge - is a complete load-balanced call, so it takes its own limiter
+     * permit and is chosen and tracked by the Peak-EWMA load balancer like any other call.
+     */
+    @Bean
+    public Capability restaurantCallPolicies(RestaurantRequestHedger restaurantRequestHedger,
+                                             RestaurantCallLimiter restaurantCallLimiter) {
+        return new RestaurantCallPolicies(restaurantRequestHedger, restaurantCallLimiter);
+    }
+
+    /**
+     * Public and named on purpose - Feign invokes Capability.enrich reflectively, which fails on
+     * an anonymous (non-public) class
+     */
+    public static final class RestaurantCallPolicies implements Capability {
+
+        private final RestaurantRequestHedger restaurantRequestHedger;
+        private final RestaurantCallLimiter restaurantCallLimiter;
+
+        public RestaurantCallPolicies(RestaurantRequestHedger restaurantRequestHedger,
+                                      RestaurantCallLimiter restaurantCallLimiter) {
+            this.restaurantRequestHedger = restaurantRequestHedger;
+            this.restaurantCallLimiter = restaurantCallLimiter;
+        }
+
+        @Override
+        public Client enrich(Client client) {
+            return restaurantRequestHedger.decorate(restaurantCallLimiter.decorate(client));
+        }
+    }
+}
@@ -4,6 +4,7 @@ import olim.com.orderservice.dto.RestaurantDto;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 /**
  * Fallback implementation for Restaurant Service
@@ -39,4 +40,10 @@ public class RestaurantFallback implements RestaurantClient {
 
         return new RestaurantDto.ApiResponse<>(false, "Restaurant service unavailable", fallbackMenuItem);
     }
+
+    @Override
+    public RestaurantDto.ApiResponse<List<RestaurantDto.RestaurantOwnershipResponse>> getRestaurantOwnerships() {
+        // No ownership data - the cache stays cold and retries the warm-up later
+        return new RestaurantDto.ApiResponse<>(false, "Restaurant service unavailable", List.of());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,231 @@
+package olim.com.orderservice.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import olim.com.orderservice.util.LogHistogram;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Restaurant Request Hedger
+ *
+ * Cuts tail latency of idempotent (GET) Restaurant Service calls caused by an occasional slow
+ * instance: if the first attempt hasn't answered within the recent p95 latency, a second attempt
+ * is sent and whichever answers first wins (the other response is closed).
+ *
+ * Hedges are paid for from a budget that every request tops up by a fraction of a hedge, so they
+ * can never add more than that fraction (plus a small burst) to Restaurant Service load.
+ *
+ * Applied above the load balancer and the call limiter: a hedge is one more limited,
+ * load-balanced call. The Peak-EWMA balancer counts the slow first attempt as pending on its
+ * instance, so the hedge normally lands on another one (not guaranteed - it picks two at random).
+ * Attempts run on the bounded restaurantHedgeExecutor; when it is full, calls go out unhedged
+ * on the caller's thread.
+ */
+@Component
+public class RestaurantRequestHedger {
+
+    private static final int THRESHOLD_REFRESH_SAMPLES = 50;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("restaurantHedgeExecutor")
+    private ExecutorService restaurantHedgeExecutor;
+
+    @Value("${order.restaurant-client.hedging.enabled:false}")
+    private boolean enabled;
+
+    @Value("${order.restaurant-client.hedging.percentile:0.95}")
+    private double percentile;
+
+    @Value("${order.restaurant-client.hedging.min-delay-ms:10}")
+    private long minDelayMs;
+
+    @Value("${order.restaurant-client.hedging.min-samples:100}")
+    private long minSamples;
+
+    @Value("${order.restaurant-client.hedging.budget-percent:10}")
+    private int budgetPercent;
+
+    @Value("${order.restaurant-client.hedging.max-burst:10}")
+    private int maxBurst;
+
+    // Latency of single attempts in ms - guarded by itself
+    private final LogHistogram latencies = new LogHistogram(0.1, 60_000, 0.02, 5_000);
+    private final AtomicInteger samplesSinceRefresh = new AtomicInteger();
+    private volatile long hedgeAfterNanos = Long.MAX_VALUE;
+
+    // Budget in hundredths of a hedge
+    private final AtomicLong budget = new AtomicLong();
+    private final AtomicLong hedgesSent = new AtomicLong();
+    private final AtomicLong hedgesWon = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        FunctionCounter.builder("restaurant.client.hedges", hedgesSent, AtomicLong::get)
+                .tag("outcome", "sent")
+                .register(meterRegistry);
+        FunctionCounter.builder("restaurant.client.hedges", hedgesWon, AtomicLong::get)
+                .tag("outcome", "won")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Wrap a (load-balanced, limited) Feign client with hedging for GET requests
+     */
+    public Client decorate(Client delegate) {
+        return (request, options) -> enabled && request.httpMethod() == Request.HttpMethod.GET
+                ? executeHedged(delegate, request, options)
+                : delegate.execute(request, options);
+    }
+
+    private Response executeHedged(Client delegate, Request request, Request.Options options) throws IOException {
+        depositBudget();
+
+        CompletableFuture<Response> primary;
+        try {
+            primary = attempt(delegate, request, options);
+        } catch (RejectedExecutionException e) {
+            return delegate.execute(request, options); // Every hedging thread busy - call without hedging
+        }
+        long threshold = hedgeAfterNanos;
+        if (threshold == Long.MAX_VALUE) {
+            return await(primary); // Not enough samples for a threshold yet
+        }
+
+        try {
+            return primary.get(threshold, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Slow first attempt - hedge below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            primary.cancel(true);
+            throw new IOException("Interrupted while calling restaurant service", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+
+        if (!withdrawBudget()) {
+            return await(primary);
+        }
+        CompletableFuture<Response> hedge;
+        try {
+            hedge = attempt(delegate, request, options);
+        } catch (RejectedExecutionException e) {
+            budget.addAndGet(100); // Not sent
+            return await(primary);
+        }
+        hedgesSent.incrementAndGet();
+
+        // First successful response wins; fail only if both attempts failed
+        CompletableFuture<Response> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        primary.whenComplete((response, error) -> complete(winner, response, error, failures, false));
+        hedge.whenComplete((response, error) -> complete(winner, response, error, failures, true));
+        return await(winner);
+    }
+
+    private void complete(CompletableFuture<Response> winner, Response response, Throwable error,
+                          AtomicInteger failures, boolean isHedge) {
+        if (error != null) {
+            if (failures.incrementAndGet() == 2) {
+                winner.completeExceptionally(error);
+            }
+        } else if (winner.complete(response)) {
+            if (isHedge) {
+                hedgesWon.incrementAndGet();
+            }
+        } else {
+            response.close(); // Lost the race - release the connection
+        }
+    }
+
+    private CompletableFuture<Response> attempt(Client delegate, Request request, Request.Options options) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                Response response = delegate.execute(request, options);
+                recordLatency(System.nanoTime() - start);
+                return response;
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, restaurantHedgeExecutor);
+    }
+
+    private Response await(CompletableFuture<Response> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IOException("Interrupted while calling restaurant service", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private IOException unwrap(Throwable cause) {
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof IOException ioException) {
+            return ioException;
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        return new IOException(cause);
+    }
+
+    private void recordLatency(long nanos) {
+        synchronized (latencies) {
+            latencies.record(nanos / 1_000_000.0);
+        }
+        if (samplesSinceRefresh.incrementAndGet() >= THRESHOLD_REFRESH_SAMPLES) {
+            samplesSinceRefresh.set(0);
+            synchronized (latencies) {
+                if (latencies.getCount() >= minSamples) {
+                    double thresholdMs = Math.max(minDelayMs, latencies.percentile(percentile));
+                    hedgeAfterNanos = (long) (thresholdMs * 1_000_000);
+                }
+            }
+        }
+    }
+
+    private void depositBudget() {
+        long cap = maxBurst * 100L;
+        budget.getAndUpdate(current -> Math.min(cap, current + budgetPercent));
+    }
+
+    private boolean withdrawBudget() {
+        while (true) {
+            long current = budget.get();
+            if (current < 100) {
+                return false;
+            }
+            if (budget.compareAndSet(current, current - 100)) {
+                return true;
+            }
+        }
+    }
+}
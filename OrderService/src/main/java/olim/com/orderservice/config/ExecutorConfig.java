@@ -0,0 +1,48 @@
+package olim.com.orderservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor Configuration for Order Service
+ *
+ * Dedicated thread pools used to fan out Restaurant Service lookups
+ * (e.g. batch order validation, hedged calls) without tying up web request threads
+ */
+@Configuration
+public class ExecutorConfig {
+
+    @Value("${order.batch.parallelism:8}")
+    private int batchParallelism;
+
+    @Value("${order.restaurant-client.hedging.threads:64}")
+    private int hedgeThreads;
+
+    /**
+     * Bounded pool for parallel restaurant / menu item validation
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService orderBatchExecutor() {
+        return Executors.newFixedThreadPool(batchParallelism, new CustomizableThreadFactory("order-batch-"));
+    }
+
+    /**
+     * Threads running hedged Restaurant Service calls (first attempts and hedges)
+     * Bounded and without a queue - when every thread is busy the hedger calls on the caller's thread
+     * without hedging. Threads waiting in the bulkhead or blocked on a slow instance count here too,
+     * so keep it above the bulkhead's max-concurrent-calls.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService restaurantHedgeExecutor() {
+        return new ThreadPoolExecutor(0, hedgeThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                new CustomizableThreadFactory("restaurant-hedge-"));
+    }
+}
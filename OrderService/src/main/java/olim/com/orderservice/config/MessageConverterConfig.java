@@ -0,0 +1,25 @@
+package olim.com.orderservice.config;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Message Converter Configuration
+ *
+ * Adds Smile (binary JSON) next to JSON. RestaurantClient asks Restaurant Service for Smile, and
+ * Feign decodes responses with these converters.
+ */
+@Configuration
+public class MessageConverterConfig {
+
+    /**
+     * Smile converter using the same Jackson settings (dates, modules) as the JSON one
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
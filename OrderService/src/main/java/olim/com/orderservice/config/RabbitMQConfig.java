@@ -29,6 +29,15 @@ public class RabbitMQConfig {
     @Value("${bytebites.messaging.queues.notification}")
     private String notificationQueue;
 
+    @Value("${bytebites.messaging.queues.user-profile}")
+    private String userProfileQueuePrefix;
+
+    @Value("${bytebites.messaging.queues.restaurant-ownership}")
+    private String restaurantOwnershipQueuePrefix;
+
+    @Value("${bytebites.messaging.queues.read-model}")
+    private String readModelQueuePrefix;
+
     @Value("${bytebites.messaging.routing-keys.order-placed}")
     private String orderPlacedRoutingKey;
 
@@ -38,6 +47,15 @@ public class RabbitMQConfig {
     @Value("${bytebites.messaging.routing-keys.notification}")
     private String notificationRoutingKey;
 
+    @Value("${bytebites.messaging.routing-keys.user-profile}")
+    private String userProfileRoutingKey;
+
+    @Value("${bytebites.messaging.routing-keys.restaurant-ownership}")
+    private String restaurantOwnershipRoutingKey;
+
+    @Value("${bytebites.messaging.routing-keys.read-model}")
+    private String readModelRoutingKey;
+
     /**
      * Main exchange for ByteBites events
      */
@@ -70,6 +88,34 @@ public class RabbitMQConfig {
         return QueueBuilder.durable(notificationQueue).build();
     }
 
+    /**
+     * This instance's own queue for user events from Auth Service (customer profile projection)
+     * Every instance caches profiles in memory, so every instance needs every event - a shared
+     * queue would hand each event to one of them. Exclusive and auto-deleted: events published while
+     * this instance is down are not kept for it (profiles it misses are corrected by the next event).
+     */
+    @Bean
+    public Queue userProfileQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy(userProfileQueuePrefix));
+    }
+
+    /**
+     * This instance's own queue for restaurant created / deleted events (ownership cache)
+     * Same reasoning as the user profile queue; a restarted instance reloads all ownerships on startup.
+     */
+    @Bean
+    public Queue restaurantOwnershipQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy(restaurantOwnershipQueuePrefix));
+    }
+
+    /**
+     * This instance's own queue for read model updates committed through other instances
+     */
+    @Bean
+    public Queue readModelQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy(readModelQueuePrefix));
+    }
+
     /**
      * Binding for order placed events
      */
@@ -103,6 +149,39 @@ public class RabbitMQConfig {
                 .with(notificationRoutingKey);
     }
 
+    /**
+     * Binding for user created / updated events
+     */
+    @Bean
+    public Binding userProfileBinding() {
+        return BindingBuilder
+                .bind(userProfileQueue())
+                .to(byteBitesExchange())
+                .with(userProfileRoutingKey);
+    }
+
+    /**
+     * Binding for restaurant created / deleted events
+     */
+    @Bean
+    public Binding restaurantOwnershipBinding() {
+        return BindingBuilder
+                .bind(restaurantOwnershipQueue())
+                .to(byteBitesExchange())
+                .with(restaurantOwnershipRoutingKey);
+    }
+
+    /**
+     * Binding for read model updates
+     */
+    @Bean
+    public Binding readModelBinding() {
+        return BindingBuilder
+                .bind(readModelQueue())
+                .to(byteBitesExchange())
+                .with(readModelRoutingKey);
+    }
+
     /**
      * JSON message converter for RabbitMQ
      */
@@ -5,9 +5,15 @@ import olim.com.orderservice.client.RestaurantClient;
 import olim.com.orderservice.dto.OrderDto.*;
 import olim.com.orderservice.dto.RestaurantDto;
 import olim.com.orderservice.entity.Order;
+import olim.com.orderservice.eventstore.OrderEventStore;
+import olim.com.orderservice.readmodel.CustomerOrderReadModel;
+import olim.com.orderservice.service.KitchenAdmissionController;
 import olim.com.orderservice.service.OrderService;
+import olim.com.orderservice.service.PrepTimeEstimator;
+import olim.com.orderservice.service.RestaurantOwnershipCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -30,6 +36,21 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private KitchenAdmissionController kitchenAdmission;
+
+    @Autowired
+    private PrepTimeEstimator prepTimeEstimator;
+
+    @Autowired
+    private OrderEventStore eventStore;
+
+    @Autowired
+    private CustomerOrderReadModel customerReadModel;
+
+    @Autowired
+    private RestaurantOwnershipCache restaurantOwnership;
+
     /**
      * Create a new order (requires CUSTOMER role)
      */
@@ -41,16 +62,47 @@ public class OrderController {
         try {
             Long customerId = Long.parseLong(userId);
             Order order = orderService.createOrder(request, customerId);
-            OrderResponse response = new OrderResponse(order);
+            OrderResponse response = new OrderResponse(order, prepTimeEstimator.estimateReadyAt(order));
 
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(ApiResponse.success("Order created successfully", response));
+        } catch (KitchenAdmissionController.KitchenBusyException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(ApiResponse.error("Failed to create order: " + e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Failed to create order: " + e.getMessage()));
         }
     }
 
+    /**
+     * Create several orders in one request (requires CUSTOMER role)
+     * Used for group / office orders - each order succeeds or fails on its own
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<ApiResponse<BatchOrderResponse>> createOrdersBatch(
+            @Valid @RequestBody BatchCreateOrderRequest request,
+            @RequestHeader("X-User-Id") String userId) {
+        try {
+            Long customerId = Long.parseLong(userId);
+            List<BatchOrderResult> results = orderService.createOrdersBatch(request.getOrders(), customerId);
+            BatchOrderResponse response = new BatchOrderResponse(results);
+
+            String message = response.getCreatedOrders() + " of " + response.getTotalOrders() + " orders created";
+            if (response.getCreatedOrders() == 0) {
+                return ResponseEntity.badRequest()
+                        .body(new ApiResponse<>(false, "Failed to create orders: " + message, response));
+            }
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success(message, response));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to create orders: " + e.getMessage()));
+        }
+    }
+
     /**
      * Get customer's orders (requires CUSTOMER role)
      */
@@ -60,10 +112,12 @@ public class OrderController {
             @RequestHeader("X-User-Id") String userId) {
         try {
             Long customerId = Long.parseLong(userId);
-            List<Order> orders = orderService.getCustomerOrders(customerId);
-            List<SimpleOrderResponse> response = orders.stream()
-                    .map(SimpleOrderResponse::new)
-                    .collect(Collectors.toList());
+            // Served from the read model when it is fresh enough, else from the orders table
+            List<SimpleOrderResponse> response = customerReadModel.findOrders(customerId)
+                    .map(orders -> orders.stream().map(SimpleOrderResponse::new).collect(Collectors.toList()))
+                    .orElseGet(() -> orderService.getCustomerOrders(customerId).stream()
+                            .map(SimpleOrderResponse::new)
+                            .collect(Collectors.toList()));
 
             return ResponseEntity.ok(ApiResponse.success("Orders retrieved successfully", response));
         } catch (Exception e) {
@@ -82,10 +136,13 @@ public class OrderController {
             @RequestHeader("X-User-Id") String userId) {
         try {
             Long customerId = Long.parseLong(userId);
-            Order order = orderService.getCustomerOrder(orderId, customerId)
-                    .orElseThrow(() -> new RuntimeException("Order not found or access denied"));
+            OrderResponse response = customerReadModel.findOrder(customerId, orderId)
+                    .orElseGet(() -> orderService.getCustomerOrder(orderId, customerId)
+                            .map(OrderResponse::new)
+                            .orElseThrow(() -> new RuntimeException("Order not found or access denied")));
+            response.setEstimatedReadyAt(prepTimeEstimator.estimateReadyAt(response.getRestaurantId(),
+                    response.getStatus(), response.getUpdatedAt(), response.getScheduledFor()));
 
-            OrderResponse response = new OrderResponse(order);
             return ResponseEntity.ok(ApiResponse.success("Order retrieved successfully", response));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -93,6 +150,32 @@ public class OrderController {
         }
     }
 
+    /**
+     * Get the status timeline of an order (requires CUSTOMER role and ownership)
+     */
+    @GetMapping("/{orderId}/timeline")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<ApiResponse<List<OrderTimelineEntry>>> getOrderTimeline(
+            @PathVariable Long orderId,
+            @RequestHeader("X-User-Id") String userId) {
+        try {
+            Long customerId = Long.parseLong(userId);
+            List<OrderTimelineEntry> response = orderService.getOrderTimeline(orderId, customerId).stream()
+                    .map(transition -> new OrderTimelineEntry(
+                            transition.fromStatus(),
+                            transition.toStatus(),
+                            transition.actor().name().toLowerCase(),
+                            transition.actorId(),
+                            transition.timestamp()))
+                    .collect(Collectors.toList());
+
+            return ResponseEntity.ok(ApiResponse.success("Order timeline retrieved successfully", response));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to retrieve order timeline: " + e.getMessage()));
+        }
+    }
+
     /**
      * Cancel an order (requires CUSTOMER role and ownership)
      */
@@ -104,7 +187,7 @@ public class OrderController {
         try {
             Long customerId = Long.parseLong(userId);
             Order order = orderService.cancelOrder(orderId, customerId);
-            OrderResponse response = new OrderResponse(order);
+            OrderResponse response = new OrderResponse(order, prepTimeEstimator.estimateReadyAt(order));
 
             return ResponseEntity.ok(ApiResponse.success("Order cancelled successfully", response));
         } catch (Exception e) {
@@ -121,9 +204,11 @@ public class OrderController {
     public ResponseEntity<ApiResponse<List<SimpleOrderResponse>>> getRestaurantOrders(
             @PathVariable Long restaurantId,
             @RequestHeader("X-User-Id") String userId) {
+        ResponseEntity<ApiResponse<List<SimpleOrderResponse>>> rejected = rejectUnlessOwner(userId, restaurantId);
+        if (rejected != null) {
+            return rejected;
+        }
         try {
-            // Note: In a real app, you'd verify the user owns this restaurant
-            // For simplicity, we're allowing any restaurant owner to view any restaurant's orders
             List<Order> orders = orderService.getRestaurantOrders(restaurantId);
             List<SimpleOrderResponse> response = orders.stream()
                     .map(SimpleOrderResponse::new)
@@ -144,6 +229,10 @@ public class OrderController {
     public ResponseEntity<ApiResponse<List<SimpleOrderResponse>>> getPendingRestaurantOrders(
             @PathVariable Long restaurantId,
             @RequestHeader("X-User-Id") String userId) {
+        ResponseEntity<ApiResponse<List<SimpleOrderResponse>>> rejected = rejectUnlessOwner(userId, restaurantId);
+        if (rejected != null) {
+            return rejected;
+        }
         try {
             List<Order> orders = orderService.getPendingRestaurantOrders(restaurantId);
             List<SimpleOrderResponse> response = orders.stream()
@@ -157,6 +246,51 @@ public class OrderController {
         }
     }
 
+    /**
+     * Get kitchen capacity and current load for restaurant (requires RESTAURANT_OWNER role)
+     */
+    @GetMapping("/restaurant/{restaurantId}/capacity")
+    @PreAuthorize("hasRole('RESTAURANT_OWNER')")
+    public ResponseEntity<ApiResponse<KitchenCapacityResponse>> getKitchenCapacity(
+            @PathVariable Long restaurantId,
+            @RequestHeader("X-User-Id") String userId) {
+        ResponseEntity<ApiResponse<KitchenCapacityResponse>> rejected = rejectUnlessOwner(userId, restaurantId);
+        if (rejected != null) {
+            return rejected;
+        }
+        KitchenCapacityResponse response = new KitchenCapacityResponse(
+                restaurantId,
+                kitchenAdmission.getCap(restaurantId),
+                kitchenAdmission.getActiveOrderCount(restaurantId));
+        return ResponseEntity.ok(ApiResponse.success("Kitchen capacity retrieved successfully", response));
+    }
+
+    /**
+     * Set the maximum number of active orders for restaurant (requires RESTAURANT_OWNER role)
+     */
+    @PutMapping("/restaurant/{restaurantId}/capacity")
+    @PreAuthorize("hasRole('RESTAURANT_OWNER')")
+    public ResponseEntity<ApiResponse<KitchenCapacityResponse>> updateKitchenCapacity(
+            @PathVariable Long restaurantId,
+            @Valid @RequestBody UpdateKitchenCapacityRequest request,
+            @RequestHeader("X-User-Id") String userId) {
+        ResponseEntity<ApiResponse<KitchenCapacityResponse>> rejected = rejectUnlessOwner(userId, restaurantId);
+        if (rejected != null) {
+            return rejected;
+        }
+        try {
+            kitchenAdmission.setCap(restaurantId, request.getMaxActiveOrders());
+            KitchenCapacityResponse response = new KitchenCapacityResponse(
+                    restaurantId,
+                    kitchenAdmission.getCap(restaurantId),
+                    kitchenAdmission.getActiveOrderCount(restaurantId));
+            return ResponseEntity.ok(ApiResponse.success("Kitchen capacity updated successfully", response));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to update kitchen capacity: " + e.getMessage()));
+        }
+    }
+
     /**
      * Update order status (requires RESTAURANT_OWNER role)
      */
@@ -167,10 +301,13 @@ public class OrderController {
             @Valid @RequestBody UpdateOrderStatusRequest request,
             @RequestHeader("X-User-Id") String userId,
             @RequestParam Long restaurantId) {
+        ResponseEntity<ApiResponse<OrderResponse>> rejected = rejectUnlessOwner(userId, restaurantId);
+        if (rejected != null) {
+            return rejected;
+        }
         try {
-            Long ownerId = Long.parseLong(userId);
             Order order = orderService.updateOrderStatus(orderId, request.getStatus(), restaurantId);
-            OrderResponse response = new OrderResponse(order);
+            OrderResponse response = new OrderResponse(order, prepTimeEstimator.estimateReadyAt(order));
 
             return ResponseEntity.ok(ApiResponse.success("Order status updated successfully", response));
         } catch (Exception e) {
@@ -188,7 +325,8 @@ public class OrderController {
             @RequestHeader("X-User-Id") String userId) {
         try {
             Long customerId = Long.parseLong(userId);
-            OrderService.CustomerOrderStats stats = orderService.getCustomerStats(customerId);
+            OrderService.CustomerOrderStats stats = customerReadModel.findStats(customerId)
+                    .orElseGet(() -> orderService.getCustomerStats(customerId));
 
             return ResponseEntity.ok(ApiResponse.success("Customer statistics retrieved successfully", stats));
         } catch (Exception e) {
@@ -205,6 +343,10 @@ public class OrderController {
     public ResponseEntity<ApiResponse<OrderService.RestaurantOrderStats>> getRestaurantStats(
             @PathVariable Long restaurantId,
             @RequestHeader("X-User-Id") String userId) {
+        ResponseEntity<ApiResponse<OrderService.RestaurantOrderStats>> rejected = rejectUnlessOwner(userId, restaurantId);
+        if (rejected != null) {
+            return rejected;
+        }
         try {
             OrderService.RestaurantOrderStats stats = orderService.getRestaurantStats(restaurantId);
 
@@ -215,6 +357,36 @@ public class OrderController {
         }
     }
 
+    /**
+     * Rebuild the orders projection from the event store (requires ADMIN role)
+     */
+    @PostMapping("/admin/projection/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<OrderEventStore.RebuildStats>> rebuildProjection() {
+        try {
+            OrderEventStore.RebuildStats stats = eventStore.rebuildProjection();
+            return ResponseEntity.ok(ApiResponse.success("Order projection rebuilt successfully", stats));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to rebuild order projection: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Snapshot the event store now (requires ADMIN role)
+     */
+    @PostMapping("/admin/snapshots")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Long>> takeSnapshot() {
+        try {
+            long position = eventStore.takeSnapshot();
+            return ResponseEntity.ok(ApiResponse.success("Order snapshot written successfully", position));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to write order snapshot: " + e.getMessage()));
+        }
+    }
+
     /**
      * Health check endpoint
      */
@@ -249,4 +421,19 @@ public class OrderController {
                     .body(ApiResponse.error("Failed to call restaurant service: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Error response if the user doesn't own the restaurant, null if they do
+     */
+    private <T> ResponseEntity<ApiResponse<T>> rejectUnlessOwner(String userId, Long restaurantId) {
+        if (!restaurantOwnership.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("Restaurant ownership data is not available yet, please retry shortly"));
+        }
+        if (!restaurantOwnership.isOwner(Long.parseLong(userId), restaurantId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("You can only manage your own restaurant"));
+        }
+        return null;
+    }
+}
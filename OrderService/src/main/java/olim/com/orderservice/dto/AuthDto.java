@@ -0,0 +1,40 @@
+package olim.com.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTOs for Auth Service communication
+ * These mirror the DTOs from Auth Service but only include fields we need
+ */
+public class AuthDto {
+
+    /**
+     * User contact details DTO
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UserContact {
+        private Long id;
+        private String email;
+        private String firstName;
+        private String lastName;
+        private LocalDateTime updatedAt;
+    }
+
+    /**
+     * API Response wrapper for Auth Service calls
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ApiResponse<T> {
+        private boolean success;
+        private String message;
+        private T data;
+    }
+}
@@ -1,9 +1,13 @@
 package olim.com.orderservice.dto;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -35,6 +39,10 @@ public class OrderDto {
 
         @NotEmpty(message = "Order items are required")
         private List<OrderItemRequest> orderItems;
+
+        // Optional - when set, the order is held as SCHEDULED and released to the kitchen at this time
+        @Future(message = "Scheduled time must be in the future")
+        private LocalDateTime scheduledFor;
     }
 
     /**
@@ -52,6 +60,18 @@ public class OrderDto {
         private Integer quantity;
     }
 
+    /**
+     * DTO for creating several orders at once (group / office orders)
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchCreateOrderRequest {
+        @NotEmpty(message = "At least one order is required")
+        @Size(max = 50, message = "A batch can contain at most 50 orders")
+        private List<@Valid CreateOrderRequest> orders;
+    }
+
     /**
      * DTO for order response
      */
@@ -66,11 +86,18 @@ public class OrderDto {
         private Order.OrderStatus status;
         private BigDecimal totalAmount;
         private String deliveryAddress;
+        private LocalDateTime scheduledFor;
         private LocalDateTime createdAt;
         private LocalDateTime updatedAt;
+        private LocalDateTime estimatedReadyAt; // Null once delivered or cancelled
         private List<OrderItemResponse> orderItems;
 
         // Constructor from entity
+        public OrderResponse(Order order, LocalDateTime estimatedReadyAt) {
+            this(order);
+            this.estimatedReadyAt = estimatedReadyAt;
+        }
+
         public OrderResponse(Order order) {
             this.id = order.getId();
             this.customerId = order.getCustomerId();
@@ -79,6 +106,7 @@ public class OrderDto {
             this.status = order.getStatus();
             this.totalAmount = order.getTotalAmount();
             this.deliveryAddress = order.getDeliveryAddress();
+            this.scheduledFor = order.getScheduledFor();
             this.createdAt = order.getCreatedAt();
             this.updatedAt = order.getUpdatedAt();
             this.orderItems = order.getOrderItems().stream()
@@ -100,6 +128,7 @@ public class OrderDto {
         private Order.OrderStatus status;
         private BigDecimal totalAmount;
         private String deliveryAddress;
+        private LocalDateTime scheduledFor;
         private LocalDateTime createdAt;
 
         // Constructor from entity
@@ -110,6 +139,18 @@ public class OrderDto {
             this.status = order.getStatus();
             this.totalAmount = order.getTotalAmount();
             this.deliveryAddress = order.getDeliveryAddress();
+            this.scheduledFor = order.getScheduledFor();
+            this.createdAt = order.getCreatedAt();
+        }
+
+        public SimpleOrderResponse(OrderResponse order) {
+            this.id = order.getId();
+            this.restaurantId = order.getRestaurantId();
+            this.restaurantName = order.getRestaurantName();
+            this.status = order.getStatus();
+            this.totalAmount = order.getTotalAmount();
+            this.deliveryAddress = order.getDeliveryAddress();
+            this.scheduledFor = order.getScheduledFor();
             this.createdAt = order.getCreatedAt();
         }
     }
@@ -137,6 +178,53 @@ public class OrderDto {
         }
     }
 
+    /**
+     * Outcome of a single order inside a batch
+     * index is the position of the order in the request
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchOrderResult {
+        private int index;
+        private boolean success;
+        private String message;
+        private OrderResponse order;
+
+        public static BatchOrderResult success(int index, Order order) {
+            return new BatchOrderResult(index, true, "Order created successfully", new OrderResponse(order));
+        }
+
+        public static BatchOrderResult success(int index, Order order, LocalDateTime estimatedReadyAt) {
+            return new BatchOrderResult(index, true, "Order created successfully",
+                    new OrderResponse(order, estimatedReadyAt));
+        }
+
+        public static BatchOrderResult failure(int index, String message) {
+            return new BatchOrderResult(index, false, message, null);
+        }
+    }
+
+    /**
+     * DTO for batch order response
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchOrderResponse {
+        private int totalOrders;
+        private int createdOrders;
+        private int failedOrders;
+        private List<BatchOrderResult> results;
+
+        public BatchOrderResponse(List<BatchOrderResult> results) {
+            this.totalOrders = results.size();
+            this.createdOrders = (int) results.stream().filter(BatchOrderResult::isSuccess).count();
+            this.failedOrders = totalOrders - createdOrders;
+            this.results = results;
+        }
+    }
+
     /**
      * DTO for updating order status
      */
@@ -148,6 +236,44 @@ public class OrderDto {
         private Order.OrderStatus status;
     }
 
+    /**
+     * DTO for one entry of an order's status timeline
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderTimelineEntry {
+        private Order.OrderStatus fromStatus; // Null when the order was placed
+        private Order.OrderStatus toStatus;
+        private String changedBy;
+        private Long changedById;
+        private LocalDateTime timestamp;
+    }
+
+    /**
+     * DTO for setting a restaurant's kitchen capacity
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UpdateKitchenCapacityRequest {
+        @NotNull(message = "Max active orders is required")
+        @Min(value = 0, message = "Max active orders cannot be negative")
+        private Integer maxActiveOrders; // 0 = unlimited
+    }
+
+    /**
+     * DTO for a restaurant's kitchen capacity and current load
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class KitchenCapacityResponse {
+        private Long restaurantId;
+        private int maxActiveOrders;
+        private int activeOrders;
+    }
+
     /**
      * Generic API response wrapper
      */
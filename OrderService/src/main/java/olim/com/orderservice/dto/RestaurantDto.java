@@ -42,6 +42,17 @@ public class RestaurantDto {
         private boolean available;
     }
 
+    /**
+     * Restaurant → owner pair, used to warm up the ownership cache
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RestaurantOwnershipResponse {
+        private Long restaurantId;
+        private Long ownerId;
+    }
+
     /**
      * API Response wrapper for Restaurant Service calls
      */
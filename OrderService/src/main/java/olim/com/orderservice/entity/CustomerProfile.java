@@ -0,0 +1,32 @@
+package olim.com.orderservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Local copy of a customer's contact details, projected from Auth Service user events
+ */
+@Entity
+@Table(name = "customer_profiles")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerProfile {
+
+    @Id
+    @Column(name = "customer_id")
+    private Long customerId; // User ID from Auth Service
+
+    @Column(nullable = false)
+    private String email;
+
+    @Column(name = "full_name")
+    private String fullName;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt; // Time of the user event this copy reflects
+}
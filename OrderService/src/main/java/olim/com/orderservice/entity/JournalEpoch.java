@@ -0,0 +1,30 @@
+package olim.com.orderservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Identifies the current orders database for files kept next to it (the order status journal).
+ * Lives in the same schema as the orders, so it is recreated whenever they are: a journal
+ * written for another epoch describes orders of another database.
+ */
+@Entity
+@Table(name = "journal_epochs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalEpoch {
+
+    @Id
+    private String name; // Which journal
+
+    @Column(nullable = false)
+    private Long epoch;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
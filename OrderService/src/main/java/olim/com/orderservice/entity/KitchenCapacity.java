@@ -0,0 +1,30 @@
+package olim.com.orderservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A restaurant's own kitchen capacity, set by its owner
+ * Restaurants without one use the configured default.
+ */
+@Entity
+@Table(name = "kitchen_capacities")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KitchenCapacity {
+
+    @Id
+    @Column(name = "restaurant_id")
+    private Long restaurantId;
+
+    @Column(name = "max_active_orders", nullable = false)
+    private Integer maxActiveOrders; // 0 = unlimited
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -16,14 +16,19 @@ import java.util.List;
  * Simple Order entity for ByteBites
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_status_scheduled_for", columnList = "status, scheduled_for"),
+        @Index(name = "idx_orders_status_updated_at", columnList = "status, updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
 
+    // Sequence ids (pooled) so Hibernate can batch inserts; IDENTITY forces one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Customer ID is required")
@@ -47,12 +52,21 @@ public class Order {
     @Column(name = "delivery_address")
     private String deliveryAddress;
 
+    @Column(name = "scheduled_for")
+    private LocalDateTime scheduledFor; // Requested time slot for scheduled orders
+
+    @Column(name = "queued_at")
+    private LocalDateTime queuedAt; // When the order first had to wait for a kitchen slot
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version; // Concurrent status changes of one order fail instead of overwriting each other
+
     // Order items relationship
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<OrderItem> orderItems = new ArrayList<>();
@@ -61,11 +75,32 @@ public class Order {
      * Simple order status enumeration
      */
     public enum OrderStatus {
-        PENDING,     // Order placed
-        CONFIRMED,   // Restaurant confirmed
-        PREPARING,   // Being prepared
-        DELIVERED,   // Completed
-        CANCELLED    // Cancelled
+        SCHEDULED(6),   // Placed for a future time slot, not yet sent to the kitchen
+        PENDING(1),     // Order placed
+        CONFIRMED(2),   // Restaurant confirmed
+        PREPARING(3),   // Being prepared
+        DELIVERED(4),   // Completed
+        CANCELLED(5);   // Cancelled
+
+        // Stable code used in binary storage (status journal / event store) - never reuse a code
+        private final byte code;
+
+        OrderStatus(int code) {
+            this.code = (byte) code;
+        }
+
+        public byte getCode() {
+            return code;
+        }
+
+        public static OrderStatus fromCode(byte code) {
+            for (OrderStatus status : values()) {
+                if (status.code == code) {
+                    return status;
+                }
+            }
+            throw new IllegalArgumentException("Unknown order status code " + code);
+        }
     }
 
     // JPA lifecycle callbacks
@@ -0,0 +1,21 @@
+package olim.com.orderservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Restaurant created / deleted event published by Restaurant Service
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantOwnershipEvent {
+
+    private Long restaurantId;
+    private Long ownerId;
+    private boolean deleted;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,23 @@
+package olim.com.orderservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * User created / profile updated event published by Auth Service
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProfileEvent {
+
+    private Long userId;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private String role;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,46 @@
+package olim.com.orderservice.eventstore;
+
+import olim.com.orderservice.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Events stored by the event-sourced order store
+ * Applied in log order they rebuild the full state of every order.
+ */
+public sealed interface OrderEvent
+        permits OrderEvent.Created, OrderEvent.ItemAdded, OrderEvent.StatusChanged, OrderEvent.ScheduleChanged {
+
+    long orderId();
+
+    LocalDateTime timestamp();
+
+    /**
+     * Order placed (items follow as ItemAdded events)
+     */
+    record Created(long orderId, LocalDateTime timestamp, long customerId, long restaurantId,
+                   String restaurantName, String deliveryAddress, BigDecimal totalAmount,
+                   Order.OrderStatus status, LocalDateTime scheduledFor) implements OrderEvent {
+    }
+
+    /**
+     * Item added to an order
+     */
+    record ItemAdded(long orderId, LocalDateTime timestamp, long itemId, long menuItemId,
+                     String menuItemName, int quantity, BigDecimal price) implements OrderEvent {
+    }
+
+    /**
+     * Order moved to another status
+     */
+    record StatusChanged(long orderId, LocalDateTime timestamp, Order.OrderStatus fromStatus,
+                         Order.OrderStatus toStatus) implements OrderEvent {
+    }
+
+    /**
+     * Scheduled order moved to another time slot
+     */
+    record ScheduleChanged(long orderId, LocalDateTime timestamp, LocalDateTime scheduledFor) implements OrderEvent {
+    }
+}
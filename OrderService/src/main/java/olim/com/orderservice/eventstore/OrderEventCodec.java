@@ -0,0 +1,187 @@
+package olim.com.orderservice.eventstore;
+
+import olim.com.orderservice.entity.Order;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Compact binary encoding of order events and order state (snapshots)
+ * Big-endian, no field names: the type byte fixes the layout.
+ */
+final class OrderEventCodec {
+
+    private static final byte CREATED = 1;
+    private static final byte ITEM_ADDED = 2;
+    private static final byte STATUS_CHANGED = 3;
+    private static final byte SCHEDULE_CHANGED = 4;
+
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private OrderEventCodec() {
+    }
+
+    static byte[] encode(OrderEvent event) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            if (event instanceof OrderEvent.Created created) {
+                out.writeByte(CREATED);
+                writeHeader(out, event);
+                out.writeLong(created.customerId());
+                out.writeLong(created.restaurantId());
+                writeString(out, created.restaurantName());
+                writeString(out, created.deliveryAddress());
+                writeDecimal(out, created.totalAmount());
+                out.writeByte(created.status().getCode());
+                writeTime(out, created.scheduledFor());
+            } else if (event instanceof OrderEvent.ItemAdded itemAdded) {
+                out.writeByte(ITEM_ADDED);
+                writeHeader(out, event);
+                out.writeLong(itemAdded.itemId());
+                out.writeLong(itemAdded.menuItemId());
+                writeString(out, itemAdded.menuItemName());
+                out.writeInt(itemAdded.quantity());
+                writeDecimal(out, itemAdded.price());
+            } else if (event instanceof OrderEvent.StatusChanged statusChanged) {
+                out.writeByte(STATUS_CHANGED);
+                writeHeader(out, event);
+                out.writeByte(statusChanged.fromStatus().getCode());
+                out.writeByte(statusChanged.toStatus().getCode());
+            } else if (event instanceof OrderEvent.ScheduleChanged scheduleChanged) {
+                out.writeByte(SCHEDULE_CHANGED);
+                writeHeader(out, event);
+                writeTime(out, scheduleChanged.scheduledFor());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static OrderEvent decode(ByteBuffer in) {
+        byte type = in.get();
+        long orderId = in.getLong();
+        LocalDateTime timestamp = readTime(in);
+
+        return switch (type) {
+            case CREATED -> new OrderEvent.Created(orderId, timestamp, in.getLong(), in.getLong(),
+                    readString(in), readString(in), readDecimal(in),
+                    Order.OrderStatus.fromCode(in.get()), readTime(in));
+            case ITEM_ADDED -> new OrderEvent.ItemAdded(orderId, timestamp, in.getLong(), in.getLong(),
+                    readString(in), in.getInt(), readDecimal(in));
+            case STATUS_CHANGED -> new OrderEvent.StatusChanged(orderId, timestamp,
+                    Order.OrderStatus.fromCode(in.get()), Order.OrderStatus.fromCode(in.get()));
+            case SCHEDULE_CHANGED -> new OrderEvent.ScheduleChanged(orderId, timestamp, readTime(in));
+            default -> throw new IllegalStateException("Unknown order event type " + type);
+        };
+    }
+
+    static void writeState(DataOutput out, OrderState state) throws IOException {
+        out.writeLong(state.id);
+        out.writeLong(state.customerId);
+        out.writeLong(state.restaurantId);
+        writeString(out, state.restaurantName);
+        writeString(out, state.deliveryAddress);
+        writeDecimal(out, state.totalAmount);
+        out.writeByte(state.status.getCode());
+        writeTime(out, state.scheduledFor);
+        writeTime(out, state.createdAt);
+        writeTime(out, state.updatedAt);
+
+        out.writeInt(state.items.size());
+        for (OrderState.ItemState item : state.items) {
+            out.writeLong(item.id());
+            out.writeLong(item.menuItemId());
+            writeString(out, item.menuItemName());
+            out.writeInt(item.quantity());
+            writeDecimal(out, item.price());
+            writeTime(out, item.createdAt());
+        }
+    }
+
+    static OrderState readState(ByteBuffer in) {
+        OrderState state = new OrderState();
+        state.id = in.getLong();
+        state.customerId = in.getLong();
+        state.restaurantId = in.getLong();
+        state.restaurantName = readString(in);
+        state.deliveryAddress = readString(in);
+        state.totalAmount = readDecimal(in);
+        state.status = Order.OrderStatus.fromCode(in.get());
+        state.scheduledFor = readTime(in);
+        state.createdAt = readTime(in);
+        state.updatedAt = readTime(in);
+
+        int items = in.getInt();
+        for (int i = 0; i < items; i++) {
+            state.items.add(new OrderState.ItemState(in.getLong(), in.getLong(), readString(in),
+                    in.getInt(), readDecimal(in), readTime(in)));
+        }
+        return state;
+    }
+
+    private static void writeHeader(DataOutput out, OrderEvent event) throws IOException {
+        out.writeLong(event.orderId());
+        writeTime(out, event.timestamp());
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDecimal(DataOutput out, BigDecimal value) throws IOException {
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeByte(value.scale());
+        out.writeByte(unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static BigDecimal readDecimal(ByteBuffer in) {
+        int scale = in.get();
+        byte[] unscaled = new byte[in.get()];
+        in.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static void writeTime(DataOutput out, LocalDateTime value) throws IOException {
+        if (value == null) {
+            out.writeLong(NO_TIME);
+            return;
+        }
+        out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(value.getNano());
+    }
+
+    private static LocalDateTime readTime(ByteBuffer in) {
+        long seconds = in.getLong();
+        if (seconds == NO_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(seconds, in.getInt(), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,461 @@
+package olim.com.orderservice.eventstore;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import olim.com.orderservice.entity.Order;
+import olim.com.orderservice.entity.OrderItem;
+import olim.com.orderservice.util.MappedRecordLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Event-sourced Order Store (optional persistence mode)
+ *
+ * When enabled, order creation, items and every status / schedule change are appended as
+ * events to a memory-mapped record log, and the orders / order_items tables become a
+ * projection of that log. The projection can be rebuilt at any time by replaying the latest
+ * snapshot plus the events after it.
+ *
+ * Events are appended once the writing transaction has committed, so rolled back changes
+ * never reach the log. Writing transactions hold a shared lock from before they touch any
+ * order row until they complete ({@link #enterWriteGate()}), so a rebuild (exclusive) always
+ * sees the log and the tables agree, and never waits on row locks of a writer that waits on
+ * it; readers keep seeing the old projection until the rebuild commits.
+ *
+ * State derived from the orders tables (kitchen counters, the scheduled-order window, the
+ * customer read model) is re-derived on {@link ProjectionRebuilt}, published while writers are
+ * still held at the gate. On startup the rebuild runs before any other ready listener.
+ */
+@Component
+public class OrderEventStore {
+
+    private static final int MARKER = 0x4F455331; // "OES1"
+    private static final int SNAPSHOT_MAGIC = 0x4F535331; // "OSS1"
+    private static final int PROJECTION_BATCH_SIZE = 500;
+    private static final int SEQUENCE_ALLOCATION_SIZE = 50; // Matches the entities' @SequenceGenerator
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Value("${order.event-store.enabled:false}")
+    private boolean enabled;
+
+    @Value("${order.event-store.directory:./data/order-events}")
+    private String directory;
+
+    @Value("${order.event-store.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @Value("${order.event-store.snapshot-every-events:100000}")
+    private long snapshotEveryEvents;
+
+    @Value("${order.event-store.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    private MappedRecordLog log;
+    private final ReentrantReadWriteLock projectionLock = new ReentrantReadWriteLock();
+    private final Object writeGateKey = new Object(); // Marks transactions holding the shared lock
+    private final AtomicLong eventsSinceSnapshot = new AtomicLong();
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            log = new MappedRecordLog(Paths.get(directory), "order-events", segmentSizeMb * 1024 * 1024, MARKER);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open order event store in " + directory, e);
+        }
+        System.out.println("📚 Order event store opened at position " + log.getEndPosition());
+    }
+
+    /**
+     * The orders tables were replaced by a rebuild - anything derived from them must be derived again
+     */
+    public record ProjectionRebuilt(RebuildStats stats) {
+    }
+
+    /**
+     * Bring the projection up to date with the log (e.g. after a schema change dropped it)
+     * Runs first, so the other ready listeners load from the rebuilt tables.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @org.springframework.core.annotation.Order(Ordered.HIGHEST_PRECEDENCE) // Not the Order entity
+    public void rebuildOnStartup() {
+        if (log != null && rebuildOnStartup) {
+            rebuildProjection();
+        }
+    }
+
+    public boolean isEnabled() {
+        return log != null;
+    }
+
+    /**
+     * Hold the projection lock (shared) until the current transaction completes
+     * Call at the start of every transaction that writes orders, before it touches any row.
+     */
+    public void enterWriteGate() {
+        if (log == null || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(writeGateKey)) {
+            return;
+        }
+        projectionLock.readLock().lock();
+        TransactionSynchronizationManager.bindResource(writeGateKey, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(writeGateKey);
+                projectionLock.readLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Record a newly saved order and its items
+     */
+    public void recordCreated(Order order) {
+        if (log == null) {
+            return;
+        }
+        List<OrderEvent> events = new ArrayList<>();
+        events.add(new OrderEvent.Created(order.getId(), order.getCreatedAt(), order.getCustomerId(),
+                order.getRestaurantId(), order.getRestaurantName(), order.getDeliveryAddress(),
+                order.getTotalAmount(), order.getStatus(), order.getScheduledFor()));
+        for (OrderItem item : order.getOrderItems()) {
+            events.add(new OrderEvent.ItemAdded(order.getId(), item.getCreatedAt(), item.getId(),
+                    item.getMenuItemId(), item.getMenuItemName(), item.getQuantity(), item.getPrice()));
+        }
+        store(events);
+    }
+
+    /**
+     * Record a status change
+     */
+    public void recordStatusChange(Long orderId, Order.OrderStatus fromStatus, Order.OrderStatus toStatus) {
+        if (log != null) {
+            store(List.of(new OrderEvent.StatusChanged(orderId, LocalDateTime.now(), fromStatus, toStatus)));
+        }
+    }
+
+    /**
+     * Record a scheduled order moving to another time slot
+     */
+    public void recordScheduleChange(Long orderId, LocalDateTime scheduledFor) {
+        if (log != null) {
+            store(List.of(new OrderEvent.ScheduleChanged(orderId, LocalDateTime.now(), scheduledFor)));
+        }
+    }
+
+    /**
+     * Replay events in log order from the given position
+     *
+     * @return position to resume from
+     */
+    public long replay(long fromPosition, Consumer<OrderEvent> consumer) {
+        if (log == null) {
+            return 0;
+        }
+        return log.forEach(fromPosition, (position, buffer, offset, length) ->
+                consumer.accept(OrderEventCodec.decode(buffer.slice(offset, length))));
+    }
+
+    /**
+     * Rebuild the orders / order_items projection from the latest snapshot and the log
+     * Replaces the tables in one transaction; order writes wait at the gate while it runs.
+     */
+    public RebuildStats rebuildProjection() {
+        if (log == null) {
+            throw new RuntimeException("Event-sourced order store is not enabled");
+        }
+        long startNanos = System.nanoTime();
+
+        projectionLock.writeLock().lock();
+        try {
+            ReplayedState replayed = loadState();
+            transactionTemplate.executeWithoutResult(status -> writeProjection(replayed.orders()));
+
+            long itemCount = replayed.orders().values().stream().mapToLong(state -> state.items.size()).sum();
+            RebuildStats stats = new RebuildStats(replayed.orders().size(), itemCount, replayed.eventsReplayed(),
+                    (System.nanoTime() - startNanos) / 1_000_000);
+            System.out.println("📚 Rebuilt order projection: " + stats.getOrders() + " orders from "
+                    + stats.getEventsReplayed() + " events in " + stats.getDurationMs() + " ms");
+
+            // Still holding the gate - no order write can slip in between the tables and what is derived from them
+            applicationEventPublisher.publishEvent(new ProjectionRebuilt(stats));
+            return stats;
+        } finally {
+            projectionLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Write a snapshot of all order state, so later replays start from here
+     *
+     * @return log position the snapshot covers up to
+     */
+    public long takeSnapshot() {
+        if (log == null) {
+            throw new RuntimeException("Event-sourced order store is not enabled");
+        }
+        ReplayedState replayed = loadState();
+        Path snapshotDir = Paths.get(directory, "snapshots");
+        Path target = snapshotDir.resolve(String.format("snapshot-%020d.bin", replayed.position()));
+
+        try {
+            Files.createDirectories(snapshotDir);
+            Path temp = Files.createTempFile(snapshotDir, "snapshot-", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeLong(replayed.position());
+                out.writeInt(replayed.orders().size());
+                for (OrderState state : replayed.orders().values()) {
+                    OrderEventCodec.writeState(out, state);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            // Keep only the newest snapshot
+            for (Path older : listSnapshots()) {
+                if (!older.equals(target)) {
+                    Files.deleteIfExists(older);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write order snapshot", e);
+        }
+
+        eventsSinceSnapshot.set(0);
+        System.out.println("📸 Order snapshot written with " + replayed.orders().size() + " orders");
+        return replayed.position();
+    }
+
+    /**
+     * Snapshot once enough events have been appended since the last one
+     */
+    @Scheduled(fixedDelayString = "${order.event-store.snapshot-check-interval-ms:60000}")
+    public void snapshotIfDue() {
+        if (log != null && eventsSinceSnapshot.get() >= snapshotEveryEvents) {
+            try {
+                takeSnapshot();
+            } catch (Exception e) {
+                System.err.println("❌ Failed to snapshot order event store: " + e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.event-store.flush-interval-ms:5000}")
+    public void flush() {
+        if (log != null) {
+            log.flush();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    private void store(List<OrderEvent> events) {
+        List<byte[]> encoded = events.stream().map(OrderEventCodec::encode).collect(Collectors.toList());
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            projectionLock.readLock().lock();
+            try {
+                append(encoded);
+            } finally {
+                projectionLock.readLock().unlock();
+            }
+            return;
+        }
+
+        // Normally entered already; late entry still keeps a rebuild from seeing rows without their events
+        enterWriteGate();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                append(encoded);
+            }
+        });
+    }
+
+    private void append(List<byte[]> encoded) {
+        for (byte[] event : encoded) {
+            log.append(event.length, (buffer, offset) -> buffer.put(offset, event));
+        }
+        eventsSinceSnapshot.addAndGet(encoded.size());
+    }
+
+    private ReplayedState loadState() {
+        Map<Long, OrderState> orders = new HashMap<>();
+        long fromPosition = 0;
+
+        Optional<Path> snapshot = listSnapshots().stream().reduce((first, second) -> second);
+        if (snapshot.isPresent()) {
+            try {
+                ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(snapshot.get()));
+                if (in.getInt() != SNAPSHOT_MAGIC) {
+                    throw new IllegalStateException("Not an order snapshot: " + snapshot.get());
+                }
+                fromPosition = in.getLong();
+                int count = in.getInt();
+                for (int i = 0; i < count; i++) {
+                    OrderState state = OrderEventCodec.readState(in);
+                    orders.put(state.id, state);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read order snapshot " + snapshot.get(), e);
+            }
+        }
+
+        AtomicLong eventsReplayed = new AtomicLong();
+        long position = replay(fromPosition, event -> {
+            OrderState.apply(orders, event);
+            eventsReplayed.incrementAndGet();
+        });
+        return new ReplayedState(orders, position, eventsReplayed.get());
+    }
+
+    private List<Path> listSnapshots() {
+        Path snapshotDir = Paths.get(directory, "snapshots");
+        if (!Files.isDirectory(snapshotDir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(snapshotDir)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".bin"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list order snapshots", e);
+        }
+    }
+
+    private void writeProjection(Map<Long, OrderState> orders) {
+        jdbcTemplate.update("DELETE FROM order_items");
+        jdbcTemplate.update("DELETE FROM orders");
+
+        List<Object[]> orderRows = new ArrayList<>(PROJECTION_BATCH_SIZE);
+        List<Object[]> itemRows = new ArrayList<>(PROJECTION_BATCH_SIZE);
+        long maxOrderId = 0;
+        long maxItemId = 0;
+
+        for (OrderState state : orders.values()) {
+            orderRows.add(new Object[]{state.id, state.customerId, state.restaurantId, state.restaurantName,
+                    state.status.name(), state.totalAmount, state.deliveryAddress, state.scheduledFor,
+                    state.createdAt, state.updatedAt, 0L});
+            maxOrderId = Math.max(maxOrderId, state.id);
+            if (orderRows.size() == PROJECTION_BATCH_SIZE) {
+                insertOrders(orderRows);
+            }
+
+            for (OrderState.ItemState item : state.items) {
+                itemRows.add(new Object[]{item.id(), state.id, item.menuItemId(), item.menuItemName(),
+                        item.quantity(), item.price(), item.createdAt()});
+                maxItemId = Math.max(maxItemId, item.id());
+            }
+            if (itemRows.size() >= PROJECTION_BATCH_SIZE) {
+                insertOrders(orderRows); // Items reference their orders
+                insertItems(itemRows);
+            }
+        }
+        insertOrders(orderRows);
+        insertItems(itemRows);
+
+        advanceSequence("orders_seq", maxOrderId);
+        advanceSequence("order_items_seq", maxItemId);
+    }
+
+    private void insertOrders(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO orders (id, customer_id, restaurant_id, restaurant_name, status, " +
+                    "total_amount, delivery_address, scheduled_for, created_at, updated_at, version) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+            rows.clear();
+        }
+    }
+
+    private void insertItems(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO order_items (id, order_id, menu_item_id, menu_item_name, " +
+                    "quantity, price, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+            rows.clear();
+        }
+    }
+
+    /**
+     * Make sure new ids are allocated above the replayed ones (a recreated schema starts its sequences at 1)
+     */
+    private void advanceSequence(String sequence, long maxId) {
+        Long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + sequence, Long.class);
+        if (next != null && next - SEQUENCE_ALLOCATION_SIZE < maxId) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH "
+                    + (maxId + SEQUENCE_ALLOCATION_SIZE + 1));
+        }
+    }
+
+    private record ReplayedState(Map<Long, OrderState> orders, long position, long eventsReplayed) {
+    }
+
+    /**
+     * Result of a projection rebuild
+     */
+    public static class RebuildStats {
+        private final long orders;
+        private final long orderItems;
+        private final long eventsReplayed;
+        private final long durationMs;
+
+        public RebuildStats(long orders, long orderItems, long eventsReplayed, long durationMs) {
+            this.orders = orders;
+            this.orderItems = orderItems;
+            this.eventsReplayed = eventsReplayed;
+            this.durationMs = durationMs;
+        }
+
+        public long getOrders() { return orders; }
+        public long getOrderItems() { return orderItems; }
+        public long getEventsReplayed() { return eventsReplayed; }
+        public long getDurationMs() { return durationMs; }
+        public long getEventsPerSecond() { return durationMs > 0 ? eventsReplayed * 1000 / durationMs : eventsReplayed; }
+    }
+}
@@ -0,0 +1,75 @@
+package olim.com.orderservice.eventstore;
+
+import olim.com.orderservice.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * State of one order as folded from its events
+ * Mirrors a row of the orders projection and its order_items rows.
+ */
+public class OrderState {
+
+    long id;
+    long customerId;
+    long restaurantId;
+    String restaurantName;
+    String deliveryAddress;
+    BigDecimal totalAmount;
+    Order.OrderStatus status;
+    LocalDateTime scheduledFor;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+    final List<ItemState> items = new ArrayList<>();
+
+    /**
+     * Apply an event to the orders it belongs to
+     */
+    public static void apply(Map<Long, OrderState> orders, OrderEvent event) {
+        if (event instanceof OrderEvent.Created created) {
+            OrderState state = new OrderState();
+            state.id = created.orderId();
+            state.customerId = created.customerId();
+            state.restaurantId = created.restaurantId();
+            state.restaurantName = created.restaurantName();
+            state.deliveryAddress = created.deliveryAddress();
+            state.totalAmount = created.totalAmount();
+            state.status = created.status();
+            state.scheduledFor = created.scheduledFor();
+            state.createdAt = created.timestamp();
+            state.updatedAt = created.timestamp();
+            orders.put(state.id, state);
+            return;
+        }
+
+        OrderState state = orders.get(event.orderId());
+        if (state == null) {
+            return; // Creation was lost (e.g. torn write) - nothing to apply to
+        }
+        if (event instanceof OrderEvent.ItemAdded itemAdded) {
+            state.items.add(new ItemState(itemAdded.itemId(), itemAdded.menuItemId(), itemAdded.menuItemName(),
+                    itemAdded.quantity(), itemAdded.price(), itemAdded.timestamp()));
+        } else if (event instanceof OrderEvent.StatusChanged statusChanged) {
+            state.status = statusChanged.toStatus();
+            state.updatedAt = statusChanged.timestamp();
+        } else if (event instanceof OrderEvent.ScheduleChanged scheduleChanged) {
+            state.scheduledFor = scheduleChanged.scheduledFor();
+            state.updatedAt = scheduleChanged.timestamp();
+        }
+    }
+
+    public long getId() { return id; }
+    public Order.OrderStatus getStatus() { return status; }
+    public List<ItemState> getItems() { return items; }
+
+    /**
+     * State of one order item
+     */
+    record ItemState(long id, long menuItemId, String menuItemName, int quantity, BigDecimal price,
+                     LocalDateTime createdAt) {
+    }
+}
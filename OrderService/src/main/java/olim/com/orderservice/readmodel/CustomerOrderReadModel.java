@@ -0,0 +1,378 @@
+package olim.com.orderservice.readmodel;
+
+import jakarta.annotation.PreDestroy;
+import olim.com.orderservice.dto.OrderDto.OrderResponse;
+import olim.com.orderservice.entity.Order;
+import olim.com.orderservice.eventstore.OrderEventStore;
+import olim.com.orderservice.repository.OrderRepository;
+import olim.com.orderservice.service.KitchenAdmissionController;
+import olim.com.orderservice.service.OrderService;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Customer Order Read Model (CQRS)
+ *
+ * Denormalized, in-memory view of customers' recent orders (items embedded), used to serve
+ * the customer-facing GETs without touching the orders table. It is fed after commit by
+ * OrderPlaced / OrderStatusChanged events and applied on a single background thread, so
+ * updates are applied in commit order.
+ *
+ * Every instance holds its own model, so each update is also broadcast on the exchange and
+ * applied by the other instances (each consumes from its own queue). Consistency bounds:
+ * - writes through this instance: read-your-writes for the writing customer, and at most
+ *   max-staleness-ms behind for everyone else
+ * - writes through other instances: normally behind by the broker's delivery time; if a
+ *   broadcast is lost (broker down, instance restarting), until the customer's entry is
+ *   reloaded - at most max-entry-age-ms after it was loaded
+ * - after an event store rebuild every customer is reloaded from the rebuilt tables
+ *
+ * Customers are loaded lazily from the database on first read (on the same thread, so loads
+ * and updates never race) and the least recently read are evicted beyond a bound, which
+ * also makes a snapshot unnecessary: a restart just warms up again.
+ *
+ * Reads fall back to the database when the model can't answer within the guarantees:
+ * the customer isn't loaded yet (or was loaded too long ago), one of their own writes is
+ * still being applied (read-your-writes), or the update backlog is older than the staleness bound.
+ */
+@Component
+public class CustomerOrderReadModel {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Value("${order.read-model.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.read-model.max-staleness-ms:2000}")
+    private long maxStalenessMs;
+
+    @Value("${order.read-model.max-customers:10000}")
+    private int maxCustomers;
+
+    @Value("${order.read-model.max-orders-per-customer:200}")
+    private int maxOrdersPerCustomer;
+
+    @Value("${order.read-model.max-entry-age-ms:60000}")
+    private long maxEntryAgeMs;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Value("${bytebites.messaging.exchange}")
+    private String exchange;
+
+    @Value("${bytebites.messaging.routing-keys.read-model}")
+    private String readModelRoutingKey;
+
+    // Marks this instance's broadcasts, so it doesn't apply its own updates twice
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final ConcurrentHashMap<Long, CustomerOrders> customers = new ConcurrentHashMap<>();
+    private final Map<Long, Boolean> loading = new ConcurrentHashMap<>();
+
+    // Updates committed but not applied yet, per customer and overall (enqueue times, oldest first)
+    private final ConcurrentHashMap<Long, AtomicInteger> pendingWrites = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Long> pendingSince = new ConcurrentLinkedQueue<>();
+
+    private final ExecutorService applier =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("order-read-model-"));
+
+    // Broadcasts go out on their own thread - a slow broker must not hold up applying updates
+    private final ExecutorService broadcaster =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("order-read-model-broadcast-"));
+
+    /**
+     * A new order was placed (full view)
+     */
+    public record OrderPlaced(OrderResponse order) {
+    }
+
+    /**
+     * An order changed status or time slot
+     */
+    public record OrderStatusChanged(Long customerId, Long orderId, Order.OrderStatus status,
+                                     LocalDateTime scheduledFor, LocalDateTime updatedAt) {
+    }
+
+    /**
+     * An update broadcast to every instance's read model (exactly one of placed / statusChanged is set)
+     */
+    public record ReadModelUpdate(String origin, OrderPlaced placed, OrderStatusChanged statusChanged) {
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlaced event) {
+        apply(event);
+        broadcast(new ReadModelUpdate(instanceId, event, null));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChanged event) {
+        apply(event);
+        broadcast(new ReadModelUpdate(instanceId, null, event));
+    }
+
+    /**
+     * Updates committed through other instances
+     */
+    @RabbitListener(queues = "#{readModelQueue.name}") // This instance's own queue
+    public void onRemoteUpdate(ReadModelUpdate update) {
+        if (instanceId.equals(update.origin())) {
+            return; // Applied when it was committed here
+        }
+        if (update.placed() != null) {
+            apply(update.placed());
+        } else if (update.statusChanged() != null) {
+            apply(update.statusChanged());
+        }
+    }
+
+    /**
+     * The orders tables were replaced by an event store rebuild - drop every customer, they load
+     * again from the new rows on their next read (queued behind updates already committed)
+     */
+    @EventListener(OrderEventStore.ProjectionRebuilt.class)
+    public void onProjectionRebuilt() {
+        applier.execute(customers::clear);
+    }
+
+    /**
+     * All orders of a customer, if the model holds their complete history
+     */
+    public Optional<List<OrderResponse>> findOrders(Long customerId) {
+        return readableEntry(customerId)
+                .filter(CustomerOrders::isComplete)
+                .map(CustomerOrders::orders);
+    }
+
+    /**
+     * One of a customer's orders, if the model holds it
+     */
+    public Optional<OrderResponse> findOrder(Long customerId, Long orderId) {
+        return readableEntry(customerId).flatMap(entry -> entry.order(orderId));
+    }
+
+    /**
+     * Order statistics for a customer
+     */
+    public Optional<OrderService.CustomerOrderStats> findStats(Long customerId) {
+        return readableEntry(customerId).map(CustomerOrders::stats);
+    }
+
+    @PreDestroy
+    public void stop() {
+        applier.shutdownNow();
+        broadcaster.shutdownNow();
+    }
+
+    private void apply(OrderPlaced event) {
+        enqueue(event.order().getCustomerId(), entry -> entry.put(event.order(), true));
+    }
+
+    private void apply(OrderStatusChanged event) {
+        enqueue(event.customerId(), entry -> entry.update(event));
+    }
+
+    private void broadcast(ReadModelUpdate update) {
+        if (!enabled) {
+            return;
+        }
+        broadcaster.execute(() -> {
+            try {
+                rabbitTemplate.convertAndSend(exchange, readModelRoutingKey, update);
+            } catch (Exception e) {
+                // Other instances catch up when they reload the customer (max-entry-age-ms)
+                System.err.println("⚠️ Failed to broadcast read model update: " + e.getMessage());
+            }
+        });
+    }
+
+    private Optional<CustomerOrders> readableEntry(Long customerId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        AtomicInteger pending = pendingWrites.get(customerId);
+        if (pending != null && pending.get() > 0) {
+            return Optional.empty(); // Read-your-writes: their change isn't applied yet
+        }
+        Long oldestPending = pendingSince.peek();
+        if (oldestPending != null && System.currentTimeMillis() - oldestPending > maxStalenessMs) {
+            return Optional.empty(); // Backlog too old
+        }
+
+        CustomerOrders entry = customers.get(customerId);
+        long now = System.currentTimeMillis();
+        if (entry == null || now - entry.loadedAt > maxEntryAgeMs) {
+            scheduleLoad(customerId); // Replaces an old entry, in case it missed a broadcast
+            return Optional.empty();
+        }
+        entry.lastAccess = now;
+        return Optional.of(entry);
+    }
+
+    private void enqueue(Long customerId, Consumer<CustomerOrders> update) {
+        if (!enabled) {
+            return;
+        }
+        AtomicInteger pending = pendingWrites.computeIfAbsent(customerId, id -> new AtomicInteger());
+        pending.incrementAndGet();
+        Long enqueuedAt = System.currentTimeMillis();
+        pendingSince.add(enqueuedAt);
+
+        applier.execute(() -> {
+            try {
+                CustomerOrders entry = customers.get(customerId);
+                if (entry != null) {
+                    update.accept(entry); // Customers not loaded pick the change up when they are
+                }
+            } catch (Exception e) {
+                customers.remove(customerId); // Reload from the database rather than serve a broken view
+                System.err.println("❌ Failed to apply order update to read model: " + e.getMessage());
+            } finally {
+                pendingSince.remove(enqueuedAt);
+                pending.decrementAndGet();
+            }
+        });
+    }
+
+    private void scheduleLoad(Long customerId) {
+        if (loading.putIfAbsent(customerId, Boolean.TRUE) != null) {
+            return;
+        }
+        applier.execute(() -> {
+            try {
+                CustomerOrders entry = new CustomerOrders();
+                List<Order> orders = orderRepository.findWithItemsByCustomerId(customerId);
+                orders.forEach(order -> entry.put(new OrderResponse(order), false));
+                entry.totalOrders = orders.size();
+                entry.trim();
+                customers.put(customerId, entry);
+                evictIfNeeded();
+            } catch (Exception e) {
+                System.err.println("❌ Failed to load customer " + customerId + " into read model: " + e.getMessage());
+            } finally {
+                loading.remove(customerId);
+            }
+        });
+    }
+
+    private void evictIfNeeded() {
+        int excess = customers.size() - maxCustomers;
+        if (excess <= 0) {
+            return;
+        }
+        // Drop the least recently read tenth in one go, so this doesn't run on every load
+        customers.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().lastAccess))
+                .limit(excess + maxCustomers / 10)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList())
+                .forEach(customers::remove);
+    }
+
+    /**
+     * Read model entry for one customer
+     */
+    private class CustomerOrders {
+        private final Map<Long, OrderResponse> orders = new HashMap<>();
+        private long totalOrders;
+        private boolean complete = true;
+        private final long loadedAt = System.currentTimeMillis();
+        private volatile long lastAccess = loadedAt;
+
+        synchronized void put(OrderResponse order, boolean isNew) {
+            if (orders.put(order.getId(), order) == null && isNew) {
+                totalOrders++;
+            }
+            trim();
+        }
+
+        synchronized void update(OrderStatusChanged event) {
+            OrderResponse current = orders.get(event.orderId());
+            if (current == null) {
+                return; // Evicted - older than anything we serve
+            }
+            OrderResponse updated = copy(current);
+            updated.setStatus(event.status());
+            updated.setScheduledFor(event.scheduledFor());
+            updated.setUpdatedAt(event.updatedAt());
+            orders.put(updated.getId(), updated);
+        }
+
+        synchronized boolean isComplete() {
+            return complete;
+        }
+
+        synchronized List<OrderResponse> orders() {
+            return orders.values().stream()
+                    .sorted(Comparator.comparing(OrderResponse::getCreatedAt,
+                            Comparator.nullsLast(Comparator.reverseOrder())))
+                    .map(CustomerOrderReadModel::copy)
+                    .collect(Collectors.toList());
+        }
+
+        synchronized Optional<OrderResponse> order(Long orderId) {
+            return Optional.ofNullable(orders.get(orderId)).map(CustomerOrderReadModel::copy);
+        }
+
+        synchronized OrderService.CustomerOrderStats stats() {
+            long active = orders.values().stream()
+                    .filter(order -> order.getStatus() != Order.OrderStatus.DELIVERED
+                            && order.getStatus() != Order.OrderStatus.CANCELLED)
+                    .count();
+            return new OrderService.CustomerOrderStats(totalOrders, active);
+        }
+
+        /**
+         * Keep the most recent orders (active ones are always kept)
+         */
+        synchronized void trim() {
+            int excess = orders.size() - maxOrdersPerCustomer;
+            if (excess <= 0) {
+                return;
+            }
+            List<OrderResponse> removable = new ArrayList<>(orders.values()).stream()
+                    .filter(order -> !KitchenAdmissionController.ACTIVE_STATUSES.contains(order.getStatus())
+                            && order.getStatus() != Order.OrderStatus.SCHEDULED)
+                    .sorted(Comparator.comparing(OrderResponse::getCreatedAt,
+                            Comparator.nullsFirst(Comparator.naturalOrder())))
+                    .limit(excess)
+                    .collect(Collectors.toList());
+            removable.forEach(order -> orders.remove(order.getId()));
+            complete = complete && removable.isEmpty();
+        }
+    }
+
+    /**
+     * Copy of a view, so callers can't change what's stored
+     */
+    private static OrderResponse copy(OrderResponse order) {
+        return new OrderResponse(order.getId(), order.getCustomerId(), order.getRestaurantId(),
+                order.getRestaurantName(), order.getStatus(), order.getTotalAmount(), order.getDeliveryAddress(),
+                order.getScheduledFor(), order.getCreatedAt(), order.getUpdatedAt(), order.getEstimatedReadyAt(),
+                order.getOrderItems());
+    }
+}
@@ -0,0 +1,12 @@
+package olim.com.orderservice.repository;
+
+import olim.com.orderservice.entity.CustomerProfile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for CustomerProfile entity
+ */
+@Repository
+public interface CustomerProfileRepository extends JpaRepository<CustomerProfile, Long> {
+}
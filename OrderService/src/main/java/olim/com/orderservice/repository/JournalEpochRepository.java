@@ -0,0 +1,12 @@
+package olim.com.orderservice.repository;
+
+import olim.com.orderservice.entity.JournalEpoch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for JournalEpoch entity
+ */
+@Repository
+public interface JournalEpochRepository extends JpaRepository<JournalEpoch, String> {
+}
@@ -0,0 +1,12 @@
+package olim.com.orderservice.repository;
+
+import olim.com.orderservice.entity.KitchenCapacity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for KitchenCapacity entity
+ */
+@Repository
+public interface KitchenCapacityRepository extends JpaRepository<KitchenCapacity, Long> {
+}
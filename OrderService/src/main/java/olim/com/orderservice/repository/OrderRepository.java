@@ -1,11 +1,17 @@
 package olim.com.orderservice.repository;
 
+import jakarta.persistence.LockModeType;
 import olim.com.orderservice.entity.Order;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,6 +43,13 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     List<Order> findByRestaurantIdAndStatus(Long restaurantId, Order.OrderStatus status);
 
+    /**
+     * Find all orders of a customer with their items in one query
+     * Used to load a customer into the order read model
+     */
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.customerId = :customerId")
+    List<Order> findWithItemsByCustomerId(@Param("customerId") Long customerId);
+
     /**
      * Find active orders for a customer (not delivered or cancelled)
      */
@@ -68,4 +81,63 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     @Query("SELECT o FROM Order o WHERE o.customerId = :customerId ORDER BY o.createdAt DESC")
     List<Order> findRecentOrdersByCustomer(@Param("customerId") Long customerId);
-}
\ No newline at end of file
+
+    /**
+     * Find scheduled orders due up to a given time
+     * Served by the (status, scheduled_for) index - used to load the release window
+     */
+    List<ScheduledOrderView> findByStatusAndScheduledForLessThanEqual(Order.OrderStatus status, LocalDateTime until);
+
+    /**
+     * Find scheduled orders due within a time range
+     */
+    List<ScheduledOrderView> findByStatusAndScheduledForBetween(Order.OrderStatus status,
+                                                                LocalDateTime from, LocalDateTime until);
+
+    /**
+     * Find orders that have been in a status since before the cutoff, oldest first, and lock them
+     * Served by the (status, updated_at) index - used by the PENDING expiry sweeper; concurrent
+     * changes to the returned orders wait until the sweeping transaction completes
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.status = :status AND o.updatedAt <= :cutoff ORDER BY o.updatedAt ASC")
+    List<Order> lockByStatusAndUpdatedAtBefore(@Param("status") Order.OrderStatus status,
+                                               @Param("cutoff") LocalDateTime cutoff,
+                                               Pageable pageable);
+
+    /**
+     * Move a set of orders from one status to another in a single statement
+     * Orders no longer in the expected status (e.g. confirmed meanwhile) are left untouched
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :newStatus, o.updatedAt = :updatedAt, o.version = o.version + 1 " +
+           "WHERE o.id IN :ids AND o.status = :expectedStatus")
+    int updateStatusForIds(@Param("ids") List<Long> ids,
+                           @Param("expectedStatus") Order.OrderStatus expectedStatus,
+                           @Param("newStatus") Order.OrderStatus newStatus,
+                           @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Count orders in the given statuses per restaurant
+     * Used once on startup to seed the kitchen admission counters
+     */
+    @Query("SELECT o.restaurantId AS restaurantId, COUNT(o) AS orderCount FROM Order o " +
+           "WHERE o.status IN :statuses GROUP BY o.restaurantId")
+    List<RestaurantOrderCount> countByStatusInGroupByRestaurant(@Param("statuses") Collection<Order.OrderStatus> statuses);
+
+    /**
+     * Lightweight projection of a scheduled order (avoids loading items)
+     */
+    interface ScheduledOrderView {
+        Long getId();
+        LocalDateTime getScheduledFor();
+    }
+
+    /**
+     * Number of orders for a restaurant
+     */
+    interface RestaurantOrderCount {
+        Long getRestaurantId();
+        long getOrderCount();
+    }
+}
@@ -0,0 +1,214 @@
+package olim.com.orderservice.service;
+
+import jakarta.annotation.PostConstruct;
+import olim.com.orderservice.client.AuthClient;
+import olim.com.orderservice.dto.AuthDto;
+import olim.com.orderservice.entity.CustomerProfile;
+import olim.com.orderservice.event.UserProfileEvent;
+import olim.com.orderservice.repository.CustomerProfileRepository;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Customer Profile Service
+ *
+ * Keeps a local projection of customer contact details (customerId → email, name), fed by
+ * user events from Auth Service, so order events usually carry real contact data without a
+ * call to auth-service. The table is the durable copy; the most recently used profiles are
+ * also held in a bounded in-memory cache.
+ *
+ * Customers without a profile (registered before profiles were projected, or whose event was
+ * lost) are fetched from Auth Service on first use and stored like a received event. That call
+ * is synchronous - callers look contacts up outside transactions (order events are published
+ * after commit, see EventPublisherService). Failed fetches are remembered for a short while, so
+ * an unknown customer or an unreachable Auth Service isn't asked again for every event.
+ */
+@Service
+public class CustomerProfileService {
+
+    @Autowired
+    private CustomerProfileRepository customerProfileRepository;
+
+    @Autowired
+    private AuthClient authClient;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${order.customer-profiles.cache-size:10000}")
+    private int cacheSize;
+
+    // Access-ordered, so the least recently used profile is evicted first
+    private final Map<Long, Contact> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Contact> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    // Customers whose fetch failed → when they may be fetched again (System.nanoTime)
+    private final Map<Long, Long> misses = new ConcurrentHashMap<>();
+
+    @Value("${order.customer-profiles.miss-ttl-ms:30000}")
+    private long missTtlMs;
+
+    // Profile writes commit on their own, even if a caller has a transaction open
+    private TransactionTemplate profileTransaction;
+
+    @PostConstruct
+    public void init() {
+        profileTransaction = new TransactionTemplate(transactionManager);
+        profileTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Contact details used in outgoing events
+     */
+    public record Contact(String email, String name) {
+
+        /**
+         * Used while the customer's profile can't be found anywhere - has no email
+         */
+        static Contact unknown(Long customerId) {
+            return new Contact(null, "Customer #" + customerId);
+        }
+    }
+
+    /**
+     * Contact details of a customer, or a placeholder (without email) if Auth Service doesn't know
+     * them or can't be reached (or didn't, within the last miss-ttl-ms)
+     */
+    public Contact getContact(Long customerId) {
+        synchronized (cache) {
+            Contact contact = cache.get(customerId);
+            if (contact != null) {
+                return contact;
+            }
+        }
+
+        return customerProfileRepository.findById(customerId)
+                .map(profile -> {
+                    Contact contact = new Contact(profile.getEmail(), profile.getFullName());
+                    synchronized (cache) {
+                        cache.putIfAbsent(customerId, contact);
+                    }
+                    return contact;
+                })
+                .or(() -> fetchContact(customerId))
+                .orElseGet(() -> Contact.unknown(customerId));
+    }
+
+    /**
+     * Fill in a missing profile from Auth Service, unless it recently failed for this customer
+     */
+    private Optional<Contact> fetchContact(Long customerId) {
+        Long retryAt = misses.get(customerId);
+        if (retryAt != null) {
+            if (System.nanoTime() - retryAt < 0) {
+                return Optional.empty();
+            }
+            misses.remove(customerId, retryAt);
+        }
+
+        AuthDto.UserContact user;
+        try {
+            AuthDto.ApiResponse<AuthDto.UserContact> response = authClient.getUserContact(customerId);
+            user = response != null && response.isSuccess() ? response.getData() : null;
+        } catch (Exception e) {
+            System.err.println("❌ Failed to fetch contact details of customer " + customerId + ": " + e.getMessage());
+            rememberMiss(customerId);
+            return Optional.empty();
+        }
+        if (user == null || user.getEmail() == null) {
+            rememberMiss(customerId);
+            return Optional.empty();
+        }
+
+        Contact contact = new Contact(user.getEmail(), fullName(user.getFirstName(), user.getLastName()));
+        try {
+            // Auth Service's last update time, so only newer user events replace it
+            applyProfile(customerId, contact, user.getUpdatedAt());
+            System.out.println("👤 Customer profile fetched from Auth Service for user ID: " + customerId);
+        } catch (Exception e) {
+            // Still good to use - it will be fetched again next time
+            System.err.println("❌ Failed to store fetched profile of customer " + customerId + ": " + e.getMessage());
+        }
+        return Optional.of(contact);
+    }
+
+    private void rememberMiss(Long customerId) {
+        misses.put(customerId, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(missTtlMs));
+    }
+
+    /**
+     * Drop misses that have run out, so customers that never come back don't pile up
+     */
+    @Scheduled(fixedDelayString = "${order.customer-profiles.miss-ttl-ms:30000}")
+    public void expireMisses() {
+        long now = System.nanoTime();
+        misses.values().removeIf(retryAt -> now - retryAt >= 0);
+    }
+
+    /**
+     * Apply user created / profile updated events from Auth Service
+     */
+    @RabbitListener(queues = "#{userProfileQueue.name}") // This instance's own queue
+    public void handleUserProfileEvent(UserProfileEvent event) {
+        try {
+            applyProfile(event.getUserId(),
+                    new Contact(event.getEmail(), fullName(event.getFirstName(), event.getLastName())),
+                    event.getChangedAt());
+
+            System.out.println("👤 Customer profile updated for user ID: " + event.getUserId());
+
+        } catch (Exception e) {
+            System.err.println("❌ Failed to apply UserProfileEvent: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Store a customer's contact details, unless the stored ones are newer
+     * Events may be redelivered or arrive out of order, and race with fetches from Auth Service.
+     */
+    private void applyProfile(Long customerId, Contact contact, LocalDateTime changedAt) {
+        Boolean applied = profileTransaction.execute(status -> {
+            CustomerProfile profile = customerProfileRepository.findById(customerId)
+                    .orElseGet(CustomerProfile::new);
+
+            if (profile.getUpdatedAt() != null && changedAt != null && changedAt.isBefore(profile.getUpdatedAt())) {
+                return false;
+            }
+
+            profile.setCustomerId(customerId);
+            profile.setEmail(contact.email());
+            profile.setFullName(contact.name());
+            profile.setUpdatedAt(changedAt);
+            customerProfileRepository.save(profile);
+            return true;
+        });
+
+        if (Boolean.TRUE.equals(applied)) {
+            synchronized (cache) {
+                cache.put(customerId, contact);
+            }
+            misses.remove(customerId);
+        }
+    }
+
+    private String fullName(String firstName, String lastName) {
+        return ((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "")).trim();
+    }
+}
@@ -1,22 +1,34 @@
 package olim.com.orderservice.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import olim.com.orderservice.entity.Order;
-import olim.com.orderservice.entity.OrderItem;
 import olim.com.orderservice.event.OrderPlacedEvent;
 import olim.com.orderservice.event.OrderStatusChangedEvent;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
  * Event Publisher Service
  * 
  * Publishes events to RabbitMQ when important order actions happen
+ *
+ * Events are published after the order's transaction commits, from a background thread that fills
+ * in the customer's contact details first.
  */
 @Service
 public class EventPublisherService {
@@ -24,6 +36,12 @@ public class EventPublisherService {
     @Autowired
     private RabbitTemplate rabbitTemplate;
 
+    @Autowired
+    private CustomerProfileService customerProfileService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Value("${bytebites.messaging.exchange}")
     private String exchange;
 
@@ -33,76 +51,204 @@ public class EventPublisherService {
     @Value("${bytebites.messaging.routing-keys.order-status-changed}")
     private String orderStatusChangedRoutingKey;
 
+    @Value("${order.events.contact-retries:3}")
+    private int contactRetries;
+
+    @Value("${order.events.contact-retry-delay-ms:60000}")
+    private long contactRetryDelayMs;
+
+    // Resolves contact details and publishes, off the request and transaction
+    private ScheduledExecutorService publisher;
+
+    @PostConstruct
+    public void start() {
+        publisher = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("order-events-"));
+    }
+
+    @PreDestroy
+    public void stop() {
+        publisher.shutdown();
+    }
+
     /**
      * Publish OrderPlacedEvent when a new order is created
      */
-    public void publishOrderPlacedEvent(Order order, String customerEmail, String customerName) {
-        try {
-            // Convert order items to event format
-            List<OrderPlacedEvent.OrderItemInfo> items = order.getOrderItems().stream()
-                    .map(item -> new OrderPlacedEvent.OrderItemInfo(
-                            item.getMenuItemName(),
-                            item.getQuantity(),
-                            item.getPrice()
-                    ))
-                    .collect(Collectors.toList());
-
-            // Create the event
-            OrderPlacedEvent event = new OrderPlacedEvent(
-                    order.getId(),
-                    order.getCustomerId(),
-                    customerEmail,
-                    customerName,
-                    order.getRestaurantId(),
-                    order.getRestaurantName(),
-                    order.getTotalAmount(),
-                    order.getDeliveryAddress(),
-                    order.getCreatedAt(),
-                    items
-            );
-
-            // Publish the event
-            rabbitTemplate.convertAndSend(exchange, orderPlacedRoutingKey, event);
-            
-            System.out.println("📨 Published OrderPlacedEvent for order ID: " + order.getId());
-            
-        } catch (Exception e) {
-            System.err.println("❌ Failed to publish OrderPlacedEvent: " + e.getMessage());
-            // Don't throw exception - event publishing failure shouldn't break order creation
-        }
+    public void publishOrderPlacedEvent(Order order) {
+        publishAfterCommit("OrderPlacedEvent", orderPlacedRoutingKey, List.of(toOrderPlacedEvent(order)));
+    }
+
+    /**
+     * Publish OrderPlacedEvents for a batch of orders
+     *
+     * All events are sent on a single channel in one operation instead of one
+     * channel checkout per order. Each message is still a plain OrderPlacedEvent,
+     * so consumers don't need to know about batches.
+     */
+    public void publishOrderPlacedEvents(List<Order> orders) {
+        publishAfterCommit("OrderPlacedEvent", orderPlacedRoutingKey, orders.stream()
+                .map(this::toOrderPlacedEvent)
+                .collect(Collectors.toList()));
     }
 
     /**
      * Publish OrderStatusChangedEvent when order status is updated
      */
-    public void publishOrderStatusChangedEvent(Order order, String oldStatus, String newStatus, 
-                                             String changedBy, String customerEmail) {
-        try {
-            // Create the event
-            OrderStatusChangedEvent event = new OrderStatusChangedEvent(
-                    order.getId(),
-                    order.getCustomerId(),
-                    customerEmail,
-                    order.getRestaurantId(),
-                    order.getRestaurantName(),
-                    oldStatus,
-                    newStatus,
-                    LocalDateTime.now(),
-                    changedBy
-            );
-
-            // Publish the event
-            rabbitTemplate.convertAndSend(exchange, orderStatusChangedRoutingKey, event);
-            
-            System.out.println("📨 Published OrderStatusChangedEvent for order ID: " + order.getId() + 
-                             " (" + oldStatus + " → " + newStatus + ")");
-            
-        } catch (Exception e) {
-            System.err.println("❌ Failed to publish OrderStatusChangedEvent: " + e.getMessage());
-            // Don't throw exception - event publishing failure shouldn't break status update
+    public void publishOrderStatusChangedEvent(Order order, String oldStatus, String newStatus, String changedBy) {
+        publishAfterCommit("OrderStatusChangedEvent", orderStatusChangedRoutingKey,
+                List.of(toOrderStatusChangedEvent(order, oldStatus, newStatus, changedBy)));
+    }
+
+    /**
+     * Publish OrderStatusChangedEvents for orders that made the same transition together
+     * (e.g. expired PENDING orders), on a single channel
+     */
+    public void publishOrderStatusChangedEvents(List<Order> orders, String oldStatus, String newStatus,
+                                                String changedBy) {
+        publishAfterCommit("OrderStatusChangedEvent", orderStatusChangedRoutingKey, orders.stream()
+                .map(order -> toOrderStatusChangedEvent(order, oldStatus, newStatus, changedBy))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Hand events to the publisher thread once the current transaction commits (right away without one)
+     *
+     * Filling in contact details can mean a call to Auth Service, which must not hold the order's
+     * transaction and connection open - nor publish events for orders that were rolled back.
+     */
+    private void publishAfterCommit(String eventType, String routingKey, List<?> events) {
+        Runnable publish = () -> publisher.execute(() -> publish(eventType, routingKey, events, 0));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
         }
     }
 
+    /**
+     * Publish the events whose customer's email is known, on one channel
+     * Events still without an email are retried with growing delays (a profile event from Auth Service may
+     * be on its way, or Auth Service unreachable for a moment) and counted as undeliverable when out of retries.
+     */
+    private void publish(String eventType, String routingKey, List<?> events, int attempt) {
+        List<Object> ready = new ArrayList<>();
+        List<Object> waiting = new ArrayList<>();
+        for (Object event : events) {
+            try {
+                (fillContact(event) ? ready : waiting).add(event);
+            } catch (Exception e) {
+                System.err.println("❌ Failed to look up contact details for " + eventType + ": " + e.getMessage());
+                waiting.add(event);
+            }
+        }
+
+        if (!ready.isEmpty()) {
+            try {
+                rabbitTemplate.invoke(operations -> {
+                    for (Object event : ready) {
+                        operations.convertAndSend(exchange, routingKey, event);
+                    }
+                    return null;
+                });
+                System.out.println("📨 Published " + ready.size() + " " + eventType + "(s)");
+            } catch (Exception e) {
+                System.err.println("❌ Failed to publish " + ready.size() + " " + eventType + "(s): " + e.getMessage());
+                // Don't throw exception - the orders were saved, event publishing is best effort
+            }
+        }
+
+        if (waiting.isEmpty()) {
+            return;
+        }
+        if (attempt < contactRetries) {
+            long delayMs = contactRetryDelayMs << attempt;
+            System.err.println("⚠️ No email known yet for " + waiting.size() + " " + eventType
+                    + "(s) - retrying in " + delayMs + " ms");
+            publisher.schedule(() -> publish(eventType, routingKey, waiting, attempt + 1), delayMs, TimeUnit.MILLISECONDS);
+        } else {
+            // Consumers notify the customer by email - an event without one can't be acted on
+            waiting.forEach(event -> System.err.println("❌ No email known for customer " + customerId(event)
+                    + " - dropped " + eventType + " for order ID: " + orderId(event)));
+            meterRegistry.counter("order.events.undeliverable", "type", eventType).increment(waiting.size());
+        }
+    }
+
+    /**
+     * Fill in the customer's email (and name), returns false while no email is known
+     */
+    private boolean fillContact(Object event) {
+        CustomerProfileService.Contact contact = customerProfileService.getContact(customerId(event));
+        if (contact.email() == null) {
+            return false;
+        }
+        if (event instanceof OrderPlacedEvent placed) {
+            placed.setCustomerEmail(contact.email());
+            placed.setCustomerName(contact.name());
+        } else if (event instanceof OrderStatusChangedEvent changed) {
+            changed.setCustomerEmail(contact.email());
+        }
+        return true;
+    }
+
+    private static Long customerId(Object event) {
+        return event instanceof OrderPlacedEvent placed
+                ? placed.getCustomerId() : ((OrderStatusChangedEvent) event).getCustomerId();
+    }
+
+    private static Long orderId(Object event) {
+        return event instanceof OrderPlacedEvent placed
+                ? placed.getOrderId() : ((OrderStatusChangedEvent) event).getOrderId();
+    }
+
+    /**
+     * Convert an order status change to its OrderStatusChangedEvent (contact details are filled in when published)
+     */
+    private OrderStatusChangedEvent toOrderStatusChangedEvent(Order order, String oldStatus, String newStatus,
+                                                              String changedBy) {
+        return new OrderStatusChangedEvent(
+                order.getId(),
+                order.getCustomerId(),
+                null,
+                order.getRestaurantId(),
+                order.getRestaurantName(),
+                oldStatus,
+                newStatus,
+                LocalDateTime.now(),
+                changedBy
+        );
+    }
+
+    /**
+     * Convert an order to its OrderPlacedEvent (contact details are filled in when published)
+     */
+    private OrderPlacedEvent toOrderPlacedEvent(Order order) {
+        // Convert order items to event format
+        List<OrderPlacedEvent.OrderItemInfo> items = order.getOrderItems().stream()
+                .map(item -> new OrderPlacedEvent.OrderItemInfo(
+                        item.getMenuItemName(),
+                        item.getQuantity(),
+                        item.getPrice()
+                ))
+                .collect(Collectors.toList());
+
+        return new OrderPlacedEvent(
+                order.getId(),
+                order.getCustomerId(),
+                null,
+                null,
+                order.getRestaurantId(),
+                order.getRestaurantName(),
+                order.getTotalAmount(),
+                order.getDeliveryAddress(),
+                order.getCreatedAt(),
+                items
+        );
+    }
+
     /**
      * Test method to verify RabbitMQ connection
      */
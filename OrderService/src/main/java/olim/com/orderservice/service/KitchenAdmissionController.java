@@ -0,0 +1,354 @@
+package olim.com.orderservice.service;
+
+import olim.com.orderservice.entity.KitchenCapacity;
+import olim.com.orderservice.entity.Order;
+import olim.com.orderservice.eventstore.OrderEventStore;
+import olim.com.orderservice.repository.KitchenCapacityRepository;
+import olim.com.orderservice.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Kitchen Admission Controller
+ *
+ * Limits how many active (PENDING / CONFIRMED / PREPARING) orders a restaurant's kitchen
+ * has at once. Active orders are counted in memory with one counter per restaurant, so
+ * restaurants never contend with each other and admission needs no database query.
+ * Counters are seeded from the database on startup (and again whenever the event store
+ * rebuilds the orders tables) and kept up to date by OrderService as orders enter and leave
+ * the active statuses.
+ *
+ * An instance only sees the orders it admits and releases itself, so counters are also
+ * reconciled with the database periodically - that picks up other instances' orders and
+ * repairs any drift. A restaurant whose counter changed while the database was read, or that
+ * has admissions or releases waiting for their transaction, is left for the next round.
+ *
+ * Owners' caps are stored in the database and held in memory - loaded on startup and
+ * reloaded periodically, so a cap set through another instance applies here too.
+ */
+@Component
+public class KitchenAdmissionController {
+
+    public static final Set<Order.OrderStatus> ACTIVE_STATUSES = EnumSet.of(
+            Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED, Order.OrderStatus.PREPARING);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private KitchenCapacityRepository kitchenCapacityRepository;
+
+    @Value("${order.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.admission.default-cap:30}")
+    private int defaultCap; // 0 = unlimited
+
+    @Value("${order.admission.mode:reject}")
+    private String mode; // reject | queue
+
+    @Value("${order.admission.retry-after-seconds:300}")
+    private long retryAfterSeconds;
+
+    @Value("${order.admission.queue-timeout-minutes:30}")
+    private long queueTimeoutMinutes;
+
+    private final ConcurrentHashMap<Long, KitchenLoad> activeOrders = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Integer> restaurantCaps = new ConcurrentHashMap<>();
+
+    /**
+     * Seed the counters with the orders already active in the database
+     * (after the event store's startup rebuild, which is ordered first)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActiveOrderCounts() {
+        int restaurants = recountActiveOrders();
+        loadCaps();
+
+        System.out.println("👨‍🍳 Kitchen admission loaded active orders for " + restaurants + " restaurants and "
+                + restaurantCaps.size() + " restaurant caps");
+    }
+
+    /**
+     * The orders tables were replaced by an event store rebuild - count again from the new rows
+     * Order writers wait at the event store's gate meanwhile, so no admission is in flight.
+     */
+    @EventListener(OrderEventStore.ProjectionRebuilt.class)
+    public void onProjectionRebuilt() {
+        int restaurants = recountActiveOrders();
+        System.out.println("👨‍🍳 Kitchen admission recounted active orders for " + restaurants
+                + " restaurants after the order projection was rebuilt");
+    }
+
+    /**
+     * Pick up caps set through other instances
+     */
+    @Scheduled(fixedDelayString = "${order.admission.cap-refresh-ms:30000}",
+            initialDelayString = "${order.admission.cap-refresh-ms:30000}")
+    public void refreshCaps() {
+        try {
+            loadCaps();
+        } catch (Exception e) {
+            System.err.println("⚠️ Failed to refresh kitchen caps: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Correct the counters from the database
+     */
+    @Scheduled(fixedDelayString = "${order.admission.reconcile-interval-ms:60000}",
+            initialDelayString = "${order.admission.reconcile-interval-ms:60000}")
+    public void reconcileActiveOrders() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // Which restaurants are idle before the query, and at which change
+            Map<Long, Long> idleAt = new HashMap<>();
+            activeOrders.forEach((restaurantId, load) -> idleAt.put(restaurantId, load.changesIfIdle()));
+
+            Map<Long, Long> counts = countActiveOrders();
+            int corrected = 0;
+            for (Long restaurantId : activeOrders.keySet()) {
+                counts.putIfAbsent(restaurantId, 0L);
+            }
+            for (Map.Entry<Long, Long> count : counts.entrySet()) {
+                // A restaurant first seen after the snapshot is idle at change 0 unless something touched it since
+                long expectedChanges = idleAt.getOrDefault(count.getKey(), 0L);
+                if (expectedChanges >= 0 && load(count.getKey()).reconcile(count.getValue().intValue(), expectedChanges)) {
+                    corrected++;
+                }
+            }
+            if (corrected > 0) {
+                System.out.println("👨‍🍳 Kitchen admission corrected active orders for " + corrected + " restaurants");
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Failed to reconcile kitchen counters: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Try to take a kitchen slot for a new active order
+     * The slot is given back automatically if the surrounding transaction rolls back.
+     *
+     * @return false if the restaurant is at capacity
+     */
+    public boolean tryAdmit(Long restaurantId) {
+        if (!enabled) {
+            return true;
+        }
+        KitchenLoad load = load(restaurantId);
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        if (!load.tryAdmit(getCap(restaurantId), inTransaction)) {
+            return false;
+        }
+
+        if (inTransaction) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    load.finish(status == STATUS_COMMITTED ? 0 : -1);
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Give back kitchen slots for orders that left the active statuses
+     * Applied after commit when called inside a transaction.
+     */
+    public void release(Long restaurantId, int count) {
+        if (!enabled || count <= 0) {
+            return;
+        }
+        KitchenLoad load = load(restaurantId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            load.start();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    load.finish(status == STATUS_COMMITTED ? -count : 0);
+                }
+            });
+        } else {
+            load.add(-count);
+        }
+    }
+
+    /**
+     * Release a slot if the status change takes the order out of the kitchen
+     */
+    public void onStatusChange(Long restaurantId, Order.OrderStatus oldStatus, Order.OrderStatus newStatus) {
+        if (ACTIVE_STATUSES.contains(oldStatus) && !ACTIVE_STATUSES.contains(newStatus)) {
+            release(restaurantId, 1);
+        }
+    }
+
+    /**
+     * Whether orders over capacity should be queued instead of rejected
+     */
+    public boolean isQueueMode() {
+        return "queue".equalsIgnoreCase(mode);
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * How long a queued order may wait for a kitchen slot before it is cancelled
+     */
+    public long getQueueTimeoutMinutes() {
+        return queueTimeoutMinutes;
+    }
+
+    /**
+     * Set every counter to the number of active orders in the database
+     *
+     * @return number of restaurants with active orders
+     */
+    private int recountActiveOrders() {
+        Map<Long, Long> counts = countActiveOrders();
+        counts.forEach((restaurantId, count) -> load(restaurantId).set(count.intValue()));
+        activeOrders.forEach((restaurantId, load) -> {
+            if (!counts.containsKey(restaurantId)) {
+                load.set(0);
+            }
+        });
+        return counts.size();
+    }
+
+    private Map<Long, Long> countActiveOrders() {
+        return orderRepository.countByStatusInGroupByRestaurant(ACTIVE_STATUSES).stream()
+                .collect(Collectors.toMap(OrderRepository.RestaurantOrderCount::getRestaurantId,
+                        OrderRepository.RestaurantOrderCount::getOrderCount));
+    }
+
+    public int getCap(Long restaurantId) {
+        return restaurantCaps.getOrDefault(restaurantId, defaultCap);
+    }
+
+    /**
+     * Set a restaurant's own cap (0 = unlimited) - stored, so it survives restarts
+     */
+    public void setCap(Long restaurantId, int cap) {
+        kitchenCapacityRepository.save(new KitchenCapacity(restaurantId, cap, LocalDateTime.now()));
+        restaurantCaps.put(restaurantId, cap);
+    }
+
+    public int getActiveOrderCount(Long restaurantId) {
+        KitchenLoad load = activeOrders.get(restaurantId);
+        return load != null ? load.get() : 0;
+    }
+
+    private void loadCaps() {
+        kitchenCapacityRepository.findAll()
+                .forEach(capacity -> restaurantCaps.put(capacity.getRestaurantId(), capacity.getMaxActiveOrders()));
+    }
+
+    private KitchenLoad load(Long restaurantId) {
+        return activeOrders.computeIfAbsent(restaurantId, id -> new KitchenLoad());
+    }
+
+    /**
+     * One restaurant's active order counter
+     * Also tracks admissions and releases whose transaction has not finished, and counts every
+     * change, so reconciliation can tell whether the database count it read still applies.
+     */
+    private static class KitchenLoad {
+        private int active;
+        private int inFlight;
+        private long changes;
+
+        synchronized boolean tryAdmit(int cap, boolean inTransaction) {
+            if (cap > 0 && active >= cap) {
+                return false;
+            }
+            active++;
+            if (inTransaction) {
+                inFlight++;
+            }
+            changes++;
+            return true;
+        }
+
+        synchronized void start() {
+            inFlight++;
+            changes++;
+        }
+
+        synchronized void finish(int delta) {
+            active = Math.max(0, active + delta);
+            inFlight--;
+            changes++;
+        }
+
+        synchronized void add(int delta) {
+            active = Math.max(0, active + delta);
+            changes++;
+        }
+
+        synchronized void set(int count) {
+            active = count;
+            changes++;
+        }
+
+        /**
+         * The change count if nothing is waiting for a transaction, -1 otherwise
+         */
+        synchronized long changesIfIdle() {
+            return inFlight == 0 ? changes : -1;
+        }
+
+        /**
+         * Take the database count unless anything happened since changesIfIdle returned expectedChanges
+         *
+         * @return whether the counter was off
+         */
+        synchronized boolean reconcile(int count, long expectedChanges) {
+            if (inFlight != 0 || changes != expectedChanges || active == count) {
+                return false;
+            }
+            active = count;
+            changes++;
+            return true;
+        }
+
+        synchronized int get() {
+            return active;
+        }
+    }
+
+    /**
+     * Thrown when a restaurant's kitchen is at capacity
+     */
+    public static class KitchenBusyException extends RuntimeException {
+        private final long retryAfterSeconds;
+
+        public KitchenBusyException(Long restaurantId, long retryAfterSeconds) {
+            super("Restaurant " + restaurantId + " is too busy right now. Please try again in "
+                    + Math.max(1, retryAfterSeconds / 60) + " minutes");
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+}
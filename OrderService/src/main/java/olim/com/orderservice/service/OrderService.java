@@ -6,16 +6,31 @@ import olim.com.orderservice.dto.OrderDto.*;
 import olim.com.orderservice.dto.RestaurantDto;
 import olim.com.orderservice.entity.Order;
 import olim.com.orderservice.entity.OrderItem;
+import olim.com.orderservice.eventstore.OrderEventStore;
+import olim.com.orderservice.readmodel.CustomerOrderReadModel;
 import olim.com.orderservice.repository.OrderRepository;
-import olim.com.orderservice.repository.OrderItemRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Order Service - Business logic for order management
@@ -31,14 +46,36 @@ public class OrderService {
     private OrderRepository orderRepository;
 
     @Autowired
-    private OrderItemRepository orderItemRepository;
+    @Qualifier("orderBatchExecutor")
+    private ExecutorService orderBatchExecutor;
 
     @Autowired
     private RestaurantClient restaurantClient;
 
+    @Autowired
+    private ScheduledOrderReleaser scheduledOrderReleaser;
+
+    @Autowired
+    private KitchenAdmissionController kitchenAdmission;
+
+    @Autowired
+    private PrepTimeEstimator prepTimeEstimator;
+
+    @Autowired
+    private OrderStatusJournal statusJournal;
+
+    @Autowired
+    private OrderEventStore eventStore;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
     @Autowired(required = false) // Make optional - won't break if RabbitMQ isn't available
     private EventPublisherService eventPublisher;
 
+    @Value("${order.scheduling.max-advance-days:7}")
+    private long maxScheduleAdvanceDays;
+
     /**
      * Create a new order
      *
@@ -48,107 +85,144 @@ public class OrderService {
      */
     @CircuitBreaker(name = "restaurant-service", fallbackMethod = "createOrderFallback")
     public Order createOrder(CreateOrderRequest createRequest, Long customerId) {
+        eventStore.enterWriteGate();
         System.out.println("🍔 Starting order creation for customer: " + customerId);
 
         // Step 1: Validate restaurant
-        RestaurantDto.ApiResponse<RestaurantDto.RestaurantResponse> restaurantResponse =
-                validateRestaurant(createRequest.getRestaurantId());
-
-        if (!restaurantResponse.isSuccess()) {
-            throw new RuntimeException("Failed to validate restaurant: " + restaurantResponse.getMessage());
-        }
-
-        RestaurantDto.RestaurantResponse restaurant = restaurantResponse.getData();
-        if (!restaurant.isOpen()) {
-            throw new RuntimeException("Restaurant is currently closed");
-        }
+        RestaurantDto.RestaurantResponse restaurant = requireOpenRestaurant(createRequest.getRestaurantId());
 
         System.out.println("✅ Restaurant validated: " + restaurant.getName());
 
-        // Step 2: Validate menu items and calculate total BEFORE creating order
-        BigDecimal subtotal = BigDecimal.ZERO;
-        List<OrderItemData> validatedItems = new ArrayList<>();
+        // Step 2: Validate menu items, calculate total and check minimum order BEFORE saving
+        Order order = buildOrder(createRequest, customerId, restaurant,
+                menuItemId -> validateMenuItem(createRequest.getRestaurantId(), menuItemId).getData());
 
-        for (OrderItemRequest itemRequest : createRequest.getOrderItems()) {
-            // Validate menu item
-            RestaurantDto.MenuItemResponse menuItem = validateMenuItem(
-                    createRequest.getRestaurantId(),
-                    itemRequest.getMenuItemId()
-            ).getData();
+        System.out.println("💰 Order total calculated: $" + order.getTotalAmount());
 
-            if (!menuItem.isAvailable()) {
-                throw new RuntimeException("Menu item '" + menuItem.getName() + "' is not available");
-            }
+        // Step 3: Take a kitchen slot (rejects fast or queues when the restaurant is at capacity)
+        admitOrQueue(order);
 
-            // Calculate item total price
-            BigDecimal itemTotal = menuItem.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
-            subtotal = subtotal.add(itemTotal);
+        // Step 4: Save order (items are cascaded with it)
+        order = orderRepository.save(order);
+        System.out.println("✅ Order saved with ID: " + order.getId());
+        System.out.println("🎉 Order created successfully with " + order.getOrderItems().size() + " items");
+        recordCreated(order, customerId);
+
+        // Step 5: Hand scheduled orders to the releaser
+        scheduleRelease(order);
 
-            // Store validated item data for later
-            validatedItems.add(new OrderItemData(
-                    itemRequest.getMenuItemId(),
-                    menuItem.getName(),
-                    itemRequest.getQuantity(),
-                    itemTotal
-            ));
+        // 🚀 Publish OrderPlacedEvent for async processing (non-blocking)
+        if (eventPublisher != null) {
+            try {
+                eventPublisher.publishOrderPlacedEvent(order);
+                System.out.println("📨 Order event queued for publishing");
+            } catch (Exception e) {
+                System.err.println("⚠️ Failed to publish order event: " + e.getMessage() + " (Order creation was successful)");
+            }
+        } else {
+            System.out.println("📨 Event publisher not available - skipping event publishing");
         }
 
-        // Step 3: Calculate final total with delivery fee
-        BigDecimal totalAmount = subtotal.add(restaurant.getDeliveryFee());
+        return order;
+    }
 
-        // Step 4: Check minimum order requirement
-        if (subtotal.compareTo(restaurant.getMinimumOrder()) < 0) {
-            throw new RuntimeException("Order subtotal must be at least $" + restaurant.getMinimumOrder() +
-                    " (excluding delivery fee of $" + restaurant.getDeliveryFee() + ")");
+    /**
+     * Create several orders for a customer in one call (group / office orders)
+     *
+     * Each distinct restaurant and menu item is validated once, in parallel, and shared
+     * by every order that references it. Orders are then priced in parallel, all valid
+     * orders are saved together (batched inserts) and their events published as one batch.
+     * Failures are reported per order and don't affect the rest of the batch.
+     *
+     * @param createRequests orders to create, in request order
+     * @param customerId customer placing the orders
+     * @return one result per request, with the same index
+     */
+    public List<BatchOrderResult> createOrdersBatch(List<CreateOrderRequest> createRequests, Long customerId) {
+        eventStore.enterWriteGate();
+        System.out.println("🍔 Starting batch of " + createRequests.size() + " orders for customer: " + customerId);
+
+        // Step 1: Fan out one lookup per distinct restaurant and menu item
+        Map<Long, CompletableFuture<RestaurantDto.RestaurantResponse>> restaurants = new HashMap<>();
+        Map<MenuItemKey, CompletableFuture<RestaurantDto.MenuItemResponse>> menuItems = new HashMap<>();
+
+        for (CreateOrderRequest createRequest : createRequests) {
+            Long restaurantId = createRequest.getRestaurantId();
+            restaurants.computeIfAbsent(restaurantId, id ->
+                    CompletableFuture.supplyAsync(() -> requireOpenRestaurant(id), orderBatchExecutor));
+
+            for (OrderItemRequest itemRequest : createRequest.getOrderItems()) {
+                menuItems.computeIfAbsent(new MenuItemKey(restaurantId, itemRequest.getMenuItemId()), key ->
+                        CompletableFuture.supplyAsync(
+                                () -> validateMenuItem(key.restaurantId(), key.menuItemId()).getData(),
+                                orderBatchExecutor));
+            }
         }
 
-        System.out.println("💰 Order total calculated: $" + totalAmount);
+        // Wait for every lookup so pricing never blocks a pool thread (failures are handled per order)
+        List<CompletableFuture<?>> lookups = new ArrayList<>(restaurants.values());
+        lookups.addAll(menuItems.values());
+        CompletableFuture.allOf(lookups.toArray(new CompletableFuture[0]))
+                .exceptionally(ex -> null)
+                .join();
+
+        System.out.println("✅ Validated " + restaurants.size() + " restaurants and " + menuItems.size() + " menu items");
+
+        // Step 2: Price every order in parallel from the shared lookups
+        List<CompletableFuture<Order>> pricedOrders = new ArrayList<>();
+        for (CreateOrderRequest createRequest : createRequests) {
+            pricedOrders.add(CompletableFuture.supplyAsync(() -> buildOrder(
+                    createRequest,
+                    customerId,
+                    getLookupResult(restaurants.get(createRequest.getRestaurantId())),
+                    menuItemId -> getLookupResult(menuItems.get(
+                            new MenuItemKey(createRequest.getRestaurantId(), menuItemId)))
+            ), orderBatchExecutor));
+        }
 
-        // Step 5: Create order entity with calculated total
-        Order order = new Order();
-        order.setCustomerId(customerId);
-        order.setRestaurantId(createRequest.getRestaurantId());
-        order.setRestaurantName(restaurant.getName());
-        order.setDeliveryAddress(createRequest.getDeliveryAddress());
-        order.setStatus(Order.OrderStatus.PENDING);
-        order.setTotalAmount(totalAmount); // Set calculated total BEFORE saving
+        // Step 3: Collect valid orders and per-order failures
+        List<BatchOrderResult> results = new ArrayList<>();
+        List<Order> validOrders = new ArrayList<>();
+        List<Integer> validIndexes = new ArrayList<>();
 
-        // Step 6: Save order (now with valid total amount)
-        order = orderRepository.save(order);
-        System.out.println("✅ Order saved with ID: " + order.getId());
+        for (int i = 0; i < pricedOrders.size(); i++) {
+            try {
+                Order order = getLookupResult(pricedOrders.get(i));
+                admitOrQueue(order);
+                validOrders.add(order);
+                validIndexes.add(i);
+                results.add(null); // Filled in once the order is saved
+            } catch (RuntimeException e) {
+                results.add(BatchOrderResult.failure(i, e.getMessage()));
+            }
+        }
 
-        // Step 7: Create and save order items
-        for (OrderItemData itemData : validatedItems) {
-            OrderItem orderItem = new OrderItem();
-            orderItem.setMenuItemId(itemData.menuItemId);
-            orderItem.setMenuItemName(itemData.menuItemName);
-            orderItem.setQuantity(itemData.quantity);
-            orderItem.setPrice(itemData.price);
-            orderItem.setOrder(order);
+        if (validOrders.isEmpty()) {
+            System.out.println("❌ No valid orders in batch");
+            return results;
+        }
 
-            orderItemRepository.save(orderItem);
+        // Step 4: Save all valid orders in one go (items are cascaded, inserts are batched)
+        List<Order> savedOrders = orderRepository.saveAll(validOrders);
+        for (int i = 0; i < savedOrders.size(); i++) {
+            results.set(validIndexes.get(i), BatchOrderResult.success(validIndexes.get(i), savedOrders.get(i),
+                    prepTimeEstimator.estimateReadyAt(savedOrders.get(i))));
+            scheduleRelease(savedOrders.get(i));
+            recordCreated(savedOrders.get(i), customerId);
         }
 
-        System.out.println("🎉 Order created successfully with " + validatedItems.size() + " items");
+        System.out.println("🎉 Batch created " + savedOrders.size() + " of " + createRequests.size() + " orders");
 
-        // 🚀 Publish OrderPlacedEvent for async processing (non-blocking)
+        // 🚀 Publish all OrderPlacedEvents as a single batch (non-blocking)
         if (eventPublisher != null) {
             try {
-                Order finalOrder = orderRepository.findById(order.getId()).orElse(order);
-                eventPublisher.publishOrderPlacedEvent(
-                        finalOrder,
-                        "customer@example.com", // TODO: Get from auth service
-                        "Customer Name"         // TODO: Get from auth service
-                );
-                System.out.println("📨 Order event published successfully");
+                eventPublisher.publishOrderPlacedEvents(savedOrders);
             } catch (Exception e) {
-                System.err.println("⚠️ Failed to publish order event: " + e.getMessage() + " (Order creation was successful)");
+                System.err.println("⚠️ Failed to publish batch order events: " + e.getMessage() + " (Orders were created)");
             }
-        } else {
-            System.out.println("📨 Event publisher not available - skipping event publishing");
         }
 
-        return orderRepository.findById(order.getId()).orElse(order); // Reload with items
+        return results;
     }
 
     /**
@@ -158,6 +232,14 @@ public class OrderService {
         throw new RuntimeException("Restaurant service is currently unavailable. Please try again later.");
     }
 
+    /**
+     * Busy kitchens are not a Restaurant Service failure - keep the retry-after hint
+     */
+    public Order createOrderFallback(CreateOrderRequest createRequest, Long customerId,
+                                     KitchenAdmissionController.KitchenBusyException ex) {
+        throw ex;
+    }
+
     /**
      * Get all orders for a customer
      */
@@ -187,10 +269,21 @@ public class OrderService {
         return orderRepository.findByRestaurantIdAndStatus(restaurantId, Order.OrderStatus.PENDING);
     }
 
+    /**
+     * Get the status history of a customer's order
+     */
+    public List<OrderStatusJournal.Transition> getOrderTimeline(Long orderId, Long customerId) {
+        if (!orderRepository.existsByIdAndCustomerId(orderId, customerId)) {
+            throw new RuntimeException("Order not found or access denied");
+        }
+        return statusJournal.getTimeline(orderId);
+    }
+
     /**
      * Update order status (for restaurant owners)
      */
     public Order updateOrderStatus(Long orderId, Order.OrderStatus newStatus, Long restaurantId) {
+        eventStore.enterWriteGate();
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
@@ -204,25 +297,16 @@ public class OrderService {
             throw new RuntimeException("Invalid status transition from " + order.getStatus() + " to " + newStatus);
         }
 
-        String oldStatus = order.getStatus().name();
+        Order.OrderStatus oldStatus = order.getStatus();
+        LocalDateTime statusSince = order.getUpdatedAt(); // Status changes are the only updates to active orders
         order.setStatus(newStatus);
-        Order updatedOrder = orderRepository.save(order);
+        Order updatedOrder = saveTransition(order);
+        kitchenAdmission.onStatusChange(order.getRestaurantId(), oldStatus, newStatus);
+        prepTimeEstimator.recordTransition(order.getRestaurantId(), oldStatus, newStatus, statusSince);
+        recordTransition(updatedOrder, oldStatus, newStatus, OrderStatusJournal.Actor.RESTAURANT, restaurantId);
 
         // 🚀 Publish OrderStatusChangedEvent (non-blocking)
-        if (eventPublisher != null) {
-            try {
-                eventPublisher.publishOrderStatusChangedEvent(
-                        updatedOrder,
-                        oldStatus,
-                        newStatus.name(),
-                        "restaurant", // Changed by restaurant
-                        "customer@example.com" // TODO: Get from auth service
-                );
-                System.out.println("📨 Order status change event published");
-            } catch (Exception e) {
-                System.err.println("⚠️ Failed to publish status change event: " + e.getMessage());
-            }
-        }
+        publishStatusChange(updatedOrder, oldStatus.name(), "restaurant"); // Changed by restaurant
 
         return updatedOrder;
     }
@@ -231,6 +315,7 @@ public class OrderService {
      * Cancel an order (for customers)
      */
     public Order cancelOrder(Long orderId, Long customerId) {
+        eventStore.enterWriteGate();
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
@@ -240,12 +325,137 @@ public class OrderService {
         }
 
         // Check if order can be cancelled
-        if (order.getStatus() != Order.OrderStatus.PENDING && order.getStatus() != Order.OrderStatus.CONFIRMED) {
+        if (!isCancellable(order.getStatus())) {
             throw new RuntimeException("Order cannot be cancelled in " + order.getStatus() + " status");
         }
 
+        Order.OrderStatus oldStatus = order.getStatus();
         order.setStatus(Order.OrderStatus.CANCELLED);
-        return orderRepository.save(order);
+        Order cancelledOrder = saveTransition(order);
+        kitchenAdmission.onStatusChange(order.getRestaurantId(), oldStatus, Order.OrderStatus.CANCELLED);
+        recordTransition(cancelledOrder, oldStatus, Order.OrderStatus.CANCELLED,
+                OrderStatusJournal.Actor.CUSTOMER, customerId);
+        return cancelledOrder;
+    }
+
+    /**
+     * Write a status change right away, so losing a race with another change of the order (version
+     * check) fails here - before counters, journal and events are touched
+     */
+    private Order saveTransition(Order order) {
+        try {
+            return orderRepository.saveAndFlush(order);
+        } catch (OptimisticLockingFailureException e) {
+            throw new RuntimeException("Order was changed by someone else in the meantime - please reload it and try again");
+        }
+    }
+
+    /**
+     * Cancel PENDING orders that were not confirmed before the cutoff (one batch)
+     * Same transition as cancelOrder, applied with a single bulk update. The candidates are locked
+     * first, and the update is guarded by status and bumps the version: a cancel or confirmation
+     * that read the order before the sweep fails its version check instead of overwriting the
+     * expiry, one that committed first leaves the order out of the update (the batch rolls back and
+     * the next sweep retries) - every expired order is processed once
+     *
+     * @return number of orders expired in this batch
+     */
+    public int expireUnconfirmedOrders(LocalDateTime cutoff, int batchSize) {
+        eventStore.enterWriteGate();
+        List<Order> expiredOrders = orderRepository.lockByStatusAndUpdatedAtBefore(
+                Order.OrderStatus.PENDING, cutoff, PageRequest.of(0, batchSize));
+        if (expiredOrders.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> expiredIds = expiredOrders.stream().map(Order::getId).collect(Collectors.toList());
+        int updated = orderRepository.updateStatusForIds(
+                expiredIds, Order.OrderStatus.PENDING, Order.OrderStatus.CANCELLED, LocalDateTime.now());
+        if (updated != expiredOrders.size()) { // Changed while we waited for the locks - roll back, the next sweep retries
+            throw new RuntimeException("Expiry sweep updated " + updated + " of " + expiredOrders.size() + " locked orders");
+        }
+        expiredOrders.forEach(order -> order.setStatus(Order.OrderStatus.CANCELLED)); // Detached by the bulk update
+
+        expiredOrders.forEach(order -> recordTransition(order, Order.OrderStatus.PENDING,
+                Order.OrderStatus.CANCELLED, OrderStatusJournal.Actor.SYSTEM, null));
+
+        // Free the kitchen slots held by the expired orders
+        expiredOrders.stream()
+                .collect(Collectors.groupingBy(Order::getRestaurantId, Collectors.counting()))
+                .forEach((restaurantId, count) -> kitchenAdmission.release(restaurantId, count.intValue()));
+
+        if (eventPublisher != null) {
+            eventPublisher.publishOrderStatusChangedEvents(
+                    expiredOrders,
+                    Order.OrderStatus.PENDING.name(),
+                    Order.OrderStatus.CANCELLED.name(),
+                    "system" // Expired automatically
+            );
+        }
+        return updated;
+    }
+
+    /**
+     * Release scheduled orders to the kitchen queue (SCHEDULED → PENDING)
+     * Called by ScheduledOrderReleaser when their time slot arrives; orders cancelled
+     * in the meantime are skipped, and orders whose kitchen is at capacity wait a while longer -
+     * up to the queue timeout, after which they are cancelled. The wait is counted from queued_at,
+     * which an event store rebuild does not restore, so a rebuild restarts it.
+     */
+    public List<Order> releaseScheduledOrders(Collection<Long> orderIds) {
+        eventStore.enterWriteGate();
+        List<Order> released = new ArrayList<>();
+        List<Order> deferred = new ArrayList<>();
+        List<Order> timedOut = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (Order order : orderRepository.findAllById(orderIds)) {
+            if (order.getStatus() != Order.OrderStatus.SCHEDULED) {
+                continue;
+            }
+            if (kitchenAdmission.tryAdmit(order.getRestaurantId())) {
+                order.setStatus(Order.OrderStatus.PENDING);
+                released.add(order);
+            } else if (order.getQueuedAt() != null
+                    && order.getQueuedAt().plusMinutes(kitchenAdmission.getQueueTimeoutMinutes()).isBefore(now)) {
+                order.setStatus(Order.OrderStatus.CANCELLED);
+                timedOut.add(order);
+            } else {
+                if (order.getQueuedAt() == null) {
+                    order.setQueuedAt(now);
+                }
+                order.setScheduledFor(now.plusSeconds(kitchenAdmission.getRetryAfterSeconds()));
+                deferred.add(order);
+            }
+        }
+
+        orderRepository.saveAll(released);
+        orderRepository.saveAll(deferred);
+        orderRepository.saveAll(timedOut);
+        deferred.forEach(order -> {
+            eventStore.recordScheduleChange(order.getId(), order.getScheduledFor());
+            applicationEventPublisher.publishEvent(new CustomerOrderReadModel.OrderStatusChanged(
+                    order.getCustomerId(), order.getId(), order.getStatus(), order.getScheduledFor(), LocalDateTime.now()));
+            scheduleRelease(order);
+        });
+
+        released.forEach(order -> {
+            recordTransition(order, Order.OrderStatus.SCHEDULED, Order.OrderStatus.PENDING,
+                    OrderStatusJournal.Actor.SYSTEM, null);
+            publishStatusChange(order, Order.OrderStatus.SCHEDULED.name(), "system");
+        });
+
+        // Waited too long for a kitchen slot - never held one, so there is nothing to release
+        timedOut.forEach(order -> {
+            recordTransition(order, Order.OrderStatus.SCHEDULED, Order.OrderStatus.CANCELLED,
+                    OrderStatusJournal.Actor.SYSTEM, null);
+            publishStatusChange(order, Order.OrderStatus.SCHEDULED.name(), "system");
+        });
+        if (!timedOut.isEmpty()) {
+            System.out.println("⌛ Cancelled " + timedOut.size() + " orders that waited more than "
+                    + kitchenAdmission.getQueueTimeoutMinutes() + " minutes for a kitchen slot");
+        }
+        return released;
     }
 
     /**
@@ -266,11 +476,100 @@ public class OrderService {
         long pendingOrders = orderRepository.findByRestaurantIdAndStatus(
                 restaurantId, Order.OrderStatus.PENDING).size();
 
-        return new RestaurantOrderStats(totalOrders, pendingOrders);
+        return new RestaurantOrderStats(totalOrders, pendingOrders,
+                prepTimeEstimator.getStageStats(restaurantId, PrepTimeEstimator.Stage.CONFIRMED),
+                prepTimeEstimator.getStageStats(restaurantId, PrepTimeEstimator.Stage.PREPARING));
     }
 
     // Private helper methods
 
+    /**
+     * Validate that a restaurant exists and is open
+     */
+    private RestaurantDto.RestaurantResponse requireOpenRestaurant(Long restaurantId) {
+        RestaurantDto.ApiResponse<RestaurantDto.RestaurantResponse> restaurantResponse =
+                validateRestaurant(restaurantId);
+
+        if (!restaurantResponse.isSuccess()) {
+            throw new RuntimeException("Failed to validate restaurant: " + restaurantResponse.getMessage());
+        }
+
+        RestaurantDto.RestaurantResponse restaurant = restaurantResponse.getData();
+        if (!restaurant.isOpen()) {
+            throw new RuntimeException("Restaurant is currently closed");
+        }
+        return restaurant;
+    }
+
+    /**
+     * Build an unsaved order with its items, priced from the given menu item lookup
+     * Checks item availability and the restaurant's minimum order
+     */
+    private Order buildOrder(CreateOrderRequest createRequest, Long customerId,
+                             RestaurantDto.RestaurantResponse restaurant,
+                             Function<Long, RestaurantDto.MenuItemResponse> menuItemLookup) {
+        Order order = new Order();
+        order.setCustomerId(customerId);
+        order.setRestaurantId(createRequest.getRestaurantId());
+        order.setRestaurantName(restaurant.getName());
+        order.setDeliveryAddress(createRequest.getDeliveryAddress());
+        order.setStatus(Order.OrderStatus.PENDING);
+
+        // Orders for a future time slot wait as SCHEDULED until released to the kitchen
+        if (createRequest.getScheduledFor() != null) {
+            if (createRequest.getScheduledFor().isAfter(LocalDateTime.now().plusDays(maxScheduleAdvanceDays))) {
+                throw new RuntimeException("Orders can be scheduled at most " + maxScheduleAdvanceDays + " days ahead");
+            }
+            order.setStatus(Order.OrderStatus.SCHEDULED);
+            order.setScheduledFor(createRequest.getScheduledFor());
+        }
+
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (OrderItemRequest itemRequest : createRequest.getOrderItems()) {
+            RestaurantDto.MenuItemResponse menuItem = menuItemLookup.apply(itemRequest.getMenuItemId());
+
+            if (!menuItem.isAvailable()) {
+                throw new RuntimeException("Menu item '" + menuItem.getName() + "' is not available");
+            }
+
+            // Calculate item total price
+            BigDecimal itemTotal = menuItem.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
+            subtotal = subtotal.add(itemTotal);
+
+            OrderItem orderItem = new OrderItem();
+            orderItem.setMenuItemId(itemRequest.getMenuItemId());
+            orderItem.setMenuItemName(menuItem.getName());
+            orderItem.setQuantity(itemRequest.getQuantity());
+            orderItem.setPrice(itemTotal);
+            orderItem.setOrder(order);
+            order.getOrderItems().add(orderItem);
+        }
+
+        // Check minimum order requirement
+        if (subtotal.compareTo(restaurant.getMinimumOrder()) < 0) {
+            throw new RuntimeException("Order subtotal must be at least $" + restaurant.getMinimumOrder() +
+                    " (excluding delivery fee of $" + restaurant.getDeliveryFee() + ")");
+        }
+
+        // Final total with delivery fee
+        order.setTotalAmount(subtotal.add(restaurant.getDeliveryFee()));
+        return order;
+    }
+
+    /**
+     * Get the result of a completed lookup, unwrapping the original exception
+     */
+    private <T> T getLookupResult(CompletableFuture<T> lookup) {
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
     @CircuitBreaker(name = "restaurant-service")
     public RestaurantDto.ApiResponse<RestaurantDto.RestaurantResponse> validateRestaurant(Long restaurantId) {
         try {
@@ -298,8 +597,87 @@ public class OrderService {
         }
     }
 
+    /**
+     * Take a kitchen slot for a new PENDING order
+     * At capacity the order is either rejected with a retry-after hint or, in queue mode,
+     * held as SCHEDULED and released once the kitchen has room (or cancelled after the
+     * queue timeout). Scheduled orders take their slot when they are released.
+     */
+    private void admitOrQueue(Order order) {
+        if (order.getStatus() != Order.OrderStatus.PENDING || kitchenAdmission.tryAdmit(order.getRestaurantId())) {
+            return;
+        }
+        if (!kitchenAdmission.isQueueMode()) {
+            throw new KitchenAdmissionController.KitchenBusyException(
+                    order.getRestaurantId(), kitchenAdmission.getRetryAfterSeconds());
+        }
+        order.setStatus(Order.OrderStatus.SCHEDULED);
+        order.setQueuedAt(LocalDateTime.now());
+        order.setScheduledFor(order.getQueuedAt().plusSeconds(kitchenAdmission.getRetryAfterSeconds()));
+        System.out.println("⏳ Kitchen at capacity - order queued for restaurant " + order.getRestaurantId());
+    }
+
+    /**
+     * Record a newly saved order in the status journal, the event store and the customer read model
+     */
+    private void recordCreated(Order order, Long customerId) {
+        statusJournal.record(order.getId(), null, order.getStatus(), OrderStatusJournal.Actor.CUSTOMER, customerId);
+        eventStore.recordCreated(order);
+        applicationEventPublisher.publishEvent(new CustomerOrderReadModel.OrderPlaced(new OrderResponse(order)));
+    }
+
+    /**
+     * Record a status change in the status journal, the event store and the customer read model
+     */
+    private void recordTransition(Order order, Order.OrderStatus fromStatus, Order.OrderStatus toStatus,
+                                  OrderStatusJournal.Actor actor, Long actorId) {
+        statusJournal.record(order.getId(), fromStatus, toStatus, actor, actorId);
+        eventStore.recordStatusChange(order.getId(), fromStatus, toStatus);
+        applicationEventPublisher.publishEvent(new CustomerOrderReadModel.OrderStatusChanged(
+                order.getCustomerId(), order.getId(), toStatus, order.getScheduledFor(), LocalDateTime.now()));
+    }
+
+    /**
+     * Register a scheduled order with the releaser (no-op for regular orders)
+     */
+    private void scheduleRelease(Order order) {
+        if (order.getStatus() == Order.OrderStatus.SCHEDULED) {
+            scheduledOrderReleaser.schedule(order.getId(), order.getScheduledFor());
+        }
+    }
+
+    /**
+     * Publish OrderStatusChangedEvent for an order whose status was just changed (non-blocking)
+     */
+    private void publishStatusChange(Order order, String oldStatus, String changedBy) {
+        if (eventPublisher == null) {
+            return;
+        }
+        try {
+            eventPublisher.publishOrderStatusChangedEvent(
+                    order,
+                    oldStatus,
+                    order.getStatus().name(),
+                    changedBy
+            );
+            System.out.println("📨 Order status change event queued for publishing");
+        } catch (Exception e) {
+            System.err.println("⚠️ Failed to publish status change event: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Whether an order can still be cancelled (by the customer or by expiry)
+     */
+    private boolean isCancellable(Order.OrderStatus status) {
+        return status == Order.OrderStatus.SCHEDULED
+                || status == Order.OrderStatus.PENDING
+                || status == Order.OrderStatus.CONFIRMED;
+    }
+
     private boolean isValidStatusTransition(Order.OrderStatus currentStatus, Order.OrderStatus newStatus) {
         return switch (currentStatus) {
+            case SCHEDULED -> newStatus == Order.OrderStatus.CANCELLED; // Released to PENDING by the scheduler only
             case PENDING -> newStatus == Order.OrderStatus.CONFIRMED || newStatus == Order.OrderStatus.CANCELLED;
             case CONFIRMED -> newStatus == Order.OrderStatus.PREPARING || newStatus == Order.OrderStatus.CANCELLED;
             case PREPARING -> newStatus == Order.OrderStatus.DELIVERED;
@@ -324,30 +702,27 @@ public class OrderService {
     public static class RestaurantOrderStats {
         private final long totalOrders;
         private final long pendingOrders;
+        private final PrepTimeEstimator.StageStats confirmedTime;  // CONFIRMED → PREPARING
+        private final PrepTimeEstimator.StageStats preparingTime;  // PREPARING → DELIVERED
 
-        public RestaurantOrderStats(long totalOrders, long pendingOrders) {
+        public RestaurantOrderStats(long totalOrders, long pendingOrders,
+                                    PrepTimeEstimator.StageStats confirmedTime,
+                                    PrepTimeEstimator.StageStats preparingTime) {
             this.totalOrders = totalOrders;
             this.pendingOrders = pendingOrders;
+            this.confirmedTime = confirmedTime;
+            this.preparingTime = preparingTime;
         }
 
         public long getTotalOrders() { return totalOrders; }
         public long getPendingOrders() { return pendingOrders; }
+        public PrepTimeEstimator.StageStats getConfirmedTime() { return confirmedTime; }
+        public PrepTimeEstimator.StageStats getPreparingTime() { return preparingTime; }
     }
 
     /**
-     * Helper class to store validated order item data
+     * Key for de-duplicating menu item lookups within a batch
      */
-    private static class OrderItemData {
-        final Long menuItemId;
-        final String menuItemName;
-        final Integer quantity;
-        final BigDecimal price;
-
-        OrderItemData(Long menuItemId, String menuItemName, Integer quantity, BigDecimal price) {
-            this.menuItemId = menuItemId;
-            this.menuItemName = menuItemName;
-            this.quantity = quantity;
-            this.price = price;
-        }
+    private record MenuItemKey(Long restaurantId, Long menuItemId) {
     }
 }
\ No newline at end of file
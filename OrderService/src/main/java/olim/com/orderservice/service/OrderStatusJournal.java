@@ -0,0 +1,244 @@
+package olim.com.orderservice.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import olim.com.orderservice.entity.JournalEpoch;
+import olim.com.orderservice.entity.Order;
+import olim.com.orderservice.repository.JournalEpochRepository;
+import olim.com.orderservice.util.MappedSegmentLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Order Status Journal
+ *
+ * Append-only history of every order status transition, kept in a memory-mapped segment log
+ * as fixed 32-byte records:
+ *
+ *   marker(4) | from(1) | to(1) | actor(1) | unused(1) | orderId(8) | timestamp millis(8) | actorId(8)
+ *
+ * Appends are lock-free and don't touch the database. An in-memory index of record
+ * positions per order (rebuilt from the log on startup) serves order timelines; the
+ * segment files themselves can be read for offline analytics.
+ *
+ * Order IDs are only meaningful within one database, so the journal is scoped to a database
+ * epoch stored alongside the orders ({@link JournalEpoch}). An epoch record (orderId -1, epoch
+ * in the timestamp slot) starts each epoch's transitions; transitions of earlier epochs are
+ * ignored, so a recreated database never inherits timelines of its predecessor.
+ */
+@Component
+public class OrderStatusJournal {
+
+    private static final int RECORD_SIZE = 32;
+    private static final int MARKER = 0x4F534A31; // "OSJ1"
+    private static final byte NO_STATUS = 0;
+    private static final long EPOCH_RECORD = -1L;
+    private static final String EPOCH_NAME = "order-status";
+
+    @Autowired
+    private JournalEpochRepository journalEpochRepository;
+
+    @Value("${order.journal.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.journal.directory:./data/order-journal}")
+    private String directory;
+
+    @Value("${order.journal.records-per-segment:1048576}")
+    private int recordsPerSegment;
+
+    private MappedSegmentLog log;
+    private long epoch;
+
+    // Journal positions of each order's transitions
+    private final ConcurrentHashMap<Long, long[]> orderIndex = new ConcurrentHashMap<>();
+
+    /**
+     * Who made a status change
+     */
+    public enum Actor {
+        CUSTOMER,
+        RESTAURANT,
+        SYSTEM
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            log = new MappedSegmentLog(Paths.get(directory), "order-status", RECORD_SIZE, recordsPerSegment, MARKER);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open order status journal in " + directory, e);
+        }
+        epoch = currentEpoch();
+
+        boolean[] current = {false};
+        log.forEach(0, (sequence, buffer, offset) -> {
+            long orderId = buffer.getLong(offset + 8);
+            if (orderId == EPOCH_RECORD) {
+                current[0] = buffer.getLong(offset + 16) == epoch;
+            } else if (current[0]) {
+                index(orderId, sequence);
+            }
+        });
+        if (!current[0]) {
+            // New database: transitions so far belong to orders that no longer exist
+            orderIndex.clear();
+            log.append((buffer, offset) -> {
+                buffer.putLong(offset + 8, EPOCH_RECORD);
+                buffer.putLong(offset + 16, epoch);
+            });
+        }
+
+        System.out.println("📒 Order status journal opened with " + orderIndex.size() + " orders in epoch " + epoch);
+    }
+
+    /**
+     * Record a status transition (fromStatus is null for a new order)
+     * Appended after commit when called inside a transaction, so rolled back changes are not journaled.
+     */
+    public void record(Long orderId, Order.OrderStatus fromStatus, Order.OrderStatus toStatus,
+                       Actor actor, Long actorId) {
+        if (log == null) {
+            return;
+        }
+        long timestamp = System.currentTimeMillis();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(orderId, fromStatus, toStatus, actor, actorId, timestamp);
+                }
+            });
+        } else {
+            append(orderId, fromStatus, toStatus, actor, actorId, timestamp);
+        }
+    }
+
+    /**
+     * All recorded transitions of an order, oldest first
+     */
+    public List<Transition> getTimeline(Long orderId) {
+        long[] positions = orderIndex.get(orderId);
+        if (positions == null) {
+            return List.of();
+        }
+        List<Transition> timeline = new ArrayList<>(positions.length);
+        for (long position : positions) {
+            log.read(position, (sequence, buffer, offset) -> timeline.add(decode(buffer, offset)));
+        }
+        timeline.sort(Comparator.comparing(Transition::timestamp));
+        return timeline;
+    }
+
+    /**
+     * Stream every transition of the current epoch from the given journal position (for analytics / rebuilds)
+     */
+    public void replay(long fromSequence, Consumer<Transition> consumer) {
+        if (log == null) {
+            return;
+        }
+        // Whether fromSequence is inside the current epoch is only known from the records before it
+        boolean[] current = {false};
+        log.forEach(0, (sequence, buffer, offset) -> {
+            if (buffer.getLong(offset + 8) == EPOCH_RECORD) {
+                current[0] = buffer.getLong(offset + 16) == epoch;
+            } else if (current[0] && sequence >= fromSequence) {
+                consumer.accept(decode(buffer, offset));
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${order.journal.flush-interval-ms:5000}")
+    public void flush() {
+        if (log != null) {
+            log.flush();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    /**
+     * Epoch of the orders database, created along with its schema
+     */
+    private long currentEpoch() {
+        return journalEpochRepository.findById(EPOCH_NAME)
+                .orElseGet(() -> journalEpochRepository.save(new JournalEpoch(
+                        EPOCH_NAME, ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE), LocalDateTime.now())))
+                .getEpoch();
+    }
+
+    private void append(Long orderId, Order.OrderStatus fromStatus, Order.OrderStatus toStatus,
+                        Actor actor, Long actorId, long timestamp) {
+        long sequence = log.append((buffer, offset) -> {
+            buffer.put(offset + 4, encode(fromStatus));
+            buffer.put(offset + 5, encode(toStatus));
+            buffer.put(offset + 6, (byte) actor.ordinal());
+            buffer.putLong(offset + 8, orderId);
+            buffer.putLong(offset + 16, timestamp);
+            buffer.putLong(offset + 24, actorId != null ? actorId : 0L);
+        });
+        index(orderId, sequence);
+    }
+
+    private void index(long orderId, long sequence) {
+        orderIndex.merge(orderId, new long[]{sequence}, (positions, added) -> {
+            long[] merged = Arrays.copyOf(positions, positions.length + 1);
+            merged[positions.length] = added[0];
+            return merged;
+        });
+    }
+
+    private Transition decode(ByteBuffer buffer, int offset) {
+        long actorId = buffer.getLong(offset + 24);
+        return new Transition(
+                buffer.getLong(offset + 8),
+                decode(buffer.get(offset + 4)),
+                decode(buffer.get(offset + 5)),
+                Actor.values()[buffer.get(offset + 6)],
+                actorId != 0 ? actorId : null,
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(buffer.getLong(offset + 16)), ZoneId.systemDefault())
+        );
+    }
+
+    private static byte encode(Order.OrderStatus status) {
+        return status == null ? NO_STATUS : status.getCode();
+    }
+
+    private static Order.OrderStatus decode(byte code) {
+        return code == NO_STATUS ? null : Order.OrderStatus.fromCode(code);
+    }
+
+    /**
+     * One journaled status transition
+     */
+    public record Transition(long orderId, Order.OrderStatus fromStatus, Order.OrderStatus toStatus,
+                             Actor actor, Long actorId, LocalDateTime timestamp) {
+    }
+}
@@ -0,0 +1,59 @@
+package olim.com.orderservice.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending Order Expiry Sweeper
+ *
+ * Cancels orders that restaurants never confirmed within the SLA.
+ * A PENDING order's updated_at is the time it entered PENDING (created or released),
+ * so due orders are found through the (status, updated_at) index and cancelled
+ * in batches, each batch in its own transaction.
+ */
+@Component
+public class PendingOrderExpirySweeper {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Value("${order.expiry.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.expiry.pending-timeout-minutes:10}")
+    private long pendingTimeoutMinutes;
+
+    @Value("${order.expiry.batch-size:200}")
+    private int batchSize;
+
+    /**
+     * Sweep expired PENDING orders until a batch comes back short
+     */
+    @Scheduled(fixedDelayString = "${order.expiry.sweep-interval-ms:30000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(pendingTimeoutMinutes);
+
+        int totalExpired = 0;
+        int expired;
+        try {
+            do {
+                expired = orderService.expireUnconfirmedOrders(cutoff, batchSize);
+                totalExpired += expired;
+            } while (expired == batchSize);
+        } catch (Exception e) {
+            System.err.println("❌ Failed to expire pending orders: " + e.getMessage());
+        }
+
+        if (totalExpired > 0) {
+            System.out.println("⌛ Cancelled " + totalExpired + " orders not confirmed within "
+                    + pendingTimeoutMinutes + " minutes");
+        }
+    }
+}
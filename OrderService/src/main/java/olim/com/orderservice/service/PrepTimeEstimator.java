@@ -0,0 +1,198 @@
+package olim.com.orderservice.service;
+
+import olim.com.orderservice.entity.Order;
+import olim.com.orderservice.util.LogHistogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prep Time Estimator
+ *
+ * Keeps rolling per-restaurant statistics of how long orders spend in each kitchen stage
+ * (CONFIRMED → PREPARING, PREPARING → DELIVERED): an EWMA for the ETA and a log-bucketed
+ * histogram for percentiles. Both are updated in O(1) as status changes come in, so
+ * estimates never need to look at order history.
+ */
+@Component
+public class PrepTimeEstimator {
+
+    @Value("${order.eta.ewma-alpha:0.2}")
+    private double ewmaAlpha;
+
+    @Value("${order.eta.default-confirmed-minutes:5}")
+    private long defaultConfirmedMinutes;
+
+    @Value("${order.eta.default-preparing-minutes:25}")
+    private long defaultPreparingMinutes;
+
+    private final ConcurrentHashMap<Long, Map<Stage, StageTimes>> restaurants = new ConcurrentHashMap<>();
+
+    /**
+     * Kitchen stages, named after the status the order waits in
+     */
+    public enum Stage {
+        CONFIRMED,  // Confirmed, waiting to be prepared
+        PREPARING   // Being prepared, until delivered
+    }
+
+    /**
+     * Record how long an order spent in its previous status
+     *
+     * @param statusSince when the order entered oldStatus
+     */
+    public void recordTransition(Long restaurantId, Order.OrderStatus oldStatus, Order.OrderStatus newStatus,
+                                 LocalDateTime statusSince) {
+        Stage stage = completedStage(oldStatus, newStatus);
+        if (stage == null || statusSince == null) {
+            return;
+        }
+        long durationMs = Duration.between(statusSince, LocalDateTime.now()).toMillis();
+        if (durationMs < 0) {
+            return;
+        }
+        restaurants.computeIfAbsent(restaurantId, id -> newStageTimes())
+                .get(stage)
+                .record(durationMs, ewmaAlpha);
+    }
+
+    /**
+     * Estimate when an order will be ready, or null once it is delivered or cancelled
+     *
+     * @param statusSince when the order entered its current status
+     */
+    public LocalDateTime estimateReadyAt(Long restaurantId, Order.OrderStatus status,
+                                         LocalDateTime statusSince, LocalDateTime scheduledFor) {
+        LocalDateTime now = LocalDateTime.now();
+        long confirmedMs = expectedMillis(restaurantId, Stage.CONFIRMED);
+        long preparingMs = expectedMillis(restaurantId, Stage.PREPARING);
+
+        return switch (status) {
+            case SCHEDULED -> latest(scheduledFor, now).plus(Duration.ofMillis(confirmedMs + preparingMs));
+            case PENDING -> now.plus(Duration.ofMillis(confirmedMs + preparingMs));
+            // Overdue stages are assumed to finish now
+            case CONFIRMED -> latest(since(statusSince, now).plus(Duration.ofMillis(confirmedMs)), now)
+                    .plus(Duration.ofMillis(preparingMs));
+            case PREPARING -> latest(since(statusSince, now).plus(Duration.ofMillis(preparingMs)), now);
+            case DELIVERED, CANCELLED -> null;
+        };
+    }
+
+    public LocalDateTime estimateReadyAt(Order order) {
+        return estimateReadyAt(order.getRestaurantId(), order.getStatus(), order.getUpdatedAt(), order.getScheduledFor());
+    }
+
+    /**
+     * Current statistics for one stage of a restaurant's kitchen
+     */
+    public StageStats getStageStats(Long restaurantId, Stage stage) {
+        Map<Stage, StageTimes> stages = restaurants.get(restaurantId);
+        if (stages == null) {
+            return new StageStats(0, null, null, null, null);
+        }
+        return stages.get(stage).snapshot();
+    }
+
+    private long expectedMillis(Long restaurantId, Stage stage) {
+        Map<Stage, StageTimes> stages = restaurants.get(restaurantId);
+        long ewmaMs = stages != null ? stages.get(stage).getEwmaMs() : 0;
+        if (ewmaMs > 0) {
+            return ewmaMs;
+        }
+        long defaultMinutes = stage == Stage.CONFIRMED ? defaultConfirmedMinutes : defaultPreparingMinutes;
+        return Duration.ofMinutes(defaultMinutes).toMillis();
+    }
+
+    private Stage completedStage(Order.OrderStatus oldStatus, Order.OrderStatus newStatus) {
+        if (oldStatus == Order.OrderStatus.CONFIRMED && newStatus == Order.OrderStatus.PREPARING) {
+            return Stage.CONFIRMED;
+        }
+        if (oldStatus == Order.OrderStatus.PREPARING && newStatus == Order.OrderStatus.DELIVERED) {
+            return Stage.PREPARING;
+        }
+        return null; // Cancellations don't say anything about kitchen speed
+    }
+
+    private Map<Stage, StageTimes> newStageTimes() {
+        Map<Stage, StageTimes> stages = new EnumMap<>(Stage.class);
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, new StageTimes());
+        }
+        return stages;
+    }
+
+    private static LocalDateTime since(LocalDateTime statusSince, LocalDateTime now) {
+        return statusSince != null ? statusSince : now;
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a != null && a.isAfter(b) ? a : b;
+    }
+
+    /**
+     * Rolling times for one stage of one restaurant
+     */
+    private static class StageTimes {
+        // 1 second to 1 day, 5% buckets, halved every 2000 samples
+        private final LogHistogram histogram = new LogHistogram(1000, 86_400_000, 0.05, 2000);
+        private volatile long ewmaMs;
+        private long samples;
+
+        synchronized void record(long durationMs, double alpha) {
+            ewmaMs = samples == 0 ? durationMs : Math.round(alpha * durationMs + (1 - alpha) * ewmaMs);
+            samples++;
+            histogram.record(durationMs);
+        }
+
+        long getEwmaMs() {
+            return ewmaMs;
+        }
+
+        synchronized StageStats snapshot() {
+            if (samples == 0) {
+                return new StageStats(0, null, null, null, null);
+            }
+            return new StageStats(
+                    samples,
+                    toSeconds(ewmaMs),
+                    toSeconds(histogram.percentile(0.50)),
+                    toSeconds(histogram.percentile(0.90)),
+                    toSeconds(histogram.percentile(0.99))
+            );
+        }
+
+        private static Long toSeconds(double millis) {
+            return Math.round(millis / 1000);
+        }
+    }
+
+    /**
+     * Prep-time statistics for one stage, in seconds (null until the first sample)
+     */
+    public static class StageStats {
+        private final long samples;
+        private final Long averageSeconds;
+        private final Long p50Seconds;
+        private final Long p90Seconds;
+        private final Long p99Seconds;
+
+        public StageStats(long samples, Long averageSeconds, Long p50Seconds, Long p90Seconds, Long p99Seconds) {
+            this.samples = samples;
+            this.averageSeconds = averageSeconds;
+            this.p50Seconds = p50Seconds;
+            this.p90Seconds = p90Seconds;
+            this.p99Seconds = p99Seconds;
+        }
+
+        public long getSamples() { return samples; }
+        public Long getAverageSeconds() { return averageSeconds; }
+        public Long getP50Seconds() { return p50Seconds; }
+        public Long getP90Seconds() { return p90Seconds; }
+        public Long getP99Seconds() { return p99Seconds; }
+    }
+}
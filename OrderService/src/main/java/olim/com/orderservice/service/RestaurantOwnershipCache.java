@@ -0,0 +1,133 @@
+package olim.com.orderservice.service;
+
+import olim.com.orderservice.client.RestaurantClient;
+import olim.com.orderservice.dto.RestaurantDto;
+import olim.com.orderservice.event.RestaurantOwnershipEvent;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Restaurant Ownership Cache
+ *
+ * In-memory owner → restaurants map used to verify that a restaurant owner only acts on
+ * their own restaurants, without calling Restaurant Service per request. It is warmed up
+ * once from Restaurant Service on startup (retried until it succeeds) and then kept current
+ * by restaurant created / deleted events.
+ */
+@Component
+public class RestaurantOwnershipCache {
+
+    @Autowired
+    private RestaurantClient restaurantClient;
+
+    private final ConcurrentHashMap<Long, Set<Long>> restaurantsByOwner = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> ownerByRestaurant = new ConcurrentHashMap<>();
+
+    // Restaurants deleted while the warm-up was in flight, so its (older) snapshot can't bring them back
+    private final Set<Long> deletedDuringWarmUp = new HashSet<>();
+
+    private volatile boolean ready;
+
+    /**
+     * Whether the cache has been warmed up and can answer ownership checks
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Whether the restaurant belongs to the owner
+     */
+    public boolean isOwner(Long ownerId, Long restaurantId) {
+        Set<Long> restaurantIds = restaurantsByOwner.get(ownerId);
+        return restaurantIds != null && restaurantIds.contains(restaurantId);
+    }
+
+    /**
+     * Load all restaurant owners from Restaurant Service
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            RestaurantDto.ApiResponse<List<RestaurantDto.RestaurantOwnershipResponse>> response =
+                    restaurantClient.getRestaurantOwnerships();
+            if (response == null || !response.isSuccess() || response.getData() == null) {
+                System.err.println("⚠️ Restaurant ownership warm-up failed: "
+                        + (response != null ? response.getMessage() : "no response") + " - will retry");
+                return;
+            }
+
+            synchronized (this) {
+                for (RestaurantDto.RestaurantOwnershipResponse ownership : response.getData()) {
+                    if (!deletedDuringWarmUp.contains(ownership.getRestaurantId())) {
+                        add(ownership.getOwnerId(), ownership.getRestaurantId());
+                    }
+                }
+                deletedDuringWarmUp.clear();
+                ready = true;
+            }
+            System.out.println("🔑 Restaurant ownership cache loaded with " + ownerByRestaurant.size() + " restaurants");
+
+        } catch (Exception e) {
+            System.err.println("⚠️ Restaurant ownership warm-up failed: " + e.getMessage() + " - will retry");
+        }
+    }
+
+    /**
+     * Retry the warm-up until it has succeeded once
+     */
+    @Scheduled(fixedDelayString = "${order.ownership.warmup-retry-ms:15000}",
+            initialDelayString = "${order.ownership.warmup-retry-ms:15000}")
+    public void retryWarmUp() {
+        if (!ready) {
+            warmUp();
+        }
+    }
+
+    /**
+     * Apply restaurant created / deleted events from Restaurant Service
+     */
+    @RabbitListener(queues = "#{restaurantOwnershipQueue.name}") // This instance's own queue
+    public synchronized void handleRestaurantOwnershipEvent(RestaurantOwnershipEvent event) {
+        if (event.isDeleted()) {
+            remove(event.getRestaurantId());
+            if (!ready) {
+                deletedDuringWarmUp.add(event.getRestaurantId());
+            }
+            System.out.println("🔑 Restaurant " + event.getRestaurantId() + " removed from ownership cache");
+        } else {
+            add(event.getOwnerId(), event.getRestaurantId());
+            System.out.println("🔑 Restaurant " + event.getRestaurantId() + " added for owner " + event.getOwnerId());
+        }
+    }
+
+    private void add(Long ownerId, Long restaurantId) {
+        Long previousOwner = ownerByRestaurant.put(restaurantId, ownerId);
+        if (previousOwner != null && !previousOwner.equals(ownerId)) {
+            restaurantsByOwner.computeIfPresent(previousOwner, (id, ids) -> {
+                ids.remove(restaurantId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+        restaurantsByOwner.computeIfAbsent(ownerId, id -> ConcurrentHashMap.newKeySet()).add(restaurantId);
+    }
+
+    private void remove(Long restaurantId) {
+        Long ownerId = ownerByRestaurant.remove(restaurantId);
+        if (ownerId != null) {
+            restaurantsByOwner.computeIfPresent(ownerId, (id, ids) -> {
+                ids.remove(restaurantId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+}
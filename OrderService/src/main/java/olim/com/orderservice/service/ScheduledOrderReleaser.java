@@ -0,0 +1,178 @@
+package olim.com.orderservice.service;
+
+import jakarta.annotation.PreDestroy;
+import olim.com.orderservice.entity.Order;
+import olim.com.orderservice.eventstore.OrderEventStore;
+import olim.com.orderservice.repository.OrderRepository;
+import olim.com.orderservice.util.HierarchicalTimingWheel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduled Order Releaser
+ *
+ * Releases SCHEDULED orders to the kitchen queue (PENDING) when their time slot arrives.
+ * Only orders due within the load window are kept in memory, in a hierarchical timing wheel;
+ * the window is (re)loaded from the (status, scheduled_for) index on startup and periodically,
+ * so nothing polls the database per order and nothing is lost across restarts.
+ */
+@Component
+public class ScheduledOrderReleaser {
+
+    private static final long RETRY_DELAY_MS = 5000;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    @Lazy // OrderService also schedules through this component
+    private OrderService orderService;
+
+    @Value("${order.scheduling.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${order.scheduling.wheel-size:64}")
+    private int wheelSize;
+
+    @Value("${order.scheduling.load-window-minutes:30}")
+    private long loadWindowMinutes;
+
+    // Order IDs currently held by the wheel, so overlapping loads don't add them twice
+    private final Set<Long> trackedOrders = ConcurrentHashMap.newKeySet();
+
+    private volatile HierarchicalTimingWheel<Long> wheel;
+    private volatile LocalDateTime loadedUntil;
+    private ScheduledExecutorService ticker;
+
+    /**
+     * Load the near-future window and start ticking once the application is ready
+     * (after the event store's startup rebuild, which is ordered first)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long now = System.currentTimeMillis();
+        // Room for two windows so periodic loads never need to re-cascade
+        wheel = new HierarchicalTimingWheel<>(tickMs, wheelSize,
+                TimeUnit.MINUTES.toMillis(loadWindowMinutes * 2), now);
+
+        // Overdue orders (e.g. due while the service was down) are included and released on the first tick
+        LocalDateTime horizon = LocalDateTime.now().plusMinutes(loadWindowMinutes);
+        List<OrderRepository.ScheduledOrderView> dueOrders = orderRepository
+                .findByStatusAndScheduledForLessThanEqual(Order.OrderStatus.SCHEDULED, horizon);
+        dueOrders.forEach(view -> track(view.getId(), view.getScheduledFor()));
+        loadedUntil = horizon;
+
+        ticker = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("order-release-"));
+        ticker.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+
+        System.out.println("⏰ Scheduled order releaser started with " + dueOrders.size() + " orders in the next "
+                + loadWindowMinutes + " minutes");
+    }
+
+    /**
+     * The orders tables were replaced by an event store rebuild - track the window's orders again
+     * Orders no longer SCHEDULED may still be on the wheel; releasing skips them.
+     */
+    @EventListener(OrderEventStore.ProjectionRebuilt.class)
+    public void onProjectionRebuilt() {
+        if (wheel == null || loadedUntil == null) {
+            return; // Not started yet - start() loads from the rebuilt tables
+        }
+        orderRepository.findByStatusAndScheduledForLessThanEqual(Order.OrderStatus.SCHEDULED, loadedUntil)
+                .forEach(view -> track(view.getId(), view.getScheduledFor()));
+    }
+
+    /**
+     * Extend the in-memory window with orders that have become near-future
+     */
+    @Scheduled(fixedDelayString = "${order.scheduling.reload-interval-ms:60000}")
+    public void loadUpcomingOrders() {
+        if (wheel == null) {
+            return; // Not started yet
+        }
+        LocalDateTime from = loadedUntil;
+        LocalDateTime horizon = LocalDateTime.now().plusMinutes(loadWindowMinutes);
+        orderRepository.findByStatusAndScheduledForBetween(Order.OrderStatus.SCHEDULED, from, horizon)
+                .forEach(view -> track(view.getId(), view.getScheduledFor()));
+        loadedUntil = horizon;
+    }
+
+    /**
+     * Schedule the release of a newly created order
+     * Registered after commit when called inside a transaction, so the order is visible on release.
+     * Orders beyond the load window are left to the periodic load.
+     */
+    public void schedule(Long orderId, LocalDateTime scheduledFor) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduleNow(orderId, scheduledFor);
+                }
+            });
+        } else {
+            scheduleNow(orderId, scheduledFor);
+        }
+    }
+
+    /**
+     * Number of scheduled orders currently held in memory
+     */
+    public int getTrackedOrderCount() {
+        return trackedOrders.size();
+    }
+
+    private void scheduleNow(Long orderId, LocalDateTime scheduledFor) {
+        if (wheel != null && !scheduledFor.isAfter(LocalDateTime.now().plusMinutes(loadWindowMinutes))) {
+            track(orderId, scheduledFor);
+        }
+    }
+
+    private void track(Long orderId, LocalDateTime scheduledFor) {
+        if (trackedOrders.add(orderId)) {
+            wheel.add(orderId, scheduledFor.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+
+    private void tick() {
+        List<Long> dueOrders = wheel.advance(System.currentTimeMillis());
+        if (dueOrders.isEmpty()) {
+            return;
+        }
+        // Untrack first - orders deferred during release are scheduled again
+        dueOrders.forEach(trackedOrders::remove);
+        try {
+            List<Order> released = orderService.releaseScheduledOrders(dueOrders);
+            System.out.println("⏰ Released " + released.size() + " scheduled orders to the kitchen");
+        } catch (Exception e) {
+            // Put them back on the wheel and retry shortly instead of losing them until the next restart
+            LocalDateTime retryAt = LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(RETRY_DELAY_MS));
+            dueOrders.forEach(orderId -> track(orderId, retryAt));
+            System.err.println("❌ Failed to release scheduled orders, retrying: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package olim.com.orderservice.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adaptive Concurrency Limiter
+ *
+ * Limits in-flight calls to a downstream service and adapts the limit to its observed latency
+ * (gradient based, after Netflix's concurrency-limits). Samples are aggregated per window of
+ * about one limit's worth of calls, and the limit is updated once per window: the window's
+ * average latency is compared with a baseline approximating latency without queueing (the
+ * lowest window average seen, drifting up slowly so it follows a downstream that genuinely got
+ * slower). Within the tolerance the limit grows by about sqrt(limit) - only if the window
+ * actually used the limit - and beyond it the limit shrinks in proportion. A dropped call
+ * (error / timeout) cuts the limit multiplicatively right away.
+ *
+ * Calls beyond the limit are rejected immediately rather than queued, so a slow downstream
+ * can't pile up blocked threads.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    private static final double BASELINE_DRIFT = 0.005;
+    private static final double SMOOTHING = 0.5;
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    // Guarded by this - updates are a few arithmetic operations per call
+    private double limit;
+    private double baselineRttNanos;
+    private long windowRttSumNanos;
+    private int windowSamples;
+    private int windowMaxInFlight;
+
+    private volatile int currentLimit;
+
+    /**
+     * @param initialLimit starting limit
+     * @param minLimit limit never goes below this
+     * @param maxLimit limit never goes above this
+     * @param tolerance how much slower than the baseline latency calls may get before the limit shrinks (e.g. 1.5)
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit || tolerance < 1.0) {
+            throw new IllegalArgumentException("Require 1 <= minLimit <= maxLimit and tolerance >= 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.currentLimit = (int) limit;
+    }
+
+    /**
+     * Take a slot for a call
+     *
+     * @return a permit to complete once the call finishes, or null if the limit is reached
+     */
+    public Permit tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= currentLimit) {
+                rejected.incrementAndGet();
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(current + 1, System.nanoTime());
+            }
+        }
+    }
+
+    public int getLimit() {
+        return currentLimit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    private synchronized void onDrop() {
+        setLimit(limit * DROP_BACKOFF);
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        windowRttSumNanos += rttNanos;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart);
+        if (++windowSamples < Math.max(MIN_WINDOW_SAMPLES, currentLimit)) {
+            return;
+        }
+
+        double windowRttNanos = (double) windowRttSumNanos / windowSamples;
+        boolean limitUsed = windowMaxInFlight >= limit / 2;
+        windowRttSumNanos = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+
+        baselineRttNanos = baselineRttNanos == 0 || windowRttNanos < baselineRttNanos
+                ? windowRttNanos
+                : baselineRttNanos + BASELINE_DRIFT * (windowRttNanos - baselineRttNanos);
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineRttNanos / windowRttNanos));
+        // Only grow while the limit is being used, otherwise it drifts up without evidence
+        if (gradient < 1.0 || limitUsed) {
+            setLimit(limit * (1 - SMOOTHING) + (limit * gradient + Math.sqrt(limit)) * SMOOTHING);
+        }
+    }
+
+    private void setLimit(double newLimit) {
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        currentLimit = (int) limit;
+    }
+
+    /**
+     * An admitted call - complete with exactly one of onSuccess / onDropped / onIgnore
+     */
+    public final class Permit {
+
+        private final int inFlightAtStart;
+        private final long startNanos;
+
+        private Permit(int inFlightAtStart, long startNanos) {
+            this.inFlightAtStart = inFlightAtStart;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * The call completed - its latency is a sample for the limit
+         */
+        public void onSuccess() {
+            inFlight.decrementAndGet();
+            onSample(System.nanoTime() - startNanos, inFlightAtStart);
+        }
+
+        /**
+         * The call failed or timed out - treated as a sign of overload
+         */
+        public void onDropped() {
+            inFlight.decrementAndGet();
+            onDrop();
+        }
+
+        /**
+         * The call failed for a reason unrelated to load - not used as a sample
+         */
+        public void onIgnore() {
+            inFlight.decrementAndGet();
+        }
+    }
+}
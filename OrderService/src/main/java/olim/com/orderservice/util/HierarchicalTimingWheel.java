@@ -0,0 +1,166 @@
+package olim.com.orderservice.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hierarchical Timing Wheel
+ *
+ * Holds a large number of timers in memory with O(1) insertion.
+ * Level 0 has wheelSize slots of one tick each; every higher level has wheelSize slots
+ * that each cover a full turn of the level below. When a level completes a turn, the
+ * matching slot of the level above is cascaded down, so a timer is moved at most once
+ * per level before it expires.
+ *
+ * Deadlines beyond the range of the wheel are parked in the top level and re-cascaded
+ * until they come into range. Timers are never fired early; due payloads are returned
+ * from {@link #advance(long)} for the caller to process.
+ *
+ * add() may be called from any thread; advance() is expected to be driven by a single ticker.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMs;
+    private final int bitsPerLevel;
+    private final long mask;
+    private final int levels;
+    private final Queue<Entry<T>>[][] buckets;
+    private final Queue<Entry<T>> expired = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    // Inserts share the read lock (buckets are concurrent queues), advancing takes the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile long currentTick;
+
+    /**
+     * @param tickMs resolution of the wheel
+     * @param wheelSize slots per level (power of two)
+     * @param maxDelayMs longest delay that should fit without re-cascading
+     * @param startMs current time
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, long maxDelayMs, long startMs) {
+        if (tickMs <= 0 || wheelSize < 2 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("tickMs must be positive and wheelSize a power of two");
+        }
+        this.tickMs = tickMs;
+        this.bitsPerLevel = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+
+        int requiredLevels = 1;
+        while ((requiredLevels + 1) * bitsPerLevel < 62
+                && (1L << (requiredLevels * bitsPerLevel)) * tickMs < maxDelayMs) {
+            requiredLevels++;
+        }
+        this.levels = requiredLevels;
+
+        this.buckets = new Queue[levels][wheelSize];
+        for (int level = 0; level < levels; level++) {
+            for (int slot = 0; slot < wheelSize; slot++) {
+                buckets[level][slot] = new ConcurrentLinkedQueue<>();
+            }
+        }
+        this.currentTick = startMs / tickMs;
+    }
+
+    /**
+     * Add a timer firing at (or just after) the given deadline
+     */
+    public void add(T payload, long deadlineMs) {
+        // Round up so a timer never fires before its deadline
+        long deadlineTick = (deadlineMs + tickMs - 1) / tickMs;
+
+        lock.readLock().lock();
+        try {
+            insert(new Entry<>(payload, deadlineTick));
+            size.incrementAndGet();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Move the wheel forward to the given time
+     *
+     * @return payloads whose deadline has passed, in deadline order per tick
+     */
+    public List<T> advance(long nowMs) {
+        List<T> due = new ArrayList<>();
+        long targetTick = nowMs / tickMs;
+
+        lock.writeLock().lock();
+        try {
+            drain(expired, due);
+            while (currentTick < targetTick) {
+                currentTick++;
+
+                // Cascade every level whose lower level just completed a turn (top level first)
+                for (int level = levels - 1; level > 0; level--) {
+                    int shift = level * bitsPerLevel;
+                    if ((currentTick & ((1L << shift) - 1)) == 0) {
+                        Queue<Entry<T>> bucket = buckets[level][(int) ((currentTick >>> shift) & mask)];
+                        Entry<T> entry;
+                        while ((entry = bucket.poll()) != null) {
+                            insert(entry);
+                        }
+                    }
+                }
+
+                drain(buckets[0][(int) (currentTick & mask)], due);
+                drain(expired, due);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        size.addAndGet(-due.size());
+        return due;
+    }
+
+    /**
+     * Number of timers currently held by the wheel
+     */
+    public int size() {
+        return size.get();
+    }
+
+    public int getLevels() {
+        return levels;
+    }
+
+    private void insert(Entry<T> entry) {
+        long delta = entry.deadlineTick - currentTick;
+        if (delta <= 0) {
+            expired.add(entry);
+            return;
+        }
+
+        for (int level = 0; level < levels; level++) {
+            int shift = level * bitsPerLevel;
+            if (delta < (1L << (shift + bitsPerLevel))) {
+                buckets[level][(int) ((entry.deadlineTick >>> shift) & mask)].add(entry);
+                return;
+            }
+        }
+
+        // Beyond the wheel's range - park in the furthest top level slot, it gets re-cascaded from there
+        int shift = (levels - 1) * bitsPerLevel;
+        long parkTick = currentTick + (1L << (shift + bitsPerLevel)) - 1;
+        buckets[levels - 1][(int) ((parkTick >>> shift) & mask)].add(entry);
+    }
+
+    private void drain(Queue<Entry<T>> bucket, List<T> due) {
+        Entry<T> entry;
+        while ((entry = bucket.poll()) != null) {
+            due.add(entry.payload);
+        }
+    }
+
+    private record Entry<T>(T payload, long deadlineTick) {
+    }
+}
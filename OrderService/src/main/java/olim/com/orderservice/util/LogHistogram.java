@@ -0,0 +1,85 @@
+package olim.com.orderservice.util;
+
+/**
+ * Log-bucketed Histogram
+ *
+ * Small fixed-size percentile sketch. Bucket boundaries grow geometrically, so every
+ * percentile is accurate to within the configured relative error whatever the scale
+ * of the values. Recording is O(1); reading a percentile walks the (few hundred) buckets.
+ *
+ * To keep it rolling, all counts are halved once the total reaches decayAfter samples,
+ * so older behaviour fades out instead of dominating forever.
+ *
+ * Not thread-safe - callers synchronize.
+ */
+public class LogHistogram {
+
+    private final double minValue;
+    private final double logGrowth;
+    private final long decayAfter;
+    private final long[] counts;
+    private long total;
+
+    /**
+     * @param minValue values below this fall in the first bucket
+     * @param maxValue values above this fall in the last bucket
+     * @param relativeError bucket width relative to its lower bound (e.g. 0.05 = 5%)
+     * @param decayAfter halve the counts once this many samples are held
+     */
+    public LogHistogram(double minValue, double maxValue, double relativeError, long decayAfter) {
+        if (minValue <= 0 || maxValue <= minValue || relativeError <= 0 || decayAfter < 2) {
+            throw new IllegalArgumentException("Invalid histogram bounds");
+        }
+        this.minValue = minValue;
+        this.logGrowth = Math.log1p(relativeError);
+        this.decayAfter = decayAfter;
+        this.counts = new long[bucketOf(maxValue) + 1];
+    }
+
+    public void record(double value) {
+        int bucket = Math.min(bucketOf(value), counts.length - 1);
+        counts[bucket]++;
+        total++;
+
+        if (total >= decayAfter) {
+            total = 0;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] >>= 1;
+                total += counts[i];
+            }
+        }
+    }
+
+    /**
+     * Value at the given percentile (0.0 - 1.0), or NaN when empty
+     */
+    public double percentile(double percentile) {
+        if (total == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(rank, 1)) {
+                // Midpoint of the bucket (geometric)
+                return minValue * Math.exp((i + 0.5) * logGrowth);
+            }
+        }
+        return minValue * Math.exp((counts.length - 0.5) * logGrowth);
+    }
+
+    /**
+     * Number of samples currently held (after decay)
+     */
+    public long getCount() {
+        return total;
+    }
+
+    private int bucketOf(double value) {
+        if (value <= minValue) {
+            return 0;
+        }
+        return (int) (Math.log(value / minValue) / logGrowth);
+    }
+}
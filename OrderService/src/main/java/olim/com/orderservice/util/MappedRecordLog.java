@@ -0,0 +1,231 @@
+package olim.com.orderservice.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Memory-mapped Record Log
+ *
+ * Variable-length counterpart of {@link MappedSegmentLog}. Records are framed as
+ *
+ *   length(4) | marker(4) | payload(length) | padding to 8 bytes
+ *
+ * and positions are byte offsets across all segments. Space is reserved with a CAS on the
+ * end position; a record never spans segments - when it doesn't fit, the rest of the
+ * segment is filled with a padding frame and the record starts the next one.
+ *
+ * The length is written right after reservation and the marker last (release semantics),
+ * so readers only see complete records and recovery can skip the slot of a writer that
+ * never finished.
+ */
+public class MappedRecordLog implements Closeable {
+
+    private static final VarHandle INT_VIEW = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final int FRAME_HEADER = 8;
+    private static final int PADDING = -1;
+
+    /**
+     * Writes a record's payload starting at offset
+     */
+    @FunctionalInterface
+    public interface RecordWriter {
+        void write(ByteBuffer buffer, int offset);
+    }
+
+    /**
+     * Reads a complete record's payload (offset / length of the payload)
+     */
+    @FunctionalInterface
+    public interface RecordReader {
+        void read(long position, ByteBuffer buffer, int offset, int length);
+    }
+
+    private final Path directory;
+    private final String prefix;
+    private final int segmentSize;
+    private final int marker;
+    private final ConcurrentHashMap<Long, MappedByteBuffer> segments = new ConcurrentHashMap<>();
+    private final AtomicLong nextPosition = new AtomicLong();
+
+    // End of the log when it was opened - unfinished records before it were left by a crash
+    private long recoveredEnd;
+
+    /**
+     * Open (or create) a log, recovering the end position from existing segments
+     *
+     * @param segmentSize bytes per segment file (multiple of 8)
+     * @param marker value identifying a complete record of this log (not 0 or -1)
+     */
+    public MappedRecordLog(Path directory, String prefix, int segmentSize, int marker) throws IOException {
+        if (segmentSize < 64 || segmentSize % 8 != 0 || marker == 0 || marker == PADDING) {
+            throw new IllegalArgumentException("Invalid record log layout");
+        }
+        this.directory = directory;
+        this.prefix = prefix;
+        this.segmentSize = segmentSize;
+        this.marker = marker;
+
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * Append a record with the given payload length
+     *
+     * @return position of the record
+     */
+    public long append(int length, RecordWriter writer) {
+        int frame = align(FRAME_HEADER + length);
+        if (length < 0 || frame > segmentSize) {
+            throw new IllegalArgumentException("Record of " + length + " bytes doesn't fit in a segment");
+        }
+
+        long position;
+        while (true) {
+            long current = nextPosition.get();
+            int offset = (int) (current % segmentSize);
+            if (offset + frame <= segmentSize) {
+                if (nextPosition.compareAndSet(current, current + frame)) {
+                    position = current;
+                    break;
+                }
+            } else {
+                long nextSegmentStart = current - offset + segmentSize;
+                if (nextPosition.compareAndSet(current, nextSegmentStart + frame)) {
+                    // Close the current segment with a padding frame
+                    ByteBuffer segment = segment(current / segmentSize);
+                    segment.putInt(offset, segmentSize - offset - FRAME_HEADER);
+                    INT_VIEW.setRelease(segment, offset + 4, PADDING);
+                    position = nextSegmentStart;
+                    break;
+                }
+            }
+        }
+
+        ByteBuffer segment = segment(position / segmentSize);
+        int offset = (int) (position % segmentSize);
+        segment.putInt(offset, length);
+        writer.write(segment, offset + FRAME_HEADER);
+        INT_VIEW.setRelease(segment, offset + 4, marker); // Publish the record
+        return position;
+    }
+
+    /**
+     * Read complete records in order from the given position
+     * Stops at the first record still being written.
+     *
+     * @return position after the last record read (to resume from)
+     */
+    public long forEach(long fromPosition, RecordReader reader) {
+        long end = nextPosition.get();
+        long position = Math.max(0, fromPosition);
+
+        while (position < end) {
+            ByteBuffer segment = segment(position / segmentSize);
+            int offset = (int) (position % segmentSize);
+            int frameMarker = (int) INT_VIEW.getAcquire(segment, offset + 4);
+
+            if (frameMarker == PADDING) {
+                position = position - offset + segmentSize;
+            } else if (frameMarker == marker) {
+                int length = segment.getInt(offset);
+                reader.read(position, segment, offset + FRAME_HEADER, length);
+                position += align(FRAME_HEADER + length);
+            } else if (position < recoveredEnd) {
+                // Abandoned by a crashed writer - skip it (or the segment, if its length never got written)
+                int length = segment.getInt(offset);
+                position = length > 0 ? position + align(FRAME_HEADER + length) : position - offset + segmentSize;
+            } else {
+                break; // In flight
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Position the next record will be written at (or after)
+     */
+    public long getEndPosition() {
+        return nextPosition.get();
+    }
+
+    /**
+     * Force all segments to disk
+     */
+    public void flush() {
+        segments.values().forEach(MappedByteBuffer::force);
+    }
+
+    @Override
+    public void close() {
+        flush();
+        segments.clear();
+    }
+
+    private void recover() throws IOException {
+        List<Long> existing;
+        try (Stream<Path> files = Files.list(directory)) {
+            existing = files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix + "-") && name.endsWith(".log"))
+                    .map(name -> Long.parseLong(name.substring(prefix.length() + 1, name.length() - 4)))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        if (existing.isEmpty()) {
+            return;
+        }
+
+        // Walk the newest segment's frames; unfinished slots (length but no marker) are skipped
+        long index = existing.get(existing.size() - 1);
+        ByteBuffer segment = segment(index);
+        int offset = 0;
+        while (offset + FRAME_HEADER <= segmentSize) {
+            int length = segment.getInt(offset);
+            int frameMarker = segment.getInt(offset + 4);
+            if (frameMarker == PADDING) {
+                offset = segmentSize;
+                break;
+            }
+            if (frameMarker != marker && length == 0) {
+                break; // End of the log
+            }
+            offset += align(FRAME_HEADER + length);
+        }
+        recoveredEnd = index * segmentSize + Math.min(offset, segmentSize);
+        nextPosition.set(recoveredEnd);
+    }
+
+    private MappedByteBuffer segment(long index) {
+        return segments.computeIfAbsent(index, this::mapSegment);
+    }
+
+    private MappedByteBuffer mapSegment(long index) {
+        Path file = directory.resolve(String.format("%s-%020d.log", prefix, index));
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map segment " + file, e);
+        }
+    }
+
+    private static int align(int size) {
+        return (size + 7) & ~7;
+    }
+}
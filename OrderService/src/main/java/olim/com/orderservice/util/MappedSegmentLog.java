@@ -0,0 +1,189 @@
+package olim.com.orderservice.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Memory-mapped Segment Log
+ *
+ * Append-only log of fixed-size binary records, stored in pre-sized segment files
+ * that are memory-mapped. Appending reserves a slot with a single atomic increment and
+ * writes straight into the mapping - no locks, no system calls on the hot path.
+ *
+ * Each record starts with a 4-byte marker that is written last (with release semantics),
+ * so readers and recovery only ever see complete records. Slots reserved by a writer that
+ * never finished stay zero and are skipped.
+ *
+ * Records survive a process crash (they live in the OS page cache); {@link #flush()} forces
+ * them to disk.
+ */
+public class MappedSegmentLog implements Closeable {
+
+    private static final VarHandle INT_VIEW = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    /**
+     * Writes a record's payload; offset is the record start, payload starts at offset + 4
+     */
+    @FunctionalInterface
+    public interface RecordWriter {
+        void write(ByteBuffer buffer, int offset);
+    }
+
+    /**
+     * Reads a complete record; offset is the record start, payload starts at offset + 4
+     */
+    @FunctionalInterface
+    public interface RecordReader {
+        void read(long sequence, ByteBuffer buffer, int offset);
+    }
+
+    private final Path directory;
+    private final String prefix;
+    private final int recordSize;
+    private final int recordsPerSegment;
+    private final int marker;
+    private final ConcurrentHashMap<Long, MappedByteBuffer> segments = new ConcurrentHashMap<>();
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    /**
+     * Open (or create) a log, recovering the end position from existing segments
+     *
+     * @param recordSize bytes per record including the 4-byte marker (multiple of 8)
+     * @param marker non-zero value identifying a complete record of this log
+     */
+    public MappedSegmentLog(Path directory, String prefix, int recordSize, int recordsPerSegment, int marker)
+            throws IOException {
+        if (recordSize < 8 || recordSize % 8 != 0 || recordsPerSegment <= 0
+                || (long) recordSize * recordsPerSegment > Integer.MAX_VALUE || marker == 0) {
+            throw new IllegalArgumentException("Invalid segment log layout");
+        }
+        this.directory = directory;
+        this.prefix = prefix;
+        this.recordSize = recordSize;
+        this.recordsPerSegment = recordsPerSegment;
+        this.marker = marker;
+
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * Append a record
+     *
+     * @return sequence number of the record
+     */
+    public long append(RecordWriter writer) {
+        long sequence = nextSequence.getAndIncrement();
+        ByteBuffer segment = segment(sequence / recordsPerSegment);
+        int offset = (int) (sequence % recordsPerSegment) * recordSize;
+
+        writer.write(segment, offset);
+        INT_VIEW.setRelease(segment, offset, marker); // Publish the record
+        return sequence;
+    }
+
+    /**
+     * Read one record
+     *
+     * @return false if the record doesn't exist (yet)
+     */
+    public boolean read(long sequence, RecordReader reader) {
+        if (sequence < 0 || sequence >= nextSequence.get()) {
+            return false;
+        }
+        ByteBuffer segment = segment(sequence / recordsPerSegment);
+        int offset = (int) (sequence % recordsPerSegment) * recordSize;
+        if ((int) INT_VIEW.getAcquire(segment, offset) != marker) {
+            return false;
+        }
+        reader.read(sequence, segment, offset);
+        return true;
+    }
+
+    /**
+     * Read every complete record from the given sequence up to the current end, in order
+     */
+    public void forEach(long fromSequence, RecordReader reader) {
+        long end = nextSequence.get();
+        for (long sequence = Math.max(0, fromSequence); sequence < end; sequence++) {
+            read(sequence, reader);
+        }
+    }
+
+    /**
+     * Sequence number the next record will get
+     */
+    public long getNextSequence() {
+        return nextSequence.get();
+    }
+
+    public int getRecordSize() {
+        return recordSize;
+    }
+
+    /**
+     * Force all segments to disk
+     */
+    public void flush() {
+        segments.values().forEach(MappedByteBuffer::force);
+    }
+
+    @Override
+    public void close() {
+        flush();
+        segments.clear();
+    }
+
+    private void recover() throws IOException {
+        List<Long> existing;
+        try (Stream<Path> files = Files.list(directory)) {
+            existing = files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix + "-") && name.endsWith(".log"))
+                    .map(name -> Long.parseLong(name.substring(prefix.length() + 1, name.length() - 4)))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        // The end is just after the last complete record of the newest non-empty segment
+        for (int i = existing.size() - 1; i >= 0; i--) {
+            long index = existing.get(i);
+            ByteBuffer segment = segment(index);
+            for (int slot = recordsPerSegment - 1; slot >= 0; slot--) {
+                if ((int) INT_VIEW.getAcquire(segment, slot * recordSize) == marker) {
+                    nextSequence.set(index * recordsPerSegment + slot + 1);
+                    return;
+                }
+            }
+        }
+    }
+
+    private MappedByteBuffer segment(long index) {
+        return segments.computeIfAbsent(index, this::mapSegment);
+    }
+
+    private MappedByteBuffer mapSegment(long index) {
+        Path file = directory.resolve(String.format("%s-%020d.log", prefix, index));
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordSize * recordsPerSegment);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map segment " + file, e);
+        }
+    }
+}
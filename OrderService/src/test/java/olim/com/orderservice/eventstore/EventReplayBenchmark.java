@@ -0,0 +1,91 @@
+package olim.com.orderservice.eventstore;
+
+import olim.com.orderservice.entity.Order;
+import olim.com.orderservice.util.MappedRecordLog;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Event replay benchmark: the in-memory part of a projection rebuild
+ *
+ * Appends a synthetic order history to a memory-mapped record log in a temporary directory, then
+ * replays it the way OrderEventStore.loadState does - read every record, decode it and fold it
+ * into OrderState. Every order gets a Created event, three ItemAdded and three StatusChanged
+ * (PENDING → CONFIRMED → PREPARING → DELIVERED), so 7 events per order. Writing the projection
+ * tables is left out. Run it directly:
+ *
+ *   mvn test-compile exec:java -Dexec.mainClass=olim.com.orderservice.eventstore.EventReplayBenchmark -Dexec.classpathScope=test
+ */
+public class EventReplayBenchmark {
+
+    private static final int ORDERS = 120_000;
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+    private static final int MARKER = 0x4F455331;
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Files.createTempDirectory("order-events-benchmark");
+        try (MappedRecordLog log = new MappedRecordLog(directory, "order-events", 64 * 1024 * 1024, MARKER)) {
+            long events = writeHistory(log);
+            System.out.printf("%,d orders, %,d events, %,d bytes of log%n%n", ORDERS, events, log.getEndPosition());
+            System.out.printf("%-18s %14s %10s%n", "run", "events/sec", "ms");
+
+            for (int run = 0; run < WARMUP_RUNS + MEASURED_RUNS; run++) {
+                long start = System.nanoTime();
+                Map<Long, OrderState> orders = new HashMap<>();
+                long[] replayed = new long[1];
+                log.forEach(0, (position, buffer, offset, length) -> {
+                    OrderState.apply(orders, OrderEventCodec.decode(buffer.slice(offset, length)));
+                    replayed[0]++;
+                });
+                long elapsedNanos = System.nanoTime() - start;
+                if (orders.size() != ORDERS || replayed[0] != events) {
+                    throw new IllegalStateException("Replayed " + replayed[0] + " events into " + orders.size() + " orders");
+                }
+                System.out.printf("%-18s %,14d %10d%n", run < WARMUP_RUNS ? "warmup " + (run + 1) : "measured " + (run - WARMUP_RUNS + 1),
+                        events * 1_000_000_000L / elapsedNanos, elapsedNanos / 1_000_000);
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static long writeHistory(MappedRecordLog log) {
+        LocalDateTime t0 = LocalDateTime.of(2025, 3, 14, 12, 0);
+        long events = 0;
+        long itemId = 1;
+        for (long orderId = 1; orderId <= ORDERS; orderId++) {
+            LocalDateTime createdAt = t0.plusSeconds(orderId);
+            events += append(log, new OrderEvent.Created(orderId, createdAt, 1000 + orderId % 5000, 1 + orderId % 200,
+                    "Restaurant " + orderId % 200, orderId + " Main St, Kigali", new BigDecimal("36.40"),
+                    Order.OrderStatus.PENDING, null));
+            for (int i = 0; i < 3; i++) {
+                events += append(log, new OrderEvent.ItemAdded(orderId, createdAt, itemId++, 500 + i,
+                        "Menu item " + i, 1 + i, new BigDecimal("12.05")));
+            }
+            events += append(log, new OrderEvent.StatusChanged(orderId, createdAt.plusMinutes(2),
+                    Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED));
+            events += append(log, new OrderEvent.StatusChanged(orderId, createdAt.plusMinutes(5),
+                    Order.OrderStatus.CONFIRMED, Order.OrderStatus.PREPARING));
+            events += append(log, new OrderEvent.StatusChanged(orderId, createdAt.plusMinutes(30),
+                    Order.OrderStatus.PREPARING, Order.OrderStatus.DELIVERED));
+        }
+        return events;
+    }
+
+    private static int append(MappedRecordLog log, OrderEvent event) {
+        byte[] encoded = OrderEventCodec.encode(event);
+        log.append(encoded.length, (buffer, offset) -> buffer.put(offset, encoded));
+        return 1;
+    }
+}
@@ -0,0 +1,124 @@
+package olim.com.orderservice.eventstore;
+
+import olim.com.orderservice.entity.Order;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Binary encoding of order events and snapshots of order state
+ */
+class OrderEventCodecTests {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 3, 14, 12, 30, 15, 123_456_789);
+
+    @Test
+    void roundTripsEveryEventType() {
+        List<OrderEvent> events = List.of(
+                new OrderEvent.Created(1, T0, 7, 3, "Pizza Palace", "1 Main St, Kigali",
+                        new BigDecimal("42.50"), Order.OrderStatus.PENDING, null),
+                new OrderEvent.Created(2, T0, 7, 3, null, "", new BigDecimal("-0.001"),
+                        Order.OrderStatus.SCHEDULED, T0.plusHours(2)),
+                new OrderEvent.ItemAdded(1, T0, 11, 501, "Margherita ½ – große", 2, new BigDecimal("12345678901234567890.25")),
+                new OrderEvent.StatusChanged(1, T0.plusMinutes(5), Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED),
+                new OrderEvent.ScheduleChanged(2, T0.plusMinutes(1), T0.plusHours(3)),
+                new OrderEvent.ScheduleChanged(2, T0.plusMinutes(2), null));
+
+        for (OrderEvent event : events) {
+            assertEquals(event, OrderEventCodec.decode(ByteBuffer.wrap(OrderEventCodec.encode(event))));
+        }
+    }
+
+    @Test
+    void decodesFromSliceOfLargerBuffer() {
+        byte[] encoded = OrderEventCodec.encode(
+                new OrderEvent.StatusChanged(9, T0, Order.OrderStatus.CONFIRMED, Order.OrderStatus.PREPARING));
+        ByteBuffer log = ByteBuffer.allocate(encoded.length + 16);
+        log.put(8, encoded);
+
+        assertEquals(new OrderEvent.StatusChanged(9, T0, Order.OrderStatus.CONFIRMED, Order.OrderStatus.PREPARING),
+                OrderEventCodec.decode(log.slice(8, encoded.length)));
+    }
+
+    @Test
+    void snapshotPlusTailReplayEqualsFullReplay() throws IOException {
+        List<OrderEvent> events = history();
+
+        Map<Long, OrderState> full = new HashMap<>();
+        events.forEach(event -> OrderState.apply(full, decodeEncoded(event)));
+
+        for (int split = 0; split <= events.size(); split++) {
+            Map<Long, OrderState> beforeSnapshot = new HashMap<>();
+            events.subList(0, split).forEach(event -> OrderState.apply(beforeSnapshot, decodeEncoded(event)));
+
+            Map<Long, OrderState> restored = readSnapshot(writeSnapshot(beforeSnapshot));
+            events.subList(split, events.size()).forEach(event -> OrderState.apply(restored, decodeEncoded(event)));
+
+            assertArrayEquals(writeSnapshot(full), writeSnapshot(restored), "snapshot taken after " + split + " events");
+        }
+        assertFalse(full.isEmpty());
+    }
+
+    /**
+     * Two orders interleaved: one delivered, one scheduled, moved and cancelled
+     */
+    private static List<OrderEvent> history() {
+        List<OrderEvent> events = new ArrayList<>();
+        events.add(new OrderEvent.Created(1, T0, 7, 3, "Pizza Palace", "1 Main St",
+                new BigDecimal("30.00"), Order.OrderStatus.PENDING, null));
+        events.add(new OrderEvent.ItemAdded(1, T0, 11, 501, "Margherita", 2, new BigDecimal("10.00")));
+        events.add(new OrderEvent.Created(2, T0.plusSeconds(1), 8, 4, "Sushi Bar", "2 Hill Rd",
+                new BigDecimal("18.75"), Order.OrderStatus.SCHEDULED, T0.plusHours(4)));
+        events.add(new OrderEvent.ItemAdded(1, T0, 12, 502, "Cola", 1, new BigDecimal("10.00")));
+        events.add(new OrderEvent.ItemAdded(2, T0.plusSeconds(1), 13, 601, "Maki", 3, new BigDecimal("6.25")));
+        events.add(new OrderEvent.StatusChanged(1, T0.plusMinutes(2), Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED));
+        events.add(new OrderEvent.ScheduleChanged(2, T0.plusMinutes(3), T0.plusHours(5)));
+        events.add(new OrderEvent.StatusChanged(1, T0.plusMinutes(9), Order.OrderStatus.CONFIRMED, Order.OrderStatus.PREPARING));
+        events.add(new OrderEvent.StatusChanged(2, T0.plusMinutes(10), Order.OrderStatus.SCHEDULED, Order.OrderStatus.CANCELLED));
+        events.add(new OrderEvent.StatusChanged(1, T0.plusMinutes(40), Order.OrderStatus.PREPARING, Order.OrderStatus.DELIVERED));
+        return events;
+    }
+
+    private static OrderEvent decodeEncoded(OrderEvent event) {
+        return OrderEventCodec.decode(ByteBuffer.wrap(OrderEventCodec.encode(event)));
+    }
+
+    /**
+     * Orders in ID order, so equal states give equal bytes
+     */
+    private static byte[] writeSnapshot(Map<Long, OrderState> orders) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(orders.size());
+            for (OrderState state : orders.values().stream().sorted(Comparator.comparingLong(OrderState::getId)).toList()) {
+                OrderEventCodec.writeState(out, state);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Map<Long, OrderState> readSnapshot(byte[] snapshot) {
+        ByteBuffer in = ByteBuffer.wrap(snapshot);
+        Map<Long, OrderState> orders = new HashMap<>();
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            OrderState state = OrderEventCodec.readState(in);
+            orders.put(state.getId(), state);
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,81 @@
+package olim.com.orderservice.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for Auth Service
+ *
+ * Serves the contact endpoint AuthClient uses, on a loopback port, without added latency. Every
+ * customer exists, with the same email the load test sends in X-User-Email.
+ */
+public class AuthServiceStub {
+
+    private static final Pattern USER_CONTACT = Pattern.compile("^/api/auth/users/(\\d+)/contact$");
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Start on a free loopback port
+     */
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        executor = Executors.newFixedThreadPool(4);
+        server.setExecutor(executor);
+        server.createContext("/api/auth", this::handle);
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            Matcher contact = USER_CONTACT.matcher(exchange.getRequestURI().getPath());
+            if (contact.matches()) {
+                long userId = Long.parseLong(contact.group(1));
+                respond(exchange, 200, "{\"success\":true,\"message\":\"Contact retrieved successfully\",\"data\":"
+                        + "{\"id\":" + userId + ",\"email\":\"customer" + userId + "@loadtest.local\","
+                        + "\"firstName\":\"Customer\",\"lastName\":\"" + userId + "\",\"updatedAt\":\"2025-01-01T00:00:00\"}}");
+            } else {
+                respond(exchange, 404, "{\"success\":false,\"message\":\"Not found\",\"data\":null}");
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
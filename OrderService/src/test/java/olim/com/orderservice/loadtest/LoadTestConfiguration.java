@@ -0,0 +1,57 @@
+package olim.com.orderservice.loadtest;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.context.annotation.Bean;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Extra beans for the load test
+ *
+ * Not a @Configuration on purpose - it lives under the application's scanned package, so it is
+ * only applied when the load test passes it as a source.
+ */
+public class LoadTestConfiguration {
+
+    /**
+     * Replaces the application's RabbitTemplate: messages are still converted (so the CPU cost
+     * stays in the measurement) but counted instead of sent, so no broker is needed
+     */
+    @Bean
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, MessageConverter messageConverter) {
+        StandInRabbitTemplate template = new StandInRabbitTemplate(connectionFactory);
+        template.setMessageConverter(messageConverter);
+        return template;
+    }
+
+    /**
+     * RabbitTemplate that never opens a connection
+     */
+    public static class StandInRabbitTemplate extends RabbitTemplate {
+
+        private final AtomicLong published = new AtomicLong();
+
+        public StandInRabbitTemplate(ConnectionFactory connectionFactory) {
+            super(connectionFactory);
+        }
+
+        @Override
+        public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+            published.incrementAndGet();
+        }
+
+        @Override
+        public <T> T invoke(OperationsCallback<T> action, com.rabbitmq.client.ConfirmCallback acks,
+                            com.rabbitmq.client.ConfirmCallback nacks) {
+            return action.doInRabbit(this); // No dedicated channel - sends are counted above
+        }
+
+        public long getPublishedCount() {
+            return published.get();
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package olim.com.orderservice.loadtest;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import olim.com.orderservice.OrderServiceApplication;
+import olim.com.orderservice.util.LogHistogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Order Placement Load Test
+ *
+ * Boots Order Service in-process (profile "loadtest": H2, stand-in broker, no Eureka) against
+ * in-process Restaurant Service and Auth Service stubs, drives POST /api/orders open-loop at a target rate and reports
+ * throughput, latency percentiles and pool saturation. Nothing outside the JVM is needed.
+ *
+ * Latency is measured from each request's scheduled send time, so a stalled server shows up as
+ * latency instead of silently lowering the offered rate. Not a unit test - run it directly:
+ *
+ *   mvn test-compile exec:java -Dexec.mainClass=olim.com.orderservice.loadtest.OrderPlacementLoadTest \
+ *       -Dexec.classpathScope=test -Dexec.args="--rps=500 --duration-seconds=30 --stub-latency-ms=10"
+ *
+ * Options (defaults in brackets): rps [200], duration-seconds [30], warmup-seconds [5],
+ * restaurants [50], items-per-order [3], max-outstanding [5000], stub-latency-ms [5],
+ * stub-latency-sigma [0.5], stub-slow-rate [0], stub-slow-ms [500], stub-error-rate [0].
+ * Any other --key=value is passed to Spring (e.g. --order.admission.enabled=true).
+ */
+public class OrderPlacementLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int rps = Integer.parseInt(options.getOrDefault("rps", "200"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration-seconds", "30"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup-seconds", "5"));
+        int restaurants = Integer.parseInt(options.getOrDefault("restaurants", "50"));
+        int itemsPerOrder = Integer.parseInt(options.getOrDefault("items-per-order", "3"));
+        int maxOutstanding = Integer.parseInt(options.getOrDefault("max-outstanding", "5000"));
+
+        RestaurantServiceStub stub = new RestaurantServiceStub(
+                Double.parseDouble(options.getOrDefault("stub-latency-ms", "5")),
+                Double.parseDouble(options.getOrDefault("stub-latency-sigma", "0.5")),
+                Double.parseDouble(options.getOrDefault("stub-slow-rate", "0")),
+                Long.parseLong(options.getOrDefault("stub-slow-ms", "500")),
+                Double.parseDouble(options.getOrDefault("stub-error-rate", "0")));
+        stub.start();
+        AuthServiceStub authStub = new AuthServiceStub();
+        authStub.start();
+
+        Path dataDir = Files.createTempDirectory("order-loadtest");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                OrderServiceApplication.class, LoadTestConfiguration.class)
+                .profiles("loadtest")
+                .properties("loadtest.stub-url=" + stub.getBaseUrl(), "loadtest.auth-stub-url=" + authStub.getBaseUrl(),
+                        "loadtest.data-dir=" + dataDir)
+                .run(args);
+
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadRun run = new LoadRun(context, port, restaurants, itemsPerOrder, maxOutstanding);
+
+            System.out.println("🔥 Warming up for " + warmupSeconds + "s at " + rps + " req/s");
+            run.drive(rps, warmupSeconds, false);
+            System.out.println("📈 Measuring for " + durationSeconds + "s at " + rps + " req/s");
+            run.drive(rps, durationSeconds, true);
+            run.report(durationSeconds, stub, authStub);
+        } finally {
+            context.close();
+            stub.stop();
+            authStub.stop();
+        }
+        System.exit(0);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+
+    /**
+     * One load generator bound to a running application
+     */
+    private static class LoadRun {
+
+        private final HttpClient client;
+        private final URI ordersUri;
+        private final int restaurants;
+        private final int itemsPerOrder;
+        private final int maxOutstanding;
+
+        private final HikariPoolMXBean hikariPool;
+        private final int hikariPoolSize;
+        private final MeterRegistry meterRegistry;
+        private final Bulkhead bulkhead;
+        private final LoadTestConfiguration.StandInRabbitTemplate rabbitTemplate;
+
+        // Latency in ms from scheduled send time - guarded by itself
+        private final LogHistogram latencies = new LogHistogram(0.05, 120_000, 0.01, Long.MAX_VALUE);
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong created = new AtomicLong();
+        private final AtomicLong tooManyRequests = new AtomicLong();
+        private final AtomicLong otherStatus = new AtomicLong();
+        private final Map<Integer, String> otherStatusSamples = new ConcurrentHashMap<>(); // First body per status
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+
+        private volatile boolean recording;
+        private volatile double maxLatencyMs;
+        private volatile int maxHikariActive;
+        private volatile int maxHikariWaiting;
+        private volatile double maxRestaurantInFlight;
+        private volatile int minBulkheadAvailable = Integer.MAX_VALUE;
+
+        LoadRun(ConfigurableApplicationContext context, int port, int restaurants, int itemsPerOrder,
+                int maxOutstanding) throws Exception {
+            ExecutorService clientExecutor = Executors.newFixedThreadPool(16);
+            this.client = HttpClient.newBuilder()
+                    .executor(clientExecutor)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            this.ordersUri = URI.create("http://localhost:" + port + "/api/orders");
+            this.restaurants = restaurants;
+            this.itemsPerOrder = itemsPerOrder;
+            this.maxOutstanding = maxOutstanding;
+
+            HikariDataSource dataSource = context.getBean(DataSource.class).unwrap(HikariDataSource.class);
+            this.hikariPool = dataSource.getHikariPoolMXBean();
+            this.hikariPoolSize = dataSource.getMaximumPoolSize();
+            this.meterRegistry = context.getBean(MeterRegistry.class);
+            this.bulkhead = context.getBean(BulkheadRegistry.class).bulkhead("restaurant-service");
+            this.rabbitTemplate = context.getBean(LoadTestConfiguration.StandInRabbitTemplate.class);
+        }
+
+        /**
+         * Send requests at a fixed rate for the given time
+         */
+        void drive(int rps, int seconds, boolean record) throws InterruptedException {
+            recording = record;
+            Thread sampler = new Thread(this::samplePools, "loadtest-sampler");
+            sampler.setDaemon(true);
+            sampler.start();
+
+            long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+            long start = System.nanoTime();
+            long total = (long) rps * seconds;
+            for (long i = 0; i < total; i++) {
+                long scheduledAt = start + i * intervalNanos;
+                long wait = scheduledAt - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                send(scheduledAt);
+            }
+
+            // Let outstanding requests finish before the next phase
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (outstanding.get() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            sampler.interrupt();
+        }
+
+        private void send(long scheduledAt) {
+            if (outstanding.get() >= maxOutstanding) {
+                if (recording) {
+                    dropped.incrementAndGet(); // The server fell too far behind to keep offering load
+                }
+                return;
+            }
+            outstanding.incrementAndGet();
+            boolean record = recording;
+            if (record) {
+                sent.incrementAndGet();
+            }
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long customerId = 1 + random.nextInt(10_000);
+            HttpRequest request = HttpRequest.newBuilder(ordersUri)
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .header("X-User-Id", String.valueOf(customerId))
+                    .header("X-User-Email", "customer" + customerId + "@loadtest.local")
+                    .header("X-User-Roles", "ROLE_CUSTOMER")
+                    .POST(HttpRequest.BodyPublishers.ofString(orderJson(random)))
+                    .build();
+
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        outstanding.decrementAndGet();
+                        if (!record) {
+                            return;
+                        }
+                        double latencyMs = (System.nanoTime() - scheduledAt) / 1_000_000.0;
+                        synchronized (latencies) {
+                            latencies.record(latencyMs);
+                            maxLatencyMs = Math.max(maxLatencyMs, latencyMs);
+                        }
+                        if (error != null) {
+                            failed.incrementAndGet();
+                        } else if (response.statusCode() == 201) {
+                            created.incrementAndGet();
+                        } else if (response.statusCode() == 429) {
+                            tooManyRequests.incrementAndGet();
+                        } else {
+                            otherStatus.incrementAndGet();
+                            otherStatusSamples.putIfAbsent(response.statusCode(), response.body());
+                        }
+                    });
+        }
+
+        private String orderJson(ThreadLocalRandom random) {
+            StringBuilder json = new StringBuilder()
+                    .append("{\"restaurantId\":").append(1 + random.nextInt(restaurants))
+                    .append(",\"deliveryAddress\":\"1 Load Test Avenue\",\"orderItems\":[");
+            for (int i = 0; i < itemsPerOrder; i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append("{\"menuItemId\":").append(1 + random.nextInt(200))
+                        .append(",\"quantity\":").append(1 + random.nextInt(3)).append('}');
+            }
+            return json.append("]}").toString();
+        }
+
+        private void samplePools() {
+            Gauge inFlight = meterRegistry.find("restaurant.client.concurrency.in.flight").gauge();
+            while (!Thread.currentThread().isInterrupted()) {
+                if (recording) {
+                    maxHikariActive = Math.max(maxHikariActive, hikariPool.getActiveConnections());
+                    maxHikariWaiting = Math.max(maxHikariWaiting, hikariPool.getThreadsAwaitingConnection());
+                    if (inFlight != null) {
+                        maxRestaurantInFlight = Math.max(maxRestaurantInFlight, inFlight.value());
+                    }
+                    minBulkheadAvailable = Math.min(minBulkheadAvailable,
+                            bulkhead.getMetrics().getAvailableConcurrentCalls());
+                }
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        void report(int durationSeconds, RestaurantServiceStub stub, AuthServiceStub authStub) {
+            System.out.println();
+            System.out.println("📊 =============== ORDER PLACEMENT LOAD TEST ===============");
+            System.out.printf("Requests:      %d sent, %d dropped (client backlog over limit)%n", sent.get(), dropped.get());
+            System.out.printf("Responses:     %d created, %d rejected (429), %d other status, %d failed%n",
+                    created.get(), tooManyRequests.get(), otherStatus.get(), failed.get());
+            otherStatusSamples.forEach((status, body) -> System.out.printf("  first %d:    %s%n", status, body));
+            System.out.printf("Throughput:    %.1f orders/s created (offered %.1f req/s)%n",
+                    created.get() / (double) durationSeconds, sent.get() / (double) durationSeconds);
+            synchronized (latencies) {
+                System.out.printf("Latency (ms):  p50 %.2f | p99 %.2f | p99.9 %.2f | max %.2f%n",
+                        latencies.percentile(0.50), latencies.percentile(0.99), latencies.percentile(0.999),
+                        maxLatencyMs);
+            }
+            System.out.printf("Hikari:        max %d/%d active connections, max %d threads waiting%n",
+                    maxHikariActive, hikariPoolSize, maxHikariWaiting);
+            System.out.printf("Feign:         max %.0f calls in flight, limit now %.0f, bulkhead min %d free, rejected %.0f (limit) / %.0f (bulkhead)%n",
+                    maxRestaurantInFlight, gaugeValue("restaurant.client.concurrency.limit"),
+                    minBulkheadAvailable == Integer.MAX_VALUE ? -1 : minBulkheadAvailable,
+                    rejectedCount("limit"), rejectedCount("bulkhead"));
+            System.out.printf("Stub:          %d restaurant-service calls, %d injected errors%n",
+                    stub.getRequestCount(), stub.getErrorCount());
+            System.out.printf("Auth stub:     %d contact lookups%n", authStub.getRequestCount());
+            System.out.printf("Broker:        %d events published (stand-in)%n", rabbitTemplate.getPublishedCount());
+            System.out.println("=============================================================");
+        }
+
+        private double gaugeValue(String name) {
+            Gauge gauge = meterRegistry.find(name).gauge();
+            return gauge != null ? gauge.value() : Double.NaN;
+        }
+
+        private double rejectedCount(String reason) {
+            FunctionCounter counter = meterRegistry.find("restaurant.client.rejected").tag("reason", reason).functionCounter();
+            return counter != null ? counter.count() : Double.NaN;
+        }
+    }
+}
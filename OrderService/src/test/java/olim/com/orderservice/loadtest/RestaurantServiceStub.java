@@ -0,0 +1,135 @@
+package olim.com.orderservice.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for Restaurant Service
+ *
+ * Serves the endpoints RestaurantClient uses, on a loopback port, with a configurable latency
+ * distribution (log-normal around a median, plus an optional share of very slow responses)
+ * and error rate (503s). Every restaurant is open and every menu item available, priced from its ID.
+ */
+public class RestaurantServiceStub {
+
+    private static final Pattern MENU_ITEM = Pattern.compile("^/api/restaurants/(\\d+)/menu/(\\d+)$");
+    private static final Pattern RESTAURANT = Pattern.compile("^/api/restaurants/(\\d+)$");
+
+    private final double medianLatencyMs;
+    private final double latencySigma;
+    private final double slowRate;
+    private final long slowLatencyMs;
+    private final double errorRate;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public RestaurantServiceStub(double medianLatencyMs, double latencySigma, double slowRate, long slowLatencyMs,
+                                 double errorRate) {
+        this.medianLatencyMs = medianLatencyMs;
+        this.latencySigma = latencySigma;
+        this.slowRate = slowRate;
+        this.slowLatencyMs = slowLatencyMs;
+        this.errorRate = errorRate;
+    }
+
+    /**
+     * Start on a free loopback port
+     */
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        executor = Executors.newCachedThreadPool(); // Latency is simulated by sleeping, so threads are cheap here
+        server.setExecutor(executor);
+        server.createContext("/api/restaurants", this::handle);
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getErrorCount() {
+        return errors.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            simulateLatency();
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < errorRate) {
+                errors.incrementAndGet();
+                respond(exchange, 503, "{\"success\":false,\"message\":\"Stub failure\",\"data\":null}");
+                return;
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            Matcher menuItem = MENU_ITEM.matcher(path);
+            Matcher restaurant = RESTAURANT.matcher(path);
+            if (path.equals("/api/restaurants/ownerships")) {
+                respond(exchange, 200, "{\"success\":true,\"message\":\"Restaurant ownerships retrieved successfully\",\"data\":[]}");
+            } else if (menuItem.matches()) {
+                long itemId = Long.parseLong(menuItem.group(2));
+                respond(exchange, 200, "{\"success\":true,\"message\":\"Menu item retrieved successfully\",\"data\":"
+                        + "{\"id\":" + itemId + ",\"name\":\"Stub item " + itemId + "\",\"price\":"
+                        + (5 + itemId % 20) + ".50,\"available\":true}}");
+            } else if (restaurant.matches()) {
+                long restaurantId = Long.parseLong(restaurant.group(1));
+                respond(exchange, 200, "{\"success\":true,\"message\":\"Restaurant retrieved successfully\",\"data\":"
+                        + "{\"id\":" + restaurantId + ",\"name\":\"Stub restaurant " + restaurantId + "\","
+                        + "\"address\":\"1 Stub Street\",\"open\":true,\"deliveryFee\":2.99,\"minimumOrder\":0}}");
+            } else {
+                respond(exchange, 404, "{\"success\":false,\"message\":\"Not found\",\"data\":null}");
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void simulateLatency() {
+        Random random = ThreadLocalRandom.current();
+        double latencyMs = random.nextDouble() < slowRate
+                ? slowLatencyMs
+                : medianLatencyMs * Math.exp(latencySigma * random.nextGaussian());
+        try {
+            Thread.sleep((long) latencyMs, (int) ((latencyMs % 1) * 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
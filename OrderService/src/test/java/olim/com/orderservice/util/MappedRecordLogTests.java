@@ -0,0 +1,151 @@
+package olim.com.orderservice.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Framing, segment rollover and crash recovery of the variable-length record log
+ */
+class MappedRecordLogTests {
+
+    private static final int MARKER = 0x54455354; // "TEST"
+    private static final int SEGMENT_SIZE = 64;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackRecordsAfterReopening() throws IOException {
+        List<Long> positions = new ArrayList<>();
+        try (MappedRecordLog log = open()) {
+            positions.add(append(log, "first"));
+            positions.add(append(log, ""));
+            positions.add(append(log, "third record"));
+        }
+
+        try (MappedRecordLog log = open()) {
+            List<String> read = new ArrayList<>();
+            List<Long> readPositions = new ArrayList<>();
+            long end = log.forEach(0, (position, buffer, offset, length) -> {
+                readPositions.add(position);
+                read.add(text(buffer, offset, length));
+            });
+
+            assertEquals(List.of("first", "", "third record"), read);
+            assertEquals(positions, readPositions);
+            assertEquals(log.getEndPosition(), end);
+        }
+    }
+
+    @Test
+    void rollsOverToNewSegmentsWithoutSplittingRecords() throws IOException {
+        // 30-byte payloads take 40-byte frames: one per 64-byte segment, the rest padded
+        List<String> written = List.of("a".repeat(30), "b".repeat(30), "c".repeat(8), "d".repeat(30));
+        try (MappedRecordLog log = open()) {
+            written.forEach(payload -> append(log, payload));
+        }
+
+        assertEquals(3, segmentFiles().size());
+        try (MappedRecordLog log = open()) {
+            assertEquals(written, readAll(log, 0));
+        }
+    }
+
+    @Test
+    void resumesFromReturnedPosition() throws IOException {
+        try (MappedRecordLog log = open()) {
+            append(log, "one");
+            append(log, "two");
+            long resumeAt = log.forEach(0, (position, buffer, offset, length) -> { });
+            append(log, "three");
+
+            assertEquals(List.of("three"), readAll(log, resumeAt));
+        }
+    }
+
+    @Test
+    void skipsRecordLeftUnfinishedByCrash() throws IOException {
+        long torn;
+        try (MappedRecordLog log = open()) {
+            append(log, "kept");
+            torn = append(log, "torn");
+        }
+        // The writer reserved the slot and wrote the length, but never published the marker
+        clearInt(torn % SEGMENT_SIZE + 4);
+
+        try (MappedRecordLog log = open()) {
+            assertEquals(List.of("kept"), readAll(log, 0));
+
+            append(log, "after restart");
+            assertEquals(List.of("kept", "after restart"), readAll(log, 0));
+        }
+    }
+
+    @Test
+    void overwritesSlotWhoseLengthWasNeverWritten() throws IOException {
+        long torn;
+        try (MappedRecordLog log = open()) {
+            append(log, "kept");
+            torn = append(log, "torn");
+        }
+        // Crashed right after reserving: neither length nor marker made it
+        clearInt(torn % SEGMENT_SIZE);
+        clearInt(torn % SEGMENT_SIZE + 4);
+
+        try (MappedRecordLog log = open()) {
+            assertEquals(torn, log.getEndPosition());
+            append(log, "new");
+            assertEquals(List.of("kept", "new"), readAll(log, 0));
+        }
+    }
+
+    private MappedRecordLog open() throws IOException {
+        return new MappedRecordLog(directory, "test", SEGMENT_SIZE, MARKER);
+    }
+
+    private static long append(MappedRecordLog log, String payload) {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        return log.append(bytes.length, (buffer, offset) -> buffer.put(offset, bytes));
+    }
+
+    private static List<String> readAll(MappedRecordLog log, long fromPosition) {
+        List<String> read = new ArrayList<>();
+        log.forEach(fromPosition, (position, buffer, offset, length) -> read.add(text(buffer, offset, length)));
+        return read;
+    }
+
+    private static String text(ByteBuffer buffer, int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Zero an int of the newest segment file, as if it had never been written
+     */
+    private void clearInt(long offset) throws IOException {
+        List<Path> segments = segmentFiles();
+        try (FileChannel channel = FileChannel.open(segments.get(segments.size() - 1), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4), offset);
+        }
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+}
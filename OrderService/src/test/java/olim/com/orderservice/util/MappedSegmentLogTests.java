@@ -0,0 +1,124 @@
+package olim.com.orderservice.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Segment rollover and crash recovery of the fixed-size record log (as used by the order status journal)
+ */
+class MappedSegmentLogTests {
+
+    private static final int MARKER = 0x54455354; // "TEST"
+    private static final int RECORD_SIZE = 16;
+    private static final int RECORDS_PER_SEGMENT = 4;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rollsOverSegmentsAndRecoversTheEnd() throws IOException {
+        try (MappedSegmentLog log = open()) {
+            for (long value = 0; value < 10; value++) {
+                assertEquals(value, append(log, value));
+            }
+        }
+
+        assertEquals(3, segmentFiles().size());
+        try (MappedSegmentLog log = open()) {
+            assertEquals(10, log.getNextSequence());
+            assertEquals(LongStream.range(0, 10).boxed().toList(), readAll(log, 0));
+            assertEquals(List.of(7L, 8L, 9L), readAll(log, 7));
+
+            assertEquals(10, append(log, 10));
+        }
+    }
+
+    @Test
+    void readsSingleRecords() throws IOException {
+        try (MappedSegmentLog log = open()) {
+            append(log, 42);
+            append(log, 43);
+
+            List<Long> read = new ArrayList<>();
+            assertTrue(log.read(1, (sequence, buffer, offset) -> read.add(buffer.getLong(offset + 8))));
+            assertFalse(log.read(2, (sequence, buffer, offset) -> read.add(-1L)));
+            assertEquals(List.of(43L), read);
+        }
+    }
+
+    @Test
+    void recoversAfterUnfinishedLastRecord() throws IOException {
+        try (MappedSegmentLog log = open()) {
+            for (long value = 0; value < 6; value++) {
+                append(log, value);
+            }
+        }
+        // Sequence 5 (second slot of the second segment) was being written when the process died
+        clearMarker(segmentFiles().get(1), 1);
+
+        try (MappedSegmentLog log = open()) {
+            assertEquals(5, log.getNextSequence());
+            assertEquals(List.of(0L, 1L, 2L, 3L, 4L), readAll(log, 0));
+
+            append(log, 99);
+            assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 99L), readAll(log, 0));
+        }
+    }
+
+    @Test
+    void recoversFromEmptyNewestSegment() throws IOException {
+        try (MappedSegmentLog log = open()) {
+            for (long value = 0; value < 5; value++) {
+                append(log, value);
+            }
+        }
+        // The only record of the newest segment never completed
+        clearMarker(segmentFiles().get(1), 0);
+
+        try (MappedSegmentLog log = open()) {
+            assertEquals(4, log.getNextSequence());
+            assertEquals(List.of(0L, 1L, 2L, 3L), readAll(log, 0));
+        }
+    }
+
+    private MappedSegmentLog open() throws IOException {
+        return new MappedSegmentLog(directory, "test", RECORD_SIZE, RECORDS_PER_SEGMENT, MARKER);
+    }
+
+    private static long append(MappedSegmentLog log, long value) {
+        return log.append((buffer, offset) -> buffer.putLong(offset + 8, value));
+    }
+
+    private static List<Long> readAll(MappedSegmentLog log, long fromSequence) {
+        List<Long> read = new ArrayList<>();
+        log.forEach(fromSequence, (sequence, buffer, offset) -> read.add(buffer.getLong(offset + 8)));
+        return read;
+    }
+
+    private static void clearMarker(Path segment, int slot) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4), (long) slot * RECORD_SIZE);
+        }
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package olim.com.restaurantservice.config;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -11,6 +13,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -24,6 +28,9 @@ import java.util.stream.Collectors;
  * - X-User-Roles: Comma-separated list of roles
  * 
  * Creates Spring Security authentication context from these headers
+ *
+ * Other services calling directly (not through the gateway) identify themselves with
+ * X-Service-Token, the shared internal token, and get ROLE_SERVICE.
  */
 @Component
 public class HeaderAuthenticationFilter extends OncePerRequestFilter {
@@ -31,6 +38,20 @@ public class HeaderAuthenticationFilter extends OncePerRequestFilter {
     private static final String USER_ID_HEADER = "X-User-Id";
     private static final String USER_EMAIL_HEADER = "X-User-Email";
     private static final String USER_ROLES_HEADER = "X-User-Roles";
+    private static final String SERVICE_TOKEN_HEADER = "X-Service-Token";
+
+    @Value("${bytebites.internal.service-token}")
+    private String serviceToken;
+
+    /**
+     * An empty token would let requests with an empty X-Service-Token header in
+     */
+    @PostConstruct
+    public void checkServiceToken() {
+        if (serviceToken.isBlank()) {
+            throw new IllegalStateException("bytebites.internal.service-token (BYTEBITES_SERVICE_TOKEN) must not be empty");
+        }
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
@@ -42,8 +63,15 @@ public class HeaderAuthenticationFilter extends OncePerRequestFilter {
         String userEmail = request.getHeader(USER_EMAIL_HEADER);
         String userRoles = request.getHeader(USER_ROLES_HEADER);
         System.out.println("👌👌👌Headers are: "+userId+" "+userEmail+" "+userRoles);
+        String token = request.getHeader(SERVICE_TOKEN_HEADER);
+        if (token != null && MessageDigest.isEqual(
+                token.getBytes(StandardCharsets.UTF_8), serviceToken.getBytes(StandardCharsets.UTF_8))) {
+            List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_SERVICE"));
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken("service", null, authorities));
+        }
         // If user headers are present, create authentication
-        if (userId != null && userEmail != null && userRoles != null) {
+        else if (userId != null && userEmail != null && userRoles != null) {
             try {
                 // Parse roles and create authorities
                 List<SimpleGrantedAuthority> authorities = Arrays.stream(userRoles.split(","))
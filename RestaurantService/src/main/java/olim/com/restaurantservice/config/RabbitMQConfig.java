@@ -0,0 +1,48 @@
+package olim.com.restaurantservice.config;
+
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * RabbitMQ Configuration for Restaurant Service
+ *
+ * Restaurant Service only publishes restaurant events; consuming services declare their own queues
+ */
+@Configuration
+public class RabbitMQConfig {
+
+    @Value("${bytebites.messaging.exchange}")
+    private String exchange;
+
+    /**
+     * Main exchange for ByteBites events
+     */
+    @Bean
+    public TopicExchange byteBitesExchange() {
+        return new TopicExchange(exchange);
+    }
+
+    /**
+     * JSON message converter for RabbitMQ
+     */
+    @Bean
+    public MessageConverter messageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+
+    /**
+     * RabbitTemplate with JSON converter
+     */
+    @Bean
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+        RabbitTemplate template = new RabbitTemplate(connectionFactory);
+        template.setMessageConverter(messageConverter());
+        return template;
+    }
+}
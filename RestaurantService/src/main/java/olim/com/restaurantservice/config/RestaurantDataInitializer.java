@@ -79,6 +79,12 @@ public class RestaurantDataInitializer implements CommandLineRunner {
                 BigDecimal.valueOf(8.00)
             );
 
+            // Locations in Kigali, for nearby search
+            locate(italianPlace, -1.9536, 30.0445, 5.0);
+            locate(pizzaHouse, -1.9441, 30.0619, 6.0);
+            locate(chineseGarden, -1.9577, 30.1127, 7.0);
+            locate(fastBurger, -1.9355, 30.0928, 4.0);
+
             // Save restaurants
             List<Restaurant> restaurants = Arrays.asList(italianPlace, pizzaHouse, chineseGarden, fastBurger);
             restaurantRepository.saveAll(restaurants);
@@ -114,6 +120,12 @@ public class RestaurantDataInitializer implements CommandLineRunner {
         return restaurant;
     }
 
+    private void locate(Restaurant restaurant, double latitude, double longitude, double deliveryRadiusKm) {
+        restaurant.setLatitude(latitude);
+        restaurant.setLongitude(longitude);
+        restaurant.setDeliveryRadiusKm(deliveryRadiusKm);
+    }
+
     private void createMenuItems(Restaurant restaurant) {
         List<MenuItem> menuItems;
 
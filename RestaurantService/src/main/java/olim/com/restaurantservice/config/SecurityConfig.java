@@ -37,11 +37,19 @@ public class SecurityConfig {
             
             // Configure authorization
             .authorizeHttpRequests(auth -> auth
+                // Internal endpoints - other services only (matched first: "{id}" below matches them too)
+                .requestMatchers(
+                    "/api/restaurants/ownerships" // Owner mappings (Order Service cache warm-up)
+                ).hasRole("SERVICE")
+
                 // Public endpoints - no authentication required
                 .requestMatchers(
                     "/api/restaurants",           // GET all restaurants
                     "/api/restaurants/{id}",      // GET restaurant by ID
                     "/api/restaurants/search",    // Search restaurants
+                    "/api/restaurants/autocomplete", // Search box suggestions
+                    "/api/restaurants/nearby",    // Restaurants delivering to a location
+                    "/api/restaurants/browse",    // Filtered browsing with facet counts
                     "/api/restaurants/cuisine/**", // GET by cuisine
                     "/api/restaurants/*/menu",    // GET restaurant menu
                     "/api/restaurants/*/menu/**", // Menu item endpoints (GET only)
@@ -5,12 +5,16 @@ import olim.com.restaurantservice.dto.MenuItemDto.*;
 import olim.com.restaurantservice.dto.RestaurantDto.ApiResponse;
 import olim.com.restaurantservice.entity.MenuItem;
 import olim.com.restaurantservice.service.MenuItemService;
+import olim.com.restaurantservice.util.PayloadSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -32,15 +36,17 @@ public class MenuItemController {
      * Get all menu items for a restaurant (public endpoint)
      */
     @GetMapping("/{restaurantId}/menu")
-    public ResponseEntity<ApiResponse<List<SimpleMenuItemResponse>>> getRestaurantMenu(
-            @PathVariable Long restaurantId) {
+    public ResponseEntity<?> getRestaurantMenu(
+            @PathVariable Long restaurantId,
+            @RequestHeader HttpHeaders headers) {
         try {
-            List<MenuItem> menuItems = menuItemService.getAvailableMenuItems(restaurantId);
-            List<SimpleMenuItemResponse> response = menuItems.stream()
-                    .map(SimpleMenuItemResponse::new)
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(ApiResponse.success("Menu retrieved successfully", response));
+            // Conditional GET answered from the tag of the cached snapshot - no rendering, no database
+            String tag = menuItemService.getAvailableMenuTag(restaurantId);
+            if (PayloadSnapshot.isNotModified(headers, tag)) {
+                return PayloadSnapshot.notModified(headers, tag);
+            }
+            // Pre-rendered body (JSON / gzip / Smile) written as is
+            return menuItemService.getAvailableMenuSnapshot(restaurantId).toResponse(headers);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Failed to retrieve menu: " + e.getMessage()));
@@ -167,6 +173,97 @@ public class MenuItemController {
         }
     }
 
+    /**
+     * Bulk import menu items from CSV or NDJSON (requires RESTAURANT_OWNER role)
+     * The body is read as it streams in. Invalid rows are skipped and reported with their line.
+     */
+    @PostMapping(value = "/{restaurantId}/menu/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('RESTAURANT_OWNER')")
+    public ResponseEntity<ApiResponse<MenuItemService.MenuImport>> importMenuItems(
+            @PathVariable Long restaurantId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader("X-User-Id") String userId,
+            InputStream body) {
+        try {
+            Long ownerId = Long.parseLong(userId);
+            MenuItemService.ImportFormat format = MediaType.parseMediaType(contentType)
+                    .isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                    ? MenuItemService.ImportFormat.CSV
+                    : MenuItemService.ImportFormat.NDJSON;
+
+            MenuItemService.MenuImport result = menuItemService.importMenuItems(restaurantId, ownerId, body, format);
+
+            return ResponseEntity.ok(ApiResponse.success("Imported " + result.getImported() + " menu items, "
+                    + result.getRejected() + " rows rejected", result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to import menu items: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Make many menu items available / unavailable at once (requires RESTAURANT_OWNER role and ownership)
+     */
+    @PatchMapping("/{restaurantId}/menu/bulk/availability")
+    @PreAuthorize("hasRole('RESTAURANT_OWNER')")
+    public ResponseEntity<ApiResponse<MenuItemService.BulkUpdate>> setAvailability(
+            @PathVariable Long restaurantId,
+            @Valid @RequestBody BulkAvailabilityRequest request,
+            @RequestHeader("X-User-Id") String userId) {
+        try {
+            Long ownerId = Long.parseLong(userId);
+            MenuItemService.BulkUpdate result = menuItemService.setAvailability(restaurantId, request.getItemIds(),
+                    request.getAvailable(), ownerId);
+
+            return ResponseEntity.ok(ApiResponse.success("Updated " + result.getUpdated() + " menu items", result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to update menu items: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Raise or lower many menu item prices by a percentage (requires RESTAURANT_OWNER role and ownership)
+     */
+    @PatchMapping("/{restaurantId}/menu/bulk/price")
+    @PreAuthorize("hasRole('RESTAURANT_OWNER')")
+    public ResponseEntity<ApiResponse<MenuItemService.BulkUpdate>> adjustPrices(
+            @PathVariable Long restaurantId,
+            @Valid @RequestBody BulkPriceAdjustmentRequest request,
+            @RequestHeader("X-User-Id") String userId) {
+        try {
+            Long ownerId = Long.parseLong(userId);
+            MenuItemService.BulkUpdate result = menuItemService.adjustPrices(restaurantId, request.getItemIds(),
+                    request.getPercent(), ownerId);
+
+            return ResponseEntity.ok(ApiResponse.success("Updated " + result.getUpdated() + " menu items", result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to update menu items: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Move many menu items to another category (requires RESTAURANT_OWNER role and ownership)
+     */
+    @PatchMapping("/{restaurantId}/menu/bulk/category")
+    @PreAuthorize("hasRole('RESTAURANT_OWNER')")
+    public ResponseEntity<ApiResponse<MenuItemService.BulkUpdate>> changeCategory(
+            @PathVariable Long restaurantId,
+            @Valid @RequestBody BulkCategoryRequest request,
+            @RequestHeader("X-User-Id") String userId) {
+        try {
+            Long ownerId = Long.parseLong(userId);
+            MenuItemService.BulkUpdate result = menuItemService.changeCategory(restaurantId, request.getItemIds(),
+                    request.getCategory(), ownerId);
+
+            return ResponseEntity.ok(ApiResponse.success("Updated " + result.getUpdated() + " menu items", result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to update menu items: " + e.getMessage()));
+        }
+    }
+
     /**
      * Update a menu item (requires RESTAURANT_OWNER role and ownership)
      */
@@ -2,17 +2,21 @@ package olim.com.restaurantservice.controller;
 
 import jakarta.validation.Valid;
 import olim.com.restaurantservice.dto.RestaurantDto.*;
-import olim.com.restaurantservice.dto.MenuItemDto;
 import olim.com.restaurantservice.entity.Restaurant;
-import olim.com.restaurantservice.entity.MenuItem;
+import olim.com.restaurantservice.repository.RestaurantSort;
+import olim.com.restaurantservice.search.ColumnarCatalog;
+import olim.com.restaurantservice.service.CatalogSearch;
 import olim.com.restaurantservice.service.RestaurantService;
-import olim.com.restaurantservice.service.MenuItemService;
+import olim.com.restaurantservice.service.RestaurantService.BrowseResult;
+import olim.com.restaurantservice.util.PayloadSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -30,22 +34,29 @@ public class RestaurantController {
     @Autowired
     private RestaurantService restaurantService;
 
-    @Autowired
-    private MenuItemService menuItemService;
-
     /**
-     * Get all restaurants (public endpoint)
-     * Anyone can view restaurants
+     * Get open restaurants, one page at a time (public endpoint)
+     * Anyone can view restaurants. Sort is RATING (best first), DELIVERY_FEE or NEWEST;
+     * pass the returned nextCursor as cursor for the following page.
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<RestaurantResponse>>> getAllRestaurants() {
+    public ResponseEntity<?> getAllRestaurants(
+            @RequestHeader HttpHeaders headers,
+            @RequestParam(defaultValue = "RATING") RestaurantSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         try {
-            List<Restaurant> restaurants = restaurantService.getOpenRestaurants();
-            List<RestaurantResponse> response = restaurants.stream()
-                    .map(RestaurantResponse::new)
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(ApiResponse.success("Restaurants retrieved successfully", response));
+            if (cursor != null || sort != RestaurantSort.RATING || size != null) {
+                return ResponseEntity.ok(ApiResponse.success("Restaurants retrieved successfully",
+                        new RestaurantPageResponse(restaurantService.getOpenRestaurants(sort, cursor, size))));
+            }
+            // First page in the default order - the landing page, served from the catalog cache.
+            // Conditional GET answered from the tag of the cached snapshot - no rendering, no database
+            String tag = restaurantService.getOpenRestaurantsTag();
+            if (PayloadSnapshot.isNotModified(headers, tag)) {
+                return PayloadSnapshot.notModified(headers, tag);
+            }
+            return restaurantService.getOpenRestaurantsSnapshot().toResponse(headers);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Failed to retrieve restaurants: " + e.getMessage()));
@@ -59,55 +70,146 @@ public class RestaurantController {
      * Get restaurant by ID with menu items (public endpoint)
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<RestaurantDetailResponse>> getRestaurantById(@PathVariable Long id) {
+    public ResponseEntity<?> getRestaurantById(@PathVariable Long id, @RequestHeader HttpHeaders headers) {
         try {
-            Restaurant restaurant = restaurantService.getRestaurantById(id)
-                    .orElseThrow(() -> new RuntimeException("Restaurant not found"));
+            String tag = restaurantService.getRestaurantDetailTag(id);
+            if (PayloadSnapshot.isNotModified(headers, tag)) {
+                return PayloadSnapshot.notModified(headers, tag);
+            }
+            // Pre-rendered body (JSON / gzip / Smile) written as is
+            return restaurantService.getRestaurantDetailSnapshot(id)
+                    .orElseThrow(() -> new RuntimeException("Restaurant not found"))
+                    .toResponse(headers);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to retrieve restaurant: " + e.getMessage()));
+        }
+    }
 
-            List<MenuItem> menuItems = menuItemService.getAvailableMenuItems(id);
+    /**
+     * Search restaurants by name, one page at a time (public endpoint)
+     * Best match first unless sort is given (RATING, DELIVERY_FEE or NEWEST); truncated when the match cap cut results off
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<RestaurantPageResponse>> searchRestaurants(
+            @RequestParam String query,
+            @RequestParam(required = false) RestaurantSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            RestaurantPageResponse response = new RestaurantPageResponse(
+                    restaurantService.searchRestaurantsByName(query, sort, cursor, size));
 
-            List<MenuItemDto.MenuItemResponse> menuItemResponses = menuItems.stream()
-                    .map(MenuItemDto.MenuItemResponse::new)
-                    .collect(Collectors.toList());
+            return ResponseEntity.ok(ApiResponse.success("Search completed successfully", response));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Search failed: " + e.getMessage()));
+        }
+    }
 
-            RestaurantDetailResponse response = new RestaurantDetailResponse(restaurant, menuItemResponses);
+    /**
+     * Autocomplete suggestions as the user types (public endpoint)
+     * Restaurant names, cuisines and dish names - tolerates small typos
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<ApiResponse<List<SuggestionResponse>>> autocomplete(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<SuggestionResponse> response = restaurantService.autocomplete(q, limit).stream()
+                    .map(SuggestionResponse::new)
+                    .collect(Collectors.toList());
 
-            return ResponseEntity.ok(ApiResponse.success("Restaurant retrieved successfully", response));
+            return ResponseEntity.ok(ApiResponse.success("Suggestions retrieved successfully", response));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
-                    .body(ApiResponse.error("Failed to retrieve restaurant: " + e.getMessage()));
+                    .body(ApiResponse.error("Autocomplete failed: " + e.getMessage()));
         }
     }
 
     /**
-     * Search restaurants by name (public endpoint)
+     * Restaurants delivering to a location, nearest first (public endpoint)
+     * Optionally only one cuisine; only open restaurants unless open=false
      */
-    @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<RestaurantResponse>>> searchRestaurants(@RequestParam String query) {
+    @GetMapping("/nearby")
+    public ResponseEntity<ApiResponse<List<NearbyRestaurantResponse>>> getNearbyRestaurants(
+            @RequestParam double latitude,
+            @RequestParam double longitude,
+            @RequestParam(required = false) Restaurant.CuisineType cuisine,
+            @RequestParam(defaultValue = "true") boolean open,
+            @RequestParam(defaultValue = "50") double maxDistanceKm,
+            @RequestParam(defaultValue = "20") int limit) {
         try {
-            List<Restaurant> restaurants = restaurantService.searchRestaurantsByName(query);
-            List<RestaurantResponse> response = restaurants.stream()
-                    .map(RestaurantResponse::new)
+            if (Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+                throw new RuntimeException("Latitude must be between -90 and 90, longitude between -180 and 180");
+            }
+            List<NearbyRestaurantResponse> response = restaurantService
+                    .getNearbyRestaurants(latitude, longitude, cuisine, open, maxDistanceKm, limit).stream()
+                    .map(nearby -> new NearbyRestaurantResponse(new RestaurantResponse(nearby.getRestaurant()),
+                            Math.round(nearby.getDistanceKm() * 100) / 100.0))
                     .collect(Collectors.toList());
 
-            return ResponseEntity.ok(ApiResponse.success("Search completed successfully", response));
+            return ResponseEntity.ok(ApiResponse.success("Nearby restaurants retrieved successfully", response));
+        } catch (CatalogSearch.CatalogNotReadyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
-                    .body(ApiResponse.error("Search failed: " + e.getMessage()));
+                    .body(ApiResponse.error("Failed to retrieve nearby restaurants: " + e.getMessage()));
         }
     }
 
     /**
-     * Get restaurants by cuisine type (public endpoint)
+     * Browse restaurants by any combination of filters, with facet counts (public endpoint)
+     * Amounts are in the restaurant's currency; sort is RATING (best first), DELIVERY_FEE or MINIMUM_ORDER
+     */
+    @GetMapping("/browse")
+    public ResponseEntity<ApiResponse<BrowseResponse>> browseRestaurants(
+            @RequestParam(required = false) List<Restaurant.CuisineType> cuisine,
+            @RequestParam(required = false) Boolean open,
+            @RequestParam(required = false) Boolean vegetarian,
+            @RequestParam(required = false) BigDecimal minRating,
+            @RequestParam(required = false) BigDecimal maxDeliveryFee,
+            @RequestParam(required = false) BigDecimal maxMinimumOrder,
+            @RequestParam(defaultValue = "RATING") ColumnarCatalog.Sort sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            if (page < 0 || size < 1) {
+                throw new RuntimeException("Page must be at least 0 and size at least 1");
+            }
+            BrowseResult result = restaurantService.browseRestaurants(cuisine != null ? cuisine : List.of(),
+                    open, vegetarian, minRating, maxDeliveryFee, maxMinimumOrder, sort, page, size);
+            BrowseResponse response = new BrowseResponse(
+                    result.getRestaurants().stream()
+                            .map(RestaurantResponse::new)
+                            .collect(Collectors.toList()),
+                    result.getTotal(), page, size, result.getCuisineCounts(),
+                    result.getOpenCount(), result.getVegetarianCount());
+
+            return ResponseEntity.ok(ApiResponse.success("Restaurants retrieved successfully", response));
+        } catch (CatalogSearch.CatalogNotReadyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to browse restaurants: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Get open restaurants of a cuisine type, one page at a time (public endpoint)
+     * Same sort and cursor parameters as the full listing
      */
     @GetMapping("/cuisine/{cuisineType}")
-    public ResponseEntity<ApiResponse<List<RestaurantResponse>>> getRestaurantsByCuisine(
-            @PathVariable Restaurant.CuisineType cuisineType) {
+    public ResponseEntity<ApiResponse<RestaurantPageResponse>> getRestaurantsByCuisine(
+            @PathVariable Restaurant.CuisineType cuisineType,
+            @RequestParam(defaultValue = "RATING") RestaurantSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         try {
-            List<Restaurant> restaurants = restaurantService.getRestaurantsByCuisine(cuisineType);
-            List<RestaurantResponse> response = restaurants.stream()
-                    .map(RestaurantResponse::new)
-                    .collect(Collectors.toList());
+            RestaurantPageResponse response = new RestaurantPageResponse(
+                    restaurantService.getRestaurantsByCuisine(cuisineType, sort, cursor, size));
 
             return ResponseEntity.ok(ApiResponse.success("Restaurants retrieved successfully", response));
         } catch (Exception e) {
@@ -136,8 +238,16 @@ public class RestaurantController {
                     request.getCuisineType(),
                     ownerId
             );
-            restaurant.setDeliveryFee(request.getDeliveryFee());
-            restaurant.setMinimumOrder(request.getMinimumOrder());
+            // An explicit null keeps the entity default - listings sort on both and need a value
+            if (request.getDeliveryFee() != null) {
+                restaurant.setDeliveryFee(request.getDeliveryFee());
+            }
+            if (request.getMinimumOrder() != null) {
+                restaurant.setMinimumOrder(request.getMinimumOrder());
+            }
+            restaurant.setLatitude(request.getLatitude());
+            restaurant.setLongitude(request.getLongitude());
+            restaurant.setDeliveryRadiusKm(request.getDeliveryRadiusKm());
 
             Restaurant savedRestaurant = restaurantService.createRestaurant(restaurant, ownerId);
             OwnerRestaurantResponse response = new OwnerRestaurantResponse(savedRestaurant);
@@ -192,6 +302,9 @@ public class RestaurantController {
             updatedRestaurant.setCuisineType(request.getCuisineType());
             updatedRestaurant.setDeliveryFee(request.getDeliveryFee());
             updatedRestaurant.setMinimumOrder(request.getMinimumOrder());
+            updatedRestaurant.setLatitude(request.getLatitude());
+            updatedRestaurant.setLongitude(request.getLongitude());
+            updatedRestaurant.setDeliveryRadiusKm(request.getDeliveryRadiusKm());
 
             Restaurant savedRestaurant = restaurantService.updateRestaurant(id, updatedRestaurant, ownerId);
             OwnerRestaurantResponse response = new OwnerRestaurantResponse(savedRestaurant);
@@ -260,6 +373,24 @@ public class RestaurantController {
         }
     }
 
+    /**
+     * Get the owner of every restaurant (service-to-service)
+     * Used by Order Service to warm up its ownership cache on startup
+     */
+    @GetMapping("/ownerships")
+    public ResponseEntity<ApiResponse<List<RestaurantOwnershipResponse>>> getRestaurantOwnerships() {
+        try {
+            List<RestaurantOwnershipResponse> response = restaurantService.getAllOwnerships().stream()
+                    .map(ownership -> new RestaurantOwnershipResponse(ownership.getRestaurantId(), ownership.getOwnerId()))
+                    .collect(Collectors.toList());
+
+            return ResponseEntity.ok(ApiResponse.success("Restaurant ownerships retrieved successfully", response));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to retrieve restaurant ownerships: " + e.getMessage()));
+        }
+    }
+
     /**
      * Health check endpoint
      */
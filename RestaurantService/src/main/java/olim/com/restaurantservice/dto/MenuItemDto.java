@@ -1,6 +1,8 @@
 package olim.com.restaurantservice.dto;
 
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
@@ -10,6 +12,7 @@ import olim.com.restaurantservice.entity.MenuItem;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Data Transfer Objects for MenuItem operations
@@ -60,6 +63,49 @@ public class MenuItemDto {
         private boolean vegetarian = false;
     }
 
+    /**
+     * DTO for making many menu items available / unavailable
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkAvailabilityRequest {
+        @NotEmpty(message = "Menu item IDs are required")
+        private List<Long> itemIds;
+
+        @NotNull(message = "Availability is required")
+        private Boolean available;
+    }
+
+    /**
+     * DTO for raising / lowering many menu item prices by a percentage (e.g. 10 or -15)
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkPriceAdjustmentRequest {
+        @NotEmpty(message = "Menu item IDs are required")
+        private List<Long> itemIds;
+
+        @NotNull(message = "Percent is required")
+        @DecimalMin(value = "-100", inclusive = false, message = "Prices can't be lowered by 100% or more")
+        private BigDecimal percent;
+    }
+
+    /**
+     * DTO for moving many menu items to another category
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkCategoryRequest {
+        @NotEmpty(message = "Menu item IDs are required")
+        private List<Long> itemIds;
+
+        @NotNull(message = "Category is required")
+        private MenuItem.Category category;
+    }
+
     /**
      * DTO for menu item response
      */
@@ -1,16 +1,22 @@
 package olim.com.restaurantservice.dto;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import olim.com.restaurantservice.entity.Restaurant;
+import olim.com.restaurantservice.search.SuggestionTrie;
+import olim.com.restaurantservice.service.RestaurantService;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Transfer Objects for Restaurant operations
@@ -44,6 +50,17 @@ public class RestaurantDto {
 
         @PositiveOrZero(message = "Minimum order must be positive")
         private BigDecimal minimumOrder = BigDecimal.valueOf(10.00);
+
+        @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+        @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+        private Double latitude;
+
+        @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+        @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+        private Double longitude;
+
+        @Positive(message = "Delivery radius must be positive")
+        private Double deliveryRadiusKm;
     }
 
     /**
@@ -73,6 +90,17 @@ public class RestaurantDto {
 
         @PositiveOrZero(message = "Minimum order must be positive")
         private BigDecimal minimumOrder;
+
+        @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+        @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+        private Double latitude;
+
+        @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+        @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+        private Double longitude;
+
+        @Positive(message = "Delivery radius must be positive")
+        private Double deliveryRadiusKm;
     }
 
     /**
@@ -92,6 +120,9 @@ public class RestaurantDto {
         private BigDecimal deliveryFee;
         private BigDecimal minimumOrder;
         private BigDecimal averageRating;
+        private Double latitude;
+        private Double longitude;
+        private Double deliveryRadiusKm;
         private LocalDateTime createdAt;
 
         // Constructor from entity
@@ -106,6 +137,9 @@ public class RestaurantDto {
             this.deliveryFee = restaurant.getDeliveryFee();
             this.minimumOrder = restaurant.getMinimumOrder();
             this.averageRating = restaurant.getAverageRating();
+            this.latitude = restaurant.getLatitude();
+            this.longitude = restaurant.getLongitude();
+            this.deliveryRadiusKm = restaurant.getDeliveryRadiusKm();
             this.createdAt = restaurant.getCreatedAt();
         }
     }
@@ -127,6 +161,9 @@ public class RestaurantDto {
         private BigDecimal deliveryFee;
         private BigDecimal minimumOrder;
         private BigDecimal averageRating;
+        private Double latitude;
+        private Double longitude;
+        private Double deliveryRadiusKm;
         private LocalDateTime createdAt;
         private List<MenuItemDto.MenuItemResponse> menuItems;
 
@@ -142,6 +179,9 @@ public class RestaurantDto {
             this.deliveryFee = restaurant.getDeliveryFee();
             this.minimumOrder = restaurant.getMinimumOrder();
             this.averageRating = restaurant.getAverageRating();
+            this.latitude = restaurant.getLatitude();
+            this.longitude = restaurant.getLongitude();
+            this.deliveryRadiusKm = restaurant.getDeliveryRadiusKm();
             this.createdAt = restaurant.getCreatedAt();
             this.menuItems = menuItems;
         }
@@ -164,6 +204,9 @@ public class RestaurantDto {
         private BigDecimal deliveryFee;
         private BigDecimal minimumOrder;
         private BigDecimal averageRating;
+        private Double latitude;
+        private Double longitude;
+        private Double deliveryRadiusKm;
         private Long ownerId;
         private LocalDateTime createdAt;
         private LocalDateTime updatedAt;
@@ -180,12 +223,98 @@ public class RestaurantDto {
             this.deliveryFee = restaurant.getDeliveryFee();
             this.minimumOrder = restaurant.getMinimumOrder();
             this.averageRating = restaurant.getAverageRating();
+            this.latitude = restaurant.getLatitude();
+            this.longitude = restaurant.getLongitude();
+            this.deliveryRadiusKm = restaurant.getDeliveryRadiusKm();
             this.ownerId = restaurant.getOwnerId();
             this.createdAt = restaurant.getCreatedAt();
             this.updatedAt = restaurant.getUpdatedAt();
         }
     }
 
+    /**
+     * Restaurant → owner pair (service-to-service)
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RestaurantOwnershipResponse {
+        private Long restaurantId;
+        private Long ownerId;
+    }
+
+    /**
+     * One page of a restaurant listing
+     * nextCursor is passed back as ?cursor= for the next page, null on the last page.
+     * truncated is only set by search: it returns at most restaurant.search.max-results matches,
+     * so when true there are more than the pages show - narrow the query to reach them.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RestaurantPageResponse {
+        private List<RestaurantResponse> restaurants;
+        private String sort;
+        private String nextCursor;
+        private boolean truncated;
+
+        public RestaurantPageResponse(RestaurantService.RestaurantPage page) {
+            this.restaurants = page.getRestaurants().stream()
+                    .map(RestaurantResponse::new)
+                    .toList();
+            this.sort = page.getSort() != null ? page.getSort().name() : "RELEVANCE";
+            this.nextCursor = page.getNextCursor();
+            this.truncated = page.isTruncated();
+        }
+    }
+
+    /**
+     * Restaurant delivering to the requested location, with its distance from it
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class NearbyRestaurantResponse {
+        private RestaurantResponse restaurant;
+        private double distanceKm;
+    }
+
+    /**
+     * One page of browse results with facet counts over all matches
+     * Each facet count applies every other filter, so it tells how many results picking that facet gives
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BrowseResponse {
+        private List<RestaurantResponse> restaurants;
+        private int total;
+        private int page;
+        private int size;
+        private Map<Restaurant.CuisineType, Integer> cuisineCounts;
+        private int openCount;
+        private int vegetarianCount;
+    }
+
+    /**
+     * Autocomplete suggestion for the search box
+     * type is RESTAURANT, CUISINE or DISH; value is the cuisine constant for cuisines, null otherwise
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SuggestionResponse {
+        private String text;
+        private String type;
+        private String value;
+
+        public SuggestionResponse(SuggestionTrie.Suggestion suggestion) {
+            this.text = suggestion.text();
+            this.type = suggestion.kind().name();
+            this.value = suggestion.value();
+        }
+    }
+
     /**
      * Generic API response wrapper
      */
@@ -16,7 +16,15 @@ import java.util.List;
  * Simple Restaurant entity for ByteBites
  */
 @Entity
-@Table(name = "restaurants")
+@Table(name = "restaurants", indexes = {
+        // Keyset pagination of the open / by-cuisine listings, one per RestaurantSort
+        @Index(name = "idx_restaurants_open_rating", columnList = "is_open, average_rating, id"),
+        @Index(name = "idx_restaurants_open_delivery_fee", columnList = "is_open, delivery_fee, id"),
+        @Index(name = "idx_restaurants_open_created", columnList = "is_open, created_at, id"),
+        @Index(name = "idx_restaurants_cuisine_open_rating", columnList = "cuisine_type, is_open, average_rating, id"),
+        @Index(name = "idx_restaurants_cuisine_open_delivery_fee", columnList = "cuisine_type, is_open, delivery_fee, id"),
+        @Index(name = "idx_restaurants_cuisine_open_created", columnList = "cuisine_type, is_open, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -58,6 +66,14 @@ public class Restaurant {
     @Column(name = "average_rating", precision = 3, scale = 2)
     private BigDecimal averageRating = BigDecimal.valueOf(4.0);
 
+    // Location - restaurants without one are left out of nearby search
+    private Double latitude;
+
+    private Double longitude;
+
+    @Column(name = "delivery_radius_km")
+    private Double deliveryRadiusKm; // null - the configured default radius
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
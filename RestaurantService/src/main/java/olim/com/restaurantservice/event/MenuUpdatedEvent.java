@@ -0,0 +1,23 @@
+package olim.com.restaurantservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Event published when menu items of a restaurant are changed in bulk
+ * One event per bulk operation, listing every item it changed
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuUpdatedEvent {
+
+    private Long restaurantId;
+    private String change; // AVAILABILITY, PRICE or CATEGORY
+    private List<Long> menuItemIds;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,22 @@
+package olim.com.restaurantservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event published when a restaurant is created or deleted
+ * Lets other services keep a local owner → restaurants map
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantOwnershipEvent {
+
+    private Long restaurantId;
+    private Long ownerId;
+    private boolean deleted;
+    private LocalDateTime changedAt;
+}
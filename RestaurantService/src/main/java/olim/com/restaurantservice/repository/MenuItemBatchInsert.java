@@ -0,0 +1,20 @@
+package olim.com.restaurantservice.repository;
+
+import olim.com.restaurantservice.entity.MenuItem;
+
+import java.util.List;
+
+/**
+ * Bulk inserts for MenuItemRepository, with plain JDBC
+ * IDENTITY keys keep Hibernate from batching inserts, so bulk imports bypass it.
+ */
+public interface MenuItemBatchInsert {
+
+    /**
+     * Insert new menu items of one restaurant as one JDBC batch
+     * The items' own restaurant is ignored; they are not attached to the persistence context.
+     *
+     * @return generated IDs, in the order of the items
+     */
+    List<Long> insertAll(Long restaurantId, List<MenuItem> menuItems);
+}
@@ -0,0 +1,66 @@
+package olim.com.restaurantservice.repository;
+
+import olim.com.restaurantservice.entity.MenuItem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link MenuItemBatchInsert} - picked up by Spring Data by its name
+ * Runs on the caller's transaction (same DataSource as JPA).
+ */
+public class MenuItemBatchInsertImpl implements MenuItemBatchInsert {
+
+    private static final String INSERT_SQL = "INSERT INTO menu_items (name, description, price, category, "
+            + "is_available, is_vegetarian, restaurant_id, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> insertAll(Long restaurantId, List<MenuItem> menuItems) {
+        if (menuItems.isEmpty()) {
+            return List.of();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        MenuItem menuItem = menuItems.get(i);
+                        statement.setString(1, menuItem.getName());
+                        statement.setString(2, menuItem.getDescription());
+                        statement.setBigDecimal(3, menuItem.getPrice());
+                        statement.setString(4, menuItem.getCategory().name());
+                        statement.setBoolean(5, menuItem.isAvailable());
+                        statement.setBoolean(6, menuItem.isVegetarian());
+                        statement.setLong(7, restaurantId);
+                        statement.setTimestamp(8, now);
+                        statement.setTimestamp(9, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return menuItems.size();
+                    }
+                }, keys);
+
+        List<Long> ids = keys.getKeyList().stream()
+                .map(row -> ((Number) row.values().iterator().next()).longValue())
+                .toList();
+        if (ids.size() != menuItems.size()) {
+            throw new RuntimeException("Expected " + menuItems.size() + " generated menu item IDs, got " + ids.size());
+        }
+        return ids;
+    }
+}
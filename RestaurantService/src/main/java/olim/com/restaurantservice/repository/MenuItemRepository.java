@@ -2,17 +2,26 @@ package olim.com.restaurantservice.repository;
 
 import olim.com.restaurantservice.entity.MenuItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
  * Repository interface for MenuItem entity
  */
 @Repository
-public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
+public interface MenuItemRepository extends JpaRepository<MenuItem, Long>, MenuItemBatchInsert {
 
     /**
      * Find all menu items for a specific restaurant
@@ -40,12 +49,55 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     @Query("SELECT m FROM MenuItem m WHERE m.restaurant.id = :restaurantId AND LOWER(m.name) LIKE LOWER(CONCAT('%', :name, '%'))")
     List<MenuItem> findByRestaurantIdAndNameContainingIgnoreCase(@Param("restaurantId") Long restaurantId, @Param("name") String name);
 
+    /**
+     * Whether a restaurant currently offers vegetarian items
+     */
+    boolean existsByRestaurantIdAndVegetarianTrueAndAvailableTrue(Long restaurantId);
+
+    /**
+     * Restaurants currently offering vegetarian items
+     */
+    @Query("SELECT DISTINCT m.restaurant.id FROM MenuItem m WHERE m.vegetarian = true AND m.available = true")
+    List<Long> findRestaurantIdsWithVegetarianItems();
+
     /**
      * Check if a menu item belongs to a specific restaurant owner
      */
     @Query("SELECT COUNT(m) > 0 FROM MenuItem m WHERE m.id = :menuItemId AND m.restaurant.ownerId = :ownerId")
     boolean existsByIdAndRestaurantOwnerId(@Param("menuItemId") Long menuItemId, @Param("ownerId") Long ownerId);
 
+    /**
+     * Which of the given menu items belong to the restaurant
+     */
+    @Query("SELECT m.id FROM MenuItem m WHERE m.restaurant.id = :restaurantId AND m.id IN :ids")
+    List<Long> findIdsByRestaurantIdAndIdIn(@Param("restaurantId") Long restaurantId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Bulk updates of a restaurant's menu items - one statement each, entities are not loaded
+     * Lifecycle callbacks don't run, so updatedAt is set explicitly.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MenuItem m SET m.available = :available, m.updatedAt = :now "
+            + "WHERE m.restaurant.id = :restaurantId AND m.id IN :ids")
+    int updateAvailability(@Param("restaurantId") Long restaurantId, @Param("ids") Collection<Long> ids,
+                           @Param("available") boolean available, @Param("now") LocalDateTime now);
+
+    /**
+     * Prices are multiplied by the factor, rounded to cents and kept at 0.01 at least
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MenuItem m SET m.price = CASE WHEN ROUND(m.price * :factor, 2) < 0.01 THEN 0.01 "
+            + "ELSE ROUND(m.price * :factor, 2) END, m.updatedAt = :now "
+            + "WHERE m.restaurant.id = :restaurantId AND m.id IN :ids")
+    int scalePrices(@Param("restaurantId") Long restaurantId, @Param("ids") Collection<Long> ids,
+                    @Param("factor") BigDecimal factor, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MenuItem m SET m.category = :category, m.updatedAt = :now "
+            + "WHERE m.restaurant.id = :restaurantId AND m.id IN :ids")
+    int updateCategory(@Param("restaurantId") Long restaurantId, @Param("ids") Collection<Long> ids,
+                       @Param("category") MenuItem.Category category, @Param("now") LocalDateTime now);
+
     /**
      * Count menu items by restaurant
      */
@@ -55,4 +107,21 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
      * Delete all menu items for a restaurant
      */
     void deleteByRestaurantId(Long restaurantId);
-}
\ No newline at end of file
+
+    /**
+     * Searchable fields of all menu items, streamed - used to build the search index
+     * Must be consumed inside a transaction.
+     */
+    @Query("SELECT m.id AS id, m.restaurant.id AS restaurantId, m.name AS name FROM MenuItem m")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<MenuItemSearchFields> streamSearchFields();
+
+    /**
+     * Projection of a menu item's searchable fields
+     */
+    interface MenuItemSearchFields {
+        Long getId();
+        Long getRestaurantId();
+        String getName();
+    }
+}
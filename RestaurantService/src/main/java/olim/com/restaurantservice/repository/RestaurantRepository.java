@@ -1,13 +1,23 @@
 package olim.com.restaurantservice.repository;
 
 import olim.com.restaurantservice.entity.Restaurant;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
  * Repository interface for Restaurant entity
@@ -32,6 +42,17 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
      */
     List<Restaurant> findByIsOpenTrue();
 
+    /**
+     * One page of open restaurants, keyset-paginated - see {@link RestaurantSort}
+     */
+    Window<Restaurant> findByIsOpenTrue(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * One page of open restaurants of a cuisine, keyset-paginated - see {@link RestaurantSort}
+     */
+    Window<Restaurant> findByCuisineTypeAndIsOpenTrue(Restaurant.CuisineType cuisineType, ScrollPosition position,
+                                                      Sort sort, Limit limit);
+
     /**
      * Search restaurants by name (case-insensitive)
      */
@@ -58,4 +79,47 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
      * Count restaurants by owner
      */
     long countByOwnerId(Long ownerId);
+
+    /**
+     * Restaurant → owner pairs for all restaurants
+     * Used by other services to warm up their ownership caches
+     */
+    @Query("SELECT r.id AS restaurantId, r.ownerId AS ownerId FROM Restaurant r")
+    List<RestaurantOwnership> findAllOwnerships();
+
+    /**
+     * Searchable fields of all restaurants, streamed - used to build the search indexes and browse catalog
+     * Must be consumed inside a transaction.
+     */
+    @Query("SELECT r.id AS id, r.name AS name, r.address AS address, r.cuisineType AS cuisineType, "
+            + "r.isOpen AS open, r.latitude AS latitude, r.longitude AS longitude, "
+            + "r.deliveryRadiusKm AS deliveryRadiusKm, r.averageRating AS averageRating, "
+            + "r.deliveryFee AS deliveryFee, r.minimumOrder AS minimumOrder FROM Restaurant r")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<RestaurantSearchFields> streamSearchFields();
+
+    /**
+     * Projection of a restaurant's owner
+     */
+    interface RestaurantOwnership {
+        Long getRestaurantId();
+        Long getOwnerId();
+    }
+
+    /**
+     * Projection of a restaurant's searchable fields
+     */
+    interface RestaurantSearchFields {
+        Long getId();
+        String getName();
+        String getAddress();
+        Restaurant.CuisineType getCuisineType();
+        Boolean getOpen();
+        Double getLatitude();
+        Double getLongitude();
+        Double getDeliveryRadiusKm();
+        BigDecimal getAverageRating();
+        BigDecimal getDeliveryFee();
+        BigDecimal getMinimumOrder();
+    }
 }
\ No newline at end of file
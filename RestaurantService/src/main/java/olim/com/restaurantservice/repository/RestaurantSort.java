@@ -0,0 +1,84 @@
+package olim.com.restaurantservice.repository;
+
+import olim.com.restaurantservice.entity.Restaurant;
+import olim.com.restaurantservice.util.PageCursor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Sort orders of restaurant listings, for keyset (cursor) pagination
+ *
+ * Each order is one column with the ID as tie-breaker, both in the same direction, so a page is
+ * one range scan of the matching composite index (see {@link Restaurant}) whatever the page.
+ * The sort columns are never null - entities default them.
+ */
+public enum RestaurantSort {
+
+    RATING("averageRating", Sort.Direction.DESC, Restaurant::getAverageRating, BigDecimal::new),
+    DELIVERY_FEE("deliveryFee", Sort.Direction.ASC, Restaurant::getDeliveryFee, BigDecimal::new),
+    NEWEST("createdAt", Sort.Direction.DESC, Restaurant::getCreatedAt, LocalDateTime::parse);
+
+    private final String property;
+    private final Sort.Direction direction;
+    private final Function<Restaurant, Comparable<?>> key;
+    private final Function<String, Comparable<?>> parser;
+
+    RestaurantSort(String property, Sort.Direction direction, Function<Restaurant, Comparable<?>> key,
+                   Function<String, Comparable<?>> parser) {
+        this.property = property;
+        this.direction = direction;
+        this.key = key;
+        this.parser = parser;
+    }
+
+    public Sort sort() {
+        return Sort.by(direction, property, "id");
+    }
+
+    /**
+     * Position after the given cursor, or the first page if null
+     *
+     * @throws RuntimeException if the cursor wasn't made by {@link #cursorAfter(Restaurant)} of this sort
+     */
+    public KeysetScrollPosition positionAfter(String cursor) {
+        if (cursor == null) {
+            return ScrollPosition.keyset();
+        }
+        String[] keys = PageCursor.decode(cursor, name(), 2);
+        Map<String, Object> position = new LinkedHashMap<>();
+        try {
+            position.put(property, parser.apply(keys[0]));
+            position.put("id", Long.parseLong(keys[1]));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+        return ScrollPosition.forward(position);
+    }
+
+    /**
+     * Cursor of the page following this restaurant
+     */
+    public String cursorAfter(Restaurant last) {
+        return PageCursor.encode(name(), key.apply(last), last.getId());
+    }
+
+    /**
+     * The same order in memory - for rows that don't come from a sorted query
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Comparator<Restaurant> comparator() {
+        Comparator<Comparable> keyOrder = Comparator.nullsLast(Comparator.naturalOrder());
+        Comparator<Restaurant> ascending = Comparator.<Restaurant, Comparable>comparing(
+                        restaurant -> (Comparable) key.apply(restaurant), keyOrder)
+                .thenComparing(Restaurant::getId);
+        return direction.isAscending() ? ascending : ascending.reversed();
+    }
+}
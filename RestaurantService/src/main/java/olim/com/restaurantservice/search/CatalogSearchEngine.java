@@ -0,0 +1,43 @@
+package olim.com.restaurantservice.search;
+
+import java.util.List;
+
+/**
+ * Catalog Search Engine
+ *
+ * Full-text index over restaurant names, restaurant addresses and menu item names. Searches
+ * return IDs, best match first; every query term must match. Writes are idempotent (indexing a
+ * document again replaces it), so updates can safely be applied more than once.
+ *
+ * Implementations (picked with restaurant.search.engine):
+ * - memory: {@link InMemoryCatalogSearchEngine} (default)
+ * - lucene: {@link LuceneCatalogSearchEngine}
+ */
+public interface CatalogSearchEngine {
+
+    /**
+     * Add or replace a restaurant
+     */
+    void indexRestaurant(long restaurantId, String name, String address);
+
+    /**
+     * Remove a restaurant together with its menu items
+     */
+    void removeRestaurant(long restaurantId);
+
+    /**
+     * Add or replace a menu item
+     */
+    void indexMenuItem(long restaurantId, long menuItemId, String name);
+
+    void removeMenuItem(long menuItemId);
+
+    List<Long> searchRestaurantsByName(String query, int limit);
+
+    List<Long> searchRestaurantsByAddress(String query, int limit);
+
+    /**
+     * Menu items of one restaurant matching the query
+     */
+    List<Long> searchMenuItems(long restaurantId, String query, int limit);
+}
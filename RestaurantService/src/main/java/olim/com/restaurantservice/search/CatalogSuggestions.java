@@ -0,0 +1,103 @@
+package olim.com.restaurantservice.search;
+
+import olim.com.restaurantservice.search.SuggestionTrie.Kind;
+import olim.com.restaurantservice.search.SuggestionTrie.Suggestion;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Catalog Suggestions
+ *
+ * Autocomplete over restaurant names, cuisines and menu item names, kept in a {@link SuggestionTrie}.
+ * A suggestion's weight is how many catalog entries carry it: restaurants of a chain, restaurants
+ * of a cuisine, restaurants serving a dish. Remembers what each restaurant and menu item last
+ * contributed, so changes only touch the suggestions they affect. Writes are idempotent.
+ */
+public class CatalogSuggestions {
+
+    private final SuggestionTrie trie = new SuggestionTrie();
+
+    // What was added for each entry, to take it back out on change / removal
+    private final Map<Long, IndexedRestaurant> restaurants = new HashMap<>();
+    private final Map<Long, Map<Long, String>> menuItemNamesByRestaurant = new HashMap<>();
+
+    /**
+     * Add or replace a restaurant
+     *
+     * @param cuisineType constant name of the restaurant's cuisine (e.g. FAST_FOOD), null if none
+     */
+    public synchronized void putRestaurant(long restaurantId, String name, String cuisineType) {
+        removeRestaurantOnly(restaurantId);
+        restaurants.put(restaurantId, new IndexedRestaurant(name, cuisineType));
+        trie.add(Kind.RESTAURANT, name, null);
+        if (cuisineType != null) {
+            trie.add(Kind.CUISINE, label(cuisineType), cuisineType);
+        }
+    }
+
+    /**
+     * Remove a restaurant together with its menu items
+     */
+    public synchronized void removeRestaurant(long restaurantId) {
+        removeRestaurantOnly(restaurantId);
+        Map<Long, String> menuItemNames = menuItemNamesByRestaurant.remove(restaurantId);
+        if (menuItemNames != null) {
+            menuItemNames.values().forEach(name -> trie.remove(Kind.DISH, name));
+        }
+    }
+
+    /**
+     * Add or replace a menu item
+     */
+    public synchronized void putMenuItem(long restaurantId, long menuItemId, String name) {
+        String previous = menuItemNamesByRestaurant.computeIfAbsent(restaurantId, key -> new HashMap<>())
+                .put(menuItemId, name);
+        if (previous != null) {
+            trie.remove(Kind.DISH, previous);
+        }
+        trie.add(Kind.DISH, name, null);
+    }
+
+    public synchronized void removeMenuItem(long restaurantId, long menuItemId) {
+        Map<Long, String> menuItemNames = menuItemNamesByRestaurant.get(restaurantId);
+        String previous = menuItemNames != null ? menuItemNames.remove(menuItemId) : null;
+        if (previous != null) {
+            trie.remove(Kind.DISH, previous);
+        }
+    }
+
+    /**
+     * Best completions of what was typed so far
+     * Not synchronized - lookups only take the trie's read lock.
+     */
+    public List<Suggestion> complete(String typed, int limit) {
+        return trie.complete(typed, limit);
+    }
+
+    private void removeRestaurantOnly(long restaurantId) {
+        IndexedRestaurant previous = restaurants.remove(restaurantId);
+        if (previous != null) {
+            trie.remove(Kind.RESTAURANT, previous.name());
+            if (previous.cuisineType() != null) {
+                trie.remove(Kind.CUISINE, label(previous.cuisineType()));
+            }
+        }
+    }
+
+    /**
+     * FAST_FOOD -> Fast Food
+     */
+    private static String label(String constant) {
+        return Arrays.stream(constant.split("_"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word.charAt(0) + word.substring(1).toLowerCase())
+                .collect(Collectors.joining(" "));
+    }
+
+    private record IndexedRestaurant(String name, String cuisineType) {
+    }
+}
@@ -0,0 +1,269 @@
+package olim.com.restaurantservice.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Columnar Catalog
+ *
+ * Restaurant browse attributes held column by column: one primitive array per numeric attribute
+ * (rating, delivery fee, minimum order - in hundredths) and one bitmap per flag and per cuisine,
+ * indexed by slot. Any combination of filters is a few bitmap ANDs plus, for the numeric ranges,
+ * one scan over the arrays - and the facet counts fall out of the same bitmaps:
+ * - cuisine counts apply every filter except the cuisine one (so other cuisines stay pickable)
+ * - open / vegetarian counts likewise apply every filter except their own
+ *
+ * Slots of removed restaurants are reused. Thread-safe: many concurrent queries, writes take a
+ * short exclusive lock.
+ */
+public class ColumnarCatalog {
+
+    public enum Sort { RATING, DELIVERY_FEE, MINIMUM_ORDER }
+
+    /**
+     * Null / empty means "any"
+     *
+     * @param cuisines cuisine ordinals, any of them
+     */
+    public record Filter(int[] cuisines, Boolean open, Boolean vegetarian, Integer minRating,
+                         Integer maxDeliveryFee, Integer maxMinimumOrder) {
+    }
+
+    /**
+     * @param ids one page of matching restaurants, in sort order
+     * @param cuisineCounts indexed by cuisine ordinal
+     */
+    public record Result(int total, long[] ids, int[] cuisineCounts, int openCount, int vegetarianCount) {
+    }
+
+    private final int cuisineCount;
+
+    private long[] ids = new long[1024];
+    private int[] ratings = new int[1024];
+    private int[] deliveryFees = new int[1024];
+    private int[] minimumOrders = new int[1024];
+    private final BitSet live = new BitSet();
+    private final BitSet open = new BitSet();
+    private final BitSet vegetarian = new BitSet();
+    private final BitSet[] byCuisine;
+
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ColumnarCatalog(int cuisineCount) {
+        this.cuisineCount = cuisineCount;
+        this.byCuisine = new BitSet[cuisineCount];
+        for (int c = 0; c < cuisineCount; c++) {
+            byCuisine[c] = new BitSet();
+        }
+    }
+
+    /**
+     * Add or replace a restaurant's attributes - its vegetarian flag is kept
+     *
+     * @param cuisine cuisine ordinal, -1 if none
+     */
+    public void put(long id, int cuisine, boolean isOpen, int rating, int deliveryFee, int minimumOrder) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = slots.get(id);
+            int slot = existing != null ? existing : allocate(id);
+            ratings[slot] = rating;
+            deliveryFees[slot] = deliveryFee;
+            minimumOrders[slot] = minimumOrder;
+            open.set(slot, isOpen);
+            for (int c = 0; c < cuisineCount; c++) {
+                byCuisine[c].set(slot, c == cuisine);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the restaurant has vegetarian dishes available - ignored for unknown restaurants
+     */
+    public void setVegetarian(long id, boolean hasVegetarian) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(id);
+            if (slot != null) {
+                vegetarian.set(slot, hasVegetarian);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.remove(id);
+            if (slot == null) {
+                return;
+            }
+            live.clear(slot);
+            open.clear(slot);
+            vegetarian.clear(slot);
+            for (BitSet cuisine : byCuisine) {
+                cuisine.clear(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Matching restaurants (one page of them) with facet counts
+     */
+    public Result query(Filter filter, Sort sort, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet ranged = inRange(filter);
+
+            BitSet cuisines = null;
+            if (filter.cuisines() != null && filter.cuisines().length > 0) {
+                cuisines = new BitSet();
+                for (int cuisine : filter.cuisines()) {
+                    if (cuisine >= 0 && cuisine < cuisineCount) {
+                        cuisines.or(byCuisine[cuisine]);
+                    }
+                }
+            }
+            BitSet openFilter = flagFilter(open, filter.open());
+            BitSet vegetarianFilter = flagFilter(vegetarian, filter.vegetarian());
+
+            // Everything but the cuisine filter, then the full match
+            BitSet withoutCuisine = and(ranged, openFilter, vegetarianFilter);
+            BitSet matches = and(withoutCuisine, cuisines);
+
+            int[] cuisineCounts = new int[cuisineCount];
+            for (int c = 0; c < cuisineCount; c++) {
+                cuisineCounts[c] = countAnd(withoutCuisine, byCuisine[c]);
+            }
+            int openCount = countAnd(and(ranged, cuisines, vegetarianFilter), open);
+            int vegetarianCount = countAnd(and(ranged, cuisines, openFilter), vegetarian);
+
+            return new Result(matches.cardinality(), page(matches, sort, offset, limit),
+                    cuisineCounts, openCount, vegetarianCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Live slots passing the numeric filters - the only part that looks at every candidate
+     */
+    private BitSet inRange(Filter filter) {
+        if (filter.minRating() == null && filter.maxDeliveryFee() == null && filter.maxMinimumOrder() == null) {
+            return live;
+        }
+        int minRating = filter.minRating() != null ? filter.minRating() : Integer.MIN_VALUE;
+        int maxDeliveryFee = filter.maxDeliveryFee() != null ? filter.maxDeliveryFee() : Integer.MAX_VALUE;
+        int maxMinimumOrder = filter.maxMinimumOrder() != null ? filter.maxMinimumOrder() : Integer.MAX_VALUE;
+        // Word at a time - builds the result words directly instead of setting bits one by one
+        long[] liveWords = live.toLongArray();
+        long[] words = new long[liveWords.length];
+        for (int w = 0; w < liveWords.length; w++) {
+            for (long word = liveWords[w]; word != 0; word &= word - 1) {
+                int bit = Long.numberOfTrailingZeros(word);
+                int slot = (w << 6) + bit;
+                if (ratings[slot] >= minRating && deliveryFees[slot] <= maxDeliveryFee
+                        && minimumOrders[slot] <= maxMinimumOrder) {
+                    words[w] |= 1L << bit;
+                }
+            }
+        }
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Slots to keep for a flag filter: those with the flag, those without, or null for any
+     */
+    private BitSet flagFilter(BitSet flag, Boolean wanted) {
+        if (wanted == null) {
+            return null;
+        }
+        if (wanted) {
+            return flag;
+        }
+        BitSet without = (BitSet) live.clone();
+        without.andNot(flag);
+        return without;
+    }
+
+    /**
+     * Intersection of the given sets, null ones skipped - never modifies its arguments
+     */
+    private static BitSet and(BitSet first, BitSet... others) {
+        BitSet result = (BitSet) first.clone();
+        for (BitSet other : others) {
+            if (other != null) {
+                result.and(other);
+            }
+        }
+        return result;
+    }
+
+    private static int countAnd(BitSet set, BitSet other) {
+        BitSet both = (BitSet) set.clone();
+        both.and(other);
+        return both.cardinality();
+    }
+
+    /**
+     * One page in sort order - sorts packed (key, slot) longs, no boxing
+     */
+    private long[] page(BitSet matches, Sort sort, int offset, int limit) {
+        int total = matches.cardinality();
+        if (offset >= total || limit <= 0) {
+            return new long[0];
+        }
+        long[] keys = new long[total];
+        int count = 0;
+        for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+            long key = switch (sort) {
+                case RATING -> Integer.MAX_VALUE - (long) ratings[slot]; // Best rated first
+                case DELIVERY_FEE -> deliveryFees[slot];
+                case MINIMUM_ORDER -> minimumOrders[slot];
+            };
+            keys[count++] = (key << 32) | slot;
+        }
+        Arrays.sort(keys);
+
+        int end = (int) Math.min((long) offset + limit, total);
+        long[] page = new long[end - offset];
+        for (int i = offset; i < end; i++) {
+            page[i - offset] = ids[(int) keys[i]];
+        }
+        return page;
+    }
+
+    private int allocate(long id) {
+        int slot = live.nextClearBit(0);
+        if (slot == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            ratings = Arrays.copyOf(ratings, capacity);
+            deliveryFees = Arrays.copyOf(deliveryFees, capacity);
+            minimumOrders = Arrays.copyOf(minimumOrders, capacity);
+        }
+        ids[slot] = id;
+        live.set(slot);
+        vegetarian.clear(slot);
+        slots.put(id, slot);
+        return slot;
+    }
+}
@@ -0,0 +1,178 @@
+package olim.com.restaurantservice.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Geo Grid
+ *
+ * In-memory spatial index of places that serve an area around them (a restaurant and its delivery
+ * radius). Places are bucketed in a fixed grid of latitude/longitude cells; a lookup only scans
+ * the cells within the largest radius of the point, then checks each place's own radius with the
+ * great-circle distance.
+ *
+ * Cells are square in degrees, so they narrow towards the poles - lookups widen their longitude
+ * span to match. Longitudes wrap around at ±180.
+ *
+ * Thread-safe: many concurrent lookups, writes take a short exclusive lock.
+ */
+public class GeoGrid<T> {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private final double cellDegrees;
+    private final int columns;
+
+    private final Map<Long, Place<T>> places = new HashMap<>();
+    private final Map<Long, List<Place<T>>> cells = new HashMap<>();
+    private final TreeMap<Double, Integer> radiusCounts = new TreeMap<>(); // To know the largest radius
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param cellSizeKm cell edge at the equator - around the usual delivery radius works well
+     */
+    public GeoGrid(double cellSizeKm) {
+        if (cellSizeKm <= 0) {
+            throw new IllegalArgumentException("Require cellSizeKm > 0");
+        }
+        this.cellDegrees = cellSizeKm / KM_PER_DEGREE;
+        this.columns = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    public record Hit<T>(long id, double distanceKm, T value) {
+    }
+
+    /**
+     * Add or replace a place
+     */
+    public void put(long id, double latitude, double longitude, double radiusKm, T value) {
+        Place<T> place = new Place<>(id, latitude, longitude, radiusKm, value, cell(latitude, longitude));
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            places.put(id, place);
+            cells.computeIfAbsent(place.cell, key -> new ArrayList<>()).add(place);
+            radiusCounts.merge(radiusKm, 1, Integer::sum);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return places.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Places whose radius reaches the point, nearest first
+     *
+     * @param maxDistanceKm only places at most this far (their radius still has to reach the point)
+     */
+    public List<Hit<T>> reaching(double latitude, double longitude, double maxDistanceKm, Predicate<T> filter,
+                                 int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            if (radiusCounts.isEmpty()) {
+                return List.of();
+            }
+            double reachKm = Math.min(maxDistanceKm, radiusCounts.lastKey());
+            double reachLatitude = reachKm / KM_PER_DEGREE;
+            double reachLongitude = reachKm / (KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(latitude)), 0.01));
+
+            int fromRow = row(latitude - reachLatitude);
+            int toRow = row(latitude + reachLatitude);
+            int fromColumn = (int) Math.floor((longitude - reachLongitude + 180) / cellDegrees);
+            int toColumn = (int) Math.floor((longitude + reachLongitude + 180) / cellDegrees);
+            if (toColumn - fromColumn >= columns) {
+                toColumn = fromColumn + columns - 1; // Spans the globe - every column once
+            }
+
+            List<Hit<T>> hits = new ArrayList<>();
+            for (int row = fromRow; row <= toRow; row++) {
+                for (int column = fromColumn; column <= toColumn; column++) {
+                    List<Place<T>> cellPlaces = cells.get(key(row, Math.floorMod(column, columns)));
+                    if (cellPlaces == null) {
+                        continue;
+                    }
+                    for (Place<T> place : cellPlaces) {
+                        if (Math.abs(place.latitude - latitude) > reachLatitude || !filter.test(place.value)) {
+                            continue;
+                        }
+                        double distanceKm = distanceKm(latitude, longitude, place.latitude, place.longitude);
+                        if (distanceKm <= place.radiusKm && distanceKm <= maxDistanceKm) {
+                            hits.add(new Hit<>(place.id, distanceKm, place.value));
+                        }
+                    }
+                }
+            }
+            hits.sort(Comparator.comparingDouble((Hit<T> hit) -> hit.distanceKm()).thenComparingLong(Hit::id));
+            return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Great-circle distance (haversine)
+     */
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double deltaLatitude = Math.toRadians(latitude2 - latitude1);
+        double deltaLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(deltaLatitude / 2) * Math.sin(deltaLatitude / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(deltaLongitude / 2) * Math.sin(deltaLongitude / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private void removeInternal(long id) {
+        Place<T> place = places.remove(id);
+        if (place == null) {
+            return;
+        }
+        List<Place<T>> cellPlaces = cells.get(place.cell);
+        cellPlaces.remove(place);
+        if (cellPlaces.isEmpty()) {
+            cells.remove(place.cell);
+        }
+        radiusCounts.computeIfPresent(place.radiusKm, (radius, count) -> count == 1 ? null : count - 1);
+    }
+
+    private long cell(double latitude, double longitude) {
+        int column = Math.floorMod((int) Math.floor((longitude + 180) / cellDegrees), columns);
+        return key(row(latitude), column);
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor((latitude + 90) / cellDegrees);
+    }
+
+    private static long key(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+
+    private record Place<T>(long id, double latitude, double longitude, double radiusKm, T value, long cell) {
+    }
+}
@@ -0,0 +1,58 @@
+package olim.com.restaurantservice.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * In-Memory Catalog Search Engine
+ *
+ * One {@link TextIndex} per searchable field, menu items grouped by restaurant.
+ */
+@Component
+@ConditionalOnProperty(name = "restaurant.search.engine", havingValue = "memory", matchIfMissing = true)
+public class InMemoryCatalogSearchEngine implements CatalogSearchEngine {
+
+    private final TextIndex restaurantNames = new TextIndex();
+    private final TextIndex restaurantAddresses = new TextIndex();
+    private final TextIndex menuItemNames = new TextIndex();
+
+    @Override
+    public void indexRestaurant(long restaurantId, String name, String address) {
+        restaurantNames.put(restaurantId, name);
+        restaurantAddresses.put(restaurantId, address);
+    }
+
+    @Override
+    public void removeRestaurant(long restaurantId) {
+        restaurantNames.remove(restaurantId);
+        restaurantAddresses.remove(restaurantId);
+        menuItemNames.removeGroup(restaurantId);
+    }
+
+    @Override
+    public void indexMenuItem(long restaurantId, long menuItemId, String name) {
+        menuItemNames.put(menuItemId, restaurantId, name);
+    }
+
+    @Override
+    public void removeMenuItem(long menuItemId) {
+        menuItemNames.remove(menuItemId);
+    }
+
+    @Override
+    public List<Long> searchRestaurantsByName(String query, int limit) {
+        return restaurantNames.search(query, limit);
+    }
+
+    @Override
+    public List<Long> searchRestaurantsByAddress(String query, int limit) {
+        return restaurantAddresses.search(query, limit);
+    }
+
+    @Override
+    public List<Long> searchMenuItems(long restaurantId, String query, int limit) {
+        return menuItemNames.search(query, restaurantId, limit);
+    }
+}
@@ -0,0 +1,205 @@
+package olim.com.restaurantservice.search;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lucene Catalog Search Engine
+ *
+ * Same behaviour as the in-memory engine on a heap-resident Lucene index: text is tokenized with
+ * {@link TextIndex#tokenize(String)}, tokens and their trigrams are indexed as keyword fields.
+ * Each query term matches as a whole token (weight 3), a token prefix (2) or, from 3 characters,
+ * anywhere inside a token through its trigrams (1).
+ *
+ * Writes become visible to the next search.
+ */
+@Component
+@ConditionalOnProperty(name = "restaurant.search.engine", havingValue = "lucene")
+public class LuceneCatalogSearchEngine implements CatalogSearchEngine {
+
+    private static final int GRAM = 3;
+    private static final String KEY = "key";
+    private static final String ID = "id";
+    private static final String RESTAURANT = "restaurant";
+    private static final String RESTAURANT_NAME = "restaurant_name";
+    private static final String RESTAURANT_ADDRESS = "restaurant_address";
+    private static final String MENU_ITEM_NAME = "menu_item_name";
+    private static final String GRAMS_SUFFIX = "_grams";
+
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private final AtomicBoolean changed = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() throws IOException {
+        IndexWriterConfig config = new IndexWriterConfig()
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE)
+                .setRAMBufferSizeMB(64);
+        writer = new IndexWriter(new ByteBuffersDirectory(), config);
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+    }
+
+    @Override
+    public void indexRestaurant(long restaurantId, String name, String address) {
+        Document document = document("restaurant:" + restaurantId, restaurantId);
+        addText(document, RESTAURANT_NAME, name);
+        addText(document, RESTAURANT_ADDRESS, address);
+        write(() -> writer.updateDocument(new Term(KEY, "restaurant:" + restaurantId), document));
+    }
+
+    @Override
+    public void removeRestaurant(long restaurantId) {
+        write(() -> writer.deleteDocuments(new Term(KEY, "restaurant:" + restaurantId),
+                new Term(RESTAURANT, Long.toString(restaurantId))));
+    }
+
+    @Override
+    public void indexMenuItem(long restaurantId, long menuItemId, String name) {
+        Document document = document("menu-item:" + menuItemId, menuItemId);
+        document.add(new StringField(RESTAURANT, Long.toString(restaurantId), Field.Store.NO));
+        addText(document, MENU_ITEM_NAME, name);
+        write(() -> writer.updateDocument(new Term(KEY, "menu-item:" + menuItemId), document));
+    }
+
+    @Override
+    public void removeMenuItem(long menuItemId) {
+        write(() -> writer.deleteDocuments(new Term(KEY, "menu-item:" + menuItemId)));
+    }
+
+    @Override
+    public List<Long> searchRestaurantsByName(String query, int limit) {
+        return search(RESTAURANT_NAME, query, null, limit);
+    }
+
+    @Override
+    public List<Long> searchRestaurantsByAddress(String query, int limit) {
+        return search(RESTAURANT_ADDRESS, query, null, limit);
+    }
+
+    @Override
+    public List<Long> searchMenuItems(long restaurantId, String query, int limit) {
+        return search(MENU_ITEM_NAME, query, new TermQuery(new Term(RESTAURANT, Long.toString(restaurantId))), limit);
+    }
+
+    private List<Long> search(String field, String text, Query filter, int limit) {
+        String[] terms = TextIndex.tokenize(text);
+        if (terms.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms) {
+            query.add(termQuery(field, term), Occur.MUST);
+        }
+        if (filter != null) {
+            query.add(filter, Occur.FILTER);
+        }
+
+        try {
+            if (changed.getAndSet(false)) {
+                searcherManager.maybeRefreshBlocking();
+            }
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                StoredFields storedFields = searcher.storedFields();
+                List<Long> ids = new ArrayList<>();
+                for (ScoreDoc hit : searcher.search(query.build(), limit).scoreDocs) {
+                    ids.add(storedFields.document(hit.doc).getField(ID).numericValue().longValue());
+                }
+                return ids;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Search failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static Query termQuery(String field, String term) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(new BoostQuery(new ConstantScoreQuery(new TermQuery(new Term(field, term))), 3), Occur.SHOULD)
+                .add(new BoostQuery(new ConstantScoreQuery(new PrefixQuery(new Term(field, term))), 2), Occur.SHOULD);
+        if (term.length() >= GRAM) {
+            BooleanQuery.Builder infix = new BooleanQuery.Builder();
+            for (String gram : grams(term)) {
+                infix.add(new TermQuery(new Term(field + GRAMS_SUFFIX, gram)), Occur.FILTER);
+            }
+            query.add(new ConstantScoreQuery(infix.build()), Occur.SHOULD);
+        }
+        return query.build();
+    }
+
+    private static Document document(String key, long id) {
+        Document document = new Document();
+        document.add(new StringField(KEY, key, Field.Store.NO));
+        document.add(new StoredField(ID, id));
+        return document;
+    }
+
+    private static void addText(Document document, String field, String text) {
+        Set<String> tokens = new LinkedHashSet<>(List.of(TextIndex.tokenize(text)));
+        Set<String> grams = new LinkedHashSet<>();
+        for (String token : tokens) {
+            document.add(new StringField(field, token, Field.Store.NO));
+            grams.addAll(grams(token));
+        }
+        for (String gram : grams) {
+            document.add(new StringField(field + GRAMS_SUFFIX, gram, Field.Store.NO));
+        }
+    }
+
+    private static Set<String> grams(String token) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= token.length(); i++) {
+            grams.add(token.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private void write(IndexWrite write) {
+        try {
+            write.run();
+            changed.set(true);
+        } catch (IOException e) {
+            throw new RuntimeException("Search index update failed: " + e.getMessage(), e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexWrite {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,376 @@
+package olim.com.restaurantservice.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Suggestion Trie
+ *
+ * Prefix completion over short phrases (restaurant names, cuisines, dish names). A phrase is
+ * normalized like {@link TextIndex} does and stored under each of its word starts, so "drag"
+ * completes "Golden Dragon". Adding the same phrase again raises its weight; weights are kept as
+ * a subtree maximum on every node, so the heaviest completions are found best first without
+ * visiting the rest of the subtree.
+ *
+ * Typos are tolerated by walking the trie with an edit-distance row (insertions, deletions,
+ * substitutions, adjacent transpositions): up to 1 edit from 4 typed characters, 2 from 7,
+ * none before. Closer matches rank first, then heavier ones.
+ *
+ * Thread-safe: many concurrent lookups, writes take a short exclusive lock.
+ */
+public class SuggestionTrie {
+
+    private static final int MAX_KEY_LENGTH = 48;
+    private static final int MAX_WORD_STARTS = 4;
+
+    public enum Kind { RESTAURANT, CUISINE, DISH }
+
+    /**
+     * @param value optional payload given when the phrase was first added (e.g. the cuisine constant)
+     */
+    public record Suggestion(String text, Kind kind, String value, int weight) {
+    }
+
+    private final Node root = new Node();
+    private final Map<String, Phrase> phrases = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Add a phrase, or raise its weight by one if already there
+     */
+    public void add(Kind kind, String text, String value) {
+        String[] tokens = TextIndex.tokenize(text);
+        if (tokens.length == 0) {
+            return;
+        }
+        String id = kind + ":" + String.join(" ", tokens);
+        lock.writeLock().lock();
+        try {
+            Phrase phrase = phrases.get(id);
+            if (phrase == null) {
+                phrase = new Phrase(text.trim(), kind, value, keys(tokens));
+                phrases.put(id, phrase);
+                for (String key : phrase.keys) {
+                    node(key).addPhrase(phrase);
+                }
+            }
+            phrase.weight++;
+            for (String key : phrase.keys) {
+                raise(key, phrase.weight);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Lower a phrase's weight by one, dropping it at zero
+     */
+    public void remove(Kind kind, String text) {
+        String[] tokens = TextIndex.tokenize(text);
+        if (tokens.length == 0) {
+            return;
+        }
+        String id = kind + ":" + String.join(" ", tokens);
+        lock.writeLock().lock();
+        try {
+            Phrase phrase = phrases.get(id);
+            if (phrase == null) {
+                return;
+            }
+            if (--phrase.weight == 0) {
+                phrases.remove(id);
+            }
+            for (String key : phrase.keys) {
+                lower(key, phrase);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return phrases.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best completions of what was typed so far, best first
+     */
+    public List<Suggestion> complete(String typed, int limit) {
+        String[] tokens = TextIndex.tokenize(typed);
+        if (tokens.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        String query = String.join(" ", tokens);
+        if (query.length() > MAX_KEY_LENGTH) {
+            query = query.substring(0, MAX_KEY_LENGTH);
+        }
+        int maxEdits = query.length() < 4 ? 0 : query.length() < 7 ? 1 : 2;
+
+        lock.readLock().lock();
+        try {
+            // Subtrees whose path is within maxEdits of the query, by distance
+            List<List<Node>> byDistance = new ArrayList<>();
+            for (int distance = 0; distance <= maxEdits; distance++) {
+                byDistance.add(new ArrayList<>());
+            }
+            if (maxEdits == 0) {
+                Node node = find(query);
+                if (node != null) {
+                    byDistance.get(0).add(node);
+                }
+            } else {
+                int[] firstRow = new int[query.length() + 1];
+                for (int i = 0; i < firstRow.length; i++) {
+                    firstRow[i] = i;
+                }
+                walk(root, query, maxEdits, null, firstRow, (char) 0, Integer.MAX_VALUE, byDistance);
+            }
+
+            List<Suggestion> suggestions = new ArrayList<>(limit);
+            Set<Phrase> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (List<Node> nodes : byDistance) {
+                collect(nodes, limit, seen, suggestions);
+                if (suggestions.size() == limit) {
+                    break;
+                }
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Depth-first with one edit-distance row per node (optimal string alignment)
+     *
+     * @param bestAbove smallest distance already recorded on the path - a subtree is only
+     *                  recorded again where it gets strictly closer
+     */
+    private void walk(Node node, String query, int maxEdits, int[] previousRow, int[] row, char label,
+                      int bestAbove, List<List<Node>> byDistance) {
+        for (int c = 0; c < node.size; c++) {
+            char next = node.labels[c];
+            int[] nextRow = new int[row.length];
+            nextRow[0] = row[0] + 1;
+            int rowMin = nextRow[0];
+            for (int i = 1; i < row.length; i++) {
+                char expected = query.charAt(i - 1);
+                int cost = expected == next ? 0 : 1;
+                int distance = Math.min(Math.min(nextRow[i - 1] + 1, row[i] + 1), row[i - 1] + cost);
+                if (previousRow != null && i > 1 && expected == label && query.charAt(i - 2) == next) {
+                    distance = Math.min(distance, previousRow[i - 2] + 1); // Transposition
+                }
+                nextRow[i] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            if (rowMin > maxEdits) {
+                continue; // Nothing below can get back within reach
+            }
+            Node child = node.children[c];
+            int distance = nextRow[query.length()];
+            int best = bestAbove;
+            if (distance <= maxEdits && distance < bestAbove) {
+                byDistance.get(distance).add(child);
+                best = distance;
+            }
+            if (best > 0) {
+                walk(child, query, maxEdits, row, nextRow, next, best, byDistance);
+            }
+        }
+    }
+
+    /**
+     * Heaviest phrases below the given nodes, best first - stops at the limit
+     */
+    private static void collect(List<Node> nodes, int limit, Set<Phrase> seen, List<Suggestion> suggestions) {
+        // Nodes and phrases in one queue, both by (maximum) weight
+        PriorityQueue<Object> queue = new PriorityQueue<>(Comparator.comparingInt(SuggestionTrie::weightOf).reversed()
+                .thenComparing(item -> item instanceof Phrase phrase ? phrase.text.length() : 0));
+        queue.addAll(nodes);
+        while (!queue.isEmpty() && suggestions.size() < limit) {
+            Object item = queue.poll();
+            if (item instanceof Phrase phrase) {
+                if (seen.add(phrase)) {
+                    suggestions.add(new Suggestion(phrase.text, phrase.kind, phrase.value, phrase.weight));
+                }
+                continue;
+            }
+            Node node = (Node) item;
+            queue.addAll(Arrays.asList(node.phrases));
+            for (int c = 0; c < node.size; c++) {
+                queue.add(node.children[c]);
+            }
+        }
+    }
+
+    private static int weightOf(Object item) {
+        return item instanceof Phrase phrase ? phrase.weight : ((Node) item).maxWeight;
+    }
+
+    private static String[] keys(String[] tokens) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < tokens.length && i < MAX_WORD_STARTS; i++) {
+            String key = String.join(" ", Arrays.asList(tokens).subList(i, tokens.length));
+            keys.add(key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key);
+        }
+        return keys.toArray(new String[0]);
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        return node;
+    }
+
+    private Node node(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+        }
+        return node;
+    }
+
+    private void raise(String key, int weight) {
+        Node node = root;
+        node.maxWeight = Math.max(node.maxWeight, weight);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.child(key.charAt(i));
+            node.maxWeight = Math.max(node.maxWeight, weight);
+        }
+    }
+
+    /**
+     * The phrase got lighter or is gone: recompute maxima bottom-up, pruning empty nodes
+     */
+    private void lower(String key, Phrase phrase) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].child(key.charAt(i));
+        }
+        if (phrase.weight == 0) {
+            path[key.length()].removePhrase(phrase);
+        }
+        for (int i = key.length(); i >= 0; i--) {
+            Node node = path[i];
+            if (i > 0 && node.size == 0 && node.phrases.length == 0) {
+                path[i - 1].removeChild(key.charAt(i - 1));
+                continue;
+            }
+            node.recomputeMaxWeight();
+        }
+    }
+
+    private static final class Phrase {
+
+        private final String text;
+        private final Kind kind;
+        private final String value;
+        private final String[] keys;
+        private int weight;
+
+        Phrase(String text, Kind kind, String value, String[] keys) {
+            this.text = text;
+            this.kind = kind;
+            this.value = value;
+            this.keys = keys;
+        }
+    }
+
+    /**
+     * Children in sorted parallel arrays - most nodes have one or two
+     */
+    private static final class Node {
+
+        private static final char[] NO_LABELS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final Phrase[] NO_PHRASES = new Phrase[0];
+
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private int size;
+        private Phrase[] phrases = NO_PHRASES;
+        private int maxWeight;
+
+        Node child(char label) {
+            int index = Arrays.binarySearch(labels, 0, size, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childOrCreate(char label) {
+            int index = Arrays.binarySearch(labels, 0, size, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            if (size == labels.length) {
+                int capacity = Math.max(2, size * 2);
+                labels = Arrays.copyOf(labels, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(labels, insertAt, labels, insertAt + 1, size - insertAt);
+            System.arraycopy(children, insertAt, children, insertAt + 1, size - insertAt);
+            Node child = new Node();
+            labels[insertAt] = label;
+            children[insertAt] = child;
+            size++;
+            return child;
+        }
+
+        void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, 0, size, label);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(labels, index + 1, labels, index, size - index - 1);
+            System.arraycopy(children, index + 1, children, index, size - index - 1);
+            children[--size] = null;
+        }
+
+        void addPhrase(Phrase phrase) {
+            phrases = Arrays.copyOf(phrases, phrases.length + 1);
+            phrases[phrases.length - 1] = phrase;
+        }
+
+        void removePhrase(Phrase phrase) {
+            for (int i = 0; i < phrases.length; i++) {
+                if (phrases[i] == phrase) {
+                    Phrase[] remaining = new Phrase[phrases.length - 1];
+                    System.arraycopy(phrases, 0, remaining, 0, i);
+                    System.arraycopy(phrases, i + 1, remaining, i, phrases.length - i - 1);
+                    phrases = remaining.length == 0 ? NO_PHRASES : remaining;
+                    return;
+                }
+            }
+        }
+
+        void recomputeMaxWeight() {
+            int max = 0;
+            for (Phrase phrase : phrases) {
+                max = Math.max(max, phrase.weight);
+            }
+            for (int c = 0; c < size; c++) {
+                max = Math.max(max, children[c].maxWeight);
+            }
+            maxWeight = max;
+        }
+    }
+}
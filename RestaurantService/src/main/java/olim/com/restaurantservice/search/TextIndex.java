@@ -0,0 +1,452 @@
+package olim.com.restaurantservice.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Text Index
+ *
+ * In-memory full-text index over one short text field per document (a name, an address), with an
+ * optional group per document (e.g. the restaurant of a menu item) that searches can be limited to.
+ * Text is normalized (lower case, accents stripped) and split into tokens. Posting lists point
+ * from text to documents:
+ * - tokens, kept sorted so short query terms can be matched as token prefixes
+ * - trigrams of every token, so terms of 3+ characters match anywhere inside a token
+ *   (intersected smallest first; ranking drops documents that have the trigrams but not the term)
+ *
+ * Documents are numbered in insertion order, so posting lists are sorted int arrays that only
+ * ever get appended to, and intersect with galloping search. An update gets a new number and
+ * leaves the old one as a tombstone; the lists are compacted once tombstones pile up.
+ *
+ * Every query term must match (AND). Results are ranked by how well each term matched - whole
+ * token, token prefix, inside a token - with a bonus when the text starts with the first term,
+ * then shorter texts first.
+ *
+ * Thread-safe: many concurrent searches, writes take a short exclusive lock.
+ */
+public class TextIndex {
+
+    private static final int GRAM = 3;
+    private static final long NO_GROUP = Long.MIN_VALUE;
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 1024;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Comparator<Hit> BEST_FIRST = Comparator.comparingInt(Hit::score).reversed()
+            .thenComparingInt(Hit::length)
+            .thenComparingLong(Hit::id);
+
+    // Indexed by document number; tokens are null for removed / replaced documents
+    private long[] ids = new long[1024];
+    private long[] groups = new long[1024];
+    private int[] lengths = new int[1024];
+    private String[][] documentTokens = new String[1024][];
+    private int nextNumber;
+    private int tombstones;
+
+    private final Map<Long, Integer> numbers = new HashMap<>();
+    private final NavigableMap<String, Postings> tokenPostings = new TreeMap<>();
+    private final Map<String, Postings> gramPostings = new HashMap<>();
+    private final Map<Long, Postings> groupPostings = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Add or replace a document
+     */
+    public void put(long id, String text) {
+        put(id, NO_GROUP, text);
+    }
+
+    /**
+     * Add or replace a document belonging to a group
+     */
+    public void put(long id, long group, String text) {
+        String[] tokens = tokenize(text);
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            if (tokens.length > 0) {
+                add(id, group, tokens);
+            }
+            if (tombstones >= MIN_TOMBSTONES_TO_COMPACT && tombstones > numbers.size()) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove every document of a group
+     */
+    public void removeGroup(long group) {
+        lock.writeLock().lock();
+        try {
+            Postings members = groupPostings.remove(group);
+            if (members == null) {
+                return;
+            }
+            for (int i = 0; i < members.size; i++) {
+                int number = members.values[i];
+                if (documentTokens[number] != null) {
+                    numbers.remove(ids[number]);
+                    documentTokens[number] = null;
+                    tombstones++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return numbers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best matching documents, best first
+     */
+    public List<Long> search(String query, int limit) {
+        return search(query, NO_GROUP, limit);
+    }
+
+    /**
+     * Best matching documents of a group, best first
+     */
+    public List<Long> search(String query, long group, int limit) {
+        String[] terms = tokenize(query);
+        if (terms.length == 0 || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int[] candidates = null;
+            if (group != NO_GROUP) {
+                Postings members = groupPostings.get(group);
+                if (members == null) {
+                    return List.of();
+                }
+                candidates = Arrays.copyOf(members.values, members.size);
+            }
+            // Longest term first - it usually has the shortest posting lists
+            String[] ordered = terms.clone();
+            Arrays.sort(ordered, Comparator.comparingInt(String::length).reversed());
+            for (String term : ordered) {
+                candidates = match(term, candidates);
+                if (candidates.length == 0) {
+                    return List.of();
+                }
+            }
+            return rank(terms, candidates, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lower case, accents stripped, split on anything that isn't a letter or digit
+     */
+    static String[] tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return new String[0];
+        }
+        if (isAscii(text)) {
+            return tokenizeAscii(text); // Most names - skips the Unicode normalization
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase();
+        return SEPARATORS.splitAsStream(normalized)
+                .filter(token -> !token.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 128) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String[] tokenizeAscii(String text) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letterOrDigit = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letterOrDigit && start < 0) {
+                start = i;
+            } else if (!letterOrDigit && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    private int[] match(String term, int[] within) {
+        if (term.length() < GRAM) {
+            // Too short for trigrams - match as a token prefix
+            if (within != null) {
+                // Already narrowed down (to a group, by longer terms) - cheaper to check the documents
+                return Arrays.stream(within).filter(number -> startsWithTerm(documentTokens[number], term)).toArray();
+            }
+            BitSet matches = new BitSet(nextNumber);
+            for (Postings postings : tokenPostings.subMap(term, true, term + Character.MAX_VALUE, true).values()) {
+                for (int i = 0; i < postings.size; i++) {
+                    matches.set(postings.values[i]);
+                }
+            }
+            return live(matches.stream().toArray());
+        }
+
+        List<Postings> lists = new ArrayList<>();
+        for (String gram : grams(term)) {
+            Postings postings = gramPostings.get(gram);
+            if (postings == null) {
+                return new int[0];
+            }
+            lists.add(postings);
+        }
+        lists.sort(Comparator.comparingInt(postings -> postings.size));
+
+        int[] result = within;
+        for (Postings postings : lists) {
+            result = result == null ? Arrays.copyOf(postings.values, postings.size) : intersect(result, postings);
+            if (result.length == 0) {
+                return result;
+            }
+        }
+        // All trigrams present doesn't mean the term is (e.g. "cabc" in "cabxabc") - scoring drops those
+        return live(result);
+    }
+
+    private int[] live(int[] candidates) {
+        int count = 0;
+        for (int number : candidates) {
+            if (documentTokens[number] != null) {
+                candidates[count++] = number;
+            }
+        }
+        return count == candidates.length ? candidates : Arrays.copyOf(candidates, count);
+    }
+
+    private List<Long> rank(String[] terms, int[] candidates, int limit) {
+        // Keep the best `limit` hits, worst on top of the heap
+        PriorityQueue<Hit> best = new PriorityQueue<>(Math.min(limit, candidates.length) + 1, BEST_FIRST.reversed());
+        for (int number : candidates) {
+            int score = score(terms, documentTokens[number]);
+            if (score == 0) {
+                continue;
+            }
+            if (best.size() == limit) {
+                Hit worst = best.peek();
+                if (score < worst.score() || (score == worst.score() && lengths[number] >= worst.length())) {
+                    continue; // Can't make the cut - skip without allocating
+                }
+            }
+            best.add(new Hit(ids[number], score, lengths[number]));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(BEST_FIRST);
+        return hits.stream().map(Hit::id).toList();
+    }
+
+    private static int[] intersect(int[] candidates, Postings postings) {
+        int[] result = new int[candidates.length];
+        int count = 0;
+        int from = 0;
+        for (int number : candidates) {
+            from = advance(postings.values, from, postings.size, number);
+            if (from == postings.size) {
+                break;
+            }
+            if (postings.values[from] == number) {
+                result[count++] = number;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * First index in [from, to) whose value is >= target (galloping, then binary search)
+     */
+    private static int advance(int[] values, int from, int to, int target) {
+        if (from >= to || values[from] >= target) {
+            return from;
+        }
+        int bound = 1;
+        while (from + bound < to && values[from + bound] < target) {
+            bound <<= 1;
+        }
+        int index = Arrays.binarySearch(values, from + (bound >> 1) + 1, Math.min(from + bound + 1, to), target);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static int score(String[] terms, String[] tokens) {
+        int score = 0;
+        for (String term : terms) {
+            int best = 0;
+            for (String token : tokens) {
+                if (token.equals(term)) {
+                    best = 3;
+                    break;
+                }
+                if (token.startsWith(term)) {
+                    best = Math.max(best, 2);
+                } else if (best == 0 && token.contains(term)) {
+                    best = 1;
+                }
+            }
+            if (best == 0) {
+                return 0; // Trigram false positive
+            }
+            score += best;
+        }
+        return tokens[0].startsWith(terms[0]) ? score + 1 : score;
+    }
+
+    private static boolean startsWithTerm(String[] tokens, String term) {
+        if (tokens == null) {
+            return false;
+        }
+        for (String token : tokens) {
+            if (token.startsWith(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int length(String[] tokens) {
+        int length = 0;
+        for (String token : tokens) {
+            length += token.length();
+        }
+        return length;
+    }
+
+    private static Set<String> grams(String token) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= token.length(); i++) {
+            grams.add(token.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private void add(long id, long group, String[] tokens) {
+        if (nextNumber == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            groups = Arrays.copyOf(groups, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            documentTokens = Arrays.copyOf(documentTokens, capacity);
+        }
+        int number = nextNumber++;
+        ids[number] = id;
+        groups[number] = group;
+        lengths[number] = length(tokens);
+        documentTokens[number] = tokens;
+        numbers.put(id, number);
+
+        // Each list gets the number at most once, and numbers only grow - lists stay sorted
+        Set<String> documentGrams = new LinkedHashSet<>();
+        for (String token : new LinkedHashSet<>(Arrays.asList(tokens))) {
+            tokenPostings.computeIfAbsent(token, key -> new Postings()).add(number);
+            documentGrams.addAll(grams(token));
+        }
+        for (String gram : documentGrams) {
+            gramPostings.computeIfAbsent(gram, key -> new Postings()).add(number);
+        }
+        if (group != NO_GROUP) {
+            groupPostings.computeIfAbsent(group, key -> new Postings()).add(number);
+        }
+    }
+
+    private void removeInternal(long id) {
+        Integer number = numbers.remove(id);
+        if (number != null) {
+            documentTokens[number] = null;
+            tombstones++;
+        }
+    }
+
+    /**
+     * Renumber the live documents and rebuild the posting lists without tombstones
+     */
+    private void compact() {
+        long[] oldIds = ids;
+        long[] oldGroups = groups;
+        String[][] oldTokens = documentTokens;
+        int oldCount = nextNumber;
+
+        int capacity = Math.max(1024, Integer.highestOneBit(Math.max(1, numbers.size())) * 2);
+        ids = new long[capacity];
+        groups = new long[capacity];
+        lengths = new int[capacity];
+        documentTokens = new String[capacity][];
+        nextNumber = 0;
+        tombstones = 0;
+        numbers.clear();
+        tokenPostings.clear();
+        gramPostings.clear();
+        groupPostings.clear();
+
+        for (int number = 0; number < oldCount; number++) {
+            if (oldTokens[number] != null) {
+                add(oldIds[number], oldGroups[number], oldTokens[number]);
+            }
+        }
+    }
+
+    /**
+     * Growable sorted int list
+     */
+    private static final class Postings {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    private record Hit(long id, int score, int length) {
+    }
+}
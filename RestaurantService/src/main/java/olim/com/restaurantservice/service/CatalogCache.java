@@ -0,0 +1,207 @@
+package olim.com.restaurantservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import olim.com.restaurantservice.util.EarlyRefreshCache;
+import olim.com.restaurantservice.util.PayloadSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Catalog Cache
+ *
+ * Read-through cache for the public catalog reads: restaurant detail (with its available menu),
+ * available menus and the open-restaurant list. Responses are held as pre-rendered
+ * {@link PayloadSnapshot}s (the full response body as JSON, gzipped JSON and Smile bytes), built
+ * from DTOs - never entities, so nothing lazy is touched after the loading transaction.
+ * Loaders run in their own read-only transaction, so callers should not hold one - a hit then
+ * needs no database connection at all.
+ *
+ * ETags come from the rendered content itself (see {@link PayloadSnapshot}), so every instance
+ * hands out the same tag for the same content, and a tag stops matching once the content it was
+ * rendered from changed - whichever instance the write went through. If-None-Match is answered
+ * from the snapshot this instance holds (no database); a write on another instance reaches it
+ * when the entry expires or is refreshed early, so a 304 is stale by at most ttl-ms, the same
+ * bound as the cached body. Nothing is answered from a tag while the entry isn't cached.
+ *
+ * Write paths evict exactly the entries they affect, after their transaction commits.
+ * Metrics: catalog.cache.requests{cache, result}, catalog.cache.invalidations{cache},
+ * catalog.cache.load.failures{cache} and catalog.cache.size{cache}.
+ */
+@Component
+public class CatalogCache {
+
+    private static final String OPEN_RESTAURANTS_KEY = "open";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Value("${restaurant.catalog-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${restaurant.catalog-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${restaurant.catalog-cache.early-refresh-beta:1.0}")
+    private double beta;
+
+    @Value("${restaurant.catalog-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private TransactionTemplate readOnlyTransaction;
+    private EarlyRefreshCache<Long, PayloadSnapshot> restaurantDetails;
+    private EarlyRefreshCache<Long, PayloadSnapshot> availableMenus;
+    private EarlyRefreshCache<String, PayloadSnapshot> openRestaurants;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        restaurantDetails = register("restaurant-detail", new EarlyRefreshCache<>(ttlMs, beta, maxEntries));
+        availableMenus = register("available-menu", new EarlyRefreshCache<>(ttlMs, beta, maxEntries));
+        openRestaurants = register("open-restaurants", new EarlyRefreshCache<>(ttlMs, beta, 1));
+    }
+
+    /**
+     * @param loader builds the response body, or returns null if the restaurant doesn't exist
+     */
+    public PayloadSnapshot getRestaurantDetail(Long restaurantId, Supplier<?> loader) {
+        Supplier<PayloadSnapshot> snapshot = snapshot(loader);
+        return enabled ? restaurantDetails.get(restaurantId, snapshot) : snapshot.get();
+    }
+
+    public PayloadSnapshot getAvailableMenu(Long restaurantId, Supplier<?> loader) {
+        Supplier<PayloadSnapshot> snapshot = snapshot(loader);
+        return enabled ? availableMenus.get(restaurantId, snapshot) : snapshot.get();
+    }
+
+    public PayloadSnapshot getOpenRestaurants(Supplier<?> loader) {
+        Supplier<PayloadSnapshot> snapshot = snapshot(loader);
+        return enabled ? openRestaurants.get(OPEN_RESTAURANTS_KEY, snapshot) : snapshot.get();
+    }
+
+    /**
+     * Tag of the cached restaurant detail, or null if not cached - from memory only
+     */
+    public String getRestaurantDetailTag(Long restaurantId) {
+        return currentTag(restaurantDetails, restaurantId);
+    }
+
+    public String getAvailableMenuTag(Long restaurantId) {
+        return currentTag(availableMenus, restaurantId);
+    }
+
+    public String getOpenRestaurantsTag() {
+        return currentTag(openRestaurants, OPEN_RESTAURANTS_KEY);
+    }
+
+    /**
+     * A restaurant was created or changed
+     * Available-menu entries carry no restaurant fields, so they are kept.
+     */
+    public void evictRestaurant(Long restaurantId) {
+        afterCommit(() -> {
+            restaurantDetails.invalidate(restaurantId);
+            openRestaurants.invalidate(OPEN_RESTAURANTS_KEY);
+        });
+    }
+
+    /**
+     * A restaurant was deleted - its menu goes with it
+     */
+    public void evictDeletedRestaurant(Long restaurantId) {
+        afterCommit(() -> {
+            restaurantDetails.invalidate(restaurantId);
+            availableMenus.invalidate(restaurantId);
+            openRestaurants.invalidate(OPEN_RESTAURANTS_KEY);
+        });
+    }
+
+    /**
+     * A menu item of the restaurant was created, changed or deleted
+     */
+    public void evictMenu(Long restaurantId) {
+        afterCommit(() -> {
+            restaurantDetails.invalidate(restaurantId);
+            availableMenus.invalidate(restaurantId);
+        });
+    }
+
+    /**
+     * Evicting before commit would let a concurrent read cache the old rows again
+     */
+    private void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+
+    private Supplier<PayloadSnapshot> snapshot(Supplier<?> loader) {
+        return () -> {
+            Object body = readOnlyTransaction.execute(status -> loader.get());
+            // Rendered after the transaction - the body holds DTOs only
+            return body != null
+                    ? PayloadSnapshot.of(body, objectMapper, smileConverter.getObjectMapper())
+                    : null;
+        };
+    }
+
+    private <K> String currentTag(EarlyRefreshCache<K, PayloadSnapshot> cache, K key) {
+        if (!enabled) {
+            return null;
+        }
+        PayloadSnapshot snapshot = cache.peek(key);
+        return snapshot != null ? snapshot.getTag() : null;
+    }
+
+    private <K, V> EarlyRefreshCache<K, V> register(String name, EarlyRefreshCache<K, V> cache) {
+        FunctionCounter.builder("catalog.cache.requests", cache, EarlyRefreshCache::getHitCount)
+                .tags("cache", name, "result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("catalog.cache.requests", cache, EarlyRefreshCache::getMissCount)
+                .tags("cache", name, "result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("catalog.cache.requests", cache, EarlyRefreshCache::getEarlyRefreshCount)
+                .tags("cache", name, "result", "early-refresh")
+                .register(meterRegistry);
+        FunctionCounter.builder("catalog.cache.invalidations", cache, EarlyRefreshCache::getInvalidationCount)
+                .tag("cache", name)
+                .register(meterRegistry);
+        FunctionCounter.builder("catalog.cache.load.failures", cache, EarlyRefreshCache::getLoadFailureCount)
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder("catalog.cache.size", cache, EarlyRefreshCache::size)
+                .tag("cache", name)
+                .description("Entries held by the catalog cache")
+                .register(meterRegistry);
+        return cache;
+    }
+}
@@ -0,0 +1,472 @@
+package olim.com.restaurantservice.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import olim.com.restaurantservice.entity.MenuItem;
+import olim.com.restaurantservice.entity.Restaurant;
+import olim.com.restaurantservice.repository.MenuItemRepository;
+import olim.com.restaurantservice.repository.MenuItemRepository.MenuItemSearchFields;
+import olim.com.restaurantservice.repository.RestaurantRepository;
+import olim.com.restaurantservice.repository.RestaurantRepository.RestaurantSearchFields;
+import olim.com.restaurantservice.search.CatalogSearchEngine;
+import olim.com.restaurantservice.search.CatalogSuggestions;
+import olim.com.restaurantservice.search.ColumnarCatalog;
+import olim.com.restaurantservice.search.ColumnarCatalog.Filter;
+import olim.com.restaurantservice.search.ColumnarCatalog.Result;
+import olim.com.restaurantservice.search.ColumnarCatalog.Sort;
+import olim.com.restaurantservice.search.GeoGrid;
+import olim.com.restaurantservice.search.GeoGrid.Hit;
+import olim.com.restaurantservice.search.SuggestionTrie.Suggestion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Catalog Search
+ *
+ * Keeps the {@link CatalogSearchEngine}, the autocomplete {@link CatalogSuggestions}, the
+ * restaurant locations ({@link GeoGrid}) and the browse {@link ColumnarCatalog} in line with the
+ * database. The index is built in the background once the application is ready; until then
+ * {@link #isReady()} is false and callers search the database instead. Write paths report their changes, which are applied after their
+ * transaction commits - changes arriving while the index is being built are held back and
+ * replayed once it is (applying one twice is harmless).
+ *
+ * The restaurant locations and browse columns are built whether or not text search is enabled,
+ * as nearby search and browsing have no database fallback - they answer
+ * {@link CatalogNotReadyException} until they are.
+ *
+ * Searches return IDs best match first, see {@link #inRankOrder(List, List, Function)} for
+ * loading the rows.
+ */
+@Component
+public class CatalogSearch {
+
+    @Autowired
+    private CatalogSearchEngine engine;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${restaurant.search.enabled:true}")
+    private boolean enabled;
+
+    @Value("${restaurant.search.max-results:100}")
+    private int maxResults;
+
+    @Value("${restaurant.search.max-suggestions:10}")
+    private int maxSuggestions;
+
+    @Value("${restaurant.nearby.cell-size-km:2.0}")
+    private double cellSizeKm;
+
+    @Value("${restaurant.nearby.default-delivery-radius-km:5.0}")
+    private double defaultDeliveryRadiusKm;
+
+    private final CatalogSuggestions suggestions = new CatalogSuggestions();
+    private GeoGrid<Location> locations;
+    private final ColumnarCatalog columns = new ColumnarCatalog(Restaurant.CuisineType.values().length);
+
+    private Stage search; // Text index and suggestions
+    private final Stage listings = new Stage(true); // Restaurant locations and browse columns
+    private ExecutorService builder;
+
+    @PostConstruct
+    public void init() {
+        locations = new GeoGrid<>(cellSizeKm);
+        search = new Stage(enabled);
+    }
+
+    /**
+     * Build the index in the background once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        builder = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("catalog-search-"));
+        builder.execute(this::build);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (builder != null) {
+            builder.shutdownNow();
+        }
+    }
+
+    public boolean isReady() {
+        return search.ready;
+    }
+
+    public List<Long> searchRestaurantsByName(String query) {
+        return engine.searchRestaurantsByName(query, maxResults);
+    }
+
+    /**
+     * Most matches a search returns - more are dropped, lowest ranked first
+     */
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    public List<Long> searchRestaurantsByAddress(String query) {
+        return engine.searchRestaurantsByAddress(query, maxResults);
+    }
+
+    public List<Long> searchMenuItems(Long restaurantId, String query) {
+        return engine.searchMenuItems(restaurantId, query, maxResults);
+    }
+
+    /**
+     * Suggestions for a partly typed query, best first - none until the index is ready
+     */
+    public List<Suggestion> autocomplete(String typed, int limit) {
+        if (!search.ready) {
+            return List.of();
+        }
+        return suggestions.complete(typed, Math.min(limit, maxSuggestions));
+    }
+
+    /**
+     * Restaurants delivering to the point, nearest first
+     *
+     * @param cuisineType only this cuisine, null for any
+     * @param openOnly only restaurants currently open
+     * @throws CatalogNotReadyException until the restaurant locations are loaded
+     */
+    public List<Hit<Location>> nearby(double latitude, double longitude, Restaurant.CuisineType cuisineType,
+                                      boolean openOnly, double maxDistanceKm, int limit) {
+        if (!listings.ready) {
+            throw new CatalogNotReadyException("Nearby search");
+        }
+        return locations.reaching(latitude, longitude, maxDistanceKm,
+                location -> (!openOnly || location.open())
+                        && (cuisineType == null || location.cuisineType() == cuisineType),
+                Math.min(limit, maxResults));
+    }
+
+    /**
+     * One page of restaurants matching the filter, with facet counts over all matches
+     *
+     * @throws CatalogNotReadyException until the browse columns are loaded
+     */
+    public Result browse(Filter filter, Sort sort, int offset, int limit) {
+        if (!listings.ready) {
+            throw new CatalogNotReadyException("Browsing");
+        }
+        return columns.query(filter, sort, offset, Math.min(limit, maxResults));
+    }
+
+    /**
+     * A restaurant was created or changed (including opened / closed)
+     */
+    public void restaurantSaved(Restaurant restaurant) {
+        long id = restaurant.getId();
+        String name = restaurant.getName();
+        String address = restaurant.getAddress();
+        String cuisineType = cuisineType(restaurant.getCuisineType());
+        Double latitude = restaurant.getLatitude();
+        Double longitude = restaurant.getLongitude();
+        Double deliveryRadiusKm = restaurant.getDeliveryRadiusKm();
+        boolean open = restaurant.isOpen();
+        Restaurant.CuisineType cuisine = restaurant.getCuisineType();
+        BigDecimal averageRating = restaurant.getAverageRating();
+        BigDecimal deliveryFee = restaurant.getDeliveryFee();
+        BigDecimal minimumOrder = restaurant.getMinimumOrder();
+        afterCommit(search, () -> {
+            engine.indexRestaurant(id, name, address);
+            suggestions.putRestaurant(id, name, cuisineType);
+        });
+        afterCommit(listings, () -> {
+            putLocation(locations, id, latitude, longitude, deliveryRadiusKm, open, cuisine);
+            putColumns(id, cuisine, open, averageRating, deliveryFee, minimumOrder);
+        });
+    }
+
+    /**
+     * A restaurant was deleted - its menu goes with it
+     */
+    public void restaurantDeleted(Long restaurantId) {
+        afterCommit(search, () -> {
+            engine.removeRestaurant(restaurantId);
+            suggestions.removeRestaurant(restaurantId);
+        });
+        afterCommit(listings, () -> {
+            locations.remove(restaurantId);
+            columns.remove(restaurantId);
+        });
+    }
+
+    /**
+     * A menu item was created or changed (including made available / unavailable)
+     */
+    public void menuItemSaved(MenuItem menuItem) {
+        long restaurantId = menuItem.getRestaurant().getId();
+        long id = menuItem.getId();
+        String name = menuItem.getName();
+        afterCommit(search, () -> {
+            engine.indexMenuItem(restaurantId, id, name);
+            suggestions.putMenuItem(restaurantId, id, name);
+        });
+        afterCommit(listings, () -> refreshVegetarian(restaurantId));
+    }
+
+    /**
+     * Menu items were added in bulk - indexed together, after one commit
+     *
+     * @param namesById the new items' names
+     */
+    public void menuItemsImported(long restaurantId, Map<Long, String> namesById) {
+        Map<Long, String> names = Map.copyOf(namesById);
+        afterCommit(search, () -> names.forEach((id, name) -> {
+            engine.indexMenuItem(restaurantId, id, name);
+            suggestions.putMenuItem(restaurantId, id, name);
+        }));
+        afterCommit(listings, () -> refreshVegetarian(restaurantId));
+    }
+
+    /**
+     * Menu items of the restaurant were made available / unavailable in bulk
+     */
+    public void menuAvailabilityChanged(long restaurantId) {
+        afterCommit(listings, () -> refreshVegetarian(restaurantId));
+    }
+
+    public void menuItemDeleted(MenuItem menuItem) {
+        long restaurantId = menuItem.getRestaurant().getId();
+        long id = menuItem.getId();
+        afterCommit(search, () -> {
+            engine.removeMenuItem(id);
+            suggestions.removeMenuItem(restaurantId, id);
+        });
+        afterCommit(listings, () -> refreshVegetarian(restaurantId));
+    }
+
+    /**
+     * Rows in the order of the ranked IDs - rows missing (e.g. deleted meanwhile) are left out
+     */
+    public static <T> List<T> inRankOrder(List<Long> ids, List<T> rows, Function<T, Long> idOf) {
+        Map<Long, T> rowsById = rows.stream().collect(Collectors.toMap(idOf, Function.identity()));
+        return ids.stream()
+                .map(rowsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Restaurants without a location can't be found nearby
+     */
+    private void putLocation(GeoGrid<Location> grid, long id, Double latitude, Double longitude,
+                             Double deliveryRadiusKm, boolean open, Restaurant.CuisineType cuisineType) {
+        if (latitude == null || longitude == null) {
+            grid.remove(id);
+            return;
+        }
+        grid.put(id, latitude, longitude, deliveryRadiusKm != null ? deliveryRadiusKm : defaultDeliveryRadiusKm,
+                new Location(open, cuisineType));
+    }
+
+    private void putColumns(long id, Restaurant.CuisineType cuisineType, boolean open,
+                            BigDecimal averageRating, BigDecimal deliveryFee, BigDecimal minimumOrder) {
+        columns.put(id, cuisineType != null ? cuisineType.ordinal() : -1, open,
+                hundredths(averageRating, RoundingMode.HALF_UP), hundredths(deliveryFee, RoundingMode.HALF_UP),
+                hundredths(minimumOrder, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * Whether the restaurant offers vegetarian items depends on all its items - asked in a transaction
+     * of its own, as this runs after the writing one has committed
+     */
+    private void refreshVegetarian(long restaurantId) {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readOnlyTransaction.setReadOnly(true);
+        Boolean hasVegetarian = readOnlyTransaction.execute(status ->
+                menuItemRepository.existsByRestaurantIdAndVegetarianTrueAndAvailableTrue(restaurantId));
+        columns.setVegetarian(restaurantId, Boolean.TRUE.equals(hasVegetarian));
+    }
+
+    /**
+     * Amount in hundredths, as the browse catalog keeps them - null counts as 0
+     */
+    static int hundredths(BigDecimal value, RoundingMode rounding) {
+        return value != null ? value.movePointRight(2).setScale(0, rounding).intValue() : 0;
+    }
+
+    private static String cuisineType(Restaurant.CuisineType cuisineType) {
+        return cuisineType != null ? cuisineType.name() : null;
+    }
+
+    private void build() {
+        buildListings();
+        if (search.enabled) {
+            buildSearch();
+        }
+    }
+
+    private void buildListings() {
+        long start = System.currentTimeMillis();
+        AtomicLong restaurants = new AtomicLong();
+        try {
+            TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+            readOnlyTransaction.setReadOnly(true);
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<RestaurantSearchFields> rows = restaurantRepository.streamSearchFields()) {
+                    rows.forEach(restaurant -> {
+                        putLocation(locations, restaurant.getId(), restaurant.getLatitude(), restaurant.getLongitude(),
+                                restaurant.getDeliveryRadiusKm(), Boolean.TRUE.equals(restaurant.getOpen()),
+                                restaurant.getCuisineType());
+                        putColumns(restaurant.getId(), restaurant.getCuisineType(),
+                                Boolean.TRUE.equals(restaurant.getOpen()), restaurant.getAverageRating(),
+                                restaurant.getDeliveryFee(), restaurant.getMinimumOrder());
+                        restaurants.incrementAndGet();
+                    });
+                }
+                menuItemRepository.findRestaurantIdsWithVegetarianItems()
+                        .forEach(restaurantId -> columns.setVegetarian(restaurantId, true));
+            });
+
+            listings.built();
+            System.out.println("📍 Restaurant locations and browse columns loaded for " + restaurants.get()
+                    + " restaurants in " + (System.currentTimeMillis() - start) + " ms");
+
+        } catch (Exception e) {
+            listings.failed();
+            System.err.println("⚠️ Restaurant listings failed to load: " + e.getMessage()
+                    + " - nearby search and browsing are unavailable");
+        }
+    }
+
+    private void buildSearch() {
+        long start = System.currentTimeMillis();
+        AtomicLong restaurants = new AtomicLong();
+        AtomicLong menuItems = new AtomicLong();
+        try {
+            TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+            readOnlyTransaction.setReadOnly(true);
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<RestaurantSearchFields> rows = restaurantRepository.streamSearchFields()) {
+                    rows.forEach(restaurant -> {
+                        engine.indexRestaurant(restaurant.getId(), restaurant.getName(), restaurant.getAddress());
+                        suggestions.putRestaurant(restaurant.getId(), restaurant.getName(),
+                                cuisineType(restaurant.getCuisineType()));
+                        restaurants.incrementAndGet();
+                    });
+                }
+                try (Stream<MenuItemSearchFields> rows = menuItemRepository.streamSearchFields()) {
+                    rows.forEach(menuItem -> {
+                        engine.indexMenuItem(menuItem.getRestaurantId(), menuItem.getId(), menuItem.getName());
+                        suggestions.putMenuItem(menuItem.getRestaurantId(), menuItem.getId(), menuItem.getName());
+                        menuItems.incrementAndGet();
+                    });
+                }
+            });
+
+            search.built();
+            System.out.println("🔎 Catalog search index built with " + restaurants.get() + " restaurants and "
+                    + menuItems.get() + " menu items in " + (System.currentTimeMillis() - start) + " ms");
+
+        } catch (Exception e) {
+            search.failed();
+            System.err.println("⚠️ Catalog search index build failed: " + e.getMessage()
+                    + " - searching the database instead");
+        }
+    }
+
+    /**
+     * Applying before commit would index changes that may still roll back
+     */
+    private void afterCommit(Stage stage, Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stage.apply(update);
+                }
+            });
+        } else {
+            stage.apply(update);
+        }
+    }
+
+    /**
+     * Part of the index built in the background
+     * Changes committed before it is built are held back and replayed over what was read once it is.
+     */
+    private static class Stage {
+        private final List<Runnable> pendingUpdates = new ArrayList<>(); // Guarded by this
+        private volatile boolean enabled; // Also switched off if the build fails
+        private volatile boolean ready;
+
+        Stage(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        void apply(Runnable update) {
+            if (!ready) {
+                synchronized (this) {
+                    if (!enabled) {
+                        return;
+                    }
+                    if (!ready) {
+                        pendingUpdates.add(update);
+                        return;
+                    }
+                }
+            }
+            update.run();
+        }
+
+        synchronized void built() {
+            // The later state wins either way
+            pendingUpdates.forEach(Runnable::run);
+            pendingUpdates.clear();
+            ready = true;
+        }
+
+        synchronized void failed() {
+            enabled = false;
+            pendingUpdates.clear();
+        }
+    }
+
+    /**
+     * What nearby search filters on
+     */
+    public record Location(boolean open, Restaurant.CuisineType cuisineType) {
+    }
+
+    /**
+     * A part of the catalog without a database fallback is still loading (or failed to)
+     */
+    public static class CatalogNotReadyException extends RuntimeException {
+        public CatalogNotReadyException(String feature) {
+            super(feature + " is not available yet, please retry shortly");
+        }
+    }
+}
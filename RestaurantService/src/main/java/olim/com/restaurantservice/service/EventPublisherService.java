@@ -0,0 +1,98 @@
+package olim.com.restaurantservice.service;
+
+import olim.com.restaurantservice.entity.Restaurant;
+import olim.com.restaurantservice.event.MenuUpdatedEvent;
+import olim.com.restaurantservice.event.RestaurantOwnershipEvent;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Event Publisher Service
+ *
+ * Publishes restaurant and menu events to RabbitMQ
+ */
+@Service
+public class EventPublisherService {
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Value("${bytebites.messaging.exchange}")
+    private String exchange;
+
+    @Value("${bytebites.messaging.routing-keys.restaurant-created}")
+    private String restaurantCreatedRoutingKey;
+
+    @Value("${bytebites.messaging.routing-keys.restaurant-deleted}")
+    private String restaurantDeletedRoutingKey;
+
+    @Value("${bytebites.messaging.routing-keys.menu-updated:restaurant.menu.updated}")
+    private String menuUpdatedRoutingKey;
+
+    /**
+     * Publish a RestaurantOwnershipEvent for a new restaurant
+     */
+    public void publishRestaurantCreatedEvent(Restaurant restaurant) {
+        publishAfterCommit(restaurantCreatedRoutingKey,
+                new RestaurantOwnershipEvent(restaurant.getId(), restaurant.getOwnerId(), false, LocalDateTime.now()));
+    }
+
+    /**
+     * Publish a RestaurantOwnershipEvent for a deleted restaurant
+     */
+    public void publishRestaurantDeletedEvent(Restaurant restaurant) {
+        publishAfterCommit(restaurantDeletedRoutingKey,
+                new RestaurantOwnershipEvent(restaurant.getId(), restaurant.getOwnerId(), true, LocalDateTime.now()));
+    }
+
+    /**
+     * Publish one MenuUpdatedEvent for a bulk change of menu items
+     *
+     * @param change AVAILABILITY, PRICE or CATEGORY
+     */
+    public void publishMenuUpdatedEvent(Long restaurantId, String change, List<Long> menuItemIds) {
+        publishAfterCommit(menuUpdatedRoutingKey, restaurantId,
+                new MenuUpdatedEvent(restaurantId, change, List.copyOf(menuItemIds), LocalDateTime.now()));
+    }
+
+    private void publishAfterCommit(String routingKey, RestaurantOwnershipEvent event) {
+        publishAfterCommit(routingKey, event.getRestaurantId(), event);
+    }
+
+    /**
+     * Ownership is used for authorization elsewhere, so only announce changes that were committed
+     */
+    private void publishAfterCommit(String routingKey, Long restaurantId, Object event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(routingKey, restaurantId, event);
+                }
+            });
+        } else {
+            publish(routingKey, restaurantId, event);
+        }
+    }
+
+    private void publish(String routingKey, Long restaurantId, Object event) {
+        String eventType = event.getClass().getSimpleName();
+        try {
+            rabbitTemplate.convertAndSend(exchange, routingKey, event);
+
+            System.out.println("📨 Published " + eventType + " (" + routingKey + ") for restaurant ID: "
+                    + restaurantId);
+
+        } catch (Exception e) {
+            System.err.println("❌ Failed to publish " + eventType + ": " + e.getMessage());
+            // Don't throw exception - event publishing failure shouldn't break restaurant management
+        }
+    }
+}
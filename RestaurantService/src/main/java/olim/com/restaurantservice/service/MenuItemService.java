@@ -1,15 +1,46 @@
 package olim.com.restaurantservice.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import olim.com.restaurantservice.dto.MenuItemDto.CreateMenuItemRequest;
+import olim.com.restaurantservice.dto.MenuItemDto.SimpleMenuItemResponse;
+import olim.com.restaurantservice.dto.RestaurantDto.ApiResponse;
 import olim.com.restaurantservice.entity.MenuItem;
 import olim.com.restaurantservice.entity.Restaurant;
 import olim.com.restaurantservice.repository.MenuItemRepository;
 import olim.com.restaurantservice.repository.RestaurantRepository;
+import olim.com.restaurantservice.util.CsvReader;
+import olim.com.restaurantservice.util.PayloadSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
 
 /**
  * MenuItem Service - Business logic for menu item operations
@@ -24,6 +55,36 @@ public class MenuItemService {
     @Autowired
     private RestaurantRepository restaurantRepository;
 
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private CatalogSearch catalogSearch;
+
+    @Autowired(required = false) // Optional - menus can be managed without RabbitMQ
+    private EventPublisherService eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${restaurant.menu-import.batch-size:500}")
+    private int importBatchSize;
+
+    @Value("${restaurant.menu-import.max-rows:10000}")
+    private int importMaxRows;
+
+    @Value("${restaurant.menu-import.max-errors:100}")
+    private int importMaxErrors;
+
+    @Value("${restaurant.menu-bulk.max-items:1000}")
+    private int bulkMaxItems;
+
     public List<MenuItem> getMenuItemsByRestaurant(Long restaurantId) {
         return menuItemRepository.findByRestaurantId(restaurantId);
     }
@@ -32,6 +93,25 @@ public class MenuItemService {
         return menuItemRepository.findByRestaurantIdAndAvailableTrue(restaurantId);
     }
 
+    /**
+     * Rendered response for the public menu view, from the catalog cache
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // The cache loads in its own read-only transaction
+    public PayloadSnapshot getAvailableMenuSnapshot(Long restaurantId) {
+        return catalogCache.getAvailableMenu(restaurantId, () -> ApiResponse.success("Menu retrieved successfully",
+                menuItemRepository.findByRestaurantIdAndAvailableTrue(restaurantId).stream()
+                        .map(SimpleMenuItemResponse::new)
+                        .toList()));
+    }
+
+    /**
+     * Current ETag source of the available menu (null if not cached) - from memory
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String getAvailableMenuTag(Long restaurantId) {
+        return catalogCache.getAvailableMenuTag(restaurantId);
+    }
+
     public List<MenuItem> getMenuItemsByCategory(Long restaurantId, MenuItem.Category category) {
         return menuItemRepository.findByRestaurantIdAndCategory(restaurantId, category);
     }
@@ -40,8 +120,15 @@ public class MenuItemService {
         return menuItemRepository.findByRestaurantIdAndVegetarianTrue(restaurantId);
     }
 
+    /**
+     * Best matches first, from the search index - the database until the index is ready
+     */
     public List<MenuItem> searchMenuItems(Long restaurantId, String name) {
-        return menuItemRepository.findByRestaurantIdAndNameContainingIgnoreCase(restaurantId, name);
+        if (!catalogSearch.isReady()) {
+            return menuItemRepository.findByRestaurantIdAndNameContainingIgnoreCase(restaurantId, name);
+        }
+        List<Long> ids = catalogSearch.searchMenuItems(restaurantId, name);
+        return CatalogSearch.inRankOrder(ids, menuItemRepository.findAllById(ids), MenuItem::getId);
     }
 
     public Optional<MenuItem> getMenuItemById(Long id) {
@@ -61,7 +148,10 @@ public class MenuItemService {
         menuItem.setRestaurant(restaurant);
         
         // Save the menu item
-        return menuItemRepository.save(menuItem);
+        catalogCache.evictMenu(restaurantId);
+        MenuItem savedMenuItem = menuItemRepository.save(menuItem);
+        catalogSearch.menuItemSaved(savedMenuItem);
+        return savedMenuItem;
     }
 
     public MenuItem updateMenuItem(Long menuItemId, MenuItem updatedMenuItem, Long ownerId) {
@@ -80,6 +170,8 @@ public class MenuItemService {
         existingMenuItem.setCategory(updatedMenuItem.getCategory());
         existingMenuItem.setVegetarian(updatedMenuItem.isVegetarian());
 
+        catalogCache.evictMenu(existingMenuItem.getRestaurant().getId());
+        catalogSearch.menuItemSaved(existingMenuItem);
         return menuItemRepository.save(existingMenuItem);
     }
 
@@ -92,6 +184,8 @@ public class MenuItemService {
         }
 
         menuItem.setAvailable(!menuItem.isAvailable());
+        catalogCache.evictMenu(menuItem.getRestaurant().getId());
+        catalogSearch.menuItemSaved(menuItem); // Browse filters on available vegetarian items
         return menuItemRepository.save(menuItem);
     }
 
@@ -104,6 +198,184 @@ public class MenuItemService {
         }
 
         menuItemRepository.delete(menuItem);
+        catalogCache.evictMenu(menuItem.getRestaurant().getId());
+        catalogSearch.menuItemDeleted(menuItem);
+    }
+
+    /**
+     * Bulk menu import, parsed and validated as the upload streams in, then inserted in JDBC batches
+     * CSV has a header row naming its columns: name, price and category are required, description
+     * and vegetarian optional. NDJSON has one create request object per line. Rows failing
+     * validation are reported and skipped, the others imported; a broken upload or going over the
+     * row limit imports nothing.
+     *
+     * No transaction while reading - a slow client would otherwise pin a pool connection. The valid
+     * rows (at most max-rows) are kept in memory and written in one short transaction at the end.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public MenuImport importMenuItems(Long restaurantId, Long ownerId, InputStream body, ImportFormat format)
+            throws IOException {
+        // Ownership checked once for the whole import
+        if (!restaurantRepository.existsByIdAndOwnerId(restaurantId, ownerId)) {
+            throw new RuntimeException("You can only add items to your own restaurant");
+        }
+
+        MenuImportBatch batch = new MenuImportBatch(restaurantId, ownerId);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        if (format == ImportFormat.CSV) {
+            CsvReader csv = new CsvReader(reader);
+            String[] header = csv.next();
+            if (header == null) {
+                throw new RuntimeException("The import is empty");
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.length; i++) {
+                columns.put(header[i].replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String required : List.of("name", "price", "category")) {
+                if (!columns.containsKey(required)) {
+                    throw new RuntimeException("The CSV header has no " + required + " column");
+                }
+            }
+            String[] record;
+            while ((record = csv.next()) != null) {
+                try {
+                    batch.add(csv.getRecordLine(), fromCsv(record, columns));
+                } catch (IllegalArgumentException e) {
+                    batch.reject(csv.getRecordLine(), e.getMessage());
+                }
+            }
+        } else {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(lineNumber, objectMapper.readValue(line, CreateMenuItemRequest.class));
+                } catch (JsonProcessingException e) {
+                    batch.reject(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+                }
+            }
+        }
+        batch.write();
+
+        System.out.println("📥 Imported " + batch.namesById.size() + " menu items for restaurant " + restaurantId
+                + " (" + batch.result.getRejected() + " rows rejected)");
+        return batch.result;
+    }
+
+    /**
+     * @throws IllegalArgumentException for values that don't parse
+     */
+    private static CreateMenuItemRequest fromCsv(String[] record, Map<String, Integer> columns) {
+        CreateMenuItemRequest request = new CreateMenuItemRequest();
+        request.setName(column(record, columns, "name"));
+        request.setDescription(column(record, columns, "description"));
+        String price = column(record, columns, "price");
+        if (price != null) {
+            try {
+                request.setPrice(new BigDecimal(price));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid price '" + price + "'");
+            }
+        }
+        String category = column(record, columns, "category");
+        if (category != null) {
+            try {
+                request.setCategory(MenuItem.Category.valueOf(category.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown category '" + category + "'");
+            }
+        }
+        String vegetarian = column(record, columns, "vegetarian");
+        if (vegetarian != null) {
+            switch (vegetarian.toLowerCase(Locale.ROOT)) {
+                case "true", "yes", "1" -> request.setVegetarian(true);
+                case "false", "no", "0" -> request.setVegetarian(false);
+                default -> throw new IllegalArgumentException("Invalid vegetarian value '" + vegetarian + "'");
+            }
+        }
+        return request;
+    }
+
+    /**
+     * Trimmed value of a column, null if missing or empty
+     */
+    private static String column(String[] record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.length) {
+            return null;
+        }
+        String value = record[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Make many menu items available / unavailable at once
+     */
+    public BulkUpdate setAvailability(Long restaurantId, Collection<Long> menuItemIds, boolean available, Long ownerId) {
+        BulkUpdate result = bulkUpdate(restaurantId, menuItemIds, ownerId, "AVAILABILITY", ids ->
+                menuItemRepository.updateAvailability(restaurantId, ids, available, LocalDateTime.now()));
+        if (result.getUpdated() > 0) {
+            catalogSearch.menuAvailabilityChanged(restaurantId); // Browse filters on available vegetarian items
+        }
+        return result;
+    }
+
+    /**
+     * Raise or lower many menu item prices by a percentage - rounded to cents
+     *
+     * @param percent e.g. 10 for +10%, -15 for -15%
+     */
+    public BulkUpdate adjustPrices(Long restaurantId, Collection<Long> menuItemIds, BigDecimal percent, Long ownerId) {
+        if (percent.compareTo(BigDecimal.valueOf(-100)) <= 0) {
+            throw new RuntimeException("Prices can't be lowered by 100% or more");
+        }
+        BigDecimal factor = BigDecimal.ONE.add(percent.movePointLeft(2));
+        return bulkUpdate(restaurantId, menuItemIds, ownerId, "PRICE", ids ->
+                menuItemRepository.scalePrices(restaurantId, ids, factor, LocalDateTime.now()));
+    }
+
+    /**
+     * Move many menu items to another category
+     */
+    public BulkUpdate changeCategory(Long restaurantId, Collection<Long> menuItemIds, MenuItem.Category category,
+                                     Long ownerId) {
+        return bulkUpdate(restaurantId, menuItemIds, ownerId, "CATEGORY", ids ->
+                menuItemRepository.updateCategory(restaurantId, ids, category, LocalDateTime.now()));
+    }
+
+    /**
+     * One ownership check, one lookup of which items belong to the restaurant, one UPDATE - then
+     * one cache invalidation and one event for the whole change
+     */
+    private BulkUpdate bulkUpdate(Long restaurantId, Collection<Long> menuItemIds, Long ownerId, String change,
+                                  ToIntFunction<List<Long>> update) {
+        Set<Long> requested = new LinkedHashSet<>(menuItemIds);
+        if (requested.isEmpty() || requested.size() > bulkMaxItems) {
+            throw new RuntimeException("Bulk updates take 1 to " + bulkMaxItems + " menu items");
+        }
+        if (!restaurantRepository.existsByIdAndOwnerId(restaurantId, ownerId)) {
+            throw new RuntimeException("You can only update items in your own restaurant");
+        }
+
+        List<Long> ids = menuItemRepository.findIdsByRestaurantIdAndIdIn(restaurantId, requested);
+        Set<Long> found = new HashSet<>(ids);
+        List<Long> notFound = requested.stream()
+                .filter(id -> !found.contains(id))
+                .toList();
+        int updated = ids.isEmpty() ? 0 : update.applyAsInt(ids);
+
+        if (updated > 0) {
+            catalogCache.evictMenu(restaurantId);
+            if (eventPublisher != null) {
+                eventPublisher.publishMenuUpdatedEvent(restaurantId, change, ids);
+            }
+        }
+        return new BulkUpdate(change, updated, notFound);
     }
 
     public boolean isMenuItemOwner(Long menuItemId, Long ownerId) {
@@ -130,6 +402,136 @@ public class MenuItemService {
         return new MenuStats(totalItems, availableItems, vegetarianItems);
     }
 
+    /**
+     * Outcome of a bulk update - notFound lists requested items that aren't on the restaurant's menu
+     */
+    public static class BulkUpdate {
+        private final String change;
+        private final int updated;
+        private final List<Long> notFound;
+
+        public BulkUpdate(String change, int updated, List<Long> notFound) {
+            this.change = change;
+            this.updated = updated;
+            this.notFound = notFound;
+        }
+
+        public String getChange() { return change; }
+        public int getUpdated() { return updated; }
+        public List<Long> getNotFound() { return notFound; }
+    }
+
+    public enum ImportFormat { CSV, NDJSON }
+
+    /**
+     * Rows of one import: validated, then inserted a batch at a time
+     */
+    private class MenuImportBatch {
+        private final Long restaurantId;
+        private final Long ownerId;
+        private final List<MenuItem> pending = new ArrayList<>();
+        private final Map<Long, String> namesById = new LinkedHashMap<>();
+        private final MenuImport result = new MenuImport(importMaxErrors);
+        private int rows;
+
+        MenuImportBatch(Long restaurantId, Long ownerId) {
+            this.restaurantId = restaurantId;
+            this.ownerId = ownerId;
+        }
+
+        void add(int line, CreateMenuItemRequest request) {
+            count();
+            if (request == null) {
+                result.reject(line, "Empty row");
+                return;
+            }
+            Set<ConstraintViolation<CreateMenuItemRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                result.reject(line, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            MenuItem menuItem = new MenuItem();
+            menuItem.setName(request.getName());
+            menuItem.setDescription(request.getDescription());
+            menuItem.setPrice(request.getPrice());
+            menuItem.setCategory(request.getCategory());
+            menuItem.setVegetarian(request.isVegetarian());
+            pending.add(menuItem);
+        }
+
+        void reject(int line, String message) {
+            count();
+            result.reject(line, message);
+        }
+
+        /**
+         * Insert every valid row in one transaction, batch-size rows per JDBC batch
+         */
+        void write() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                // Again - the restaurant may have been deleted or handed over while the upload streamed in
+                if (!restaurantRepository.existsByIdAndOwnerId(restaurantId, ownerId)) {
+                    throw new RuntimeException("You can only add items to your own restaurant");
+                }
+                for (int from = 0; from < pending.size(); from += importBatchSize) {
+                    List<MenuItem> chunk = pending.subList(from, Math.min(from + importBatchSize, pending.size()));
+                    List<Long> ids = menuItemRepository.insertAll(restaurantId, chunk);
+                    for (int i = 0; i < ids.size(); i++) {
+                        namesById.put(ids.get(i), chunk.get(i).getName());
+                    }
+                }
+                // One invalidation and one index update for the whole import, both after commit
+                catalogCache.evictMenu(restaurantId);
+                catalogSearch.menuItemsImported(restaurantId, namesById);
+            });
+            result.imported = namesById.size();
+        }
+
+        private void count() {
+            if (++rows > importMaxRows) {
+                throw new RuntimeException("Imports are limited to " + importMaxRows + " rows - nothing was imported");
+            }
+        }
+    }
+
+    /**
+     * Outcome of a bulk menu import
+     * Only the first errors are listed (see restaurant.menu-import.max-errors), all are counted.
+     */
+    public static class MenuImport {
+        private final int maxErrors;
+        private int imported;
+        private int rejected;
+        private final List<RowError> errors = new ArrayList<>();
+
+        public MenuImport(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void reject(int line, String message) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new RowError(line, message));
+            }
+        }
+
+        public int getImported() { return imported; }
+        public int getRejected() { return rejected; }
+        public List<RowError> getErrors() { return errors; }
+    }
+
+    /**
+     * A rejected row - line is where it starts in the upload, from 1
+     */
+    public record RowError(int line, String message) {
+    }
+
     public static class MenuStats {
         private final long totalItems;
         private final long availableItems;
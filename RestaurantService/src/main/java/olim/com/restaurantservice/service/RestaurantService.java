@@ -1,13 +1,38 @@
 package olim.com.restaurantservice.service;
 
+import olim.com.restaurantservice.dto.MenuItemDto.MenuItemResponse;
+import olim.com.restaurantservice.dto.RestaurantDto.ApiResponse;
+import olim.com.restaurantservice.dto.RestaurantDto.RestaurantDetailResponse;
+import olim.com.restaurantservice.dto.RestaurantDto.RestaurantPageResponse;
+import olim.com.restaurantservice.dto.RestaurantDto.RestaurantResponse;
 import olim.com.restaurantservice.entity.Restaurant;
+import olim.com.restaurantservice.repository.MenuItemRepository;
 import olim.com.restaurantservice.repository.RestaurantRepository;
+import olim.com.restaurantservice.repository.RestaurantRepository.RestaurantOwnership;
+import olim.com.restaurantservice.repository.RestaurantSort;
+import olim.com.restaurantservice.search.ColumnarCatalog;
+import olim.com.restaurantservice.search.GeoGrid.Hit;
+import olim.com.restaurantservice.search.SuggestionTrie.Suggestion;
+import olim.com.restaurantservice.service.CatalogSearch.Location;
+import olim.com.restaurantservice.util.PageCursor;
+import olim.com.restaurantservice.util.PayloadSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -16,32 +41,195 @@ public class RestaurantService {
     @Autowired
     private RestaurantRepository restaurantRepository;
 
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private CatalogSearch catalogSearch;
+
+    @Autowired(required = false) // Optional - restaurants can be managed without RabbitMQ
+    private EventPublisherService eventPublisher;
+
+    @Value("${restaurant.paging.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${restaurant.paging.max-size:100}")
+    private int maxPageSize;
+
     public List<Restaurant> getAllRestaurants() {
         return restaurantRepository.findAll();
     }
 
-    public List<Restaurant> getOpenRestaurants() {
-        return restaurantRepository.findByIsOpenTrue();
-    }
-
     public Optional<Restaurant> getRestaurantById(Long id) {
         return restaurantRepository.findById(id);
     }
 
+    /**
+     * One page of open restaurants - a keyset query, so any page costs about as much as the first
+     *
+     * @param cursor from the previous page, null for the first one
+     * @param size null for the default page size
+     */
+    public RestaurantPage getOpenRestaurants(RestaurantSort sort, String cursor, Integer size) {
+        return page(restaurantRepository.findByIsOpenTrue(sort.positionAfter(cursor), sort.sort(),
+                Limit.of(pageSize(size))), sort);
+    }
+
+    /**
+     * Rendered first page of the public listing of open restaurants (default sort and size), from the catalog cache
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // The cache loads in its own read-only transaction
+    public PayloadSnapshot getOpenRestaurantsSnapshot() {
+        return catalogCache.getOpenRestaurants(() -> ApiResponse.success("Restaurants retrieved successfully",
+                new RestaurantPageResponse(getOpenRestaurants(RestaurantSort.RATING, null, null))));
+    }
+
+    /**
+     * Current ETag source of the open-restaurant listing (null if not cached) - from memory
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String getOpenRestaurantsTag() {
+        return catalogCache.getOpenRestaurantsTag();
+    }
+
+    /**
+     * Rendered response for the public detail view (restaurant with its available menu), from the catalog cache
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // The cache loads in its own read-only transaction
+    public Optional<PayloadSnapshot> getRestaurantDetailSnapshot(Long id) {
+        return Optional.ofNullable(catalogCache.getRestaurantDetail(id, () -> restaurantRepository.findById(id)
+                .map(restaurant -> ApiResponse.success("Restaurant retrieved successfully",
+                        new RestaurantDetailResponse(restaurant,
+                                menuItemRepository.findByRestaurantIdAndAvailableTrue(id).stream()
+                                        .map(MenuItemResponse::new)
+                                        .toList())))
+                .orElse(null)));
+    }
+
+    /**
+     * Current ETag source of the restaurant detail (null if not cached) - from memory
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String getRestaurantDetailTag(Long id) {
+        return catalogCache.getRestaurantDetailTag(id);
+    }
+
     public List<Restaurant> getRestaurantsByOwner(Long ownerId) {
         return restaurantRepository.findByOwnerId(ownerId);
     }
 
+    /**
+     * Best matches first, from the search index - the database until the index is ready
+     */
     public List<Restaurant> searchRestaurantsByName(String name) {
-        return restaurantRepository.findByNameContainingIgnoreCase(name);
+        if (!catalogSearch.isReady()) {
+            return restaurantRepository.findByNameContainingIgnoreCase(name);
+        }
+        List<Long> ids = catalogSearch.searchRestaurantsByName(name);
+        return CatalogSearch.inRankOrder(ids, restaurantRepository.findAllById(ids), Restaurant::getId);
+    }
+
+    /**
+     * One page of name search results, best match first unless sorted otherwise
+     * Index matches are capped (see restaurant.search.max-results), so they are paged in memory
+     * and the page says when the cap cut them off - paging ends there.
+     *
+     * @param sort null for best match first
+     */
+    public RestaurantPage searchRestaurantsByName(String name, RestaurantSort sort, String cursor, Integer size) {
+        List<Restaurant> restaurants;
+        boolean truncated = false;
+        if (!catalogSearch.isReady()) {
+            restaurants = new ArrayList<>(restaurantRepository.findByNameContainingIgnoreCase(name));
+        } else {
+            List<Long> ids = catalogSearch.searchRestaurantsByName(name);
+            truncated = ids.size() >= catalogSearch.getMaxResults();
+            restaurants = new ArrayList<>(CatalogSearch.inRankOrder(ids, restaurantRepository.findAllById(ids), Restaurant::getId));
+        }
+        if (sort != null) {
+            restaurants.sort(sort.comparator());
+        }
+        String tag = "search-" + (sort != null ? sort.name() : "RELEVANCE");
+        int from = 0;
+        if (cursor != null) {
+            try {
+                from = Integer.parseInt(PageCursor.decode(cursor, tag, 1)[0]);
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
+        from = Math.min(Math.max(from, 0), restaurants.size());
+        int to = Math.min(from + pageSize(size), restaurants.size());
+        return new RestaurantPage(List.copyOf(restaurants.subList(from, to)), sort,
+                to < restaurants.size() ? PageCursor.encode(tag, to) : null, truncated);
     }
 
     public List<Restaurant> searchRestaurantsByAddress(String address) {
-        return restaurantRepository.findByAddressContainingIgnoreCase(address);
+        if (!catalogSearch.isReady()) {
+            return restaurantRepository.findByAddressContainingIgnoreCase(address);
+        }
+        List<Long> ids = catalogSearch.searchRestaurantsByAddress(address);
+        return CatalogSearch.inRankOrder(ids, restaurantRepository.findAllById(ids), Restaurant::getId);
+    }
+
+    /**
+     * Search box suggestions, from memory only - no transaction or connection per keystroke
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<Suggestion> autocomplete(String typed, int limit) {
+        return catalogSearch.autocomplete(typed, limit);
+    }
+
+    /**
+     * Restaurants delivering to the location, nearest first
+     */
+    public List<NearbyRestaurant> getNearbyRestaurants(double latitude, double longitude,
+                                                       Restaurant.CuisineType cuisineType, boolean openOnly,
+                                                       double maxDistanceKm, int limit) {
+        List<Hit<Location>> hits = catalogSearch.nearby(latitude, longitude, cuisineType, openOnly, maxDistanceKm, limit);
+        List<Long> ids = hits.stream().map(Hit::id).toList();
+        Map<Long, Double> distances = hits.stream().collect(Collectors.toMap(Hit::id, Hit::distanceKm));
+        return CatalogSearch.inRankOrder(ids, restaurantRepository.findAllById(ids), Restaurant::getId).stream()
+                .map(restaurant -> new NearbyRestaurant(restaurant, distances.get(restaurant.getId())))
+                .toList();
+    }
+
+    /**
+     * One page of restaurants matching the filters, with facet counts - filtered in memory
+     *
+     * @param cuisineTypes any of these cuisines, all if empty
+     * @param open / vegetarian null for either
+     */
+    public BrowseResult browseRestaurants(List<Restaurant.CuisineType> cuisineTypes, Boolean open, Boolean vegetarian,
+                                          BigDecimal minRating, BigDecimal maxDeliveryFee, BigDecimal maxMinimumOrder,
+                                          ColumnarCatalog.Sort sort, int page, int size) {
+        ColumnarCatalog.Filter filter = new ColumnarCatalog.Filter(
+                cuisineTypes.stream().mapToInt(Enum::ordinal).toArray(), open, vegetarian,
+                minRating != null ? CatalogSearch.hundredths(minRating, RoundingMode.CEILING) : null,
+                maxDeliveryFee != null ? CatalogSearch.hundredths(maxDeliveryFee, RoundingMode.FLOOR) : null,
+                maxMinimumOrder != null ? CatalogSearch.hundredths(maxMinimumOrder, RoundingMode.FLOOR) : null);
+        ColumnarCatalog.Result result = catalogSearch.browse(filter, sort,
+                (int) Math.min((long) page * size, Integer.MAX_VALUE), size);
+
+        List<Long> ids = Arrays.stream(result.ids()).boxed().toList();
+        Map<Restaurant.CuisineType, Integer> cuisineCounts = new EnumMap<>(Restaurant.CuisineType.class);
+        for (Restaurant.CuisineType cuisineType : Restaurant.CuisineType.values()) {
+            cuisineCounts.put(cuisineType, result.cuisineCounts()[cuisineType.ordinal()]);
+        }
+        return new BrowseResult(CatalogSearch.inRankOrder(ids, restaurantRepository.findAllById(ids), Restaurant::getId),
+                result.total(), cuisineCounts, result.openCount(), result.vegetarianCount());
     }
 
-    public List<Restaurant> getRestaurantsByCuisine(Restaurant.CuisineType cuisineType) {
-        return restaurantRepository.findByCuisineTypeAndIsOpenTrue(cuisineType);
+    /**
+     * One page of open restaurants of a cuisine - keyset query like {@link #getOpenRestaurants(RestaurantSort, String, Integer)}
+     */
+    public RestaurantPage getRestaurantsByCuisine(Restaurant.CuisineType cuisineType, RestaurantSort sort,
+                                                  String cursor, Integer size) {
+        return page(restaurantRepository.findByCuisineTypeAndIsOpenTrue(cuisineType, sort.positionAfter(cursor),
+                sort.sort(), Limit.of(pageSize(size))), sort);
     }
 
     public Restaurant createRestaurant(Restaurant restaurant, Long ownerId) {
@@ -49,7 +237,13 @@ public class RestaurantService {
         restaurant.setOwnerId(ownerId);
         
         // Save the restaurant
-        return restaurantRepository.save(restaurant);
+        Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        catalogCache.evictRestaurant(savedRestaurant.getId());
+        catalogSearch.restaurantSaved(savedRestaurant);
+        if (eventPublisher != null) {
+            eventPublisher.publishRestaurantCreatedEvent(savedRestaurant);
+        }
+        return savedRestaurant;
     }
 
     public Restaurant updateRestaurant(Long restaurantId, Restaurant updatedRestaurant, Long ownerId) {
@@ -67,9 +261,19 @@ public class RestaurantService {
         existingRestaurant.setAddress(updatedRestaurant.getAddress());
         existingRestaurant.setPhoneNumber(updatedRestaurant.getPhoneNumber());
         existingRestaurant.setCuisineType(updatedRestaurant.getCuisineType());
-        existingRestaurant.setDeliveryFee(updatedRestaurant.getDeliveryFee());
-        existingRestaurant.setMinimumOrder(updatedRestaurant.getMinimumOrder());
+        // Left out - kept as they are (listings sort on them, so they must not become null)
+        if (updatedRestaurant.getDeliveryFee() != null) {
+            existingRestaurant.setDeliveryFee(updatedRestaurant.getDeliveryFee());
+        }
+        if (updatedRestaurant.getMinimumOrder() != null) {
+            existingRestaurant.setMinimumOrder(updatedRestaurant.getMinimumOrder());
+        }
+        existingRestaurant.setLatitude(updatedRestaurant.getLatitude());
+        existingRestaurant.setLongitude(updatedRestaurant.getLongitude());
+        existingRestaurant.setDeliveryRadiusKm(updatedRestaurant.getDeliveryRadiusKm());
 
+        catalogCache.evictRestaurant(restaurantId);
+        catalogSearch.restaurantSaved(existingRestaurant);
         return restaurantRepository.save(existingRestaurant);
     }
 
@@ -82,6 +286,8 @@ public class RestaurantService {
         }
 
         restaurant.setOpen(!restaurant.isOpen());
+        catalogCache.evictRestaurant(restaurantId);
+        catalogSearch.restaurantSaved(restaurant); // Nearby search filters on open status
         return restaurantRepository.save(restaurant);
     }
 
@@ -94,6 +300,15 @@ public class RestaurantService {
         }
 
         restaurantRepository.delete(restaurant);
+        catalogCache.evictDeletedRestaurant(restaurantId);
+        catalogSearch.restaurantDeleted(restaurantId);
+        if (eventPublisher != null) {
+            eventPublisher.publishRestaurantDeletedEvent(restaurant);
+        }
+    }
+
+    public List<RestaurantOwnership> getAllOwnerships() {
+        return restaurantRepository.findAllOwnerships();
     }
 
     public boolean isRestaurantOwner(Long restaurantId, Long ownerId) {
@@ -109,6 +324,92 @@ public class RestaurantService {
         return new RestaurantStats(totalRestaurants, openRestaurants);
     }
 
+    private int pageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new RuntimeException("Page size must be at least 1");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    private static RestaurantPage page(Window<Restaurant> window, RestaurantSort sort) {
+        List<Restaurant> restaurants = window.getContent();
+        String nextCursor = window.hasNext() && !restaurants.isEmpty()
+                ? sort.cursorAfter(restaurants.get(restaurants.size() - 1))
+                : null;
+        return new RestaurantPage(restaurants, sort, nextCursor);
+    }
+
+    /**
+     * One page of a restaurant listing
+     */
+    public static class RestaurantPage {
+        private final List<Restaurant> restaurants;
+        private final RestaurantSort sort;
+        private final String nextCursor;
+        private final boolean truncated;
+
+        public RestaurantPage(List<Restaurant> restaurants, RestaurantSort sort, String nextCursor) {
+            this(restaurants, sort, nextCursor, false);
+        }
+
+        public RestaurantPage(List<Restaurant> restaurants, RestaurantSort sort, String nextCursor, boolean truncated) {
+            this.restaurants = restaurants;
+            this.sort = sort;
+            this.nextCursor = nextCursor;
+            this.truncated = truncated;
+        }
+
+        public List<Restaurant> getRestaurants() { return restaurants; }
+        public RestaurantSort getSort() { return sort; } // null - best match first
+        public String getNextCursor() { return nextCursor; } // null - last page
+        public boolean isTruncated() { return truncated; } // Search only - more matches than the cap
+    }
+
+    /**
+     * Restaurant with its distance from a searched location
+     */
+    public static class NearbyRestaurant {
+        private final Restaurant restaurant;
+        private final double distanceKm;
+
+        public NearbyRestaurant(Restaurant restaurant, double distanceKm) {
+            this.restaurant = restaurant;
+            this.distanceKm = distanceKm;
+        }
+
+        public Restaurant getRestaurant() { return restaurant; }
+        public double getDistanceKm() { return distanceKm; }
+    }
+
+    /**
+     * One page of browse results with facet counts over all matches
+     */
+    public static class BrowseResult {
+        private final List<Restaurant> restaurants;
+        private final int total;
+        private final Map<Restaurant.CuisineType, Integer> cuisineCounts;
+        private final int openCount;
+        private final int vegetarianCount;
+
+        public BrowseResult(List<Restaurant> restaurants, int total, Map<Restaurant.CuisineType, Integer> cuisineCounts,
+                            int openCount, int vegetarianCount) {
+            this.restaurants = restaurants;
+            this.total = total;
+            this.cuisineCounts = cuisineCounts;
+            this.openCount = openCount;
+            this.vegetarianCount = vegetarianCount;
+        }
+
+        public List<Restaurant> getRestaurants() { return restaurants; }
+        public int getTotal() { return total; }
+        public Map<Restaurant.CuisineType, Integer> getCuisineCounts() { return cuisineCounts; }
+        public int getOpenCount() { return openCount; }
+        public int getVegetarianCount() { return vegetarianCount; }
+    }
+
     /**
      * Restaurant statistics data class
      */
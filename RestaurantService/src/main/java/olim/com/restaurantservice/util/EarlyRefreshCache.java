@@ -0,0 +1,200 @@
+package olim.com.restaurantservice.util;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Early Refresh Cache
+ *
+ * Read-through cache with a TTL and two kinds of stampede protection:
+ * - a miss is loaded once, concurrent callers for the same key wait for that load
+ * - entries are refreshed probabilistically before they expire (XFetch: the closer to expiry and
+ *   the slower the entry was to compute, the likelier a read refreshes it), so a hot key is
+ *   recomputed by one caller while everybody else keeps getting the current value
+ *
+ * Invalidation also cancels loads in progress for the key: their result is handed to the callers
+ * already waiting for it but not kept, so a load that read the database before a write committed
+ * can't put the old value back.
+ *
+ * A loader returning null means "nothing to cache" (e.g. not found); null is returned as is.
+ */
+public class EarlyRefreshCache<K, V> {
+
+    private final long ttlNanos;
+    private final double beta;
+    private final int maxEntries;
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<K, CompletableFuture<V>> loads = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder earlyRefreshes = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+
+    /**
+     * @param ttlMs how long an entry may be served
+     * @param beta how eagerly entries are refreshed before expiry (1.0 is the usual choice, higher is earlier)
+     * @param maxEntries upper bound on cached keys
+     */
+    public EarlyRefreshCache(long ttlMs, double beta, int maxEntries) {
+        if (ttlMs <= 0 || beta < 0 || maxEntries < 1) {
+            throw new IllegalArgumentException("Require ttlMs > 0, beta >= 0 and maxEntries >= 1");
+        }
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.beta = beta;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Cached value for the key, loading it if absent, expired or picked for early refresh
+     */
+    public V get(K key, Supplier<V> loader) {
+        Entry<V> entry = entries.get(key);
+        long now = System.nanoTime();
+
+        if (entry != null && now < entry.expiresAtNanos) {
+            if (!refreshEarly(entry, now)) {
+                hits.increment();
+                return entry.value;
+            }
+            // Only one caller refreshes - the rest keep serving the current value
+            CompletableFuture<V> refresh = new CompletableFuture<>();
+            if (loads.putIfAbsent(key, refresh) != null) {
+                hits.increment();
+                return entry.value;
+            }
+            earlyRefreshes.increment();
+            try {
+                V value = load(key, refresh, loader);
+                return value != null ? value : entry.value;
+            } catch (RuntimeException e) {
+                return entry.value; // Still valid - try again on a later read
+            }
+        }
+
+        misses.increment();
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> inProgress = loads.putIfAbsent(key, load);
+        if (inProgress != null) {
+            return await(inProgress);
+        }
+        return load(key, load, loader);
+    }
+
+    /**
+     * Cached value for the key if it hasn't expired, without loading or counting a request
+     */
+    public V peek(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry != null && System.nanoTime() < entry.expiresAtNanos ? entry.value : null;
+    }
+
+    /**
+     * Drop the key and cancel loads in progress for it
+     */
+    public void invalidate(K key) {
+        // Loads first: a load finishing in between re-checks its registration after storing
+        loads.remove(key);
+        entries.remove(key);
+        invalidations.increment();
+    }
+
+    public void invalidateAll() {
+        loads.clear();
+        entries.clear();
+        invalidations.increment();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEarlyRefreshCount() {
+        return earlyRefreshes.sum();
+    }
+
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    public long getLoadFailureCount() {
+        return loadFailures.sum();
+    }
+
+    private boolean refreshEarly(Entry<V> entry, long now) {
+        // XFetch: now - delta * beta * ln(rand) >= expiry, rand in (0, 1]
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        return now - entry.computeNanos * beta * Math.log(random) >= entry.expiresAtNanos;
+    }
+
+    private V load(K key, CompletableFuture<V> future, Supplier<V> loader) {
+        long start = System.nanoTime();
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException e) {
+            loads.remove(key, future);
+            loadFailures.increment();
+            future.completeExceptionally(e);
+            throw e;
+        }
+        long end = System.nanoTime();
+
+        if (value != null) {
+            Entry<V> entry = new Entry<>(value, end - start, end + ttlNanos);
+            makeRoom();
+            entries.put(key, entry);
+            if (!loads.remove(key, future)) {
+                entries.remove(key, entry); // Invalidated while loading - the value may predate the write
+            }
+        } else {
+            loads.remove(key, future);
+        }
+        future.complete(value);
+        return value;
+    }
+
+    private V await(CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private void makeRoom() {
+        if (entries.size() < maxEntries) {
+            return;
+        }
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> now >= entry.expiresAtNanos);
+        // Still full - drop arbitrary entries, they are reloaded on demand
+        Iterator<K> keys = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private record Entry<V>(V value, long computeNanos, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,49 @@
+package olim.com.restaurantservice.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Page Cursor
+ *
+ * Opaque page cursor handed to clients: the keys of the last row of a page (or a position, for
+ * short lists paged in memory), tagged with what they were taken from (e.g. the sort) so a cursor
+ * isn't replayed against another ordering. Encoded as URL-safe Base64 - clients must not build or
+ * parse them.
+ */
+public final class PageCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private PageCursor() {
+    }
+
+    public static String encode(String tag, Object... keys) {
+        StringBuilder text = new StringBuilder(tag);
+        for (Object key : keys) {
+            text.append(SEPARATOR).append(key);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Keys of a cursor made by {@link #encode(String, Object...)} with the same tag
+     *
+     * @throws RuntimeException if the cursor is malformed or has another tag
+     */
+    public static String[] decode(String cursor, String tag, int keyCount) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\" + SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+        if (parts.length != keyCount + 1 || !parts[0].equals(tag)) {
+            throw new RuntimeException("Invalid cursor - it belongs to another listing or sort order");
+        }
+        String[] keys = new String[keyCount];
+        System.arraycopy(parts, 1, keys, 0, keyCount);
+        return keys;
+    }
+}
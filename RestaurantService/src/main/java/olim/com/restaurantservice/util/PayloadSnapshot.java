@@ -0,0 +1,204 @@
+package olim.com.restaurantservice.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Payload Snapshot
+ *
+ * A response body rendered once and kept as bytes: JSON, gzipped JSON and Smile. Serving it picks
+ * a variant from the request's Accept / Accept-Encoding headers and writes the array as is - no
+ * entity mapping, no Jackson and no compression on the request path.
+ *
+ * Each snapshot has a tag identifying the rendered content - a hash of its JSON bytes, so any
+ * instance rendering the same content gives the same tag; every variant gets its own strong
+ * ETag derived from it. Conditional requests can be answered from a tag alone, see
+ * {@link #isNotModified(HttpHeaders, String)}.
+ *
+ * The arrays are shared between requests and must never be modified.
+ */
+public final class PayloadSnapshot {
+
+    public static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final byte[] json;
+    private final byte[] gzippedJson;
+    private final byte[] smile;
+    private final String tag;
+
+    private PayloadSnapshot(byte[] json, byte[] gzippedJson, byte[] smile, String tag) {
+        this.json = json;
+        this.gzippedJson = gzippedJson;
+        this.smile = smile;
+        this.tag = tag;
+    }
+
+    /**
+     * Render a response body in every variant
+     */
+    public static PayloadSnapshot of(Object body, ObjectMapper jsonMapper, ObjectMapper smileMapper) {
+        try {
+            byte[] json = jsonMapper.writeValueAsBytes(body);
+            return new PayloadSnapshot(json, gzip(json), smileMapper.writeValueAsBytes(body), contentTag(json));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to render payload snapshot: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Tag of the rendered content
+     */
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * 200 response with the variant best matching the request
+     * Smile only when it is listed before JSON (as Order Service does), gzip when accepted.
+     */
+    public ResponseEntity<byte[]> toResponse(HttpHeaders requestHeaders) {
+        Variant variant = Variant.of(requestHeaders);
+        ResponseEntity.BodyBuilder response = headers(ResponseEntity.ok(), tag, variant);
+        return switch (variant) {
+            case SMILE -> response.contentType(SMILE).body(smile);
+            case GZIP -> response.contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(gzippedJson);
+            case JSON -> response.contentType(MediaType.APPLICATION_JSON).body(json);
+        };
+    }
+
+    /**
+     * Whether the request's If-None-Match holds the ETag the given tag has for the variant it would get
+     *
+     * @param tag current tag of the content, null if unknown (never matches)
+     */
+    public static boolean isNotModified(HttpHeaders requestHeaders, String tag) {
+        if (tag == null) {
+            return false;
+        }
+        List<String> ifNoneMatch = requestHeaders.getIfNoneMatch();
+        if (ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        String etag = etag(tag, Variant.of(requestHeaders));
+        for (String candidate : ifNoneMatch) {
+            // If-None-Match uses weak comparison
+            String value = candidate.startsWith("W/") ? candidate.substring(2) : candidate;
+            if (value.equals(etag) || value.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 304 response for a request that passed {@link #isNotModified(HttpHeaders, String)}
+     */
+    public static ResponseEntity<byte[]> notModified(HttpHeaders requestHeaders, String tag) {
+        return headers(ResponseEntity.status(HttpStatus.NOT_MODIFIED), tag, Variant.of(requestHeaders)).build();
+    }
+
+    private static ResponseEntity.BodyBuilder headers(ResponseEntity.BodyBuilder response, String tag, Variant variant) {
+        return response
+                .eTag(etag(tag, variant))
+                // Clients may keep the body but must revalidate - also keeps Spring Security's no-store off
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    private static String etag(String tag, Variant variant) {
+        return "\"" + tag + "-" + variant.name().toLowerCase() + "\"";
+    }
+
+    public int getJsonSize() {
+        return json.length;
+    }
+
+    public int getGzippedJsonSize() {
+        return gzippedJson.length;
+    }
+
+    public int getSmileSize() {
+        return smile.length;
+    }
+
+    /**
+     * Representation picked from the request headers alone, so it is known without the snapshot
+     */
+    private enum Variant {
+        JSON, GZIP, SMILE;
+
+        static Variant of(HttpHeaders requestHeaders) {
+            if (prefersSmile(requestHeaders.getAccept())) {
+                return SMILE;
+            }
+            return acceptsGzip(requestHeaders.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) ? GZIP : JSON;
+        }
+    }
+
+    private static boolean prefersSmile(List<MediaType> accept) {
+        // Header order rather than full q-value sorting - enough for our own clients
+        for (MediaType type : accept) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (SMILE.equalsTypeAndSubtype(type)) {
+                return true;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(List<String> acceptEncoding) {
+        for (String header : acceptEncoding) {
+            for (String coding : header.split(",")) {
+                String[] parts = coding.trim().split(";");
+                if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                    return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * First 128 bits of the SHA-256 of the JSON, URL-safe Base64 - fine for telling versions of one resource apart
+     */
+    private static String contentTag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every JVM has SHA-256
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -3,7 +3,7 @@ package olim.com.restaurantservice;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "bytebites.internal.service-token=test-service-token") // Required, has no default
 class RestaurantServiceApplicationTests {
 
 	@Test
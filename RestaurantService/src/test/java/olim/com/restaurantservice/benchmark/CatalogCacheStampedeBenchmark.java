@@ -0,0 +1,190 @@
+package olim.com.restaurantservice.benchmark;
+
+import olim.com.restaurantservice.util.EarlyRefreshCache;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Catalog cache stampede benchmark: plain TTL cache vs EarlyRefreshCache with and without XFetch
+ *
+ * Reader threads read a skewed set of keys (a few hot restaurants, a long tail) with a short
+ * think time; every load sleeps like a database query. For each variant it reports loads, the
+ * most loads of one key that were running at the same time (the stampede), the hit rate (reads
+ * served without waiting for a load) and read latency percentiles. TTL and load time are scaled down
+ * from production (60 s / tens of ms) to keep the run short but keep a comparable ratio.
+ * Not a unit test - run it directly:
+ *
+ *   mvn test-compile exec:java -Dexec.mainClass=olim.com.restaurantservice.benchmark.CatalogCacheStampedeBenchmark -Dexec.classpathScope=test
+ */
+public class CatalogCacheStampedeBenchmark {
+
+    private static final int READERS = 32;
+    private static final int KEYS = 200;
+    private static final long TTL_MS = 1_000;
+    private static final long LOAD_MS = 20;
+    private static final long THINK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int WARMUP_SECONDS = 3;
+    private static final int MEASURED_SECONDS = 15;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.printf("%d readers, %d keys, ttl %d ms, load %d ms, %d s measured%n%n",
+                READERS, KEYS, TTL_MS, LOAD_MS, MEASURED_SECONDS);
+        System.out.printf("%-18s %10s %8s %12s %12s %9s %9s %9s%n",
+                "variant", "reads", "loads", "max stampede", "hit %", "p99 ms", "p99.9 ms", "max ms");
+
+        run("plain ttl", new PlainTtlCache());
+        run("single-flight", cache(0.0));
+        run("xfetch beta 1", cache(1.0));
+        run("xfetch beta 2", cache(2.0));
+        System.exit(0);
+    }
+
+    private static Cache cache(double beta) {
+        EarlyRefreshCache<Integer, String> cache = new EarlyRefreshCache<>(TTL_MS, beta, KEYS * 2);
+        return cache::get;
+    }
+
+    private static void run(String name, Cache cache) throws InterruptedException {
+        Workload workload = new Workload(cache);
+        workload.drive(WARMUP_SECONDS, false);
+        workload.reset();
+        workload.drive(MEASURED_SECONDS, true);
+        workload.report(name);
+    }
+
+    /**
+     * The part of a cache the workload needs
+     */
+    private interface Cache {
+        String get(Integer key, Supplier<String> loader);
+    }
+
+    /**
+     * Read-through TTL cache without any stampede protection - what a plain map with expiry does
+     */
+    private static class PlainTtlCache implements Cache {
+
+        private final ConcurrentHashMap<Integer, long[]> expiries = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Integer, String> values = new ConcurrentHashMap<>();
+
+        @Override
+        public String get(Integer key, Supplier<String> loader) {
+            long[] expiresAt = expiries.get(key);
+            String value = values.get(key);
+            if (expiresAt != null && value != null && System.nanoTime() < expiresAt[0]) {
+                return value;
+            }
+            value = loader.get();
+            values.put(key, value);
+            expiries.put(key, new long[]{System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TTL_MS)});
+            return value;
+        }
+    }
+
+    /**
+     * Readers and a counting loader around one cache
+     */
+    private static class Workload {
+
+        private final Cache cache;
+        private final AtomicIntegerArray loading = new AtomicIntegerArray(KEYS);
+        private final AtomicInteger maxStampede = new AtomicInteger();
+        private final AtomicLong loads = new AtomicLong();
+        private final long[][] latencies = new long[READERS][];
+        private final int[] counts = new int[READERS];
+
+        Workload(Cache cache) {
+            this.cache = cache;
+        }
+
+        void reset() {
+            maxStampede.set(0);
+            loads.set(0);
+            Arrays.fill(counts, 0);
+        }
+
+        void drive(int seconds, boolean record) throws InterruptedException {
+            long stopAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            CountDownLatch done = new CountDownLatch(READERS);
+            for (int reader = 0; reader < READERS; reader++) {
+                int index = reader;
+                latencies[index] = new long[1 << 14];
+                Thread thread = new Thread(() -> {
+                    try {
+                        read(index, stopAt, record);
+                    } finally {
+                        done.countDown();
+                    }
+                }, "reader-" + reader);
+                thread.setDaemon(true);
+                thread.start();
+            }
+            done.await();
+        }
+
+        private void read(int index, long stopAt, boolean record) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < stopAt) {
+                // Skewed: the first few keys take most of the reads
+                int key = (int) (KEYS * Math.pow(random.nextDouble(), 3));
+                long start = System.nanoTime();
+                cache.get(key, () -> load(key));
+                long elapsed = System.nanoTime() - start;
+                if (record) {
+                    if (counts[index] == latencies[index].length) {
+                        latencies[index] = Arrays.copyOf(latencies[index], counts[index] * 2);
+                    }
+                    latencies[index][counts[index]++] = elapsed;
+                }
+                LockSupport.parkNanos(THINK_NANOS);
+            }
+        }
+
+        private String load(int key) {
+            loads.incrementAndGet();
+            int concurrent = loading.incrementAndGet(key);
+            maxStampede.accumulateAndGet(concurrent, Math::max);
+            try {
+                Thread.sleep(LOAD_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                loading.decrementAndGet(key);
+            }
+            return "restaurant-" + key;
+        }
+
+        void report(String name) {
+            int total = Arrays.stream(counts).sum();
+            long[] all = new long[total];
+            int offset = 0;
+            for (int reader = 0; reader < READERS; reader++) {
+                System.arraycopy(latencies[reader], 0, all, offset, counts[reader]);
+                offset += counts[reader];
+            }
+            Arrays.sort(all);
+            long waitedThreshold = TimeUnit.MILLISECONDS.toNanos(LOAD_MS) / 2;
+            long waited = Arrays.stream(all).filter(nanos -> nanos >= waitedThreshold).count();
+
+            System.out.printf("%-18s %,10d %,8d %12d %11.2f%% %9.2f %9.2f %9.2f%n",
+                    name, total, loads.get(), maxStampede.get(), 100.0 - 100.0 * waited / Math.max(total, 1),
+                    percentile(all, 0.99), percentile(all, 0.999), total == 0 ? 0 : all[total - 1] / 1_000_000.0);
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[Math.min(sorted.length - 1, (int) (sorted.length * percentile))] / 1_000_000.0;
+        }
+    }
+}
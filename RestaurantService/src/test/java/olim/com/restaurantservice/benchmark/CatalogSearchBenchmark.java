@@ -0,0 +1,199 @@
+package olim.com.restaurantservice.benchmark;
+
+import olim.com.restaurantservice.entity.Restaurant;
+import olim.com.restaurantservice.search.ColumnarCatalog;
+import olim.com.restaurantservice.search.GeoGrid;
+import olim.com.restaurantservice.search.SuggestionTrie;
+import olim.com.restaurantservice.search.TextIndex;
+import olim.com.restaurantservice.service.CatalogSearch.Location;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * In-memory catalog search benchmark: text index, suggestions, geo grid and columnar browse
+ *
+ * Builds each structure from synthetic data (fixed seed) the size the production notes talk about,
+ * prints the heap it retains, then times queries on one thread: median and p99 latency over a
+ * query mix. Data and queries stand in for a catalog of many similar names - a 30-word vocabulary -
+ * which is the hard case for an inverted index. Not a unit test - run it directly (needs about
+ * 2 GB of heap for the million menu items):
+ *
+ *   mvn test-compile exec:java -Dexec.mainClass=olim.com.restaurantservice.benchmark.CatalogSearchBenchmark -Dexec.classpathScope=test
+ */
+public class CatalogSearchBenchmark {
+
+    private static final String[] WORDS = {
+            "golden", "dragon", "pizza", "palace", "burger", "grill", "house", "kitchen", "garden", "spice",
+            "corner", "express", "royal", "fresh", "urban", "bistro", "cafe", "noodle", "sushi", "taco",
+            "curry", "bakery", "deli", "smoke", "fire", "ocean", "green", "lotus", "mama", "street"};
+    private static final String[] DISHES = {
+            "margherita pizza", "chicken curry", "beef burger", "caesar salad", "pad thai", "fish tacos",
+            "lamb kebab", "veggie wrap", "ramen bowl", "fried rice", "tomato soup", "chocolate cake",
+            "garlic bread", "spring rolls", "grilled salmon", "mushroom risotto", "chicken wings",
+            "falafel plate", "beef stew", "fruit smoothie"};
+
+    private static final int RESTAURANTS = 100_000;
+    private static final int MENU_ITEMS_PER_RESTAURANT = 10;
+    private static final int GEO_RESTAURANTS = 50_000;
+    private static final int WARMUP_QUERIES = 2_000;
+    private static final int MEASURED_QUERIES = 5_000;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        String[] names = new String[RESTAURANTS];
+        for (int i = 0; i < RESTAURANTS; i++) {
+            names[i] = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + (random.nextInt(4) == 0 ? " " + WORDS[random.nextInt(WORDS.length)] : "");
+        }
+
+        System.out.printf("%-44s %10s %10s %10s%n", "query", "median ms", "p99 ms", "results");
+        textIndex(names, random);
+        suggestions(names, random);
+        geoGrid(random);
+        columnarCatalog(random);
+        System.exit(0);
+    }
+
+    private static void textIndex(String[] names, Random random) {
+        TextIndex restaurants = new TextIndex();
+        TextIndex menuItems = new TextIndex();
+        long before = usedHeap();
+        for (int i = 0; i < names.length; i++) {
+            restaurants.put(i, names[i]);
+        }
+        long restaurantBytes = usedHeap() - before;
+        long itemId = 0;
+        for (int restaurant = 0; restaurant < 2_000; restaurant++) {
+            for (int item = 0; item < 50; item++) {
+                menuItems.put(itemId++, restaurant, DISHES[random.nextInt(DISHES.length)] + " " + item);
+            }
+        }
+        System.out.printf("text index: %,d restaurant names, %,d KB retained%n", restaurants.size(), restaurantBytes / 1024);
+
+        time("name, common word (~7% of names)", () -> restaurants.search(WORDS[random.nextInt(WORDS.length)], 100).size());
+        time("name, two common words", () -> restaurants.search(WORDS[random.nextInt(WORDS.length)] + " "
+                + WORDS[random.nextInt(WORDS.length)], 100).size());
+        time("name, 2-char prefix", () -> restaurants.search(WORDS[random.nextInt(WORDS.length)].substring(0, 2), 100).size());
+        time("name, inside a word (trigrams)", () -> {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            return restaurants.search(word.substring(1, Math.min(word.length(), 5)), 100).size();
+        });
+        time("name, no match", () -> restaurants.search("zzyzx", 100).size());
+        time("menu, within one restaurant (50 items)", () -> menuItems.search(
+                DISHES[random.nextInt(DISHES.length)].split(" ")[0], random.nextInt(2_000), 100).size());
+    }
+
+    private static void suggestions(String[] names, Random random) {
+        SuggestionTrie trie = new SuggestionTrie();
+        long before = usedHeap();
+        for (String name : names) {
+            trie.add(SuggestionTrie.Kind.RESTAURANT, name, null);
+        }
+        for (Restaurant.CuisineType cuisine : Restaurant.CuisineType.values()) {
+            trie.add(SuggestionTrie.Kind.CUISINE, cuisine.name().toLowerCase(), cuisine.name());
+        }
+        for (int i = 0; i < RESTAURANTS * MENU_ITEMS_PER_RESTAURANT; i++) {
+            trie.add(SuggestionTrie.Kind.DISH, DISHES[random.nextInt(DISHES.length)] + " " + random.nextInt(2_000), null);
+        }
+        System.out.printf("%nsuggestions: %,d distinct phrases from %,d restaurants and %,d menu items, %,d KB retained%n",
+                trie.size(), RESTAURANTS, RESTAURANTS * MENU_ITEMS_PER_RESTAURANT, (usedHeap() - before) / 1024);
+
+        time("prefix, 3 chars", () -> trie.complete(WORDS[random.nextInt(WORDS.length)].substring(0, 3), 10).size());
+        time("prefix, two words", () -> trie.complete(WORDS[random.nextInt(WORDS.length)] + " "
+                + WORDS[random.nextInt(WORDS.length)].substring(0, 2), 10).size());
+        time("1 typo, 5 chars", () -> trie.complete(typo(WORDS[random.nextInt(WORDS.length)], random, 1), 10).size());
+        time("2 typos, dish name", () -> trie.complete(typo(DISHES[random.nextInt(DISHES.length)], random, 2), 10).size());
+    }
+
+    private static void geoGrid(Random random) {
+        // A 33 x 33 km area around Kigali
+        double latitude0 = -1.95;
+        double longitude0 = 30.06;
+        double spanDegrees = 33 / 111.32;
+        Restaurant.CuisineType[] cuisines = Restaurant.CuisineType.values();
+
+        GeoGrid<Location> grid = new GeoGrid<>(2.0);
+        long before = usedHeap();
+        for (int i = 0; i < GEO_RESTAURANTS; i++) {
+            grid.put(i, latitude0 + (random.nextDouble() - 0.5) * spanDegrees,
+                    longitude0 + (random.nextDouble() - 0.5) * spanDegrees, 3 + random.nextDouble() * 5,
+                    new Location(random.nextInt(5) != 0, cuisines[random.nextInt(cuisines.length)]));
+        }
+        System.out.printf("%ngeo grid: %,d restaurants, 3-8 km radii, 2 km cells, %,d KB retained%n",
+                grid.size(), (usedHeap() - before) / 1024);
+
+        time("nearby, open, one cuisine, 20 results", () -> {
+            Restaurant.CuisineType cuisine = cuisines[random.nextInt(cuisines.length)];
+            return grid.reaching(latitude0 + (random.nextDouble() - 0.5) * spanDegrees,
+                    longitude0 + (random.nextDouble() - 0.5) * spanDegrees, Double.MAX_VALUE,
+                    location -> location.open() && location.cuisineType() == cuisine, 20).size();
+        });
+        time("nearby, open, any cuisine, 20 results", () -> grid.reaching(
+                latitude0 + (random.nextDouble() - 0.5) * spanDegrees, longitude0 + (random.nextDouble() - 0.5) * spanDegrees,
+                Double.MAX_VALUE, Location::open, 20).size());
+    }
+
+    private static void columnarCatalog(Random random) {
+        int cuisineCount = Restaurant.CuisineType.values().length;
+        ColumnarCatalog catalog = new ColumnarCatalog(cuisineCount);
+        long before = usedHeap();
+        for (int i = 0; i < RESTAURANTS; i++) {
+            catalog.put(i, random.nextInt(cuisineCount), random.nextInt(5) != 0, 250 + random.nextInt(251),
+                    random.nextInt(800), random.nextInt(3_000));
+            catalog.setVegetarian(i, random.nextInt(3) == 0);
+        }
+        System.out.printf("%ncolumnar catalog: %,d restaurants, %,d KB retained%n", catalog.size(), (usedHeap() - before) / 1024);
+
+        time("browse, flags only, by rating", () -> catalog.query(new ColumnarCatalog.Filter(
+                null, true, true, null, null, null), ColumnarCatalog.Sort.RATING, 0, 20).total());
+        time("browse, 2 cuisines + flags", () -> catalog.query(new ColumnarCatalog.Filter(
+                new int[]{random.nextInt(cuisineCount), random.nextInt(cuisineCount)}, true, null, null, null, null),
+                ColumnarCatalog.Sort.RATING, 0, 20).total());
+        time("browse, ranges + flags, by delivery fee", () -> catalog.query(new ColumnarCatalog.Filter(
+                null, true, null, 400, 300, 1_500), ColumnarCatalog.Sort.DELIVERY_FEE, 0, 20).total());
+        time("browse, cuisine + ranges, page 10", () -> catalog.query(new ColumnarCatalog.Filter(
+                new int[]{random.nextInt(cuisineCount)}, null, null, 350, null, 2_000), ColumnarCatalog.Sort.MINIMUM_ORDER, 200, 20).total());
+    }
+
+    /**
+     * Run the query repeatedly and print median / p99 latency and the average result count
+     */
+    private static void time(String name, Supplier<Integer> query) {
+        long results = 0;
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            results += query.get();
+        }
+        results = 0;
+        long[] nanos = new long[MEASURED_QUERIES];
+        for (int i = 0; i < MEASURED_QUERIES; i++) {
+            long start = System.nanoTime();
+            results += query.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-44s %10.3f %10.3f %10.1f%n", name, nanos[nanos.length / 2] / 1_000_000.0,
+                nanos[(int) (nanos.length * 0.99)] / 1_000_000.0, results / (double) MEASURED_QUERIES);
+    }
+
+    /**
+     * The text with the given number of characters replaced, away from the first character
+     */
+    private static String typo(String text, Random random, int edits) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < edits; i++) {
+            int position = 1 + random.nextInt(chars.length - 1);
+            chars[position] = chars[position] == ' ' ? ' ' : (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
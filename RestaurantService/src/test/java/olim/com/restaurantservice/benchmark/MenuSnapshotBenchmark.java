@@ -0,0 +1,147 @@
+package olim.com.restaurantservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import olim.com.restaurantservice.dto.MenuItemDto.SimpleMenuItemResponse;
+import olim.com.restaurantservice.dto.RestaurantDto.ApiResponse;
+import olim.com.restaurantservice.entity.MenuItem;
+import olim.com.restaurantservice.entity.Restaurant;
+import olim.com.restaurantservice.util.PayloadSnapshot;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Menu response benchmark: render per request vs pre-rendered snapshot
+ *
+ * Measures, on one thread, the work the menu endpoint does per request once the rows are loaded:
+ * - render: map entities to SimpleMenuItemResponse, wrap in ApiResponse, serialize with Jackson
+ *   (and gzip, for the variant a compressing server would send)
+ * - snapshot: pick the PayloadSnapshot variant and write its bytes
+ * Reports requests/sec and bytes allocated per request (HotSpot thread allocation counter).
+ * Handler cost only - HTTP and database time are the same for both and left out. Run it directly:
+ *
+ *   mvn test-compile exec:java -Dexec.mainClass=olim.com.restaurantservice.benchmark.MenuSnapshotBenchmark -Dexec.classpathScope=test
+ */
+public class MenuSnapshotBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 50_000;
+    private static final int MEASURED_ITERATIONS = 200_000;
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper json = configure(new ObjectMapper());
+        ObjectMapper smile = configure(new ObjectMapper(new SmileFactory()));
+        OutputStream socket = new DiscardingOutputStream();
+
+        List<MenuItem> menu = menu(40);
+        PayloadSnapshot snapshot = PayloadSnapshot.of(render(menu), json, smile);
+
+        HttpHeaders browser = new HttpHeaders();
+        browser.set(HttpHeaders.ACCEPT, "application/json, text/plain, */*");
+        HttpHeaders gzipBrowser = new HttpHeaders();
+        gzipBrowser.putAll(browser);
+        gzipBrowser.set(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
+
+        System.out.printf("menu of %d items: json %d bytes, gzip %d bytes, smile %d bytes%n%n", menu.size(),
+                snapshot.getJsonSize(), snapshot.getGzippedJsonSize(), snapshot.getSmileSize());
+        System.out.printf("%-28s %14s %16s%n", "path", "requests/sec", "bytes alloc/req");
+
+        run("render json", () -> {
+            byte[] body = json.writeValueAsBytes(render(menu));
+            socket.write(body);
+            return body.length;
+        });
+        run("render json + gzip", () -> {
+            byte[] body = json.writeValueAsBytes(render(menu));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(socket)) {
+                gzip.write(body);
+            }
+            return body.length;
+        });
+        run("snapshot json", () -> write(snapshot.toResponse(browser), socket));
+        run("snapshot gzip", () -> write(snapshot.toResponse(gzipBrowser), socket));
+    }
+
+    private static ObjectMapper configure(ObjectMapper mapper) {
+        return mapper.findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static ApiResponse<List<SimpleMenuItemResponse>> render(List<MenuItem> menu) {
+        return ApiResponse.success("Menu retrieved successfully", menu.stream()
+                .map(SimpleMenuItemResponse::new)
+                .toList());
+    }
+
+    private static int write(ResponseEntity<byte[]> response, OutputStream socket) throws Exception {
+        socket.write(response.getBody());
+        return response.getBody().length;
+    }
+
+    private static void run(String name, Request request) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long sink = 0;
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += request.handle();
+        }
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink += request.handle();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        System.out.printf("%-28s %14.0f %16d%s%n", name, MEASURED_ITERATIONS * 1e9 / elapsedNanos,
+                allocated / MEASURED_ITERATIONS, sink == 42 ? " " : ""); // Keep the JIT from dropping the work
+    }
+
+    private static List<MenuItem> menu(int size) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(1L);
+        restaurant.setName("Mama's Kitchen");
+
+        MenuItem.Category[] categories = MenuItem.Category.values();
+        List<MenuItem> items = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            MenuItem item = new MenuItem();
+            item.setId((long) i);
+            item.setName("Dish number " + i);
+            item.setDescription("Freshly prepared with seasonal ingredients (" + i + ")");
+            item.setPrice(BigDecimal.valueOf(500 + i * 37L, 2));
+            item.setCategory(categories[i % categories.length]);
+            item.setVegetarian(i % 3 == 0);
+            item.setRestaurant(restaurant);
+            items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * Stands in for the response stream - discards bytes, survives close()
+     */
+    private static class DiscardingOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        int handle() throws Exception;
+    }
+}
@@ -0,0 +1,112 @@
+package olim.com.restaurantservice.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import olim.com.restaurantservice.dto.MenuItemDto.MenuItemResponse;
+import olim.com.restaurantservice.dto.RestaurantDto.ApiResponse;
+import olim.com.restaurantservice.dto.RestaurantDto.RestaurantDetailResponse;
+import olim.com.restaurantservice.entity.MenuItem;
+import olim.com.restaurantservice.entity.Restaurant;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JSON vs Smile benchmark for the payloads Order Service reads from Restaurant Service
+ *
+ * Compares payload size and encode / decode time for a restaurant detail response and a
+ * batch (full menu) response. Not a unit test - run it directly:
+ *
+ *   mvn test-compile exec:java -Dexec.mainClass=olim.com.restaurantservice.benchmark.WireFormatBenchmark -Dexec.classpathScope=test
+ *
+ * Mappers are configured like the application's (java.time module, ISO dates). Times are the
+ * median of several measured rounds, as single rounds vary a lot on a busy or small machine.
+ */
+public class WireFormatBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 20_000;
+    private static final int MEASURED_ROUNDS = 7;
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper json = configure(new ObjectMapper());
+        ObjectMapper smile = configure(new ObjectMapper(new SmileFactory()));
+
+        List<MenuItemResponse> menu = menu(40);
+        ApiResponse<RestaurantDetailResponse> detail = ApiResponse.success("Restaurant retrieved successfully",
+                new RestaurantDetailResponse(1L, "Mama's Kitchen", "Home-style Italian cooking since 1998",
+                        "12 KG 7 Ave, Kigali", "+250788000111", Restaurant.CuisineType.ITALIAN, true,
+                        new BigDecimal("2.99"), new BigDecimal("10.00"), new BigDecimal("4.6"),
+                        -1.9441, 30.0619, 5.0,
+                        LocalDateTime.of(2025, 6, 1, 12, 0), menu.subList(0, 8)));
+        ApiResponse<List<MenuItemResponse>> batch = ApiResponse.success("Menu items retrieved successfully", menu);
+
+        System.out.printf("%-16s %-6s %10s %14s %14s%n", "payload", "format", "bytes", "encode ns/op", "decode ns/op");
+        run("restaurant", detail, json, smile,
+                json.getTypeFactory().constructParametricType(ApiResponse.class, RestaurantDetailResponse.class));
+        run("menu (40 items)", batch, json, smile,
+                json.getTypeFactory().constructParametricType(ApiResponse.class,
+                        json.getTypeFactory().constructCollectionType(List.class, MenuItemResponse.class)));
+    }
+
+    private static ObjectMapper configure(ObjectMapper mapper) {
+        return mapper.findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static void run(String name, Object payload, ObjectMapper json, ObjectMapper smile, JavaType type)
+            throws Exception {
+        for (ObjectMapper mapper : List.of(json, smile)) {
+            byte[] encoded = mapper.writeValueAsBytes(payload);
+            long sink = 0;
+
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                sink += mapper.writeValueAsBytes(payload).length;
+                sink += mapper.readValue(encoded, type).hashCode();
+            }
+
+            long[] encodeNanos = new long[MEASURED_ROUNDS];
+            long[] decodeNanos = new long[MEASURED_ROUNDS];
+            for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                long start = System.nanoTime();
+                for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                    sink += mapper.writeValueAsBytes(payload).length;
+                }
+                encodeNanos[round] = (System.nanoTime() - start) / MEASURED_ITERATIONS;
+
+                start = System.nanoTime();
+                for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                    sink += mapper.readValue(encoded, type).hashCode();
+                }
+                decodeNanos[round] = (System.nanoTime() - start) / MEASURED_ITERATIONS;
+            }
+
+            String format = mapper == json ? "json" : "smile";
+            System.out.printf("%-16s %-6s %10d %14d %14d%s%n", name, format, encoded.length,
+                    median(encodeNanos), median(decodeNanos),
+                    sink == 42 ? " " : ""); // Keep the JIT from dropping the work
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static List<MenuItemResponse> menu(int size) {
+        MenuItem.Category[] categories = MenuItem.Category.values();
+        List<MenuItemResponse> items = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            items.add(new MenuItemResponse((long) i, "Dish number " + i,
+                    "Freshly prepared with seasonal ingredients (" + i + ")",
+                    BigDecimal.valueOf(500 + i * 37L, 2), categories[i % categories.length],
+                    i % 7 != 0, i % 3 == 0, 1L, "Mama's Kitchen", LocalDateTime.of(2025, 6, 1, 12, 0)));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,130 @@
+package olim.com.restaurantservice.search;
+
+import olim.com.restaurantservice.search.SuggestionTrie.Kind;
+import olim.com.restaurantservice.search.SuggestionTrie.Suggestion;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Prefix and typo-tolerant completion, weights and pruning of the suggestion trie
+ */
+class SuggestionTrieTests {
+
+    @Test
+    void completesEveryWordStart() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.add(Kind.RESTAURANT, "Golden Dragon", null);
+
+        assertEquals(List.of("Golden Dragon"), texts(trie.complete("gol", 5)));
+        assertEquals(List.of("Golden Dragon"), texts(trie.complete("dra", 5)));
+        assertEquals(List.of("Golden Dragon"), texts(trie.complete("golden d", 5)));
+    }
+
+    @Test
+    void toleratesOneEditFromFourCharacters() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.add(Kind.RESTAURANT, "Golden Dragon", null);
+
+        assertEquals(List.of("Golden Dragon"), texts(trie.complete("drgon", 5)));   // Deletion
+        assertEquals(List.of("Golden Dragon"), texts(trie.complete("drazon", 5)));  // Substitution
+        assertEquals(List.of("Golden Dragon"), texts(trie.complete("draggon", 5))); // Insertion
+        assertEquals(List.of("Golden Dragon"), texts(trie.complete("dargon", 5)));  // Transposition
+        assertEquals(List.of(), texts(trie.complete("drg", 5)));                    // Too short for typos
+        assertEquals(List.of(), texts(trie.complete("dxxgon", 5)));                 // Two edits in six characters
+    }
+
+    @Test
+    void toleratesTwoEditsFromSevenCharacters() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.add(Kind.RESTAURANT, "Golden Dragon", null);
+
+        assertEquals(List.of("Golden Dragon"), texts(trie.complete("goldn drgon", 5)));
+        assertEquals(List.of("Golden Dragon"), texts(trie.complete("golden darogn", 5)));
+        assertEquals(List.of(), texts(trie.complete("goldn drgn", 5)));
+    }
+
+    @Test
+    void ranksCloserMatchesBeforeHeavierOnes() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.add(Kind.RESTAURANT, "Pasta House", null);
+        for (int i = 0; i < 3; i++) {
+            trie.add(Kind.RESTAURANT, "Pista Palace", null);
+        }
+
+        assertEquals(List.of("Pasta House", "Pista Palace"), texts(trie.complete("pasta", 5)));
+        assertEquals(List.of("Pista Palace", "Pasta House"), texts(trie.complete("pista", 5)));
+        assertEquals(List.of("Pasta House"), texts(trie.complete("pasta", 1)));
+    }
+
+    @Test
+    void keepsKindsApartAndRanksByWeight() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.add(Kind.RESTAURANT, "Italian", null);
+        trie.add(Kind.CUISINE, "Italian", "ITALIAN");
+        trie.add(Kind.CUISINE, "italian ", "ignored");
+
+        assertEquals(2, trie.size());
+        assertEquals(List.of(new Suggestion("Italian", Kind.CUISINE, "ITALIAN", 2),
+                        new Suggestion("Italian", Kind.RESTAURANT, null, 1)),
+                trie.complete("ital", 5));
+    }
+
+    @Test
+    void lowersWeightsAndDropsPhrasesAtZero() {
+        SuggestionTrie trie = new SuggestionTrie();
+        for (int i = 0; i < 3; i++) {
+            trie.add(Kind.RESTAURANT, "Pizza Palace", null);
+        }
+        trie.add(Kind.RESTAURANT, "Pizza Hut", null);
+        assertEquals(List.of(new Suggestion("Pizza Palace", Kind.RESTAURANT, null, 3),
+                        new Suggestion("Pizza Hut", Kind.RESTAURANT, null, 1)),
+                trie.complete("pizza", 5));
+
+        trie.remove(Kind.RESTAURANT, "Pizza Palace");
+        trie.remove(Kind.RESTAURANT, "Pizza Palace");
+        // Same weight - shorter first
+        assertEquals(List.of(new Suggestion("Pizza Hut", Kind.RESTAURANT, null, 1),
+                        new Suggestion("Pizza Palace", Kind.RESTAURANT, null, 1)),
+                trie.complete("pizza", 5));
+
+        trie.remove(Kind.RESTAURANT, "Pizza Palace");
+        assertEquals(1, trie.size());
+        assertEquals(List.of("Pizza Hut"), texts(trie.complete("pizza", 5)));
+        assertEquals(List.of(), texts(trie.complete("palace", 5)));
+
+        trie.remove(Kind.RESTAURANT, "Pizza Palace"); // Already gone
+        trie.remove(Kind.CUISINE, "Pizza Hut");       // Never added as a cuisine
+        assertEquals(List.of("Pizza Hut"), texts(trie.complete("hut", 5)));
+    }
+
+    @Test
+    void prunesNodesNoPhraseNeedsAnyMore() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.add(Kind.RESTAURANT, "Golden Dragon", null);
+        trie.add(Kind.DISH, "Pizza Hut", null);
+        trie.add(Kind.DISH, "Pizza Hut", null);
+        Object root = ReflectionTestUtils.getField(trie, "root");
+        assertEquals(4, ReflectionTestUtils.getField(root, "size")); // g, d, p, h
+        assertEquals(2, ReflectionTestUtils.getField(root, "maxWeight"));
+
+        trie.remove(Kind.DISH, "Pizza Hut");
+        assertEquals(4, ReflectionTestUtils.getField(root, "size"));
+        assertEquals(1, ReflectionTestUtils.getField(root, "maxWeight"));
+
+        trie.remove(Kind.RESTAURANT, "Golden Dragon");
+        assertEquals(2, ReflectionTestUtils.getField(root, "size"));
+
+        trie.remove(Kind.DISH, "Pizza Hut");
+        assertEquals(0, ReflectionTestUtils.getField(root, "size"));
+        assertEquals(0, ReflectionTestUtils.getField(root, "maxWeight"));
+        assertEquals(0, trie.size());
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::text).toList();
+    }
+}
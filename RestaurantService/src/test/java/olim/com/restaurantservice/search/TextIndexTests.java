@@ -0,0 +1,151 @@
+package olim.com.restaurantservice.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Matching, ranking and maintenance of the in-memory text index
+ */
+class TextIndexTests {
+
+    @Test
+    void dropsDocumentsThatHaveTheTrigramsButNotTheTerm() {
+        TextIndex index = new TextIndex();
+        index.put(1, "Cabxabc Grill");
+        index.put(2, "Cabcab Diner");
+
+        // "cab" and "abc" are both in "cabxabc", "cabc" is not
+        assertEquals(List.of(2L), index.search("cabc", 10));
+        assertEquals(List.of(), index.search("cabxc", 10));
+    }
+
+    @Test
+    void matchesTermsAnywhereInsideTokens() {
+        TextIndex index = new TextIndex();
+        index.put(1, "Seafood Shack");
+        index.put(2, "Food Corner");
+
+        // Whole token before inside a token
+        assertEquals(List.of(2L, 1L), index.search("food", 10));
+        assertEquals(List.of(1L), index.search("afoo", 10));
+    }
+
+    @Test
+    void matchesShortTermsAsTokenPrefixes() {
+        TextIndex index = new TextIndex();
+        index.put(1, "Pizza Palace");
+        index.put(2, "Spicy Grill");
+        index.put(3, "Golden Pi");
+
+        assertEquals(List.of(3L, 1L), index.search("pi", 10));
+        assertEquals(List.of(2L), index.search("g sp", 10));
+        // Narrowed down by the longer term first
+        assertEquals(List.of(1L), index.search("palace pi", 10));
+        assertEquals(List.of(), index.search("palace sp", 10));
+    }
+
+    @Test
+    void ignoresCaseAndAccents() {
+        TextIndex index = new TextIndex();
+        index.put(1, "Crème Brûlée Café");
+
+        assertEquals(List.of(1L), index.search("CREME brulee", 10));
+        assertEquals(List.of(1L), index.search("café", 10));
+    }
+
+    @Test
+    void ranksPrefixOfTextFirstThenShorterTexts() {
+        TextIndex index = new TextIndex();
+        index.put(1, "The Burger Place");
+        index.put(2, "Burger Barn and Grill");
+        index.put(3, "Burger Hut");
+
+        assertEquals(List.of(3L, 2L, 1L), index.search("burger", 10));
+        assertEquals(List.of(3L, 2L), index.search("burger", 2));
+    }
+
+    @Test
+    void limitsSearchesToGroup() {
+        TextIndex index = new TextIndex();
+        index.put(1, 10, "Margherita Pizza");
+        index.put(2, 20, "Pepperoni Pizza");
+        index.put(3, "Pizza Without Group");
+
+        assertEquals(List.of(1L), index.search("pizza", 10, 10));
+        assertEquals(List.of(2L), index.search("pe", 20, 10));
+        assertEquals(List.of(), index.search("pizza", 30, 10));
+    }
+
+    @Test
+    void removeGroupDropsEveryDocumentOfIt() {
+        TextIndex index = new TextIndex();
+        index.put(1, 10, "Margherita Pizza");
+        index.put(2, 10, "Garlic Bread");
+        index.put(3, 20, "Hawaiian Pizza");
+
+        index.removeGroup(10);
+
+        assertEquals(1, index.size());
+        assertEquals(List.of(3L), index.search("pizza", 10));
+        assertEquals(List.of(), index.search("garlic", 10));
+        assertEquals(List.of(), index.search("pizza", 10, 10));
+
+        // The group can be filled again
+        index.put(1, 10, "Margherita Pizza");
+        assertEquals(List.of(1L), index.search("pizza", 10, 10));
+    }
+
+    @Test
+    void replacesAndRemovesAcrossCompaction() {
+        TextIndex index = new TextIndex();
+        int documents = 1500;
+        for (int id = 0; id < documents; id++) {
+            index.put(id, id % 3, "Kitchen " + id);
+        }
+        int live = documents;
+        for (int id = 0; id < documents; id += 2) {
+            index.put(id, id % 3, "Renamed " + id); // Every replacement leaves a tombstone
+        }
+        for (int id = 1; id < documents; id += 2) {
+            if (id % 4 == 1 || id % 8 == 3) {
+                index.remove(id);
+                live--;
+            }
+        }
+        index.put(documents, 0, "Latecomer"); // Tombstones now outnumber live documents
+
+        assertEquals(0, ReflectionTestUtils.getField(index, "tombstones"), "index was not compacted");
+        assertEquals(live + 1, index.size());
+
+        assertEquals(List.of(), index.search("kitchen 1000", 10));
+        assertEquals(List.of(1000L), index.search("renamed 1000", 10));
+        assertEquals(List.of(), index.search("kitchen 1001", 10));
+        assertEquals(List.of(1007L), index.search("kitchen 1007", 10));
+        assertEquals(List.of(1007L), index.search("kitchen 1007", 2, 10));
+        assertEquals(List.of(1500L), index.search("latecomer", 0, 10));
+
+        // Renumbered documents can still be replaced and removed
+        index.put(1007, 2, "Moved After Compaction");
+        index.remove(1015);
+        assertEquals(List.of(1007L), index.search("moved", 2, 10));
+        assertEquals(List.of(), index.search("kitchen 1007", 10));
+        assertEquals(List.of(), index.search("kitchen 1015", 10));
+        assertEquals(live, index.size());
+    }
+
+    @Test
+    void ignoresBlankTextAndQueries() {
+        TextIndex index = new TextIndex();
+        index.put(1, "Pizza Palace");
+        index.put(1, "  ");
+
+        assertEquals(0, index.size());
+        assertTrue(index.search("pizza", 10).isEmpty());
+        assertTrue(index.search(" - ", 10).isEmpty());
+    }
+}